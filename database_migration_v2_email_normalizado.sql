@@ -0,0 +1,61 @@
+-- ====================================
+-- SISTEMA ACADÉMICO - MIGRACIÓN V2
+-- Email normalizado en personas
+-- Aplicar sobre una base creada con database_script.sql
+-- ====================================
+-- Las consultas de MatriculaRepositoryJpa filtraban con LOWER(a.email) = LOWER(:email),
+-- lo que impide usar el índice de personas.email. Ahora comparan contra la columna
+-- email_normalizado (TRIM + LOWER del email), mantenida por la aplicación y por triggers.
+
+USE sistema_academico;
+
+-- 1. Nueva columna (nullable mientras se completa)
+ALTER TABLE personas
+    ADD COLUMN email_normalizado VARCHAR(100) NULL AFTER email;
+
+-- 2. Backfill con la misma normalización que PersonaEntity.normalizarEmail
+UPDATE personas
+SET email_normalizado = LOWER(TRIM(email))
+WHERE email_normalizado IS NULL;
+
+-- 3. Restricciones e índice único para búsquedas por igualdad (index seek)
+ALTER TABLE personas
+    MODIFY COLUMN email_normalizado VARCHAR(100) NOT NULL;
+
+CREATE UNIQUE INDEX uk_personas_email_normalizado ON personas(email_normalizado);
+
+-- 4. Triggers para escrituras que no pasan por JPA (scripts, procedimientos)
+DROP TRIGGER IF EXISTS tr_personas_before_insert;
+DROP TRIGGER IF EXISTS tr_personas_before_update;
+
+DELIMITER //
+CREATE TRIGGER tr_personas_before_insert
+BEFORE INSERT ON personas
+                             FOR EACH ROW
+BEGIN
+    SET NEW.email_normalizado = LOWER(TRIM(NEW.email));
+END //
+
+CREATE TRIGGER tr_personas_before_update
+BEFORE UPDATE ON personas
+                             FOR EACH ROW
+BEGIN
+    SET NEW.email_normalizado = LOWER(TRIM(NEW.email));
+    SET NEW.fecha_actualizacion = CURRENT_TIMESTAMP;
+    SET NEW.usuario_actualizacion = CURRENT_USER();
+END //
+DELIMITER ;
+
+-- ====================================
+-- VERIFICACIÓN
+-- ====================================
+
+-- Debe mostrar type=const / key=uk_personas_email_normalizado para personas
+EXPLAIN
+SELECT m.*
+FROM matriculas m
+         INNER JOIN alumnos a ON a.id = m.alumno_id
+         INNER JOIN personas p ON p.id = a.id
+WHERE p.email_normalizado = LOWER(TRIM('Juan.Perez@universidad.edu.pe'));
+
+COMMIT;
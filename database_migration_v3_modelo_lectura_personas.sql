@@ -0,0 +1,65 @@
+-- ====================================
+-- SISTEMA ACADÉMICO - MIGRACIÓN V3
+-- Modelo de lectura plano para alumnos y profesores
+-- Aplicar sobre una base migrada con database_migration_v2_email_normalizado.sql
+-- ====================================
+-- Las búsquedas de matrículas por email o código de estudiante recorrían
+-- matriculas -> alumnos -> personas (herencia JOINED). alumnos_lectura y
+-- profesores_lectura replican cada subtipo en una sola fila, mantenida por
+-- PersonaLecturaListener en la misma transacción que la escritura JPA.
+
+USE sistema_academico;
+
+-- 1. Tablas del modelo de lectura (id = personas.id, sin autoincremento)
+CREATE TABLE IF NOT EXISTS alumnos_lectura (
+    id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    email_normalizado VARCHAR(100) NOT NULL,
+    codigo_estudiante VARCHAR(20) NOT NULL,
+    semestre_ingreso INT NOT NULL,
+    UNIQUE KEY uk_alumnos_lectura_email_normalizado (email_normalizado),
+    UNIQUE KEY uk_alumnos_lectura_codigo_estudiante (codigo_estudiante)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS profesores_lectura (
+    id BIGINT PRIMARY KEY,
+    nombre VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    email_normalizado VARCHAR(100) NOT NULL,
+    codigo_empleado VARCHAR(20) NOT NULL,
+    especialidad VARCHAR(100) NOT NULL,
+    UNIQUE KEY uk_profesores_lectura_email_normalizado (email_normalizado),
+    UNIQUE KEY uk_profesores_lectura_codigo_empleado (codigo_empleado)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 2. Backfill (misma sentencia que PersonaLecturaJdbc.reconstruir).
+--    Repetir tras cualquier escritura SQL sobre personas que no pase por JPA.
+DELETE FROM alumnos_lectura;
+INSERT INTO alumnos_lectura (id, nombre, email, email_normalizado, codigo_estudiante, semestre_ingreso)
+SELECT p.id, p.nombre, p.email, p.email_normalizado, a.codigo_estudiante, a.semestre_ingreso
+FROM personas p
+         INNER JOIN alumnos a ON a.id = p.id;
+
+DELETE FROM profesores_lectura;
+INSERT INTO profesores_lectura (id, nombre, email, email_normalizado, codigo_empleado, especialidad)
+SELECT p.id, p.nombre, p.email, p.email_normalizado, pr.codigo_empleado, pr.especialidad
+FROM personas p
+         INNER JOIN profesores pr ON pr.id = p.id;
+
+-- ====================================
+-- VERIFICACIÓN
+-- ====================================
+
+-- Deben coincidir con los conteos de alumnos y profesores
+SELECT (SELECT COUNT(*) FROM alumnos) AS alumnos, (SELECT COUNT(*) FROM alumnos_lectura) AS alumnos_lectura,
+       (SELECT COUNT(*) FROM profesores) AS profesores, (SELECT COUNT(*) FROM profesores_lectura) AS profesores_lectura;
+
+-- Debe mostrar type=const / key=uk_alumnos_lectura_email_normalizado y un solo join
+EXPLAIN
+SELECT m.*
+FROM matriculas m
+         INNER JOIN alumnos_lectura a ON a.id = m.alumno_id
+WHERE a.email_normalizado = LOWER(TRIM('Juan.Perez@universidad.edu.pe'));
+
+COMMIT;
@@ -0,0 +1,56 @@
+-- ====================================
+-- SISTEMA ACADÉMICO - MIGRACIÓN V4
+-- Estadísticas de matrícula por curso
+-- Aplicar sobre una base migrada con database_migration_v3_modelo_lectura_personas.sql
+-- ====================================
+-- Matrículas activas, tasa de aprobación y nota promedio se leían agregando todas
+-- las matrículas del curso. cursos_estadisticas guarda los contadores de cada curso;
+-- la aplicación les suma un delta en la misma transacción que cada escritura y una
+-- reconciliación periódica corrige las desviaciones.
+
+USE sistema_academico;
+
+-- 1. Tabla de contadores (una fila por curso con matrículas)
+CREATE TABLE IF NOT EXISTS cursos_estadisticas (
+    curso_id BIGINT PRIMARY KEY,
+    matriculas_total BIGINT NOT NULL,
+    matriculas_activas BIGINT NOT NULL,
+    calificadas BIGINT NOT NULL,
+    aprobadas BIGINT NOT NULL,
+    suma_notas DECIMAL(14,2) NOT NULL,
+    fecha_actualizacion TIMESTAMP NOT NULL,
+    INDEX idx_cursos_estadisticas_activas (matriculas_activas)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 2. Backfill con la nota aprobatoria por defecto (cursos.estadisticas.nota-aprobatoria=10.5)
+--    Equivale a la primera ejecución de POST /api/cursos/estadisticas/reconciliar
+INSERT INTO cursos_estadisticas (curso_id, matriculas_total, matriculas_activas, calificadas,
+                                 aprobadas, suma_notas, fecha_actualizacion)
+SELECT curso_id,
+       COUNT(*),
+       SUM(CASE WHEN estado = 'ACTIVA' THEN 1 ELSE 0 END),
+       COUNT(nota_final),
+       SUM(CASE WHEN nota_final >= 10.5 THEN 1 ELSE 0 END),
+       COALESCE(SUM(nota_final), 0),
+       CURRENT_TIMESTAMP
+FROM matriculas
+GROUP BY curso_id
+ON DUPLICATE KEY UPDATE matriculas_total = VALUES(matriculas_total),
+    matriculas_activas = VALUES(matriculas_activas),
+    calificadas = VALUES(calificadas),
+    aprobadas = VALUES(aprobadas),
+    suma_notas = VALUES(suma_notas),
+    fecha_actualizacion = VALUES(fecha_actualizacion);
+
+-- ====================================
+-- VERIFICACIÓN
+-- ====================================
+
+-- Debe mostrar type=const / key=PRIMARY: una fila por consulta, sin tocar matriculas
+EXPLAIN
+SELECT c.id, c.codigo_curso, c.nombre, e.matriculas_activas, e.aprobadas / e.calificadas AS tasa_aprobacion
+FROM cursos c
+         LEFT JOIN cursos_estadisticas e ON e.curso_id = c.id
+WHERE c.id = 1;
+
+COMMIT;
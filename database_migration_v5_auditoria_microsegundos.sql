@@ -0,0 +1,65 @@
+-- ====================================
+-- SISTEMA ACADÉMICO - MIGRACIÓN V5
+-- fecha_actualizacion con microsegundos (validadores ETag/Last-Modified)
+-- Aplicar sobre una base migrada con database_migration_v4_estadisticas_cursos.sql
+-- ====================================
+-- GET /api/cursos/{id}, /api/cursos/codigo/{codigo}, /api/cursos/todos y
+-- /api/matriculas/{id} calculan su ETag desde fecha_actualizacion (y el conteo de filas)
+-- de lo que serializan. Con TIMESTAMP de precisión 0, dos escrituras dentro del mismo
+-- segundo dejaban el mismo ETag y un cliente podía recibir 304 con datos viejos.
+-- JPA ya escribe LocalDateTime con microsegundos; aquí se amplía la columna y los
+-- valores por defecto, trigger y procedimiento que escriben fuera de JPA.
+
+USE sistema_academico;
+
+-- 1. Columnas de auditoría con precisión de microsegundos
+ALTER TABLE personas
+    MODIFY COLUMN fecha_actualizacion TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE cursos
+    MODIFY COLUMN fecha_actualizacion TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE matriculas
+    MODIFY COLUMN fecha_actualizacion TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+-- 2. Trigger de personas (v2) con la misma precisión
+DROP TRIGGER IF EXISTS tr_personas_before_update;
+
+DELIMITER //
+CREATE TRIGGER tr_personas_before_update
+BEFORE UPDATE ON personas
+                             FOR EACH ROW
+BEGIN
+    SET NEW.email_normalizado = LOWER(TRIM(NEW.email));
+    SET NEW.fecha_actualizacion = CURRENT_TIMESTAMP(6);
+    SET NEW.usuario_actualizacion = CURRENT_USER();
+END //
+DELIMITER ;
+
+-- 3. Procedimiento de cambio de estado
+DROP PROCEDURE IF EXISTS sp_actualizar_estado_matricula;
+
+DELIMITER //
+CREATE PROCEDURE sp_actualizar_estado_matricula(
+    IN p_matricula_id BIGINT,
+    IN p_nuevo_estado VARCHAR(20)
+)
+BEGIN
+UPDATE matriculas
+SET estado = p_nuevo_estado,
+    fecha_actualizacion = CURRENT_TIMESTAMP(6),
+    usuario_actualizacion = CURRENT_USER()
+WHERE id = p_matricula_id;
+END //
+DELIMITER ;
+
+-- ====================================
+-- VERIFICACIÓN
+-- ====================================
+
+-- Versión del catálogo que usa GET /api/cursos/todos (debe mostrar microsegundos)
+SELECT COUNT(c.id), MAX(c.fecha_actualizacion), MAX(p.fecha_actualizacion)
+FROM cursos c
+         LEFT JOIN personas p ON p.id = c.profesor_id;
+
+COMMIT;
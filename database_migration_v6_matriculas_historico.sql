@@ -0,0 +1,59 @@
+-- ====================================
+-- SISTEMA ACADÉMICO - MIGRACIÓN V6
+-- Archivo de matrículas cerradas (tabla caliente / tabla histórica)
+-- Aplicar sobre una base migrada con database_migration_v5_auditoria_microsegundos.sql
+-- ====================================
+-- matriculas crece con cada ciclo y todas sus consultas recorren también los ciclos
+-- cerrados. La aplicación mueve a matriculas_historico, por bloques, las matrículas en
+-- estados finales (matriculas.archivo.estados) con más de matriculas.archivo.antiguedad-dias
+-- días: matriculas conserva solo lo vigente y cabe en el buffer pool, y el histórico
+-- se consulta únicamente con historico=true.
+-- cursos_estadisticas no cambia: la reconciliación suma ambas tablas.
+
+USE sistema_academico;
+
+-- 1. Tabla histórica: mismas columnas que matriculas (con el ID original) más fecha_archivo
+--    Sin AUTO_INCREMENT ni unique_matricula; el par (alumno_id, curso_id) sigue siendo
+--    único entre ambas tablas: la carga de matrículas lo comprueba también aquí
+--    (idx_matriculas_historico_alumno_curso)
+CREATE TABLE IF NOT EXISTS matriculas_historico (
+    id BIGINT PRIMARY KEY,
+    alumno_id BIGINT NOT NULL,
+    curso_id BIGINT NOT NULL,
+    fecha_matricula DATE NOT NULL,
+    estado VARCHAR(20),
+    nota_final DECIMAL(4,2) DEFAULT NULL,
+    fecha_creacion TIMESTAMP NULL,
+    usuario_creacion VARCHAR(50),
+    fecha_actualizacion TIMESTAMP(6) NULL,
+    usuario_actualizacion VARCHAR(50),
+    fecha_archivo TIMESTAMP NOT NULL,
+    FOREIGN KEY (alumno_id) REFERENCES alumnos(id) ON DELETE CASCADE,
+    FOREIGN KEY (curso_id) REFERENCES cursos(id) ON DELETE CASCADE,
+    INDEX idx_matriculas_historico_alumno_curso (alumno_id, curso_id),
+    INDEX idx_matriculas_historico_curso (curso_id),
+    INDEX idx_matriculas_historico_estado (estado),
+    INDEX idx_matriculas_historico_fecha (fecha_matricula)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- 2. El primer archivado lo hace la aplicación (tarea programada o
+--    POST /api/matriculas/archivo) por bloques cortos, no esta migración
+
+-- ====================================
+-- VERIFICACIÓN
+-- ====================================
+
+-- Matrículas que el primer archivado moverá con la configuración por defecto
+SELECT estado, COUNT(*)
+FROM matriculas
+WHERE estado IN ('COMPLETADA')
+  AND fecha_matricula < CURRENT_DATE - INTERVAL 365 DAY
+GROUP BY estado;
+
+-- Tras archivar: tamaño de cada tabla
+SELECT table_name, table_rows, ROUND(data_length / 1024 / 1024, 1) AS datos_mb
+FROM information_schema.tables
+WHERE table_schema = 'sistema_academico'
+  AND table_name IN ('matriculas', 'matriculas_historico');
+
+COMMIT;
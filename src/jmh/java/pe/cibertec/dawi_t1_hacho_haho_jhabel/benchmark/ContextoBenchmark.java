@@ -0,0 +1,91 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.DawiT1HachoHahoJhabelApplication;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoBusquedaUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Aplicación completa sobre H2 en modo MySQL, sembrada con DatasetAcademico
+ * Se levanta una vez por fork y la comparten todos los benchmarks de la clase
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@State(Scope.Benchmark)
+public class ContextoBenchmark {
+    
+    @Param("10000")
+    public int alumnos;
+    
+    @Param("200")
+    public int cursos;
+    
+    @Param("5")
+    public int matriculasPorAlumno;
+    
+    ConfigurableApplicationContext contexto;
+    MatriculaRepositoryJpa matriculaRepository;
+    CursoRepositoryJpa cursoRepository;
+    ObjectMapper objectMapper;
+    MockMvc mockMvc;
+    
+    /** Datos ya cargados para medir solo la serialización */
+    Page<CursoEntity> paginaCursos;
+    List<MatriculaEntity> matriculas;
+    
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = new SpringApplicationBuilder(DawiT1HachoHahoJhabelApplication.class)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:jmh;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        
+        new DatasetAcademico(contexto.getBean(JdbcTemplate.class)).cargar(alumnos, cursos, matriculasPorAlumno);
+        contexto.getBean(CursoBusquedaUseCase.class).construirIndice();
+        
+        matriculaRepository = contexto.getBean(MatriculaRepositoryJpa.class);
+        cursoRepository = contexto.getBean(CursoRepositoryJpa.class);
+        objectMapper = contexto.getBean(ObjectMapper.class);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) contexto).build();
+        
+        paginaCursos = cursoRepository.findAll(PageRequest.of(0, 20));
+        matriculas = matriculaRepository.findAll(PageRequest.of(0, 100)).getContent();
+    }
+    
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+    
+    /**
+     * Email de un alumno existente al azar
+     */
+    String emailAlAzar() {
+        return DatasetAcademico.emailAlumno(ThreadLocalRandom.current().nextInt(alumnos));
+    }
+}
@@ -0,0 +1,32 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Endpoints completos (consulta + serialización) a través de MockMvc, sin red
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControladorBenchmark {
+    
+    @Benchmark
+    public String matriculasPorEmail(ContextoBenchmark ctx) throws Exception {
+        return ctx.mockMvc.perform(get("/api/matriculas/email").param("email", ctx.emailAlAzar()))
+                .andReturn().getResponse().getContentAsString();
+    }
+    
+    @Benchmark
+    public String cursosPorNombrePaginado(ContextoBenchmark ctx) throws Exception {
+        return ctx.mockMvc.perform(get("/api/cursos").param("nombre", "datos").param("page", "1").param("size", "10"))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,52 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lanza los benchmarks JMH de este paquete y deja los resultados en JSON
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=JmhBenchmarkTest
+ * Opcionales: -Djmh.incluir=RepositorioBenchmark -Djmh.forks=1 -Djmh.iteraciones=5
+ *             -Djmh.alumnos=10000 -Djmh.salida=target/jmh/resultados.json
+ */
+@Tag("benchmark")
+class JmhBenchmarkTest {
+
+    @Test
+    void ejecutarBenchmarks() throws Exception {
+        Path salida = Path.of(System.getProperty("jmh.salida", "target/jmh/resultados.json"));
+        Files.createDirectories(salida.toAbsolutePath().getParent());
+
+        ChainedOptionsBuilder opciones = new OptionsBuilder()
+                .include(JmhBenchmarkTest.class.getPackageName() + "\\..*("
+                        + System.getProperty("jmh.incluir", "Benchmark") + ").*")
+                .warmupIterations(Integer.getInteger("jmh.calentamiento", 3))
+                .warmupTime(TimeValue.seconds(2))
+                .measurementIterations(Integer.getInteger("jmh.iteraciones", 5))
+                .measurementTime(TimeValue.seconds(2))
+                .forks(Integer.getInteger("jmh.forks", 1))
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(salida.toString());
+        if (System.getProperty("jmh.alumnos") != null) {
+            opciones.param("alumnos", System.getProperty("jmh.alumnos"));
+        }
+
+        Collection<RunResult> resultados = new Runner(opciones.build()).run();
+
+        assertThat(resultados).isNotEmpty();
+        assertThat(salida).exists();
+    }
+}
@@ -0,0 +1,38 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas de los repositorios usadas por los endpoints más frecuentes
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositorioBenchmark {
+    
+    @Benchmark
+    public List<MatriculaEntity> findByAlumnoEmail(ContextoBenchmark ctx) {
+        return ctx.matriculaRepository.findByAlumnoEmail(ctx.emailAlAzar());
+    }
+    
+    @Benchmark
+    public Long countActiveMatriculasByEmail(ContextoBenchmark ctx) {
+        return ctx.matriculaRepository.countActiveMatriculasByEmail(ctx.emailAlAzar());
+    }
+    
+    @Benchmark
+    public Page<CursoEntity> findByNombreContainingIgnoreCasePaginado(ContextoBenchmark ctx) {
+        return ctx.cursoRepository.findByNombreContainingIgnoreCase("datos", PageRequest.of(1, 10));
+    }
+}
@@ -0,0 +1,28 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización Jackson de las respuestas, con los datos ya cargados
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializacionBenchmark {
+    
+    @Benchmark
+    public byte[] paginaDeCursos(ContextoBenchmark ctx) throws Exception {
+        return ctx.objectMapper.writeValueAsBytes(ctx.paginaCursos);
+    }
+    
+    @Benchmark
+    public byte[] listaDeMatriculas(ContextoBenchmark ctx) throws Exception {
+        return ctx.objectMapper.writeValueAsBytes(ctx.matriculas);
+    }
+}
@@ -0,0 +1,280 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoCatalogoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener.CursoCambiadoEvent;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener.ProfesorCambiadoEvent;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.LecturaPropiaContexto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot del catálogo completo de cursos (GET /api/cursos/todos) ya serializado
+ * Guarda el JSON en bytes junto con sus variantes gzip y deflate, cada una con su ETag,
+ * para responder sin consultar la base ni serializar por petición
+ * Un cambio de curso o de profesor (después del commit) invalida el snapshot en el acto
+ * (mientras tanto se sirve la ruta normal) y lo reconstruye en segundo plano; varias
+ * escrituras seguidas se agrupan en una sola reconstrucción, que lee del primario para no
+ * publicar lo que aún no llegó a la réplica
+ * Una reconstrucción solo publica si su generación no es anterior a la publicada: un
+ * refresco lento no pisa el snapshot que ya reconstruyó una invalidación posterior
+ * Las escrituras fuera de JPA se recogen con DELETE /api/cache o con el refresco
+ * periódico, igual que la ruta normal al vencer la caché de consultas
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class CursoCatalogoSnapshot {
+
+    /**
+     * Content-Encoding que se puede servir desde el snapshot
+     */
+    public enum Codificacion {
+        IDENTIDAD(null),
+        GZIP("gzip"),
+        DEFLATE("deflate");
+
+        private final String contentEncoding;
+
+        Codificacion(String contentEncoding) {
+            this.contentEncoding = contentEncoding;
+        }
+
+        /**
+         * Valor de la cabecera Content-Encoding (null para IDENTIDAD)
+         */
+        public String contentEncoding() {
+            return contentEncoding;
+        }
+
+        /**
+         * Elige la codificación según Accept-Encoding: gzip, luego deflate, si no identidad
+         * Respeta q=0 (codificación rechazada) y el comodín "*"
+         */
+        public static Codificacion preferida(String acceptEncoding) {
+            if (acceptEncoding == null || acceptEncoding.isBlank()) {
+                return IDENTIDAD;
+            }
+            boolean gzip = false;
+            boolean deflate = false;
+            for (String parte : acceptEncoding.split(",")) {
+                int separador = parte.indexOf(';');
+                String nombre = (separador < 0 ? parte : parte.substring(0, separador)).trim();
+                boolean aceptada = separador < 0 || !rechazada(parte.substring(separador + 1));
+                if (nombre.equalsIgnoreCase("gzip") || nombre.equals("*")) {
+                    gzip |= aceptada;
+                } else if (nombre.equalsIgnoreCase("deflate")) {
+                    deflate |= aceptada;
+                }
+            }
+            return gzip ? GZIP : deflate ? DEFLATE : IDENTIDAD;
+        }
+
+        private static boolean rechazada(String parametros) {
+            for (String parametro : parametros.split(";")) {
+                String valor = parametro.trim();
+                if (valor.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(valor.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Representación serializada en una codificación
+     */
+    public record Representacion(byte[] cuerpo, String etag) {
+    }
+
+    /**
+     * Catálogo serializado en todas las codificaciones
+     * @param generacion Generación de cambios con la que se construyó
+     */
+    public record Snapshot(long generacion, int cursos, long ultimaModificacionMillis,
+                           Map<Codificacion, Representacion> representaciones) {
+
+        public Representacion en(Codificacion codificacion) {
+            return representaciones.get(codificacion);
+        }
+    }
+
+    private final CursoCatalogoUseCase cursoCatalogo;
+    private final ObjectMapper objectMapper;
+    private final boolean habilitado;
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+    private final ExecutorService reconstructor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("catalogo-snapshot").daemon().factory());
+    private final AtomicReference<Snapshot> actual = new AtomicReference<>();
+
+    public CursoCatalogoSnapshot(CursoCatalogoUseCase cursoCatalogo,
+                                 ObjectMapper objectMapper,
+                                 @Value("${cursos.catalogo.snapshot.habilitado:true}") boolean habilitado) {
+        this.cursoCatalogo = cursoCatalogo;
+        this.objectMapper = objectMapper;
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Snapshot al día con el último cambio conocido, o null si está deshabilitado,
+     * aún no se ha construido o hay una reconstrucción pendiente
+     */
+    public Snapshot vigente() {
+        Snapshot snapshot = actual.get();
+        return snapshot != null && snapshot.generacion() == generacion.get() ? snapshot : null;
+    }
+
+    /**
+     * Construye el snapshot al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        if (habilitado) {
+            reconstruirSinFallar();
+        }
+    }
+
+    /**
+     * Lee el catálogo (caché de consultas), lo serializa con el mismo ObjectMapper que
+     * Spring MVC y lo publica salvo que ya haya uno de una generación posterior
+     * (vigente() solo lo sirve si no hubo cambios mientras se construía)
+     */
+    public void reconstruir() {
+        long inicio = System.nanoTime();
+        long generacionInicial = generacion.get();
+        List<CursoEntity> cursos = cursoCatalogo.listarTodos();
+        VersionRecurso version = CursoCatalogoUseCase.version(cursos);
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(cursos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo de cursos", e);
+        }
+
+        Map<Codificacion, Representacion> representaciones = new EnumMap<>(Codificacion.class);
+        representaciones.put(Codificacion.IDENTIDAD, new Representacion(json, version.etag()));
+        representaciones.put(Codificacion.GZIP, new Representacion(
+                comprimir(json, GZIPOutputStream::new), etag(version, Codificacion.GZIP)));
+        representaciones.put(Codificacion.DEFLATE, new Representacion(
+                comprimir(json, DeflaterOutputStream::new), etag(version, Codificacion.DEFLATE)));
+        Snapshot construido = new Snapshot(generacionInicial, cursos.size(), version.ultimaModificacionMillis(),
+                Collections.unmodifiableMap(representaciones));
+        if (actual.accumulateAndGet(construido, CursoCatalogoSnapshot::masReciente) != construido) {
+            log.debug("Snapshot del catálogo de la generación {} descartado: ya hay uno posterior", generacionInicial);
+            return;
+        }
+
+        log.info("Snapshot del catálogo construido: {} cursos, {} bytes ({} gzip, {} deflate) en {} ms",
+                cursos.size(), json.length,
+                representaciones.get(Codificacion.GZIP).cuerpo().length,
+                representaciones.get(Codificacion.DEFLATE).cuerpo().length,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarCurso(CursoCambiadoEvent evento) {
+        invalidar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarProfesor(ProfesorCambiadoEvent evento) {
+        invalidar();
+    }
+
+    /**
+     * Refresco periódico (sin invalidar: se sigue sirviendo el snapshot anterior)
+     */
+    @Scheduled(initialDelayString = "${cursos.catalogo.snapshot.refresco-ms:300000}",
+               fixedDelayString = "${cursos.catalogo.snapshot.refresco-ms:300000}")
+    public void refrescar() {
+        if (habilitado) {
+            reconstruirSinFallar();
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        reconstructor.shutdownNow();
+    }
+
+    /**
+     * Descarta el snapshot actual y programa su reconstrucción, leyendo del primario
+     */
+    public void invalidar() {
+        if (!habilitado) {
+            return;
+        }
+        generacion.incrementAndGet();
+        if (reconstruccionPendiente.compareAndSet(false, true)) {
+            reconstructor.execute(() -> {
+                reconstruccionPendiente.set(false);
+                LecturaPropiaContexto.abrir(true, null);
+                try {
+                    reconstruirSinFallar();
+                } finally {
+                    LecturaPropiaContexto.cerrar();
+                }
+            });
+        }
+    }
+
+    private void reconstruirSinFallar() {
+        try {
+            reconstruir();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo reconstruir el snapshot del catálogo; se sirve desde la base", e);
+        }
+    }
+
+    private static Snapshot masReciente(Snapshot publicado, Snapshot construido) {
+        return publicado != null && publicado.generacion() > construido.generacion() ? publicado : construido;
+    }
+
+    private static String etag(VersionRecurso version, Codificacion codificacion) {
+        String etag = version.etag();
+        return etag.substring(0, etag.length() - 1) + "-" + codificacion.contentEncoding() + "\"";
+    }
+
+    private interface Compresor {
+        OutputStream envolver(OutputStream destino) throws IOException;
+    }
+
+    private static byte[] comprimir(byte[] datos, Compresor compresor) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+        try (OutputStream comprimido = compresor.envolver(salida)) {
+            comprimido.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+}
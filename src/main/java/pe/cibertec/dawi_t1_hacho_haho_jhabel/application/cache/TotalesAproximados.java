@@ -0,0 +1,106 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales de los listados paginados según {@link ModoTotal}
+ * Si la página es la última el total sale de ella misma, sin COUNT(*)
+ * Con total=aproximado se guarda por consulta y filtro y se recalcula con COUNT(*) al
+ * cumplir paginacion.total-aproximado.ttl-segundos, así que nunca está más desfasado
+ * que eso; entre tanto las páginas de ese filtro no vuelven a contar. Los conteos por
+ * filtro son coalescentes: al vencer, las peticiones simultáneas comparten un COUNT(*)
+ * Se guardan como mucho MAXIMO_ENTRADAS totales (el filtro lo elige el cliente): lleno,
+ * se descartan los vencidos y, si no basta, el más antiguo
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Component
+public class TotalesAproximados {
+    
+    private static final int MAXIMO_ENTRADAS = 1_000;
+    
+    private record Total(long valor, long calculadoNanos) {
+    }
+    
+    private final Map<String, Total> totales = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maximoEntradas;
+    
+    @Autowired
+    public TotalesAproximados(@Value("${paginacion.total-aproximado.ttl-segundos:60}") long ttlSegundos) {
+        this(ttlSegundos, MAXIMO_ENTRADAS);
+    }
+    
+    TotalesAproximados(long ttlSegundos, int maximoEntradas) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSegundos);
+        this.maximoEntradas = Math.max(1, maximoEntradas);
+    }
+    
+    /**
+     * @param modo     Total pedido
+     * @param pagina   Página ya consultada
+     * @param consulta Listado al que pertenece el total
+     * @param filtro   Filtro del listado (null si no tiene)
+     * @param contar   COUNT(*) del listado con ese filtro
+     * @return total de filas o null con {@link ModoTotal#NINGUNO}; un total aproximado
+     *         nunca es menor que las filas que la propia página demuestra que existen
+     */
+    public Long total(ModoTotal modo, Slice<?> pagina, String consulta, Object filtro, LongSupplier contar) {
+        if (modo == ModoTotal.NINGUNO) {
+            return null;
+        }
+        long vistas = pagina.getPageable().isPaged()
+                ? pagina.getPageable().getOffset() + pagina.getNumberOfElements()
+                : pagina.getNumberOfElements();
+        if (!pagina.hasNext() && (pagina.hasContent() || pagina.isFirst())) {
+            return vistas;
+        }
+        if (modo == ModoTotal.EXACTO) {
+            return contar.getAsLong();
+        }
+        return Math.max(aproximado(consulta, filtro, contar), pagina.hasNext() ? vistas + 1 : vistas);
+    }
+    
+    private long aproximado(String consulta, Object filtro, LongSupplier contar) {
+        String clave = consulta + '\u0000' + filtro;
+        long ahora = System.nanoTime();
+        Total total = totales.get(clave);
+        if (total != null && ahora - total.calculadoNanos() < ttlNanos) {
+            return total.valor();
+        }
+        long valor = contar.getAsLong();
+        synchronized (totales) {
+            if (!totales.containsKey(clave) && totales.size() >= maximoEntradas) {
+                totales.values().removeIf(vencido -> ahora - vencido.calculadoNanos() >= ttlNanos);
+                while (totales.size() >= maximoEntradas) {
+                    totales.entrySet().stream()
+                            .min(Comparator.comparingLong(entrada -> entrada.getValue().calculadoNanos()))
+                            .ifPresent(masAntiguo -> totales.remove(masAntiguo.getKey()));
+                }
+            }
+            totales.put(clave, new Total(valor, ahora));
+        }
+        return valor;
+    }
+    
+    int entradas() {
+        return totales.size();
+    }
+    
+    /**
+     * Descarta todos los totales (DELETE /api/cache)
+     */
+    public void invalidar() {
+        totales.clear();
+    }
+}
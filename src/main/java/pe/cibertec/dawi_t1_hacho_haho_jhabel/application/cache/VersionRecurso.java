@@ -0,0 +1,56 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Auditoria;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Versión de un recurso HTTP calculada desde las columnas de auditoría ({@link Auditoria})
+ * de las entidades que se serializan en la respuesta: número de filas y la
+ * fecha_actualizacion más reciente entre ellas
+ * El conteo hace que un borrado cambie la versión de una colección aunque no mueva el máximo
+ *
+ * @param filas              Filas principales del recurso (1 para una entidad, tamaño para una colección)
+ * @param ultimaModificacion Mayor fecha_actualizacion (null si ninguna entidad la tiene)
+ * @author HACHO HAHO JHABEL
+ */
+public record VersionRecurso(long filas, LocalDateTime ultimaModificacion) {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * @param filas     Filas principales del recurso
+     * @param entidades Entidades serializadas en la respuesta (se ignoran los null)
+     */
+    public static VersionRecurso de(long filas, Stream<? extends Auditoria<?>> entidades) {
+        LocalDateTime maxima = entidades
+                .filter(Objects::nonNull)
+                .map(Auditoria::getFechaActualizacion)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new VersionRecurso(filas, maxima);
+    }
+
+    /**
+     * Validador fuerte: cambia con cada escritura auditada (precisión de microsegundos)
+     */
+    public String etag() {
+        long micros = ultimaModificacion == null ? 0
+                : ChronoUnit.MICROS.between(EPOCH, ultimaModificacion);
+        return "\"" + Long.toString(filas, 36) + "-" + Long.toString(micros, 36) + "\"";
+    }
+
+    /**
+     * Valor para Last-Modified en milisegundos epoch, o -1 si no hay fecha
+     */
+    public long ultimaModificacionMillis() {
+        return ultimaModificacion == null ? -1
+                : ultimaModificacion.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,11 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request;
+
+/**
+ * Fila de la carga masiva de matrículas (JSON o CSV)
+ * La fecha llega como texto (yyyy-MM-dd) para que una fecha inválida se reporte
+ * como conflicto de esa fila y no rechace toda la carga
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaIngestaFila(String codigoEstudiante, String codigoCurso, String fecha) {
+}
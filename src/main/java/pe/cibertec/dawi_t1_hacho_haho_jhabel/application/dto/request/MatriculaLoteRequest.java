@@ -0,0 +1,12 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request;
+
+import java.util.List;
+
+/**
+ * Consulta de matrículas de varios alumnos en una sola petición
+ * Se indica una de las dos listas: emails o códigos de estudiante
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaLoteRequest(List<String> emails, List<String> codigosEstudiante) {
+}
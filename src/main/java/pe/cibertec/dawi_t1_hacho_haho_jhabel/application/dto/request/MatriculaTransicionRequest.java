@@ -0,0 +1,20 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request;
+
+import java.time.LocalDate;
+
+/**
+ * Cambio de estado masivo de matrículas (cierre de ciclo)
+ * Cambia a estadoDestino las matrículas en estadoOrigen, opcionalmente de un curso y
+ * con fecha_matricula dentro del ciclo [fechaDesde, fechaHasta]
+ * 
+ * @param usuario Usuario que se registra en usuario_actualizacion
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaTransicionRequest(
+        String estadoOrigen,
+        String estadoDestino,
+        Long cursoId,
+        LocalDate fechaDesde,
+        LocalDate fechaHasta,
+        String usuario) {
+}
@@ -0,0 +1,50 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.List;
+
+/**
+ * Aciertos y fallos de la caché de segundo nivel, por región y en total
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CacheEstadisticasResponse(
+        long aciertos,
+        long fallos,
+        double tasaAciertos,
+        long consultasAciertos,
+        long consultasFallos,
+        List<Region> regiones) {
+    
+    public record Region(String nombre, long aciertos, long fallos, long escrituras, double tasaAciertos) {
+        
+        static Region de(String nombre, CacheRegionStatistics estadisticas) {
+            if (estadisticas == null) {
+                return new Region(nombre, 0, 0, 0, 0.0);
+            }
+            return new Region(nombre, estadisticas.getHitCount(), estadisticas.getMissCount(),
+                    estadisticas.getPutCount(), tasa(estadisticas.getHitCount(), estadisticas.getMissCount()));
+        }
+    }
+    
+    public static CacheEstadisticasResponse de(Statistics estadisticas, List<String> regiones) {
+        long aciertos = estadisticas.getSecondLevelCacheHitCount();
+        long fallos = estadisticas.getSecondLevelCacheMissCount();
+        return new CacheEstadisticasResponse(
+                aciertos,
+                fallos,
+                tasa(aciertos, fallos),
+                estadisticas.getQueryCacheHitCount(),
+                estadisticas.getQueryCacheMissCount(),
+                regiones.stream()
+                        .map(region -> Region.de(region, estadisticas.getCacheRegionStatistics(region)))
+                        .toList());
+    }
+    
+    private static double tasa(long aciertos, long fallos) {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+}
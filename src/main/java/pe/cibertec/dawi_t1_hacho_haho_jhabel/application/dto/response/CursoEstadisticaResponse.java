@@ -0,0 +1,44 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Estadísticas de matrícula de un curso
+ * tasaAprobacion y promedioNota se calculan sobre las matrículas con nota
+ * y son null mientras el curso no tenga ninguna
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoEstadisticaResponse(
+        Long cursoId,
+        String codigoCurso,
+        String nombre,
+        long matriculasTotal,
+        long matriculasActivas,
+        long calificadas,
+        long aprobadas,
+        Double tasaAprobacion,
+        BigDecimal promedioNota) {
+    
+    public static CursoEstadisticaResponse de(CursoEstadisticaProjection fila) {
+        long calificadas = valor(fila.calificadas());
+        long aprobadas = valor(fila.aprobadas());
+        return new CursoEstadisticaResponse(
+                fila.cursoId(),
+                fila.codigoCurso(),
+                fila.nombre(),
+                valor(fila.matriculasTotal()),
+                valor(fila.matriculasActivas()),
+                calificadas,
+                aprobadas,
+                calificadas == 0 ? null : (double) aprobadas / calificadas,
+                calificadas == 0 ? null : fila.sumaNotas().divide(BigDecimal.valueOf(calificadas), 2, RoundingMode.HALF_UP));
+    }
+    
+    private static long valor(Long contador) {
+        return contador == null ? 0 : contador;
+    }
+}
@@ -0,0 +1,15 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso.CursoAutocompletadoIndex;
+
+/**
+ * Sugerencia de autocompletado: curso y número de matrículas con el que se ordena
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoSugerenciaResponse(Long id, String codigoCurso, String nombre, long matriculas) {
+    
+    public static CursoSugerenciaResponse de(CursoAutocompletadoIndex.Curso curso) {
+        return new CursoSugerenciaResponse(curso.id(), curso.codigoCurso(), curso.nombre(), curso.popularidad());
+    }
+}
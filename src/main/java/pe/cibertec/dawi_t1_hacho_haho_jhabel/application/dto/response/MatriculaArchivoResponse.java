@@ -0,0 +1,24 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progreso de un archivado de matrículas cerradas en matriculas_historico
+ * corte es exclusivo: se mueven las matrículas de los estados indicados con
+ * fecha_matricula anterior a esa fecha
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaArchivoResponse(
+        String id,
+        String estado,
+        LocalDate corte,
+        List<String> estados,
+        long movidas,
+        int lotes,
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        String error) {
+}
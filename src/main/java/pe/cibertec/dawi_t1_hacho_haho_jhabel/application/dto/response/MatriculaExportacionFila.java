@@ -0,0 +1,49 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fila plana de la exportación de matrículas (datos del alumno y del curso al mismo nivel)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaExportacionFila(
+        Long id,
+        LocalDate fechaMatricula,
+        String estado,
+        BigDecimal notaFinal,
+        Long alumnoId,
+        String alumnoNombre,
+        String alumnoEmail,
+        String codigoEstudiante,
+        Long cursoId,
+        String codigoCurso,
+        String cursoNombre,
+        Integer creditos) {
+    
+    public static final String[] COLUMNAS = {
+        "id", "fechaMatricula", "estado", "notaFinal",
+        "alumnoId", "alumnoNombre", "alumnoEmail", "codigoEstudiante",
+        "cursoId", "codigoCurso", "cursoNombre", "creditos"
+    };
+    
+    public static MatriculaExportacionFila de(MatriculaEntity m) {
+        return new MatriculaExportacionFila(
+                m.getId(), m.getFechaMatricula(), m.getEstado(), m.getNotaFinal(),
+                m.getAlumno().getId(), m.getAlumno().getNombre(), m.getAlumno().getEmail(),
+                m.getAlumno().getCodigoEstudiante(),
+                m.getCurso().getId(), m.getCurso().getCodigoCurso(), m.getCurso().getNombre(),
+                m.getCurso().getCreditos());
+    }
+    
+    public Object[] valores() {
+        return new Object[]{
+            id, fechaMatricula, estado, notaFinal,
+            alumnoId, alumnoNombre, alumnoEmail, codigoEstudiante,
+            cursoId, codigoCurso, cursoNombre, creditos
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import java.util.List;
+
+/**
+ * Resultado de una carga masiva de matrículas
+ * Las filas que no se insertaron aparecen en conflictos con su número (1 = primera fila de datos)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaIngestaResponse(
+        int recibidas,
+        int insertadas,
+        int rechazadas,
+        long duracionMs,
+        long filasPorSegundo,
+        List<Conflicto> conflictos) {
+    
+    public record Conflicto(int fila, String codigoEstudiante, String codigoCurso, String motivo) {
+    }
+}
@@ -0,0 +1,20 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matrículas agrupadas por alumno, en el orden en que se pidieron
+ * La clave es el email normalizado (minúsculas, sin espacios) o el código de estudiante;
+ * un alumno sin matrículas (o inexistente) aparece con una lista vacía y los valores que
+ * solo difieren en mayúsculas o acentos comparten la clave del primero pedido
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaLoteResponse(
+        int alumnos,
+        int matriculas,
+        Map<String, List<MatriculaResumenProjection>> porAlumno) {
+}
@@ -0,0 +1,24 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progreso de un cambio de estado masivo de matrículas
+ * estimadas es el conteo del filtro al iniciar; actualizadas solo cuenta las matrículas
+ * que seguían en el estado de origen cuando se procesó su bloque
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaTransicionResponse(
+        String id,
+        String estado,
+        String estadoOrigen,
+        String estadoDestino,
+        long estimadas,
+        long actualizadas,
+        int lotes,
+        double porcentaje,
+        LocalDateTime inicio,
+        LocalDateTime fin,
+        String error) {
+}
@@ -0,0 +1,68 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import java.util.List;
+
+/**
+ * Resumen de métricas: latencia por método de repositorio y por endpoint,
+ * estadísticas de Hibernate, ocupación del pool de conexiones (y de las réplicas
+ * de lectura, si el enrutamiento está habilitado), límites de concurrencia por grupo y
+ * coalescencia de consultas por método de repositorio
+ * Los tiempos están en milisegundos
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MetricasResponse(
+        List<Latencia> repositorios,
+        List<Latencia> endpoints,
+        Hibernate hibernate,
+        Pool pool,
+        List<Pool> replicas,
+        List<Concurrencia> concurrencia,
+        List<Coalescencia> coalescencia) {
+    
+    /**
+     * Timer de un método de repositorio (Repositorio.metodo) o de un endpoint (GET /uri)
+     */
+    public record Latencia(String nombre, String resultado, long invocaciones, double totalMs,
+                           double mediaMs, double maximoMs, Double p50Ms, Double p95Ms, Double p99Ms) {
+    }
+    
+    public record Hibernate(
+            boolean habilitadas,
+            long sentenciasPreparadas,
+            long consultasEjecutadas,
+            long consultaMaximaMs,
+            String consultaMasLenta,
+            long entidadesCargadas,
+            long entidadesObtenidas,
+            long coleccionesCargadas,
+            long flushes,
+            long transacciones,
+            long cacheAciertos,
+            long cacheFallos,
+            long cacheConsultasAciertos,
+            long cacheConsultasFallos) {
+    }
+    
+    /**
+     * Estado del pool HikariCP; saturacion = activas / máximo
+     */
+    public record Pool(String nombre, int activas, int inactivas, int total, int maximo,
+                       int hilosEsperando, double saturacion) {
+    }
+    
+    /**
+     * Límite adaptativo de un grupo de endpoints: peticiones permitidas, en curso y
+     * rechazadas con 503 desde el arranque
+     */
+    public record Concurrencia(String grupo, int limite, int enCurso, long rechazadas) {
+    }
+    
+    /**
+     * Llamadas a una consulta coalescente: ejecutadas contra la base de datos,
+     * compartidas con otra en curso y servidas de un resultado reciente;
+     * ratio = (compartidas + recientes) / total
+     */
+    public record Coalescencia(String metodo, long ejecutadas, long compartidas, long recientes, double ratio) {
+    }
+}
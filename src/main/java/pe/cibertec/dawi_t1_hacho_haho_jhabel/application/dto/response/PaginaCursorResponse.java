@@ -0,0 +1,28 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.KeysetCursor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página en modo cursor: sin total ni número de página, solo el token
+ * para pedir la siguiente
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record PaginaCursorResponse<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+    
+    /**
+     * Construye la página a partir de una consulta que pidió size + 1 filas
+     * @param filas        Resultado de la consulta (hasta size + 1 filas)
+     * @param size         Tamaño de página solicitado
+     * @param cursorDeFila Cómo obtener el cursor de una fila
+     */
+    public static <T> PaginaCursorResponse<T> de(List<T> filas, int size, Function<T, KeysetCursor> cursorDeFila) {
+        boolean hasNext = filas.size() > size;
+        List<T> content = hasNext ? filas.subList(0, size) : filas;
+        String nextCursor = hasNext ? cursorDeFila.apply(content.get(content.size() - 1)).codificar() : null;
+        return new PaginaCursorResponse<>(content, size, hasNext, nextCursor);
+    }
+}
@@ -0,0 +1,30 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import org.springframework.data.domain.Slice;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+
+import java.util.List;
+
+/**
+ * Página de un listado paginado por número de página (page/size)
+ * Sin total= solo trae hasNext (totalElements, totalPages y tipoTotal en null); con
+ * total=aproximado el total puede estar desfasado, con total=exacto se cuenta en la petición
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record PaginaResponse<T>(List<T> content, int page, int size, boolean hasNext,
+                                Long totalElements, Integer totalPages, ModoTotal tipoTotal) {
+    
+    /**
+     * @param total Total de filas del listado, o null con {@link ModoTotal#NINGUNO}
+     */
+    public static <T> PaginaResponse<T> de(Slice<T> slice, ModoTotal modo, Long total) {
+        if (total == null) {
+            return new PaginaResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                    slice.hasNext(), null, null, null);
+        }
+        int totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) total / slice.getSize());
+        return new PaginaResponse<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), total, totalPages, modo);
+    }
+}
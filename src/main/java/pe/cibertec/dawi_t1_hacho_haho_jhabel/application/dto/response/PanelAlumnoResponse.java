@@ -0,0 +1,18 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+
+import java.util.List;
+
+/**
+ * Panel de un alumno: sus matrículas, cuántas siguen activas y el detalle de sus cursos
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record PanelAlumnoResponse(
+        String email,
+        long matriculasActivas,
+        List<MatriculaResumenProjection> matriculas,
+        List<CursoEntity> cursos) {
+}
@@ -0,0 +1,13 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+/**
+ * Resultado de una reconciliación de cursos_estadisticas contra matriculas
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record ReconciliacionEstadisticasResponse(
+        int cursosRevisados,
+        int cursosCorregidos,
+        int filasHuerfanasEliminadas,
+        long duracionMs) {
+}
@@ -0,0 +1,22 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql.RegistroSqlLento;
+
+import java.util.List;
+
+/**
+ * Registro de SQL lento: sentencias ejecutadas desde el arranque, cuántas superaron
+ * el umbral, cuántas se registraron por muestreo y cuántas se perdieron por cola llena,
+ * y las más lentas (de más a menos lenta) con sus parámetros y el método que las originó
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record SqlLentasResponse(
+        long sentencias,
+        long lentas,
+        long muestreadas,
+        long descartadas,
+        long umbralMs,
+        double muestreo,
+        List<RegistroSqlLento.Sentencia> masLentas) {
+}
@@ -0,0 +1,44 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token de continuación para paginación keyset (seek)
+ * Codifica la clave de ordenamiento y el id de la última fila devuelta;
+ * el cliente lo trata como un valor opaco
+ * 
+ * @param tipo  Recurso al que pertenece el token (evita mezclar cursores entre endpoints)
+ * @param clave Valor de la columna de ordenamiento de la última fila
+ * @param id    ID de la última fila (desempate)
+ * @author HACHO HAHO JHABEL
+ */
+public record KeysetCursor(String tipo, String clave, Long id) {
+    
+    private static final char SEPARADOR = '|';
+    
+    public String codificar() {
+        String plano = tipo + SEPARADOR + id + SEPARADOR + clave;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica un token generado por {@link #codificar()}
+     * @throws IllegalArgumentException si el token no es válido o es de otro recurso
+     */
+    public static KeysetCursor decodificar(String token, String tipoEsperado) {
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int primero = plano.indexOf(SEPARADOR);
+            int segundo = plano.indexOf(SEPARADOR, primero + 1);
+            if (primero < 0 || segundo < 0 || !plano.substring(0, primero).equals(tipoEsperado)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Long id = Long.valueOf(plano.substring(primero + 1, segundo));
+            return new KeysetCursor(tipoEsperado, plano.substring(segundo + 1), id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination;
+
+import java.util.Locale;
+
+/**
+ * Qué total acompaña a una página (parámetro total= de los listados paginados)
+ * NINGUNO: sin COUNT(*), solo hasNext (se piden size + 1 filas)
+ * APROXIMADO: COUNT(*) por filtro guardado en memoria, con antigüedad acotada
+ * EXACTO: COUNT(*) en cada petición, como una Page de Spring Data
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public enum ModoTotal {
+    NINGUNO,
+    APROXIMADO,
+    EXACTO;
+    
+    /**
+     * @param valor Valor del parámetro total= (null o vacío = NINGUNO)
+     * @throws IllegalArgumentException si no es ninguno, aproximado ni exacto
+     */
+    public static ModoTotal de(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return NINGUNO;
+        }
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("El parámetro 'total' debe ser ninguno, aproximado o exacto");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CursoSugerenciaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoEstadisticaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener.CursoCambiadoEvent;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso.CursoAutocompletadoIndex;
+
+import java.util.List;
+
+/**
+ * Caso de uso de autocompletado de cursos por código o nombre
+ * Responde solo desde el índice en memoria (sin SQL por consulta), ordenado por número
+ * de matrículas (cursos_estadisticas); un cambio de curso actualiza solo ese curso y el
+ * refresco periódico recoge la popularidad nueva y las escrituras fuera de JPA
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class CursoAutocompletadoUseCase {
+    
+    private final CursoEstadisticaRepositoryJpa estadisticaRepository;
+    private final CursoAutocompletadoIndex indice = new CursoAutocompletadoIndex();
+    private final int limiteMaximo;
+    
+    public CursoAutocompletadoUseCase(CursoEstadisticaRepositoryJpa estadisticaRepository,
+                                      @Value("${cursos.autocompletado.limite-maximo:20}") int limiteMaximo) {
+        this.estadisticaRepository = estadisticaRepository;
+        this.limiteMaximo = limiteMaximo;
+    }
+    
+    /**
+     * Cursos cuyo código o alguna palabra del nombre empieza por el texto, los más populares primero
+     * @param limite Número de sugerencias (acotado a cursos.autocompletado.limite-maximo)
+     */
+    public List<CursoSugerenciaResponse> sugerir(String texto, int limite) {
+        return indice.sugerir(texto, Math.max(1, Math.min(limite, limiteMaximo))).stream()
+                .map(CursoSugerenciaResponse::de)
+                .toList();
+    }
+    
+    /**
+     * Construye el índice al iniciar la aplicación y lo refresca cada refresco-ms
+     * La versión se toma antes de leer: los cambios de curso que lleguen durante la
+     * lectura no se pierden al reconstruir
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${cursos.autocompletado.refresco-ms:60000}",
+               fixedDelayString = "${cursos.autocompletado.refresco-ms:60000}")
+    public void construirIndice() {
+        long inicio = System.nanoTime();
+        long version = indice.version();
+        List<CursoAutocompletadoIndex.Curso> cursos = estadisticaRepository.findAllResumen().stream()
+                .map(CursoAutocompletadoUseCase::curso)
+                .toList();
+        if (!indice.reconstruir(cursos, version)) {
+            log.debug("Índice de autocompletado descartado: ya se aplicó una lectura posterior");
+            return;
+        }
+        log.debug("Índice de autocompletado construido: {} cursos en {} ms",
+                cursos.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Mantiene el índice al día cuando un curso se guarda o se elimina
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarCurso(CursoCambiadoEvent evento) {
+        if (evento.tipo() == CursoCambiadoEvent.Tipo.ELIMINADO) {
+            indice.eliminar(evento.cursoId());
+            return;
+        }
+        estadisticaRepository.findResumenByCursoId(evento.cursoId()).ifPresentOrElse(
+                fila -> indice.indexar(curso(fila)),
+                () -> indice.eliminar(evento.cursoId()));
+    }
+    
+    private static CursoAutocompletadoIndex.Curso curso(CursoEstadisticaProjection fila) {
+        return new CursoAutocompletadoIndex.Curso(fila.cursoId(), fila.codigoCurso(), fila.nombre(),
+                fila.matriculasTotal() == null ? 0 : fila.matriculasTotal());
+    }
+}
@@ -0,0 +1,177 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.TotalesAproximados;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.PaginaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener.CursoCambiadoEvent;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoNombreProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.CamposProyectables;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.ProyeccionCamposJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso.CursoNgramIndex;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Caso de uso de búsqueda de cursos por nombre parcial
+ * Resuelve la búsqueda con el índice n-gram en memoria y trae los cursos
+ * encontrados en una sola consulta por ID; si el índice está deshabilitado
+ * o aún no se ha construido, usa las consultas JPQL con LIKE
+ * El listado con fields= selecciona solo las columnas pedidas (lista blanca CAMPOS)
+ * El listado paginado no cuenta filas salvo que se pida el total (total=aproximado|exacto)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class CursoBusquedaUseCase {
+    
+    /** Campos que admite GET /api/cursos?fields= */
+    public static final CamposProyectables<CursoEntity> CAMPOS = CamposProyectables.de(CursoEntity.class)
+            .con("id", "id")
+            .con("codigoCurso", "codigoCurso")
+            .con("nombre", "nombre")
+            .con("creditos", "creditos")
+            .con("descripcion", "descripcion")
+            .con("profesorId", "profesor.id")
+            .con("profesorNombre", "profesor.nombre")
+            .con("profesorEspecialidad", "profesor.especialidad");
+    
+    private final CursoRepositoryJpa cursoRepository;
+    private final ProyeccionCamposJpa proyeccion;
+    private final TotalesAproximados totales;
+    private final CursoNgramIndex indice = new CursoNgramIndex();
+    private final boolean indiceHabilitado;
+    private volatile boolean indiceListo;
+    
+    public CursoBusquedaUseCase(CursoRepositoryJpa cursoRepository,
+                                ProyeccionCamposJpa proyeccion,
+                                TotalesAproximados totales,
+                                @Value("${cursos.busqueda.indice-ngram.habilitado:true}") boolean indiceHabilitado) {
+        this.cursoRepository = cursoRepository;
+        this.proyeccion = proyeccion;
+        this.totales = totales;
+        this.indiceHabilitado = indiceHabilitado;
+    }
+    
+    /**
+     * Búsqueda sin paginación (equivalente a findByNombreContainingJpql)
+     */
+    public List<CursoEntity> buscarPorNombre(String nombre) {
+        if (!usarIndice()) {
+            return cursoRepository.findByNombreContainingJpql(nombre);
+        }
+        List<Long> ids = indice.buscar(nombre);
+        return ids.isEmpty() ? List.of() : cursoRepository.findAllById(ids);
+    }
+    
+    /**
+     * Búsqueda paginada (equivalente a findByNombreContainingIgnoreCase)
+     */
+    public Page<CursoEntity> buscarPorNombre(String nombre, Pageable pageable) {
+        if (!usarIndice()) {
+            return cursoRepository.findByNombreContainingIgnoreCase(nombre, pageable);
+        }
+        List<Long> ids = indice.buscar(nombre);
+        return ids.isEmpty() ? Page.empty(pageable) : cursoRepository.findByIdIn(ids, pageable);
+    }
+    
+    /**
+     * Listado paginado de GET /api/cursos: trae size + 1 filas en lugar de un COUNT(*)
+     * Con el índice n-gram el total es el número de cursos encontrados, sin contar
+     * @param nombre Nombre parcial (vacío = todos los cursos)
+     */
+    public PaginaResponse<CursoEntity> listar(String nombre, Pageable pageable, ModoTotal modo) {
+        if (nombre.isEmpty()) {
+            Slice<CursoEntity> pagina = cursoRepository.findPagina(pageable);
+            return PaginaResponse.de(pagina, modo, totales.total(modo, pagina, "cursos", null, cursoRepository::count));
+        }
+        if (usarIndice()) {
+            List<Long> ids = indice.buscar(nombre);
+            Slice<CursoEntity> pagina = ids.isEmpty()
+                    ? new SliceImpl<>(List.of(), pageable, false)
+                    : cursoRepository.findPaginaPorIds(ids, pageable);
+            return PaginaResponse.de(pagina, ModoTotal.EXACTO, modo == ModoTotal.NINGUNO ? null : (long) ids.size());
+        }
+        Slice<CursoEntity> pagina = cursoRepository.findPaginaPorNombre(nombre, pageable);
+        return PaginaResponse.de(pagina, modo, totales.total(modo, pagina, "cursos", nombre.toLowerCase(Locale.ROOT),
+                () -> cursoRepository.countPorNombre(nombre)));
+    }
+    
+    /**
+     * Listado paginado con solo los campos pedidos; el filtro por nombre usa el índice
+     * n-gram (WHERE id IN ...) o, si no está disponible, LIKE sobre el nombre
+     * @throws IllegalArgumentException si fields u orden incluyen campos fuera de CAMPOS
+     */
+    public Page<Map<String, Object>> listarCampos(String nombre, String fields, Pageable pageable) {
+        List<String> campos = CAMPOS.seleccionar(fields);
+        CAMPOS.validarOrden(pageable.getSort());
+        ProyeccionCamposJpa.Filtro<CursoEntity> filtro = null;
+        if (!nombre.isEmpty()) {
+            if (usarIndice()) {
+                List<Long> ids = indice.buscar(nombre);
+                if (ids.isEmpty()) {
+                    return Page.empty(pageable);
+                }
+                filtro = (cb, raiz) -> raiz.get("id").in(ids);
+            } else {
+                String patron = "%" + nombre.toLowerCase(Locale.ROOT) + "%";
+                filtro = (cb, raiz) -> cb.like(cb.lower(raiz.get("nombre")), patron);
+            }
+        }
+        return proyeccion.buscar(CAMPOS, campos, filtro, pageable);
+    }
+    
+    /**
+     * Construye el índice al iniciar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndice() {
+        if (!indiceHabilitado) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        Map<Long, String> nombres = new HashMap<>();
+        for (CursoNombreProjection curso : cursoRepository.findAllNombres()) {
+            nombres.put(curso.id(), curso.nombre());
+        }
+        indice.reconstruir(nombres);
+        indiceListo = true;
+        log.info("Índice n-gram de cursos construido: {} cursos en {} ms",
+                nombres.size(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+    
+    /**
+     * Mantiene el índice al día cuando un curso se guarda o se elimina
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void alCambiarCurso(CursoCambiadoEvent evento) {
+        if (!indiceHabilitado) {
+            return;
+        }
+        if (evento.tipo() == CursoCambiadoEvent.Tipo.ELIMINADO) {
+            indice.eliminar(evento.cursoId());
+            return;
+        }
+        cursoRepository.findById(evento.cursoId()).ifPresentOrElse(
+                curso -> indice.indexar(curso.getId(), curso.getNombre()),
+                () -> indice.eliminar(evento.cursoId()));
+    }
+    
+    private boolean usarIndice() {
+        return indiceHabilitado && indiceListo;
+    }
+}
@@ -0,0 +1,72 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.VersionRecurso;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Coalescente;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Caso de uso de lectura del catálogo de cursos servido desde la caché de segundo nivel
+ * Cuando un curso sale de la caché, Hibernate no aplica el EntityGraph y deja al
+ * profesor como proxy; aquí se inicializa dentro de la transacción (también desde
+ * la caché, región "personas") para poder serializarlo sin open-session-in-view
+ * La versión (ETag/Last-Modified) se toma de los mismos cursos y profesores leídos de
+ * la caché, así que un GET condicional con caché caliente responde 304 sin ejecutar SQL
+ * La búsqueda por código es {@link Coalescente} a este nivel: las peticiones simultáneas
+ * por el mismo código comparten la transacción completa y el curso con su profesor ya
+ * inicializado (dentro de la transacción el repositorio no coalesce)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Service
+@Transactional(readOnly = true)
+public class CursoCatalogoUseCase {
+    
+    private final CursoRepositoryJpa cursoRepository;
+    
+    public CursoCatalogoUseCase(CursoRepositoryJpa cursoRepository) {
+        this.cursoRepository = cursoRepository;
+    }
+    
+    public Optional<CursoEntity> obtenerPorId(Long id) {
+        return cursoRepository.findById(id).map(CursoCatalogoUseCase::conProfesor);
+    }
+    
+    @Coalescente
+    public Optional<CursoEntity> obtenerPorCodigo(String codigo) {
+        return cursoRepository.findByCodigo(codigo).map(CursoCatalogoUseCase::conProfesor);
+    }
+    
+    public List<CursoEntity> listarTodos() {
+        List<CursoEntity> cursos = cursoRepository.findAll();
+        cursos.forEach(CursoCatalogoUseCase::conProfesor);
+        return cursos;
+    }
+    
+    /**
+     * Versión de un curso: cambia al modificar el curso o su profesor
+     */
+    public static VersionRecurso version(CursoEntity curso) {
+        return VersionRecurso.de(1, Stream.of(curso, curso.getProfesor()));
+    }
+    
+    /**
+     * Versión del catálogo completo (altas, bajas y modificaciones de cursos o profesores)
+     */
+    public static VersionRecurso version(List<CursoEntity> cursos) {
+        return VersionRecurso.de(cursos.size(),
+                cursos.stream().flatMap(curso -> Stream.of(curso, curso.getProfesor())));
+    }
+    
+    private static CursoEntity conProfesor(CursoEntity curso) {
+        Hibernate.initialize(curso.getProfesor());
+        return curso;
+    }
+}
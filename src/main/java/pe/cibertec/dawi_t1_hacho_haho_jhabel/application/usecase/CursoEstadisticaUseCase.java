@@ -0,0 +1,103 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CursoEstadisticaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.ReconciliacionEstadisticasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaDelta;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoEstadisticaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caso de uso de estadísticas de matrícula por curso
+ * Las lecturas salen de cursos_estadisticas, mantenida de forma incremental por
+ * MatriculaEstadisticaListener y por la carga masiva; la reconciliación periódica
+ * corrige lo que haya escrito SQL externo o un cambio de la nota aprobatoria
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class CursoEstadisticaUseCase {
+    
+    public enum Criterio {
+        ACTIVAS,
+        APROBACION,
+        PROMEDIO
+    }
+    
+    private final CursoEstadisticaRepositoryJpa estadisticaRepository;
+    private final CursoEstadisticaJdbc estadisticaJdbc;
+    private final TransactionTemplate transactionTemplate;
+    
+    public CursoEstadisticaUseCase(CursoEstadisticaRepositoryJpa estadisticaRepository,
+                                   CursoEstadisticaJdbc estadisticaJdbc,
+                                   TransactionTemplate transactionTemplate) {
+        this.estadisticaRepository = estadisticaRepository;
+        this.estadisticaJdbc = estadisticaJdbc;
+        this.transactionTemplate = transactionTemplate;
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<CursoEstadisticaResponse> obtener(Long cursoId) {
+        return estadisticaRepository.findResumenByCursoId(cursoId).map(CursoEstadisticaResponse::de);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<CursoEstadisticaResponse> ranking(Criterio criterio, int limite) {
+        Limit limit = Limit.of(limite);
+        List<CursoEstadisticaProjection> filas = switch (criterio) {
+            case ACTIVAS -> estadisticaRepository.findRankingPorActivas(limit);
+            case APROBACION -> estadisticaRepository.findRankingPorAprobacion(limit);
+            case PROMEDIO -> estadisticaRepository.findRankingPorPromedio(limit);
+        };
+        return filas.stream().map(CursoEstadisticaResponse::de).toList();
+    }
+    
+    /**
+     * Compara cursos_estadisticas con un GROUP BY sobre matriculas y matriculas_historico
+     * y recalcula, cada uno en su propia transacción, los cursos que no coinciden
+     * La comparación inicial no bloquea; un curso con escrituras en curso puede parecer
+     * desviado y se recalcula igualmente, lo que es inocuo
+     */
+    @Scheduled(cron = "${cursos.estadisticas.reconciliacion.cron:0 */15 * * * *}")
+    public ReconciliacionEstadisticasResponse reconciliar() {
+        long inicio = System.nanoTime();
+        Map<Long, CursoEstadisticaDelta> esperadas = estadisticaJdbc.calcularDesdeMatriculas();
+        Map<Long, CursoEstadisticaDelta> guardadas = estadisticaJdbc.actuales();
+        
+        Set<Long> cursos = new HashSet<>(esperadas.keySet());
+        cursos.addAll(guardadas.keySet());
+        int corregidos = 0;
+        for (Long cursoId : cursos) {
+            CursoEstadisticaDelta esperada = esperadas.getOrDefault(cursoId, CursoEstadisticaDelta.CERO);
+            CursoEstadisticaDelta guardada = guardadas.getOrDefault(cursoId, CursoEstadisticaDelta.CERO);
+            if (!esperada.menos(guardada).esCero()) {
+                transactionTemplate.executeWithoutResult(estado -> estadisticaJdbc.recalcular(cursoId));
+                corregidos++;
+            }
+        }
+        Integer huerfanas = transactionTemplate.execute(estado -> estadisticaJdbc.eliminarHuerfanas());
+        
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        if (corregidos > 0) {
+            log.warn("Reconciliación de estadísticas: {} de {} cursos corregidos en {} ms",
+                    corregidos, cursos.size(), duracionMs);
+        } else {
+            log.debug("Reconciliación de estadísticas: {} cursos sin desviación ({} ms)", cursos.size(), duracionMs);
+        }
+        return new ReconciliacionEstadisticasResponse(cursos.size(), corregidos,
+                huerfanas == null ? 0 : huerfanas, duracionMs);
+    }
+}
@@ -0,0 +1,202 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaArchivoResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaArchivoJdbc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caso de uso de archivado de matrículas cerradas (tabla caliente / tabla histórica)
+ * Mueve a matriculas_historico las matrículas en estados finales
+ * (matriculas.archivo.estados) con más de matriculas.archivo.antiguedad-dias días, por
+ * bloques de matriculas.archivo.lote IDs: cada bloque se copia y se borra en su propia
+ * transacción y entre bloques hay una pausa para no acaparar el primario
+ * Así matriculas conserva solo los ciclos en curso y recientes, que son los que leen las
+ * consultas por defecto; el histórico se consulta explícitamente (historico=true)
+ * cursos_estadisticas no cambia: sus contadores incluyen las matrículas archivadas
+ * Como las transiciones, el archivado se ejecuta en segundo plano (un hilo propio, de
+ * uno en uno) y se consulta su progreso por id (se conservan los últimos
+ * matriculas.archivo.historial)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class MatriculaArchivoUseCase {
+
+    public enum Estado {
+        PENDIENTE,
+        EN_CURSO,
+        COMPLETADO,
+        FALLIDO
+    }
+
+    private final MatriculaArchivoJdbc archivoJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> estados;
+    private final int antiguedadDias;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final Map<String, Archivado> archivados;
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("archivo-matriculas").daemon().factory());
+    private Archivado ultimo;
+
+    public MatriculaArchivoUseCase(MatriculaArchivoJdbc archivoJdbc,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${matriculas.archivo.estados:COMPLETADA}") List<String> estados,
+                                   @Value("${matriculas.archivo.antiguedad-dias:365}") int antiguedadDias,
+                                   @Value("${matriculas.archivo.lote:500}") int tamanioLote,
+                                   @Value("${matriculas.archivo.pausa-ms:50}") long pausaMs,
+                                   @Value("${matriculas.archivo.historial:20}") int historial) {
+        this.archivoJdbc = archivoJdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.estados = estados.stream().map(estado -> estado.trim().toUpperCase(Locale.ROOT)).toList();
+        this.antiguedadDias = antiguedadDias;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+        this.archivados = java.util.Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Archivado> mayor) {
+                return size() > historial;
+            }
+        });
+    }
+
+    /**
+     * Archivado programado con el corte por defecto; no hace nada si ya hay uno en curso
+     */
+    @Scheduled(cron = "${matriculas.archivo.cron:0 30 3 * * *}")
+    public void archivarProgramado() {
+        iniciar().ifPresentOrElse(
+                archivado -> log.info("Archivado programado de matrículas {} encolado", archivado.id()),
+                () -> log.info("Archivado programado de matrículas omitido: ya hay uno en curso"));
+    }
+
+    /**
+     * Encola un archivado con el corte por defecto (hoy menos antiguedad-dias)
+     * @return Vacío si ya hay un archivado pendiente o en curso
+     */
+    public Optional<MatriculaArchivoResponse> iniciar() {
+        return iniciar(LocalDate.now().minusDays(antiguedadDias));
+    }
+
+    /**
+     * Encola el archivado de las matrículas en estados finales con fecha_matricula anterior a corte
+     * @return Progreso inicial (PENDIENTE), con el id para consultarlo; vacío si ya hay un
+     *         archivado pendiente o en curso (se ejecutan de uno en uno)
+     * @throws IllegalArgumentException si el corte es posterior a hoy
+     */
+    public synchronized Optional<MatriculaArchivoResponse> iniciar(LocalDate corte) {
+        if (corte.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("El corte no puede ser posterior a hoy: " + corte);
+        }
+        if (ultimo != null && !ultimo.terminado()) {
+            return Optional.empty();
+        }
+        Archivado archivado = new Archivado(UUID.randomUUID().toString(), corte, estados);
+        archivados.put(archivado.id, archivado);
+        ultimo = archivado;
+        ejecutor.execute(() -> ejecutar(archivado));
+        return Optional.of(archivado.progreso());
+    }
+
+    public Optional<MatriculaArchivoResponse> consultar(String id) {
+        return Optional.ofNullable(archivados.get(id)).map(Archivado::progreso);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Archivado archivado) {
+        archivado.inicio = LocalDateTime.now();
+        archivado.estado = Estado.EN_CURSO;
+        LocalDate corte = archivado.corte;
+        try {
+            long ultimoId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = archivoJdbc.siguientesIds(estados, corte, ultimoId, tamanioLote);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer bloque = transactionTemplate.execute(tx -> {
+                    List<Long> bloqueadas = archivoJdbc.bloquear(ids, estados, corte);
+                    return bloqueadas.isEmpty() ? 0 : archivoJdbc.mover(bloqueadas);
+                });
+                archivado.movidas += bloque == null ? 0 : bloque;
+                archivado.lotes++;
+                ultimoId = ids.get(ids.size() - 1);
+                if (ids.size() < tamanioLote) {
+                    break;
+                }
+                if (pausaMs > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            }
+            archivado.estado = Estado.COMPLETADO;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            archivado.fallar("Interrumpido al detener la aplicación");
+        } catch (RuntimeException e) {
+            log.error("Archivado {} de matrículas anteriores a {} fallido tras {} lotes",
+                    archivado.id, corte, archivado.lotes, e);
+            archivado.fallar(e.getMessage());
+        } finally {
+            archivado.fin = LocalDateTime.now();
+        }
+        log.info("Archivado {} de matrículas {} anteriores a {}: {} movidas en {} lotes",
+                archivado.id, estados, corte, archivado.movidas, archivado.lotes);
+    }
+
+    /**
+     * Estado mutable de un archivado; solo lo escribe el hilo del ejecutor
+     */
+    private static final class Archivado {
+
+        private final String id;
+        private final LocalDate corte;
+        private final List<String> estados;
+        private volatile Estado estado = Estado.PENDIENTE;
+        private volatile long movidas;
+        private volatile int lotes;
+        private volatile LocalDateTime inicio;
+        private volatile LocalDateTime fin;
+        private volatile String error;
+
+        private Archivado(String id, LocalDate corte, List<String> estados) {
+            this.id = id;
+            this.corte = corte;
+            this.estados = estados;
+        }
+
+        private boolean terminado() {
+            return estado == Estado.COMPLETADO || estado == Estado.FALLIDO;
+        }
+
+        private void fallar(String mensaje) {
+            error = mensaje;
+            estado = Estado.FALLIDO;
+        }
+
+        private MatriculaArchivoResponse progreso() {
+            return new MatriculaArchivoResponse(id, estado.name(), corte, estados,
+                    movidas, lotes, inicio, fin, error);
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.TotalesAproximados;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaLoteResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.PaginaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaHistoricoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.PersonaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.CamposProyectables;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.ProyeccionCamposJpa;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Caso de uso de consultas de matrículas por datos del alumno (email, código, estado)
+ * Con personas.modelo-lectura.habilitado usa la tabla aplanada alumnos_lectura;
+ * si no, las consultas sobre la herencia JOINED (personas + alumnos)
+ * Las consultas por lote resuelven muchos alumnos con cláusulas IN de hasta
+ * matriculas.consulta-lote.tamano-in valores: una sentencia por bloque
+ * Los listados con fields= seleccionan solo las columnas pedidas (lista blanca por
+ * recurso); los datos del alumno salen del mismo modelo que el resto de consultas
+ * Los listados paginados no cuentan filas salvo que se pida el total (total=aproximado|exacto)
+ * Todas las consultas leen solo las matrículas vigentes (tabla matriculas); las de
+ * email, código y estado incluyen las archivadas si se pide el histórico
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Service
+public class MatriculaConsultaUseCase {
+    
+    private final MatriculaRepositoryJpa matriculaRepository;
+    private final MatriculaHistoricoRepositoryJpa historicoRepository;
+    private final ProyeccionCamposJpa proyeccion;
+    private final TotalesAproximados totales;
+    private final CamposProyectables<MatriculaEntity> campos;
+    private final String alumno;
+    private final boolean modeloLectura;
+    private final int tamanioIn;
+    private final int maximoAlumnos;
+    
+    public MatriculaConsultaUseCase(MatriculaRepositoryJpa matriculaRepository,
+                                    MatriculaHistoricoRepositoryJpa historicoRepository,
+                                    ProyeccionCamposJpa proyeccion,
+                                    TotalesAproximados totales,
+                                    @Value("${personas.modelo-lectura.habilitado:true}") boolean modeloLectura,
+                                    @Value("${matriculas.consulta-lote.tamano-in:500}") int tamanioIn,
+                                    @Value("${matriculas.consulta-lote.maximo-alumnos:5000}") int maximoAlumnos) {
+        this.matriculaRepository = matriculaRepository;
+        this.historicoRepository = historicoRepository;
+        this.proyeccion = proyeccion;
+        this.totales = totales;
+        this.modeloLectura = modeloLectura;
+        this.alumno = modeloLectura ? "alumnoLectura" : "alumno";
+        this.campos = CamposProyectables.de(MatriculaEntity.class)
+                .con("id", "id")
+                .con("fechaMatricula", "fechaMatricula")
+                .con("estado", "estado")
+                .con("notaFinal", "notaFinal")
+                .con("alumnoId", "alumno.id")
+                .con("alumnoNombre", alumno + ".nombre")
+                .con("alumnoEmail", alumno + ".email")
+                .con("codigoEstudiante", alumno + ".codigoEstudiante")
+                .con("cursoId", "curso.id")
+                .con("codigoCurso", "curso.codigoCurso")
+                .con("cursoNombre", "curso.nombre")
+                .con("creditos", "curso.creditos");
+        this.tamanioIn = tamanioIn;
+        this.maximoAlumnos = maximoAlumnos;
+    }
+    
+    public List<MatriculaResumenProjection> resumenPorEmail(String email) {
+        return resumenPorEmail(email, false);
+    }
+    
+    /**
+     * @param historico true = incluye las matrículas archivadas en matriculas_historico
+     */
+    public List<MatriculaResumenProjection> resumenPorEmail(String email, boolean historico) {
+        List<MatriculaResumenProjection> vigentes = modeloLectura
+                ? matriculaRepository.findResumenLecturaByAlumnoEmail(email)
+                : matriculaRepository.findResumenByAlumnoEmail(email);
+        return !historico ? vigentes : conArchivo(vigentes, modeloLectura
+                ? historicoRepository.findResumenLecturaByAlumnoEmail(email)
+                : historicoRepository.findResumenByAlumnoEmail(email));
+    }
+    
+    public List<MatriculaResumenProjection> resumenPorCodigoEstudiante(String codigo) {
+        return resumenPorCodigoEstudiante(codigo, false);
+    }
+    
+    public List<MatriculaResumenProjection> resumenPorCodigoEstudiante(String codigo, boolean historico) {
+        List<MatriculaResumenProjection> vigentes = modeloLectura
+                ? matriculaRepository.findResumenLecturaByCodigoEstudiante(codigo)
+                : matriculaRepository.findResumenByCodigoEstudiante(codigo);
+        return !historico ? vigentes : conArchivo(vigentes, modeloLectura
+                ? historicoRepository.findResumenLecturaByCodigoEstudiante(codigo)
+                : historicoRepository.findResumenByCodigoEstudiante(codigo));
+    }
+    
+    public List<MatriculaResumenProjection> resumenPorEstado(String estado) {
+        return resumenPorEstado(estado, false);
+    }
+    
+    public List<MatriculaResumenProjection> resumenPorEstado(String estado, boolean historico) {
+        List<MatriculaResumenProjection> vigentes = modeloLectura
+                ? matriculaRepository.findResumenLecturaByEstado(estado)
+                : matriculaRepository.findResumenByEstado(estado);
+        return !historico ? vigentes : conArchivo(vigentes, modeloLectura
+                ? historicoRepository.findResumenLecturaByEstado(estado)
+                : historicoRepository.findResumenByEstado(estado));
+    }
+    
+    public Long contarActivasPorEmail(String email) {
+        return modeloLectura
+                ? matriculaRepository.countActiveMatriculasLecturaByEmail(email)
+                : matriculaRepository.countActiveMatriculasByEmail(email);
+    }
+    
+    /**
+     * Listado paginado de matrículas, opcionalmente de un alumno por email: trae
+     * size + 1 filas en lugar de un COUNT(*)
+     * @param email Email del alumno (null = todas las matrículas)
+     */
+    public PaginaResponse<MatriculaEntity> listar(String email, Pageable pageable, ModoTotal modo) {
+        if (email == null) {
+            Slice<MatriculaEntity> pagina = matriculaRepository.findPagina(pageable);
+            return PaginaResponse.de(pagina, modo,
+                    totales.total(modo, pagina, "matriculas", null, matriculaRepository::count));
+        }
+        Slice<MatriculaEntity> pagina = matriculaRepository.findPaginaPorAlumnoEmail(email, pageable);
+        return PaginaResponse.de(pagina, modo, totales.total(modo, pagina, "matriculas",
+                PersonaEntity.normalizarEmail(email), () -> matriculaRepository.countPorAlumnoEmail(email)));
+    }
+    
+    /**
+     * Listado paginado con solo los campos pedidos, opcionalmente de un alumno por email
+     * @param email Email del alumno (null = todas las matrículas)
+     * @throws IllegalArgumentException si fields u orden incluyen campos fuera de la lista blanca
+     */
+    public Page<Map<String, Object>> listarCampos(String fields, String email, Pageable pageable) {
+        List<String> seleccion = campos.seleccionar(fields);
+        campos.validarOrden(pageable.getSort());
+        ProyeccionCamposJpa.Filtro<MatriculaEntity> filtro = null;
+        if (email != null) {
+            String emailNormalizado = PersonaEntity.normalizarEmail(email);
+            filtro = (cb, raiz) -> cb.equal(raiz.join(alumno).get("emailNormalizado"), emailNormalizado);
+        }
+        return proyeccion.buscar(campos, seleccion, filtro, pageable);
+    }
+    
+    /**
+     * Matrículas de varios alumnos por email, agrupadas por email normalizado
+     * @throws IllegalArgumentException si la lista está vacía, tiene valores en blanco
+     *         o supera matriculas.consulta-lote.maximo-alumnos
+     */
+    public MatriculaLoteResponse resumenPorEmails(List<String> emails) {
+        return porLote(emails, PersonaEntity::normalizarEmail,
+                modeloLectura
+                        ? matriculaRepository::findResumenLecturaByAlumnoEmailNormalizadoIn
+                        : matriculaRepository::findResumenByAlumnoEmailNormalizadoIn,
+                matricula -> PersonaEntity.normalizarEmail(matricula.alumnoEmail()));
+    }
+    
+    /**
+     * Matrículas de varios alumnos por código de estudiante, agrupadas por código
+     * @throws IllegalArgumentException con las mismas reglas que {@link #resumenPorEmails}
+     */
+    public MatriculaLoteResponse resumenPorCodigosEstudiante(List<String> codigos) {
+        return porLote(codigos, String::trim,
+                modeloLectura
+                        ? matriculaRepository::findResumenLecturaByCodigoEstudianteIn
+                        : matriculaRepository::findResumenByCodigoEstudianteIn,
+                MatriculaResumenProjection::codigoEstudiante);
+    }
+    
+    /**
+     * Une las matrículas vigentes con las archivadas, por fecha de matrícula descendente
+     * (ambas listas ya vienen en ese orden)
+     */
+    private static List<MatriculaResumenProjection> conArchivo(List<MatriculaResumenProjection> vigentes,
+                                                              List<MatriculaResumenProjection> archivadas) {
+        if (archivadas.isEmpty()) {
+            return vigentes;
+        }
+        List<MatriculaResumenProjection> todas = new ArrayList<>(vigentes.size() + archivadas.size());
+        todas.addAll(vigentes);
+        todas.addAll(archivadas);
+        todas.sort(Comparator.comparing(MatriculaResumenProjection::fechaMatricula).reversed());
+        return todas;
+    }
+    
+    private MatriculaLoteResponse porLote(List<String> valores,
+                                          Function<String, String> normalizar,
+                                          Function<List<String>, List<MatriculaResumenProjection>> consulta,
+                                          Function<MatriculaResumenProjection, String> claveDe) {
+        if (valores == null || valores.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos un alumno");
+        }
+        if (valores.size() > maximoAlumnos) {
+            throw new IllegalArgumentException("La consulta supera el máximo de " + maximoAlumnos + " alumnos");
+        }
+        
+        // MySQL (utf8mb4_unicode_ci) compara sin distinguir mayúsculas ni acentos: los valores
+        // que la base considera iguales comparten una sola clave, la primera en el orden recibido,
+        // y las filas se asignan por esa misma comparación
+        Map<String, List<MatriculaResumenProjection>> porAlumno = new LinkedHashMap<>();
+        Map<String, List<MatriculaResumenProjection>> indice = new HashMap<>();
+        for (String valor : valores) {
+            if (valor == null || valor.isBlank()) {
+                throw new IllegalArgumentException("La lista contiene valores vacíos");
+            }
+            String clave = normalizar.apply(valor);
+            indice.computeIfAbsent(comparable(clave), c -> nuevaLista(porAlumno, clave));
+        }
+        
+        List<String> claves = new ArrayList<>(porAlumno.keySet());
+        int matriculas = 0;
+        for (int desde = 0; desde < claves.size(); desde += tamanioIn) {
+            for (MatriculaResumenProjection matricula : consulta.apply(
+                    claves.subList(desde, Math.min(desde + tamanioIn, claves.size())))) {
+                // Una fila que la colación asigna a una clave no equivalente aquí forma su propio grupo
+                String clave = claveDe.apply(matricula);
+                indice.computeIfAbsent(comparable(clave), c -> nuevaLista(porAlumno, clave)).add(matricula);
+                matriculas++;
+            }
+        }
+        return new MatriculaLoteResponse(porAlumno.size(), matriculas, porAlumno);
+    }
+    
+    private static List<MatriculaResumenProjection> nuevaLista(Map<String, List<MatriculaResumenProjection>> porAlumno,
+                                                               String clave) {
+        List<MatriculaResumenProjection> lista = new ArrayList<>();
+        porAlumno.put(clave, lista);
+        return lista;
+    }
+    
+    /**
+     * Forma de comparación equivalente a la colación de MySQL: sin acentos y en minúsculas
+     */
+    private static String comparable(String clave) {
+        return Normalizer.normalize(clave, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,129 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaExportacionFila;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Caso de uso de exportación masiva de matrículas
+ * Recorre la consulta como Stream y escribe cada fila en la respuesta a medida que se lee;
+ * el contexto de persistencia se limpia cada bloque para que la memoria no crezca
+ * con el número de filas exportadas
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Service
+public class MatriculaExportacionUseCase {
+    
+    /** Filas entre cada flush de la salida y limpieza del contexto de persistencia */
+    static final int BLOQUE = 500;
+    
+    public enum Formato {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+        
+        private final String contentType;
+        private final String extension;
+        
+        Formato(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+        
+        public String getContentType() {
+            return contentType;
+        }
+        
+        public String getExtension() {
+            return extension;
+        }
+    }
+    
+    private final MatriculaRepositoryJpa matriculaRepository;
+    private final ObjectWriter jsonWriter;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    public MatriculaExportacionUseCase(MatriculaRepositoryJpa matriculaRepository, ObjectMapper objectMapper) {
+        this.matriculaRepository = matriculaRepository;
+        this.jsonWriter = objectMapper.writerFor(MatriculaExportacionFila.class);
+    }
+    
+    /**
+     * Escribe las matrículas en la salida indicada
+     * @param estado  Filtro opcional por estado (null = todas)
+     * @return Número de filas exportadas
+     */
+    @Transactional(readOnly = true, timeout = 600)
+    public long exportar(String estado, Formato formato, OutputStream salida) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+        long filas = 0;
+        
+        try (Stream<MatriculaEntity> matriculas = matriculaRepository.streamParaExportacion(estado)) {
+            Iterator<MatriculaEntity> it = matriculas.iterator();
+            
+            if (formato == Formato.CSV) {
+                writer.write(String.join(",", MatriculaExportacionFila.COLUMNAS));
+                writer.write("\r\n");
+                while (it.hasNext()) {
+                    escribirCsv(writer, MatriculaExportacionFila.de(it.next()));
+                    filas = fila(writer, filas);
+                }
+            } else {
+                while (it.hasNext()) {
+                    writer.write(jsonWriter.writeValueAsString(MatriculaExportacionFila.de(it.next())));
+                    writer.write('\n');
+                    filas = fila(writer, filas);
+                }
+            }
+        }
+        
+        writer.flush();
+        return filas;
+    }
+    
+    private long fila(Writer writer, long filas) throws IOException {
+        long total = filas + 1;
+        if (total % BLOQUE == 0) {
+            writer.flush();
+            entityManager.clear();
+        }
+        return total;
+    }
+    
+    private static void escribirCsv(Writer writer, MatriculaExportacionFila fila) throws IOException {
+        Object[] valores = fila.valores();
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (valores[i] != null) {
+                writer.write(escaparCsv(valores[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+    
+    private static String escaparCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+}
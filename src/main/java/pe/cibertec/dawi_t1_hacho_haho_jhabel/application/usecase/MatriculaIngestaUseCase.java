@@ -0,0 +1,314 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaIngestaFila;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaIngestaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaIngestaResponse.Conflicto;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaDelta;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaIngestaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaIngestaJdbc.MatriculaNueva;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaIngestaJdbc.Par;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caso de uso de carga masiva de matrículas (inicio de ciclo)
+ * Valida las filas, resuelve alumnos y cursos por código en bloque, descarta
+ * duplicados y matrículas existentes, e inserta por lotes JDBC con una
+ * transacción por lote: un lote fallido se reporta sin deshacer los demás
+ * Si otra transacción matricula un mismo par entre la verificación y el INSERT, el
+ * lote se deshace y se repite (hasta INTENTOS veces) con la verificación actualizada
+ * Los INSERT no pasan por JPA, así que cada lote suma sus matrículas a
+ * cursos_estadisticas en la misma transacción
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class MatriculaIngestaUseCase {
+    
+    public enum Motivo {
+        DATOS_INCOMPLETOS,
+        FECHA_INVALIDA,
+        ALUMNO_NO_EXISTE,
+        CURSO_NO_EXISTE,
+        DUPLICADA_EN_CARGA,
+        YA_MATRICULADO,
+        ERROR_LOTE
+    }
+    
+    /** Intentos por lote cuando pierde la carrera por un par con otra transacción */
+    static final int INTENTOS = 3;
+    
+    private final MatriculaIngestaJdbc ingestaJdbc;
+    private final CursoEstadisticaJdbc estadisticaJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final int maximoFilas;
+    
+    public MatriculaIngestaUseCase(MatriculaIngestaJdbc ingestaJdbc,
+                                   CursoEstadisticaJdbc estadisticaJdbc,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${matriculas.ingesta.lote:1000}") int tamanioLote,
+                                   @Value("${matriculas.ingesta.maximo-filas:100000}") int maximoFilas) {
+        this.ingestaJdbc = ingestaJdbc;
+        this.estadisticaJdbc = estadisticaJdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanioLote = tamanioLote;
+        this.maximoFilas = maximoFilas;
+    }
+    
+    /**
+     * Fila validada y resuelta, pendiente de insertar
+     */
+    private record Pendiente(int fila, MatriculaIngestaFila datos, MatriculaNueva matricula) {
+    }
+    
+    /**
+     * Carga las matrículas indicadas
+     * @throws IllegalArgumentException si la carga supera matriculas.ingesta.maximo-filas
+     */
+    public MatriculaIngestaResponse ingerir(List<MatriculaIngestaFila> filas) {
+        if (filas.size() > maximoFilas) {
+            throw new IllegalArgumentException("La carga supera el máximo de " + maximoFilas + " filas");
+        }
+        long inicio = System.nanoTime();
+        List<Conflicto> conflictos = new ArrayList<>();
+        
+        // 1. Validación de cada fila
+        List<LocalDate> fechas = new ArrayList<>(filas.size());
+        Set<String> codigosAlumnos = new HashSet<>();
+        Set<String> codigosCursos = new HashSet<>();
+        for (int i = 0; i < filas.size(); i++) {
+            MatriculaIngestaFila fila = filas.get(i);
+            fechas.add(null);
+            if (fila == null || vacio(fila.codigoEstudiante()) || vacio(fila.codigoCurso())) {
+                conflictos.add(conflicto(i + 1, fila, Motivo.DATOS_INCOMPLETOS));
+                continue;
+            }
+            try {
+                fechas.set(i, vacio(fila.fecha()) ? LocalDate.now() : LocalDate.parse(fila.fecha().trim()));
+            } catch (DateTimeParseException e) {
+                conflictos.add(conflicto(i + 1, fila, Motivo.FECHA_INVALIDA));
+                continue;
+            }
+            codigosAlumnos.add(fila.codigoEstudiante().trim());
+            codigosCursos.add(fila.codigoCurso().trim());
+        }
+        
+        // 2. IDs de alumnos y cursos en bloque
+        Map<String, Long> alumnos = ingestaJdbc.idsAlumnosPorCodigo(codigosAlumnos);
+        Map<String, Long> cursos = ingestaJdbc.idsCursosPorCodigo(codigosCursos);
+        
+        // 3. Resolución y duplicados dentro de la misma carga
+        List<Pendiente> pendientes = new ArrayList<>();
+        Set<Par> vistos = new HashSet<>();
+        for (int i = 0; i < filas.size(); i++) {
+            if (fechas.get(i) == null) {
+                continue;
+            }
+            MatriculaIngestaFila fila = filas.get(i);
+            Long alumnoId = alumnos.get(fila.codigoEstudiante().trim());
+            Long cursoId = cursos.get(fila.codigoCurso().trim());
+            if (alumnoId == null) {
+                conflictos.add(conflicto(i + 1, fila, Motivo.ALUMNO_NO_EXISTE));
+            } else if (cursoId == null) {
+                conflictos.add(conflicto(i + 1, fila, Motivo.CURSO_NO_EXISTE));
+            } else {
+                MatriculaNueva matricula = new MatriculaNueva(alumnoId, cursoId, fechas.get(i));
+                if (vistos.add(matricula.par())) {
+                    pendientes.add(new Pendiente(i + 1, fila, matricula));
+                } else {
+                    conflictos.add(conflicto(i + 1, fila, Motivo.DUPLICADA_EN_CARGA));
+                }
+            }
+        }
+        
+        // 4. Inserción por lotes, una transacción por lote
+        int insertadas = 0;
+        for (int desde = 0; desde < pendientes.size(); desde += tamanioLote) {
+            List<Pendiente> lote = pendientes.subList(desde, Math.min(desde + tamanioLote, pendientes.size()));
+            try {
+                insertadas += insertarConReintentos(lote, conflictos);
+            } catch (DataAccessException e) {
+                log.warn("Lote de carga masiva rechazado (filas {}-{}): {}",
+                        lote.get(0).fila(), lote.get(lote.size() - 1).fila(), e.getMostSpecificCause().getMessage());
+                lote.forEach(p -> conflictos.add(conflicto(p.fila(), p.datos(), Motivo.ERROR_LOTE)));
+            }
+        }
+        
+        conflictos.sort(Comparator.comparingInt(Conflicto::fila));
+        long duracionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+        long filasPorSegundo = filas.size() * 1000L / Math.max(1, duracionMs);
+        log.info("Carga masiva de matrículas: {} recibidas, {} insertadas, {} rechazadas en {} ms",
+                filas.size(), insertadas, conflictos.size(), duracionMs);
+        return new MatriculaIngestaResponse(filas.size(), insertadas, conflictos.size(),
+                duracionMs, filasPorSegundo, conflictos);
+    }
+    
+    /**
+     * Carga desde CSV (RFC 4180): codigoEstudiante,codigoCurso,fecha (cabecera opcional)
+     * Acepta lo que escribe la exportación: campos entre comillas con comas, comillas
+     * duplicadas ("") o saltos de línea
+     */
+    public MatriculaIngestaResponse ingerirCsv(Reader csv) throws IOException {
+        List<MatriculaIngestaFila> filas = new ArrayList<>();
+        BufferedReader lector = new BufferedReader(csv);
+        List<String> columnas;
+        boolean primera = true;
+        while ((columnas = registroCsv(lector)) != null) {
+            if (columnas.size() == 1 && columnas.get(0).isBlank()) {
+                continue;
+            }
+            if (primera && columnas.get(0).trim().equalsIgnoreCase("codigoEstudiante")) {
+                primera = false;
+                continue;
+            }
+            primera = false;
+            filas.add(new MatriculaIngestaFila(columna(columnas, 0), columna(columnas, 1), columna(columnas, 2)));
+            if (filas.size() > maximoFilas) {
+                throw new IllegalArgumentException("La carga supera el máximo de " + maximoFilas + " filas");
+            }
+        }
+        return ingerir(filas);
+    }
+    
+    /**
+     * Lee el siguiente registro CSV: la coma y el salto de línea solo separan fuera de
+     * comillas, y dentro de ellas "" es una comilla literal
+     * @return Campos del registro, o null al final de la entrada
+     */
+    private static List<String> registroCsv(BufferedReader lector) throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        boolean leido = false;
+        int c;
+        while ((c = lector.read()) != -1) {
+            leido = true;
+            if (entreComillas) {
+                if (c != '"') {
+                    campo.append((char) c);
+                    continue;
+                }
+                lector.mark(1);
+                if (lector.read() == '"') {
+                    campo.append('"');
+                } else {
+                    lector.reset();
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+        }
+        if (!leido) {
+            return null;
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("El CSV tiene un campo entre comillas sin cerrar");
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+    
+    /**
+     * Inserta un lote en su propia transacción; si pierde la carrera por algún par con
+     * otra transacción (DuplicateKeyException), lo repite desde la verificación
+     * @return Filas insertadas
+     */
+    private int insertarConReintentos(List<Pendiente> lote, List<Conflicto> conflictos) {
+        for (int intento = 1; ; intento++) {
+            List<Conflicto> conflictosLote = new ArrayList<>();
+            try {
+                Integer resultado = transactionTemplate.execute(estado -> insertarLote(lote, conflictosLote));
+                conflictos.addAll(conflictosLote);
+                return resultado == null ? 0 : resultado;
+            } catch (DuplicateKeyException e) {
+                if (intento >= INTENTOS) {
+                    throw e;
+                }
+                log.debug("Lote de carga masiva con un par insertado en paralelo (intento {}), se repite", intento);
+            }
+        }
+    }
+    
+    /**
+     * Descarta las matrículas que ya existen e inserta el resto del lote
+     * Las estadísticas se suman después del INSERT y en su transacción: si un par choca,
+     * el lote entero (estadísticas incluidas) se deshace y solo cuenta el intento que se confirma
+     * @return Filas insertadas
+     */
+    private int insertarLote(List<Pendiente> lote, List<Conflicto> conflictos) {
+        Set<Long> alumnoIds = new HashSet<>();
+        Set<Long> cursoIds = new HashSet<>();
+        lote.forEach(p -> {
+            alumnoIds.add(p.matricula().alumnoId());
+            cursoIds.add(p.matricula().cursoId());
+        });
+        Set<Par> existentes = ingestaJdbc.paresExistentes(alumnoIds, cursoIds);
+        
+        List<Pendiente> nuevas = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            if (existentes.contains(pendiente.matricula().par())) {
+                conflictos.add(conflicto(pendiente.fila(), pendiente.datos(), Motivo.YA_MATRICULADO));
+            } else {
+                nuevas.add(pendiente);
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return 0;
+        }
+        
+        // Sin excepción, todas las filas del lote quedaron insertadas
+        ingestaJdbc.insertar(nuevas.stream().map(Pendiente::matricula).toList());
+        Map<Long, CursoEstadisticaDelta> porCurso = new HashMap<>();
+        for (Pendiente nueva : nuevas) {
+            porCurso.merge(nueva.matricula().cursoId(), CursoEstadisticaDelta.NUEVA_ACTIVA, CursoEstadisticaDelta::mas);
+        }
+        estadisticaJdbc.aplicar(porCurso);
+        return nuevas.size();
+    }
+    
+    private static Conflicto conflicto(int fila, MatriculaIngestaFila datos, Motivo motivo) {
+        return datos == null
+                ? new Conflicto(fila, null, null, motivo.name())
+                : new Conflicto(fila, datos.codigoEstudiante(), datos.codigoCurso(), motivo.name());
+    }
+    
+    private static String columna(List<String> columnas, int indice) {
+        if (indice >= columnas.size()) {
+            return null;
+        }
+        String valor = columnas.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+    
+    private static boolean vacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+}
@@ -0,0 +1,236 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaTransicionRequest;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaTransicionResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaDelta;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaTransicionJdbc;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Caso de uso de cambios de estado masivos de matrículas (cierre de ciclo)
+ * Cada transición se ejecuta en segundo plano por bloques de matriculas.transicion.lote
+ * IDs: un UPDATE por bloque en su propia transacción, que bloquea solo esas filas y
+ * suma a cursos_estadisticas el cambio de matrículas activas de cada curso; entre
+ * bloques hace una pausa para no acaparar el primario. Las lecturas no se bloquean
+ * Las transiciones se ejecutan de una en una, en orden de llegada, y se consulta su
+ * progreso por id (se conservan las últimas matriculas.transicion.historial)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+@Service
+public class MatriculaTransicionUseCase {
+
+    public enum Estado {
+        PENDIENTE,
+        EN_CURSO,
+        COMPLETADA,
+        FALLIDA
+    }
+
+    /**
+     * Estados de matrícula y transiciones permitidas (origen -> destinos): solo una
+     * matrícula activa se cierra, completa o retira, y solo una retirada se reactiva
+     */
+    private static final Map<String, Set<String>> TRANSICIONES = Map.of(
+            "ACTIVA", Set.of("COMPLETADA", "CERRADA", "RETIRADA"),
+            "RETIRADA", Set.of("ACTIVA"),
+            "COMPLETADA", Set.of(),
+            "CERRADA", Set.of());
+    private static final String USUARIO_POR_DEFECTO = "sistema";
+
+    private final MatriculaTransicionJdbc transicionJdbc;
+    private final CursoEstadisticaJdbc estadisticaJdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final long pausaMs;
+    private final Map<String, Transicion> transiciones;
+    private final ExecutorService ejecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("transicion-matriculas").daemon().factory());
+
+    public MatriculaTransicionUseCase(MatriculaTransicionJdbc transicionJdbc,
+                                      CursoEstadisticaJdbc estadisticaJdbc,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${matriculas.transicion.lote:500}") int tamanioLote,
+                                      @Value("${matriculas.transicion.pausa-ms:50}") long pausaMs,
+                                      @Value("${matriculas.transicion.historial:100}") int historial) {
+        this.transicionJdbc = transicionJdbc;
+        this.estadisticaJdbc = estadisticaJdbc;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanioLote = tamanioLote;
+        this.pausaMs = pausaMs;
+        this.transiciones = java.util.Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Transicion> mayor) {
+                return size() > historial;
+            }
+        });
+    }
+
+    /**
+     * Valida la solicitud y encola la transición
+     * @return Progreso inicial (PENDIENTE), con el id para consultarlo
+     * @throws IllegalArgumentException si faltan los estados, no son estados de matrícula, la
+     *         transición no está permitida o el rango de fechas está invertido
+     */
+    public MatriculaTransicionResponse iniciar(MatriculaTransicionRequest solicitud) {
+        String origen = estado(solicitud.estadoOrigen(), "estadoOrigen");
+        String destino = estado(solicitud.estadoDestino(), "estadoDestino");
+        if (origen.equals(destino)) {
+            throw new IllegalArgumentException("estadoOrigen y estadoDestino deben ser distintos");
+        }
+        if (!TRANSICIONES.get(origen).contains(destino)) {
+            throw new IllegalArgumentException("No se permite la transición " + origen + " -> " + destino
+                    + " (desde " + origen + ": " + new TreeSet<>(TRANSICIONES.get(origen)) + ")");
+        }
+        if (solicitud.fechaDesde() != null && solicitud.fechaHasta() != null
+                && solicitud.fechaDesde().isAfter(solicitud.fechaHasta())) {
+            throw new IllegalArgumentException("fechaDesde es posterior a fechaHasta");
+        }
+        String usuario = solicitud.usuario() == null || solicitud.usuario().isBlank()
+                ? USUARIO_POR_DEFECTO : solicitud.usuario().trim();
+
+        Transicion transicion = new Transicion(UUID.randomUUID().toString(),
+                new MatriculaTransicionJdbc.Filtro(origen, solicitud.cursoId(), solicitud.fechaDesde(), solicitud.fechaHasta()),
+                destino, usuario);
+        transiciones.put(transicion.id, transicion);
+        ejecutor.execute(() -> ejecutar(transicion));
+        return transicion.progreso();
+    }
+
+    public Optional<MatriculaTransicionResponse> consultar(String id) {
+        return Optional.ofNullable(transiciones.get(id)).map(Transicion::progreso);
+    }
+
+    @PreDestroy
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+
+    private void ejecutar(Transicion transicion) {
+        transicion.inicio = LocalDateTime.now();
+        transicion.estado = Estado.EN_CURSO;
+        MatriculaTransicionJdbc.Filtro filtro = transicion.filtro;
+        // Solo cambia matriculas_activas; total, notas y aprobadas no dependen del estado
+        CursoEstadisticaDelta cambio = estadisticaJdbc.aporte(transicion.destino, null)
+                .menos(estadisticaJdbc.aporte(filtro.estadoOrigen(), null));
+        try {
+            transicion.estimadas = transicionJdbc.contar(filtro);
+            long ultimoId = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<Long> ids = transicionJdbc.siguientesIds(filtro, ultimoId, tamanioLote);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                Integer actualizadas = transactionTemplate.execute(tx -> cambiarBloque(ids, transicion, cambio));
+                transicion.actualizadas += actualizadas == null ? 0 : actualizadas;
+                transicion.lotes++;
+                ultimoId = ids.get(ids.size() - 1);
+                if (ids.size() < tamanioLote) {
+                    break;
+                }
+                if (pausaMs > 0) {
+                    Thread.sleep(pausaMs);
+                }
+            }
+            transicion.estado = Estado.COMPLETADA;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            transicion.fallar("Interrumpida al detener la aplicación");
+        } catch (RuntimeException e) {
+            log.error("Transición {} de matrículas {} -> {} fallida tras {} lotes", transicion.id,
+                    filtro.estadoOrigen(), transicion.destino, transicion.lotes, e);
+            transicion.fallar(e.getMessage());
+        } finally {
+            transicion.fin = LocalDateTime.now();
+        }
+        log.info("Transición {} de matrículas {} -> {}: {} actualizadas en {} lotes", transicion.id,
+                filtro.estadoOrigen(), transicion.destino, transicion.actualizadas, transicion.lotes);
+    }
+
+    /**
+     * Bloquea las matrículas del bloque que siguen en el estado de origen, las cambia y
+     * actualiza las estadísticas de sus cursos en la misma transacción
+     */
+    private int cambiarBloque(List<Long> ids, Transicion transicion, CursoEstadisticaDelta cambio) {
+        Map<Long, List<Long>> porCurso = new TreeMap<>();
+        transicionJdbc.bloquear(ids, transicion.filtro.estadoOrigen(), porCurso);
+        if (porCurso.isEmpty()) {
+            return 0;
+        }
+        List<Long> bloqueadas = porCurso.values().stream().flatMap(List::stream).toList();
+        int actualizadas = transicionJdbc.cambiarEstado(bloqueadas, transicion.destino, transicion.usuario);
+        Map<Long, CursoEstadisticaDelta> deltas = new HashMap<>();
+        porCurso.forEach((cursoId, matriculas) -> deltas.put(cursoId, cambio.por(matriculas.size())));
+        estadisticaJdbc.aplicar(deltas);
+        return actualizadas;
+    }
+
+    private static String estado(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new IllegalArgumentException("Falta " + campo);
+        }
+        String estado = valor.trim().toUpperCase(Locale.ROOT);
+        if (!TRANSICIONES.containsKey(estado)) {
+            throw new IllegalArgumentException(campo + " no es un estado de matrícula: '" + valor
+                    + "' (válidos: " + new TreeSet<>(TRANSICIONES.keySet()) + ")");
+        }
+        return estado;
+    }
+
+    /**
+     * Estado mutable de una transición; solo la escribe el hilo del ejecutor
+     */
+    private static final class Transicion {
+
+        private final String id;
+        private final MatriculaTransicionJdbc.Filtro filtro;
+        private final String destino;
+        private final String usuario;
+        private volatile Estado estado = Estado.PENDIENTE;
+        private volatile long estimadas;
+        private volatile long actualizadas;
+        private volatile int lotes;
+        private volatile LocalDateTime inicio;
+        private volatile LocalDateTime fin;
+        private volatile String error;
+
+        private Transicion(String id, MatriculaTransicionJdbc.Filtro filtro, String destino, String usuario) {
+            this.id = id;
+            this.filtro = filtro;
+            this.destino = destino;
+            this.usuario = usuario;
+        }
+
+        private void fallar(String mensaje) {
+            error = mensaje;
+            estado = Estado.FALLIDA;
+        }
+
+        private MatriculaTransicionResponse progreso() {
+            Estado actual = estado;
+            double porcentaje = actual == Estado.COMPLETADA ? 100.0
+                    : estimadas == 0 ? 0.0 : Math.min(100.0, actualizadas * 100.0 / estimadas);
+            return new MatriculaTransicionResponse(id, actual.name(), filtro.estadoOrigen(), destino,
+                    estimadas, actualizadas, lotes, porcentaje, inicio, fin, error);
+        }
+    }
+}
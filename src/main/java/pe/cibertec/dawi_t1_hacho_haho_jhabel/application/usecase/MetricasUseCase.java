@@ -0,0 +1,239 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MetricasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.SqlLentasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.SaludBaseDatosConfig;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.ReplicaRoutingDataSource;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql.RegistroSqlLento;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Caso de uso de observabilidad: resume los timers de Micrometer por método de
+ * repositorio y por endpoint, las estadísticas de Hibernate, los pools HikariCP y los
+ * límites de concurrencia y la coalescencia de consultas, expone el registro de SQL lento y verifica la base de datos (y las réplicas de lectura, si hay) para el health check
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Service
+public class MetricasUseCase {
+    
+    static final String METRICA_REPOSITORIOS = "spring.data.repository.invocations";
+    static final String METRICA_HTTP = "http.server.requests";
+    static final String METRICA_LIMITE = "http.concurrencia.limite";
+    static final String METRICA_EN_CURSO = "http.concurrencia.en-curso";
+    static final String METRICA_RECHAZADAS = "http.concurrencia.rechazadas";
+    static final String METRICA_COALESCENCIA = "repositorios.coalescencia";
+    
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+    private final ReplicaRoutingDataSource replicas;
+    private final RegistroSqlLento registroSqlLento;
+    private final SaludBaseDatosConfig.ConexionSalud conexionSalud;
+    private final int timeoutSegundos;
+    
+    public MetricasUseCase(MeterRegistry meterRegistry,
+                           EntityManagerFactory entityManagerFactory,
+                           DataSource dataSource,
+                           ObjectProvider<ReplicaRoutingDataSource> replicas,
+                           ObjectProvider<RegistroSqlLento> registroSqlLento,
+                           SaludBaseDatosConfig.ConexionSalud conexionSalud,
+                           @Value("${salud.base-datos.timeout-segundos:2}") int timeoutSegundos) {
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+        this.dataSource = dataSource;
+        this.replicas = replicas.getIfAvailable();
+        this.registroSqlLento = registroSqlLento.getIfAvailable();
+        this.conexionSalud = conexionSalud;
+        this.timeoutSegundos = timeoutSegundos;
+    }
+    
+    /**
+     * Métricas actuales, con los timers ordenados por tiempo total (los que más pesan primero)
+     */
+    public MetricasResponse resumen() {
+        List<MetricasResponse.Latencia> repositorios = latencias(METRICA_REPOSITORIOS,
+                timer -> timer.getId().getTag("repository") + "." + timer.getId().getTag("method"),
+                timer -> timer.getId().getTag("state"));
+        List<MetricasResponse.Latencia> endpoints = latencias(METRICA_HTTP,
+                timer -> timer.getId().getTag("method") + " " + timer.getId().getTag("uri"),
+                timer -> timer.getId().getTag("status"));
+        return new MetricasResponse(repositorios, endpoints, hibernate(), pool(dataSource), poolsReplicas(),
+                concurrencia(), coalescencia());
+    }
+    
+    /**
+     * Sentencias más lentas desde el arranque
+     * @return vacío si el registro de SQL lento está deshabilitado
+     */
+    public Optional<SqlLentasResponse> sqlLentas() {
+        if (registroSqlLento == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SqlLentasResponse(registroSqlLento.getSentencias(), registroSqlLento.getLentas(),
+                registroSqlLento.getMuestreadas(), registroSqlLento.getDescartadas(),
+                registroSqlLento.getUmbralMs(), registroSqlLento.getMuestreo(), registroSqlLento.masLentas()));
+    }
+    
+    /**
+     * Valida una conexión al primario del pool propio del health check, que no compite
+     * con las peticiones por el pool compartido ni espera más de salud.base-datos.timeout-segundos
+     * @return status UP/DOWN, latencia en ms, estado del pool compartido
+     *         y, con enrutamiento, el estado de cada réplica que mantiene el verificador
+     *         programado, sin validarlas aquí (una réplica caída no cambia el status:
+     *         sus lecturas van al primario)
+     */
+    public Map<String, Object> verificarBaseDatos() {
+        Map<String, Object> baseDatos = new LinkedHashMap<>();
+        long inicio = System.nanoTime();
+        try (Connection conexion = conexionSalud.obtener()) {
+            boolean valida = conexion.isValid(timeoutSegundos);
+            baseDatos.put("status", valida ? "UP" : "DOWN");
+            baseDatos.put("producto", conexion.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            baseDatos.put("status", "DOWN");
+            baseDatos.put("error", e.getMessage());
+        }
+        baseDatos.put("latenciaMs", (System.nanoTime() - inicio) / 1_000_000.0);
+        baseDatos.put("pool", pool(dataSource));
+        if (replicas != null) {
+            baseDatos.put("replicas", replicas.estadoReplicas());
+        }
+        return baseDatos;
+    }
+    
+    private List<MetricasResponse.Latencia> latencias(String metrica,
+                                                      Function<Timer, String> nombre,
+                                                      Function<Timer, String> resultado) {
+        return meterRegistry.find(metrica).timers().stream()
+                .map(timer -> latencia(nombre.apply(timer), resultado.apply(timer), timer))
+                .sorted(Comparator.comparingDouble(MetricasResponse.Latencia::totalMs).reversed())
+                .toList();
+    }
+    
+    private static MetricasResponse.Latencia latencia(String nombre, String resultado, Timer timer) {
+        HistogramSnapshot snapshot = timer.takeSnapshot();
+        Double p50 = null;
+        Double p95 = null;
+        Double p99 = null;
+        for (ValueAtPercentile percentil : snapshot.percentileValues()) {
+            double valor = percentil.value(TimeUnit.MILLISECONDS);
+            if (percentil.percentile() == 0.5) {
+                p50 = valor;
+            } else if (percentil.percentile() == 0.95) {
+                p95 = valor;
+            } else if (percentil.percentile() == 0.99) {
+                p99 = valor;
+            }
+        }
+        return new MetricasResponse.Latencia(nombre, resultado, snapshot.count(),
+                snapshot.total(TimeUnit.MILLISECONDS), snapshot.mean(TimeUnit.MILLISECONDS),
+                snapshot.max(TimeUnit.MILLISECONDS), p50, p95, p99);
+    }
+    
+    private MetricasResponse.Hibernate hibernate() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return new MetricasResponse.Hibernate(
+                estadisticas.isStatisticsEnabled(),
+                estadisticas.getPrepareStatementCount(),
+                estadisticas.getQueryExecutionCount(),
+                estadisticas.getQueryExecutionMaxTime(),
+                estadisticas.getQueryExecutionMaxTimeQueryString(),
+                estadisticas.getEntityLoadCount(),
+                estadisticas.getEntityFetchCount(),
+                estadisticas.getCollectionLoadCount(),
+                estadisticas.getFlushCount(),
+                estadisticas.getTransactionCount(),
+                estadisticas.getSecondLevelCacheHitCount(),
+                estadisticas.getSecondLevelCacheMissCount(),
+                estadisticas.getQueryCacheHitCount(),
+                estadisticas.getQueryCacheMissCount());
+    }
+    
+    private List<MetricasResponse.Concurrencia> concurrencia() {
+        return meterRegistry.find(METRICA_LIMITE).gauges().stream()
+                .map(limite -> {
+                    String grupo = limite.getId().getTag("grupo");
+                    Gauge enCurso = meterRegistry.find(METRICA_EN_CURSO).tag("grupo", grupo).gauge();
+                    FunctionCounter rechazadas = meterRegistry.find(METRICA_RECHAZADAS).tag("grupo", grupo).functionCounter();
+                    return new MetricasResponse.Concurrencia(grupo, (int) limite.value(),
+                            enCurso == null ? 0 : (int) enCurso.value(),
+                            rechazadas == null ? 0 : (long) rechazadas.count());
+                })
+                .sorted(Comparator.comparing(MetricasResponse.Concurrencia::grupo))
+                .toList();
+    }
+    
+    private List<MetricasResponse.Coalescencia> coalescencia() {
+        Map<String, Map<String, Double>> porMetodo = new TreeMap<>();
+        meterRegistry.find(METRICA_COALESCENCIA).counters().forEach(contador -> porMetodo
+                .computeIfAbsent(contador.getId().getTag("metodo"), metodo -> new HashMap<>())
+                .merge(contador.getId().getTag("resultado"), contador.count(), Double::sum));
+        return porMetodo.entrySet().stream()
+                .map(metodo -> {
+                    long ejecutadas = metodo.getValue().getOrDefault("ejecutada", 0.0).longValue();
+                    long compartidas = metodo.getValue().getOrDefault("compartida", 0.0).longValue();
+                    long recientes = metodo.getValue().getOrDefault("reciente", 0.0).longValue();
+                    long total = ejecutadas + compartidas + recientes;
+                    return new MetricasResponse.Coalescencia(metodo.getKey(), ejecutadas, compartidas, recientes,
+                            total == 0 ? 0.0 : (double) (compartidas + recientes) / total);
+                })
+                .toList();
+    }
+    
+    private List<MetricasResponse.Pool> poolsReplicas() {
+        if (replicas == null) {
+            return List.of();
+        }
+        return replicas.getReplicas().values().stream()
+                .map(MetricasUseCase::pool)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    private static MetricasResponse.Pool pool(DataSource dataSource) {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool == null) {
+                return null;
+            }
+            int maximo = hikari.getMaximumPoolSize();
+            return new MetricasResponse.Pool(hikari.getPoolName(), pool.getActiveConnections(),
+                    pool.getIdleConnections(), pool.getTotalConnections(), maximo,
+                    pool.getThreadsAwaitingConnection(), (double) pool.getActiveConnections() / maximo);
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.PanelAlumnoResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.LecturaPropiaContexto;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caso de uso del panel de un alumno (GET /api/matriculas/panel)
+ * Las tres consultas (matrículas, activas y cursos) se lanzan a la vez, cada una en su
+ * hilo virtual y con su propia transacción de solo lectura, así que el panel tarda lo que
+ * la más lenta y no la suma. Se comportan como un grupo: si una falla o se supera
+ * panel-alumno.timeout-ms se cancelan las demás y el error sube a la petición
+ * (StructuredTaskScope sigue en preview en Java 21; esto es su ShutdownOnFailure)
+ * Cada subtarea hereda de la petición si debe leer del primario (read-your-writes)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Service
+public class PanelAlumnoUseCase {
+
+    private static final ThreadFactory HILOS = Thread.ofVirtual().name("panel-alumno-", 0).factory();
+
+    private final MatriculaConsultaUseCase matriculaConsulta;
+    private final CursoRepositoryJpa cursoRepository;
+    private final boolean modeloLectura;
+    private final long timeoutMs;
+
+    public PanelAlumnoUseCase(MatriculaConsultaUseCase matriculaConsulta,
+                              CursoRepositoryJpa cursoRepository,
+                              @Value("${personas.modelo-lectura.habilitado:true}") boolean modeloLectura,
+                              @Value("${panel-alumno.timeout-ms:5000}") long timeoutMs) {
+        this.matriculaConsulta = matriculaConsulta;
+        this.cursoRepository = cursoRepository;
+        this.modeloLectura = modeloLectura;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public PanelAlumnoResponse panel(String email) {
+        boolean primario = LecturaPropiaContexto.forzarPrimario();
+        try (ExecutorService ejecutor = Executors.newThreadPerTaskExecutor(HILOS)) {
+            CompletionService<Object> grupo = new ExecutorCompletionService<>(ejecutor);
+            Future<Object> matriculas = grupo.submit(subtarea(primario, () -> matriculaConsulta.resumenPorEmail(email)));
+            Future<Object> activas = grupo.submit(subtarea(primario, () -> matriculaConsulta.contarActivasPorEmail(email)));
+            Future<Object> cursos = grupo.submit(subtarea(primario, () -> modeloLectura
+                    ? cursoRepository.findByAlumnoLecturaEmail(email)
+                    : cursoRepository.findByAlumnoEmail(email)));
+            esperar(grupo, List.of(matriculas, activas, cursos));
+
+            @SuppressWarnings("unchecked")
+            PanelAlumnoResponse panel = new PanelAlumnoResponse(email,
+                    ((Long) activas.resultNow()),
+                    (List<MatriculaResumenProjection>) matriculas.resultNow(),
+                    (List<CursoEntity>) cursos.resultNow());
+            return panel;
+        }
+    }
+
+    /**
+     * Espera a que terminen todas las subtareas; ante el primer fallo o el timeout
+     * interrumpe las que siguen en curso
+     */
+    private void esperar(CompletionService<Object> grupo, List<Future<Object>> subtareas) {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        try {
+            for (int i = 0; i < subtareas.size(); i++) {
+                Future<Object> terminada = grupo.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (terminada == null) {
+                    throw new QueryTimeoutException("Panel del alumno sin completar tras " + timeoutMs + " ms");
+                }
+                terminada.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Panel del alumno interrumpido", e);
+        } finally {
+            subtareas.forEach(subtarea -> subtarea.cancel(true));
+        }
+    }
+
+    private static Callable<Object> subtarea(boolean primario, Callable<Object> consulta) {
+        return () -> {
+            LecturaPropiaContexto.abrir(primario, null);
+            try {
+                return consulta.call();
+            } finally {
+                LecturaPropiaContexto.cerrar();
+            }
+        };
+    }
+}
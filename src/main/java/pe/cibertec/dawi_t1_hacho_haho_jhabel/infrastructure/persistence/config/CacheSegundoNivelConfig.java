@@ -0,0 +1,84 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Regiones de la caché de segundo nivel de Hibernate (JCache sobre Caffeine)
+ * Cada región tiene un tamaño máximo y un TTL; las escrituras hechas con JPA
+ * actualizan o invalidan las entradas (estrategia READ_WRITE en las entidades)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+public class CacheSegundoNivelConfig {
+    
+    public static final String REGION_CURSOS = "cursos";
+    public static final String REGION_PERSONAS = "personas";
+    public static final String REGION_CONSULTAS = "default-query-results-region";
+    public static final String REGION_TIMESTAMPS = "default-update-timestamps-region";
+    
+    @Value("${cache.segundo-nivel.cursos.maximo:2000}")
+    private long cursosMaximo;
+    
+    @Value("${cache.segundo-nivel.cursos.ttl:PT6H}")
+    private Duration cursosTtl;
+    
+    @Value("${cache.segundo-nivel.personas.maximo:10000}")
+    private long personasMaximo;
+    
+    @Value("${cache.segundo-nivel.personas.ttl:PT1H}")
+    private Duration personasTtl;
+    
+    @Value("${cache.segundo-nivel.consultas.maximo:1000}")
+    private long consultasMaximo;
+    
+    @Value("${cache.segundo-nivel.consultas.ttl:PT10M}")
+    private Duration consultasTtl;
+    
+    /**
+     * CacheManager propio de esta aplicación (URI única), para que dos contextos
+     * en la misma JVM (por ejemplo en las pruebas) no compartan regiones
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CaffeineCachingProvider proveedor = new CaffeineCachingProvider();
+        CacheManager cacheManager = proveedor.getCacheManager(
+                URI.create("sistema-academico-" + UUID.randomUUID()), getClass().getClassLoader());
+        
+        cacheManager.createCache(REGION_CURSOS, region(cursosMaximo, cursosTtl));
+        cacheManager.createCache(REGION_PERSONAS, region(personasMaximo, personasTtl));
+        cacheManager.createCache(REGION_CONSULTAS, region(consultasMaximo, consultasTtl));
+        // Marcas de tiempo por tabla: una entrada por tabla, sin expiración para no
+        // servir resultados de consulta obsoletos
+        cacheManager.createCache(REGION_TIMESTAMPS, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+    
+    /**
+     * Entrega el CacheManager anterior a la RegionFactory de Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer cacheSegundoNivelCustomizer(CacheManager hibernateCacheManager) {
+        return propiedades -> propiedades.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+    
+    private static CaffeineConfiguration<Object, Object> region(long maximo, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(maximo));
+        configuracion.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+}
@@ -0,0 +1,69 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Service;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.CoalescenciaConsultas;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Coalescente;
+
+/**
+ * Coalescencia de consultas idénticas simultáneas (repositorios.coalescencia.habilitado)
+ * El interceptor va primero en el proxy de cada repositorio: quien espera el resultado
+ * de otra llamada no ocupa permiso del bulkhead, transacción ni conexión
+ * En los casos de uso (@Service) con métodos {@link Coalescente} va antes que la
+ * transacción, así que se comparte la lectura transaccional completa
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+@ConditionalOnProperty(name = "repositorios.coalescencia.habilitado", havingValue = "true", matchIfMissing = true)
+public class CoalescenciaConsultasConfig {
+
+    @Bean
+    public CoalescenciaConsultas coalescenciaConsultas(MeterRegistry meterRegistry,
+                                                       @Value("${repositorios.coalescencia.ttl-ms:0}") long ttlMs,
+                                                       @Value("${repositorios.coalescencia.espera-ms:5000}") long esperaMs) {
+        return new CoalescenciaConsultas(meterRegistry, ttlMs, esperaMs);
+    }
+
+    @Bean
+    public static BeanPostProcessor coalescenciaRepositorios(ObjectProvider<CoalescenciaConsultas> coalescencia) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nombre) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, informacion) -> proxy.addAdvice(0, coalescencia.getObject())));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescenciaCasosDeUso(ObjectProvider<CoalescenciaConsultas> coalescencia) {
+        ComposablePointcut metodos = new ComposablePointcut(
+                clase -> AnnotatedElementUtils.hasAnnotation(clase, Service.class),
+                new AnnotationMethodMatcher(Coalescente.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(metodos,
+                (MethodInterceptor) invocacion -> coalescencia.getObject().invoke(invocacion));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,78 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.ConexionesBulkhead;
+
+/**
+ * Hilos virtuales (spring.threads.virtual.enabled=true): Tomcat atiende cada petición
+ * en un hilo virtual y las conexiones al primario pasan por un {@link ConexionesBulkhead}
+ * con tantos permisos como conexiones tiene su pool (spring.datasource.hikari.maximum-pool-size)
+ * Sin réplicas se envuelve el pool de Spring Boot (bean dataSource); con réplicas,
+ * ReplicasLecturaConfig envuelve el pool del primario antes de pasarlo al enrutador
+ * HikariCP 6 y mysql-connector-j 9 usan locks de java.util.concurrent, no synchronized,
+ * así que esperar una conexión o la respuesta de MySQL no fija el hilo a su carrier
+ * Estado en Micrometer: db.bulkhead.capacidad, db.bulkhead.en-uso, db.bulkhead.en-espera
+ * y db.bulkhead.rechazadas
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfig {
+
+    @Bean
+    public ConexionesBulkhead conexionesBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int conexiones,
+            @Value("${datasource.bulkhead.espera-ms:${spring.datasource.hikari.connection-timeout:30000}}") long esperaMs) {
+        ConexionesBulkhead bulkhead = new ConexionesBulkhead(conexiones, esperaMs);
+        Gauge.builder("db.bulkhead.capacidad", bulkhead, ConexionesBulkhead::getCapacidad)
+                .description("Conexiones al primario prestadas a la vez como máximo")
+                .register(meterRegistry);
+        Gauge.builder("db.bulkhead.en-uso", bulkhead, ConexionesBulkhead::getEnUso)
+                .register(meterRegistry);
+        Gauge.builder("db.bulkhead.en-espera", bulkhead, ConexionesBulkhead::getEnEspera)
+                .description("Hilos esperando permiso para usar el pool")
+                .register(meterRegistry);
+        FunctionCounter.builder("db.bulkhead.rechazadas", bulkhead, ConexionesBulkhead::getRechazadas)
+                .description("Peticiones de conexión que no obtuvieron permiso a tiempo")
+                .register(meterRegistry);
+        return bulkhead;
+    }
+
+    /**
+     * Envuelve el pool de Spring Boot en el bulkhead antes que cualquier otro
+     * envoltorio del bean dataSource (el de SQL lento, por ejemplo)
+     */
+    @Bean
+    public static BeanPostProcessor bulkheadPool(ObjectProvider<ConexionesBulkhead> bulkhead) {
+        return new EnvolverPool(bulkhead);
+    }
+
+    private record EnvolverPool(ObjectProvider<ConexionesBulkhead> bulkhead) implements BeanPostProcessor, Ordered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String nombre) {
+            if ("dataSource".equals(nombre) && bean instanceof HikariDataSource pool) {
+                return bulkhead.getObject().envolver(pool);
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.ReplicaRoutingDataSource;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.ConexionesBulkhead;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrutamiento de lecturas a réplicas (datasource.replicas.habilitado=true)
+ * El primario se configura con spring.datasource.* como siempre; cada réplica tiene
+ * su propio pool HikariCP con las mismas credenciales salvo que se indiquen otras
+ * Sin esta configuración Spring Boot crea el único pool habitual
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.habilitado", havingValue = "true")
+public class ReplicasLecturaConfig {
+    
+    @Value("${datasource.replicas.urls}")
+    private List<String> urls;
+    
+    @Value("${datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+    
+    @Value("${datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+    
+    @Value("${datasource.replicas.maximo-conexiones:20}")
+    private int maximoConexiones;
+    
+    @Value("${datasource.replicas.timeout-conexion-ms:2000}")
+    private long timeoutConexionMs;
+    
+    @Value("${datasource.replicas.verificacion.timeout-segundos:2}")
+    private int timeoutVerificacionSegundos;
+    
+    @Value("${datasource.replicas.verificacion.consulta:}")
+    private String consultaVerificacion;
+    
+    /**
+     * Pool del primario, con las propiedades spring.datasource.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primarioDataSource(DataSourceProperties propiedades) {
+        HikariDataSource primario = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primario.setPoolName(ReplicaRoutingDataSource.PRIMARIO);
+        return primario;
+    }
+    
+    /**
+     * Con hilos virtuales el primario llega al enrutador detrás de su bulkhead; las
+     * réplicas tienen sus propios pools y no lo comparten
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primarioDataSource,
+                                                             DataSourceProperties propiedades,
+                                                             ObjectProvider<ConexionesBulkhead> bulkhead) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String nombre = "replica-" + i;
+            // Sin setters de arranque rápido: el pool se crea en la primera conexión,
+            // así una réplica caída al iniciar no impide levantar la aplicación
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(nombre);
+            replica.setJdbcUrl(urls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(propiedades.determineDriverClassName());
+            replica.setMaximumPoolSize(maximoConexiones);
+            replica.setConnectionTimeout(timeoutConexionMs);
+            replica.setReadOnly(true);
+            replicas.put(nombre, replica);
+        }
+        ConexionesBulkhead limite = bulkhead.getIfAvailable();
+        DataSource primario = limite == null ? primarioDataSource : limite.envolver(primarioDataSource);
+        ReplicaRoutingDataSource enrutador = new ReplicaRoutingDataSource(primario, replicas,
+                timeoutVerificacionSegundos, consultaVerificacion);
+        enrutador.verificarReplicas();
+        return enrutador;
+    }
+    
+    /**
+     * DataSource que usan JPA y JdbcTemplate
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+    
+    /**
+     * Health check de las réplicas: una réplica caída vuelve a recibir lecturas
+     * en cuanto valida una conexión
+     */
+    @Bean
+    public VerificadorReplicas verificadorReplicas(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new VerificadorReplicas(replicaRoutingDataSource);
+    }
+    
+    public static class VerificadorReplicas {
+        
+        private final ReplicaRoutingDataSource enrutador;
+        
+        VerificadorReplicas(ReplicaRoutingDataSource enrutador) {
+            this.enrutador = enrutador;
+        }
+        
+        @Scheduled(fixedDelayString = "${datasource.replicas.verificacion.intervalo-ms:5000}",
+                   initialDelayString = "${datasource.replicas.verificacion.intervalo-ms:5000}")
+        public void verificar() {
+            enrutador.verificarReplicas();
+        }
+    }
+}
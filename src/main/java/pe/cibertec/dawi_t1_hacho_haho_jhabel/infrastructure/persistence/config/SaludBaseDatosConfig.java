@@ -0,0 +1,66 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool propio del health check contra el primario (salud.base-datos.*)
+ * Con el pool compartido saturado, el health check esperaría una conexión hasta
+ * spring.datasource.hikari.connection-timeout y reportaría la saturación como caída;
+ * este pool tiene una sola conexión, se crea en la primera verificación y espera como
+ * mucho salud.base-datos.timeout-segundos
+ * No se registra como DataSource: JPA, JdbcTemplate y las métricas del pool no lo ven
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+public class SaludBaseDatosConfig {
+
+    @Bean
+    public ConexionSalud conexionSalud(DataSourceProperties propiedades,
+                                       @Value("${salud.base-datos.timeout-segundos:2}") int timeoutSegundos) {
+        // Sin setters de arranque rápido: el pool se crea en la primera conexión
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName("salud");
+        pool.setJdbcUrl(propiedades.determineUrl());
+        pool.setUsername(propiedades.determineUsername());
+        pool.setPassword(propiedades.determinePassword());
+        pool.setDriverClassName(propiedades.determineDriverClassName());
+        pool.setMaximumPoolSize(1);
+        pool.setMinimumIdle(0);
+        long esperaMs = TimeUnit.SECONDS.toMillis(Math.max(1, timeoutSegundos));
+        pool.setConnectionTimeout(esperaMs);
+        pool.setValidationTimeout(esperaMs / 2);
+        pool.setReadOnly(true);
+        return new ConexionSalud(pool);
+    }
+
+    public static class ConexionSalud implements DisposableBean {
+
+        private final HikariDataSource pool;
+
+        ConexionSalud(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Conexión al primario para verificarlo; falla tras salud.base-datos.timeout-segundos
+         */
+        public Connection obtener() throws SQLException {
+            return pool.getConnection();
+        }
+
+        @Override
+        public void destroy() {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql.OrigenConsulta;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql.RegistroSqlLento;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql.SqlMedidoDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Registro de SQL lento (sql.lento.habilitado): el DataSource que usan JPA y JdbcTemplate
+ * se envuelve en un {@link SqlMedidoDataSource} y cada repositorio Spring Data anota en
+ * el hilo qué método está ejecutando, para atribuirle sus sentencias
+ * Sustituye a spring.jpa.show-sql y al TRACE de BasicBinder, que formateaban y escribían
+ * cada sentencia y cada parámetro en el hilo de la petición
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.lento.habilitado", havingValue = "true", matchIfMissing = true)
+public class SqlLentoConfig {
+
+    @Bean
+    public RegistroSqlLento registroSqlLento(@Value("${sql.lento.umbral-ms:200}") long umbralMs,
+                                             @Value("${sql.lento.muestreo:0.0}") double muestreo,
+                                             @Value("${sql.lento.top:50}") int top,
+                                             @Value("${sql.lento.cola:10000}") int cola) {
+        return new RegistroSqlLento(umbralMs, muestreo, top, cola);
+    }
+
+    /**
+     * Envuelve el bean dataSource (el pool de Spring Boot o, con réplicas, el proxy
+     * perezoso del enrutador); los pools internos quedan sin envolver
+     */
+    @Bean
+    public static BeanPostProcessor sqlMedidoDataSource(ObjectProvider<RegistroSqlLento> registro) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String nombre) {
+                if ("dataSource".equals(nombre) && bean instanceof DataSource dataSource
+                        && !(bean instanceof SqlMedidoDataSource)) {
+                    return new SqlMedidoDataSource(dataSource, registro.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor origenConsultasRepositorios() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String nombre) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrica) {
+                    fabrica.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, informacion) -> proxy.addAdvice(0,
+                                    new OrigenConsulta(informacion.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
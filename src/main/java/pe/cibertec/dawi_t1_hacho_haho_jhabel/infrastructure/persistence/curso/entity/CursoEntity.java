@@ -9,12 +9,16 @@ import java.util.Set;
 /**
  * Entidad que representa los cursos del sistema académico
  * Incluye campos de auditoría automática
+ * Se guarda en la caché de segundo nivel (región "cursos")
  * RESPUESTA A PREGUNTA 02 DE LA EVALUACIÓN
  * 
  * @author HACHO HAHO JHABEL
  */
 @Entity
 @Table(name = "cursos")
+@org.hibernate.annotations.Cache(usage = org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE,
+                                  region = pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.CacheSegundoNivelConfig.REGION_CURSOS)
+@EntityListeners(pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener.CursoEntityListener.class)
 @lombok.Getter
 @lombok.Setter
 @lombok.NoArgsConstructor
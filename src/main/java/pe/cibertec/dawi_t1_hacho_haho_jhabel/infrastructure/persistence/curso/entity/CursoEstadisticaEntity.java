@@ -0,0 +1,47 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Contadores de matrículas por curso (tabla cursos_estadisticas)
+ * Se escribe solo con CursoEstadisticaJdbc, sumando deltas en la misma
+ * transacción que la matrícula; desde JPA es de solo lectura
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Entity
+@Immutable
+@Table(name = "cursos_estadisticas",
+       indexes = @Index(name = "idx_cursos_estadisticas_activas", columnList = "matriculas_activas"))
+@lombok.Getter
+@lombok.NoArgsConstructor
+public class CursoEstadisticaEntity {
+    
+    @Id
+    @Column(name = "curso_id")
+    private Long cursoId;
+    
+    @Column(name = "matriculas_total", nullable = false)
+    private long matriculasTotal;
+    
+    @Column(name = "matriculas_activas", nullable = false)
+    private long matriculasActivas;
+    
+    /** Matrículas con nota_final registrada */
+    @Column(name = "calificadas", nullable = false)
+    private long calificadas;
+    
+    /** Matrículas con nota_final mayor o igual a la nota aprobatoria */
+    @Column(name = "aprobadas", nullable = false)
+    private long aprobadas;
+    
+    @Column(name = "suma_notas", nullable = false, precision = 14, scale = 2)
+    private BigDecimal sumaNotas;
+    
+    @Column(name = "fecha_actualizacion", nullable = false)
+    private LocalDateTime fechaActualizacion;
+}
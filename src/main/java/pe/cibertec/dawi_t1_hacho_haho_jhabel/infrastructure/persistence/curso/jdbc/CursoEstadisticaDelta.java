@@ -0,0 +1,53 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc;
+
+import java.math.BigDecimal;
+
+/**
+ * Variación de los contadores de cursos_estadisticas
+ * Una matrícula aporta de(estado, nota); un cambio aporta la resta entre
+ * el aporte nuevo y el anterior
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoEstadisticaDelta(long total, long activas, long calificadas, long aprobadas, BigDecimal sumaNotas) {
+    
+    public static final CursoEstadisticaDelta CERO = new CursoEstadisticaDelta(0, 0, 0, 0, BigDecimal.ZERO);
+    
+    /** Aporte de una matrícula recién creada por la carga masiva (ACTIVA y sin nota) */
+    public static final CursoEstadisticaDelta NUEVA_ACTIVA = new CursoEstadisticaDelta(1, 1, 0, 0, BigDecimal.ZERO);
+    
+    /**
+     * Aporte de una matrícula con el estado y la nota indicados
+     */
+    public static CursoEstadisticaDelta de(String estado, BigDecimal notaFinal, BigDecimal notaAprobatoria) {
+        boolean calificada = notaFinal != null;
+        return new CursoEstadisticaDelta(
+                1,
+                "ACTIVA".equals(estado) ? 1 : 0,
+                calificada ? 1 : 0,
+                calificada && notaFinal.compareTo(notaAprobatoria) >= 0 ? 1 : 0,
+                calificada ? notaFinal : BigDecimal.ZERO);
+    }
+    
+    public CursoEstadisticaDelta mas(CursoEstadisticaDelta otro) {
+        return new CursoEstadisticaDelta(total + otro.total, activas + otro.activas, calificadas + otro.calificadas,
+                aprobadas + otro.aprobadas, sumaNotas.add(otro.sumaNotas));
+    }
+    
+    public CursoEstadisticaDelta menos(CursoEstadisticaDelta otro) {
+        return new CursoEstadisticaDelta(total - otro.total, activas - otro.activas, calificadas - otro.calificadas,
+                aprobadas - otro.aprobadas, sumaNotas.subtract(otro.sumaNotas));
+    }
+    
+    /**
+     * El mismo cambio aplicado a varias matrículas
+     */
+    public CursoEstadisticaDelta por(long veces) {
+        return new CursoEstadisticaDelta(total * veces, activas * veces, calificadas * veces,
+                aprobadas * veces, sumaNotas.multiply(BigDecimal.valueOf(veces)));
+    }
+    
+    public boolean esCero() {
+        return total == 0 && activas == 0 && calificadas == 0 && aprobadas == 0 && sumaNotas.signum() == 0;
+    }
+}
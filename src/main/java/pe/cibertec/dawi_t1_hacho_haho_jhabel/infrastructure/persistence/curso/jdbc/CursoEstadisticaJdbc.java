@@ -0,0 +1,170 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Escrituras de cursos_estadisticas
+ * Los deltas se suman con un único UPSERT atómico sobre la fila del curso, usando la
+ * conexión de la transacción en curso: el contador se confirma o se deshace junto
+ * con la matrícula que lo modifica
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public class CursoEstadisticaJdbc {
+    
+    private static final String SUMAR_DELTA = """
+            INSERT INTO cursos_estadisticas (curso_id, matriculas_total, matriculas_activas, calificadas,
+                                             aprobadas, suma_notas, fecha_actualizacion)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE matriculas_total = matriculas_total + VALUES(matriculas_total),
+                matriculas_activas = matriculas_activas + VALUES(matriculas_activas),
+                calificadas = calificadas + VALUES(calificadas),
+                aprobadas = aprobadas + VALUES(aprobadas),
+                suma_notas = suma_notas + VALUES(suma_notas),
+                fecha_actualizacion = VALUES(fecha_actualizacion)
+            """;
+    
+    private static final String REEMPLAZAR = """
+            INSERT INTO cursos_estadisticas (curso_id, matriculas_total, matriculas_activas, calificadas,
+                                             aprobadas, suma_notas, fecha_actualizacion)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE matriculas_total = VALUES(matriculas_total),
+                matriculas_activas = VALUES(matriculas_activas),
+                calificadas = VALUES(calificadas),
+                aprobadas = VALUES(aprobadas),
+                suma_notas = VALUES(suma_notas),
+                fecha_actualizacion = VALUES(fecha_actualizacion)
+            """;
+    
+    /** Mismas reglas que CursoEstadisticaDelta.de, agregadas en la base */
+    private static final String CONTADORES_MATRICULAS = """
+                   COUNT(*) AS total,
+                   COALESCE(SUM(CASE WHEN estado = 'ACTIVA' THEN 1 ELSE 0 END), 0) AS activas,
+                   COUNT(nota_final) AS calificadas,
+                   COALESCE(SUM(CASE WHEN nota_final >= ? THEN 1 ELSE 0 END), 0) AS aprobadas,
+                   COALESCE(SUM(nota_final), 0) AS suma_notas
+            """;
+    
+    /**
+     * Matrículas vigentes y archivadas: los contadores cubren toda la vida del curso,
+     * así que archivar una matrícula no los cambia
+     */
+    private static final String MATRICULAS_Y_ARCHIVO = """
+            (SELECT curso_id, estado, nota_final FROM matriculas%1$s
+             UNION ALL
+             SELECT curso_id, estado, nota_final FROM matriculas_historico%1$s) m
+            """;
+    
+    private static final RowMapper<CursoEstadisticaDelta> CONTADORES = (rs, i) -> new CursoEstadisticaDelta(
+            rs.getLong("total"), rs.getLong("activas"), rs.getLong("calificadas"),
+            rs.getLong("aprobadas"), rs.getBigDecimal("suma_notas"));
+    
+    private final JdbcTemplate jdbc;
+    private final BigDecimal notaAprobatoria;
+    
+    public CursoEstadisticaJdbc(JdbcTemplate jdbc,
+                                @Value("${cursos.estadisticas.nota-aprobatoria:10.5}") BigDecimal notaAprobatoria) {
+        this.jdbc = jdbc;
+        this.notaAprobatoria = notaAprobatoria;
+    }
+    
+    public BigDecimal getNotaAprobatoria() {
+        return notaAprobatoria;
+    }
+    
+    /**
+     * Aporte de una matrícula a los contadores de su curso, según la nota aprobatoria configurada
+     */
+    public CursoEstadisticaDelta aporte(String estado, BigDecimal notaFinal) {
+        return CursoEstadisticaDelta.de(estado, notaFinal, notaAprobatoria);
+    }
+    
+    public void aplicar(Long cursoId, CursoEstadisticaDelta delta) {
+        if (cursoId == null || delta.esCero()) {
+            return;
+        }
+        jdbc.update(SUMAR_DELTA, parametros(cursoId, delta));
+    }
+    
+    /**
+     * Aplica varios deltas en un solo batch, en orden de curso_id para que dos
+     * lotes concurrentes bloqueen las filas en el mismo orden
+     */
+    public void aplicar(Map<Long, CursoEstadisticaDelta> deltas) {
+        List<Object[]> filas = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((cursoId, delta) -> {
+            if (!delta.esCero()) {
+                filas.add(parametros(cursoId, delta));
+            }
+        });
+        if (!filas.isEmpty()) {
+            jdbc.batchUpdate(SUMAR_DELTA, filas);
+        }
+    }
+    
+    /**
+     * Contadores calculados desde las tablas matriculas y matriculas_historico, por curso
+     */
+    public Map<Long, CursoEstadisticaDelta> calcularDesdeMatriculas() {
+        Map<Long, CursoEstadisticaDelta> resultado = new HashMap<>();
+        jdbc.query("SELECT curso_id, " + CONTADORES_MATRICULAS + " FROM "
+                        + MATRICULAS_Y_ARCHIVO.formatted("") + " GROUP BY curso_id",
+                rs -> { resultado.put(rs.getLong("curso_id"), CONTADORES.mapRow(rs, 0)); },
+                notaAprobatoria);
+        return resultado;
+    }
+    
+    /**
+     * Contadores guardados en cursos_estadisticas, por curso
+     */
+    public Map<Long, CursoEstadisticaDelta> actuales() {
+        Map<Long, CursoEstadisticaDelta> resultado = new HashMap<>();
+        jdbc.query("""
+                SELECT curso_id, matriculas_total AS total, matriculas_activas AS activas,
+                       calificadas, aprobadas, suma_notas
+                FROM cursos_estadisticas
+                """, rs -> { resultado.put(rs.getLong("curso_id"), CONTADORES.mapRow(rs, 0)); });
+        return resultado;
+    }
+    
+    /**
+     * Recalcula la fila de un curso desde matriculas y matriculas_historico
+     * Primero bloquea la fila sumándole un delta nulo (la crea si falta) y solo después
+     * lee las matrículas: un delta concurrente espera al recálculo y se suma sobre él, y una
+     * matrícula sin confirmar todavía no está en el agregado, así que no se pierde ninguno
+     * Debe llamarse dentro de una transacción
+     */
+    public void recalcular(Long cursoId) {
+        jdbc.update(SUMAR_DELTA, parametros(cursoId, CursoEstadisticaDelta.CERO));
+        CursoEstadisticaDelta contadores = jdbc.queryForObject(
+                "SELECT " + CONTADORES_MATRICULAS + " FROM " + MATRICULAS_Y_ARCHIVO.formatted(" WHERE curso_id = ?"),
+                CONTADORES, notaAprobatoria, cursoId, cursoId);
+        jdbc.update(REEMPLAZAR, parametros(cursoId, contadores));
+    }
+    
+    /**
+     * Elimina las filas de cursos que ya no existen
+     * @return Filas eliminadas
+     */
+    public int eliminarHuerfanas() {
+        return jdbc.update("DELETE FROM cursos_estadisticas WHERE curso_id NOT IN (SELECT id FROM cursos)");
+    }
+    
+    private static Object[] parametros(Long cursoId, CursoEstadisticaDelta delta) {
+        return new Object[]{cursoId, delta.total(), delta.activas(), delta.calificadas(), delta.aprobadas(),
+                delta.sumaNotas(), Timestamp.valueOf(LocalDateTime.now())};
+    }
+}
@@ -0,0 +1,87 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEstadisticaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio JPA de lectura de cursos_estadisticas
+ * Todas las consultas leen la fila precalculada de cada curso: el costo depende
+ * del número de cursos, nunca del de matrículas
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public interface CursoEstadisticaRepositoryJpa extends JpaRepository<CursoEstadisticaEntity, Long> {
+    
+    /**
+     * Estadísticas de un curso (búsqueda por clave primaria)
+     */
+    @Query("""
+            SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection(
+                c.id, c.codigoCurso, c.nombre, e.matriculasTotal, e.matriculasActivas,
+                e.calificadas, e.aprobadas, e.sumaNotas)
+            FROM CursoEntity c
+            LEFT JOIN CursoEstadisticaEntity e ON e.cursoId = c.id
+            WHERE c.id = :cursoId
+            """)
+    Optional<CursoEstadisticaProjection> findResumenByCursoId(@Param("cursoId") Long cursoId);
+    
+    /**
+     * Todos los cursos con sus contadores, para el índice de autocompletado
+     */
+    @Query("""
+            SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection(
+                c.id, c.codigoCurso, c.nombre, e.matriculasTotal, e.matriculasActivas,
+                e.calificadas, e.aprobadas, e.sumaNotas)
+            FROM CursoEntity c
+            LEFT JOIN CursoEstadisticaEntity e ON e.cursoId = c.id
+            """)
+    List<CursoEstadisticaProjection> findAllResumen();
+    
+    /**
+     * Cursos con más matrículas activas
+     */
+    @Query("""
+            SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection(
+                c.id, c.codigoCurso, c.nombre, e.matriculasTotal, e.matriculasActivas,
+                e.calificadas, e.aprobadas, e.sumaNotas)
+            FROM CursoEntity c
+            LEFT JOIN CursoEstadisticaEntity e ON e.cursoId = c.id
+            ORDER BY COALESCE(e.matriculasActivas, 0) DESC, c.id
+            """)
+    List<CursoEstadisticaProjection> findRankingPorActivas(Limit limit);
+    
+    /**
+     * Cursos con mayor tasa de aprobación; los cursos sin notas van al final
+     */
+    @Query("""
+            SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection(
+                c.id, c.codigoCurso, c.nombre, e.matriculasTotal, e.matriculasActivas,
+                e.calificadas, e.aprobadas, e.sumaNotas)
+            FROM CursoEntity c
+            LEFT JOIN CursoEstadisticaEntity e ON e.cursoId = c.id
+            ORDER BY CASE WHEN e.calificadas > 0 THEN e.aprobadas * 1.0 / e.calificadas ELSE -1 END DESC, c.id
+            """)
+    List<CursoEstadisticaProjection> findRankingPorAprobacion(Limit limit);
+    
+    /**
+     * Cursos con mayor nota promedio; los cursos sin notas van al final
+     */
+    @Query("""
+            SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoEstadisticaProjection(
+                c.id, c.codigoCurso, c.nombre, e.matriculasTotal, e.matriculasActivas,
+                e.calificadas, e.aprobadas, e.sumaNotas)
+            FROM CursoEntity c
+            LEFT JOIN CursoEstadisticaEntity e ON e.cursoId = c.id
+            ORDER BY CASE WHEN e.calificadas > 0 THEN e.sumaNotas / e.calificadas ELSE -1 END DESC, c.id
+            """)
+    List<CursoEstadisticaProjection> findRankingPorPromedio(Limit limit);
+}
@@ -1,74 +1,234 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa;
 
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoNombreProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Coalescente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repositorio JPA para la entidad Curso
  * Implementa consultas JPQL para búsqueda por nombre parcial
+ * Las consultas que devuelven cursos traen al profesor en la misma sentencia
+ * (EntityGraph), ya que se serializa junto con cada curso
+ * findById usa la caché de segundo nivel; el catálogo completo y las búsquedas
+ * por código usan además la caché de consultas
  * RESPUESTA A PREGUNTA 02 DE LA EVALUACIÓN
+ * Las consultas declaradas aquí corren en transacciones de solo lectura (las
+ * escrituras heredadas de JpaRepository conservan su propia transacción), así
+ * que con réplicas habilitadas se sirven desde una réplica
+ * Las consultas {@link Coalescente} comparten la ejecución con las llamadas idénticas
+ * simultáneas (picos de matrícula)
  * 
  * @author HACHO HAHO JHABEL
  */
 @Repository
+@Transactional(readOnly = true)
 public interface CursoRepositoryJpa extends JpaRepository<CursoEntity, Long> {
     
+    /**
+     * Catálogo completo con el profesor de cada curso (caché de consultas)
+     */
+    @Override
+    @EntityGraph(attributePaths = "profesor")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<CursoEntity> findAll();
+    
+    /**
+     * Listado paginado con el profesor de cada curso
+     */
+    @Override
+    @Coalescente
+    @EntityGraph(attributePaths = "profesor")
+    Page<CursoEntity> findAll(Pageable pageable);
+    
+    /**
+     * Listado paginado sin COUNT(*): trae size + 1 filas para saber si hay siguiente
+     */
+    @Coalescente
+    @EntityGraph(attributePaths = "profesor")
+    @Query("SELECT c FROM CursoEntity c")
+    Slice<CursoEntity> findPagina(Pageable pageable);
+    
+    /**
+     * Total del listado sin filtro (total=aproximado o total=exacto)
+     */
+    @Override
+    @Coalescente
+    long count();
+    
+    @Override
+    @EntityGraph(attributePaths = "profesor")
+    Optional<CursoEntity> findById(Long id);
+    
+    @Override
+    @EntityGraph(attributePaths = "profesor")
+    List<CursoEntity> findAllById(Iterable<Long> ids);
+    
     /**
      * PREGUNTA 02: Busca cursos por nombre parcial usando JPQL
      * @param nombreParcial Parte del nombre del curso
      * @return Lista de cursos que contienen el texto en su nombre
      */
+    @EntityGraph(attributePaths = "profesor")
     @Query("SELECT c FROM CursoEntity c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombreParcial, '%'))")
     List<CursoEntity> findByNombreContainingJpql(@Param("nombreParcial") String nombreParcial);
     
     /**
      * Alternativa usando Query Methods (sin JPQL)
      */
+    @EntityGraph(attributePaths = "profesor")
     List<CursoEntity> findByNombreContainingIgnoreCase(String nombre);
     
     /**
      * PREGUNTA 02: Búsqueda paginada con ordenamiento usando JPQL
      */
+    @EntityGraph(attributePaths = "profesor")
     @Query("SELECT c FROM CursoEntity c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
     Page<CursoEntity> findByNombreContainingJpql(
         @Param("nombre") String nombre, 
         Pageable pageable
     );
     
+    /**
+     * Búsqueda paginada por nombre parcial sin COUNT(*) (size + 1 filas)
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("SELECT c FROM CursoEntity c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    Slice<CursoEntity> findPaginaPorNombre(@Param("nombre") String nombre, Pageable pageable);
+    
+    /**
+     * Total de la búsqueda por nombre parcial (total=aproximado o total=exacto)
+     */
+    @Coalescente
+    @Query("SELECT COUNT(c) FROM CursoEntity c WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    long countPorNombre(@Param("nombre") String nombre);
+    
     /**
      * Usando Query Methods con paginación
      */
+    @EntityGraph(attributePaths = "profesor")
     Page<CursoEntity> findByNombreContainingIgnoreCase(String nombre, Pageable pageable);
     
     /**
-     * Búsqueda por código de curso
+     * Búsqueda por código de curso (caché de consultas)
      */
+    @EntityGraph(attributePaths = "profesor")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM CursoEntity c WHERE c.codigoCurso = :codigo")
     Optional<CursoEntity> findByCodigoCurso(@Param("codigo") String codigo);
     
     /**
-     * Búsqueda por código de curso (alias para compatibilidad)
+     * Búsqueda por código de curso (alias para compatibilidad, caché de consultas)
+     * Se llama dentro de la transacción de CursoCatalogoUseCase, que es quien coalesce
      */
+    @EntityGraph(attributePaths = "profesor")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM CursoEntity c WHERE c.codigoCurso = :codigo")
     Optional<CursoEntity> findByCodigo(@Param("codigo") String codigo);
     
     /**
      * Buscar cursos por número de créditos
      */
+    @EntityGraph(attributePaths = "profesor")
     @Query("SELECT c FROM CursoEntity c WHERE c.creditos = :creditos ORDER BY c.nombre ASC")
     List<CursoEntity> findByCreditos(@Param("creditos") Integer creditos);
     
     /**
      * Buscar cursos con más de X créditos
      */
+    @EntityGraph(attributePaths = "profesor")
     @Query("SELECT c FROM CursoEntity c WHERE c.creditos >= :minCreditos ORDER BY c.creditos DESC, c.nombre ASC")
     List<CursoEntity> findByMinCreditos(@Param("minCreditos") Integer minCreditos);
+    
+    /**
+     * Carga id y nombre de todos los cursos para el índice n-gram en memoria
+     */
+    @Query("SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection.CursoNombreProjection(c.id, c.nombre) FROM CursoEntity c")
+    List<CursoNombreProjection> findAllNombres();
+    
+    /**
+     * Búsqueda por lote de IDs (resultado del índice n-gram) con paginación
+     */
+    @EntityGraph(attributePaths = "profesor")
+    Page<CursoEntity> findByIdIn(Collection<Long> ids, Pageable pageable);
+    
+    /**
+     * Página de un lote de IDs sin COUNT(*): el total es el tamaño del lote
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("SELECT c FROM CursoEntity c WHERE c.id IN :ids")
+    Slice<CursoEntity> findPaginaPorIds(@Param("ids") Collection<Long> ids, Pageable pageable);
+    
+    /**
+     * Paginación keyset: primera página ordenada por nombre ascendente
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("""
+        SELECT c FROM CursoEntity c
+        WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :filtro, '%'))
+        ORDER BY c.nombre ASC, c.id ASC
+        """)
+    List<CursoEntity> findPrimerosPorNombre(@Param("filtro") String filtro, Limit limit);
+    
+    /**
+     * Paginación keyset: cursos posteriores a (nombre, id) en orden ascendente
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("""
+        SELECT c FROM CursoEntity c
+        WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :filtro, '%'))
+        AND c.nombre >= :nombre
+        AND (c.nombre > :nombre OR c.id > :id)
+        ORDER BY c.nombre ASC, c.id ASC
+        """)
+    List<CursoEntity> findSiguientesPorNombre(
+        @Param("filtro") String filtro,
+        @Param("nombre") String nombre,
+        @Param("id") Long id,
+        Limit limit
+    );
+    
+    /**
+     * Cursos en los que está matriculado el alumno, con su profesor
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("""
+        SELECT c FROM CursoEntity c
+        WHERE c.id IN (
+            SELECT m.curso.id FROM MatriculaEntity m
+            INNER JOIN m.alumno a
+            WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno)))
+        ORDER BY c.nombre ASC
+        """)
+    List<CursoEntity> findByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
+    /**
+     * Cursos del alumno desde el modelo de lectura alumnos_lectura
+     */
+    @EntityGraph(attributePaths = "profesor")
+    @Query("""
+        SELECT c FROM CursoEntity c
+        WHERE c.id IN (
+            SELECT m.curso.id FROM MatriculaEntity m
+            INNER JOIN m.alumnoLectura a
+            WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno)))
+        ORDER BY c.nombre ASC
+        """)
+    List<CursoEntity> findByAlumnoLecturaEmail(@Param("emailAlumno") String emailAlumno);
 }
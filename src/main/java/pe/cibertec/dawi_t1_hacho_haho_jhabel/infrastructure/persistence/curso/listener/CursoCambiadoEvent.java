@@ -0,0 +1,15 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener;
+
+/**
+ * Evento de aplicación publicado cuando un curso se guarda o se elimina
+ * Permite mantener estructuras en memoria sincronizadas con la tabla cursos
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoCambiadoEvent(Long cursoId, Tipo tipo) {
+
+    public enum Tipo {
+        GUARDADO,
+        ELIMINADO
+    }
+}
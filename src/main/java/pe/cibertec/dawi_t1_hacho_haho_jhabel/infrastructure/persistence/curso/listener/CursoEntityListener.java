@@ -0,0 +1,35 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+
+/**
+ * Listener JPA de CursoEntity
+ * Publica un CursoCambiadoEvent por cada escritura; los consumidores lo reciben
+ * con @TransactionalEventListener, es decir, después del commit
+ * Hibernate lo instancia a través del contenedor de beans de Spring
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public class CursoEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public CursoEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(CursoEntity curso) {
+        eventPublisher.publishEvent(new CursoCambiadoEvent(curso.getId(), CursoCambiadoEvent.Tipo.GUARDADO));
+    }
+    
+    @PostRemove
+    public void alEliminar(CursoEntity curso) {
+        eventPublisher.publishEvent(new CursoCambiadoEvent(curso.getId(), CursoCambiadoEvent.Tipo.ELIMINADO));
+    }
+}
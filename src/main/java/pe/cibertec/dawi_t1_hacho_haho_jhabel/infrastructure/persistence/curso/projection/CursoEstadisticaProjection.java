@@ -0,0 +1,20 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Curso con sus contadores de cursos_estadisticas
+ * Los contadores son null si el curso todavía no tiene fila (ninguna matrícula)
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoEstadisticaProjection(
+        Long cursoId,
+        String codigoCurso,
+        String nombre,
+        Long matriculasTotal,
+        Long matriculasActivas,
+        Long calificadas,
+        Long aprobadas,
+        BigDecimal sumaNotas) {
+}
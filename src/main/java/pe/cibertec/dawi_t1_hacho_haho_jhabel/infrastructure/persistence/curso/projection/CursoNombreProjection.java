@@ -0,0 +1,10 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.projection;
+
+/**
+ * Proyección mínima (id, nombre) de un curso
+ * Usada para construir índices en memoria sin hidratar entidades
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record CursoNombreProjection(Long id, String nombre) {
+}
@@ -2,6 +2,7 @@ package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricu
 
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Auditoria;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoLecturaEntity;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
 import jakarta.persistence.*;
 import lombok.*;
@@ -12,13 +13,23 @@ import java.time.LocalDate;
 /**
  * Entidad que representa las matrículas del sistema académico
  * Relaciona alumnos con cursos
+ * Cada escritura actualiza los contadores del curso en cursos_estadisticas
  * RESPUESTA A PREGUNTA 02 DE LA EVALUACIÓN
  * 
  * @author HACHO HAHO JHABEL
  */
 @Entity
+@NamedEntityGraph(
+    name = MatriculaEntity.GRAFO_COMPLETO,
+    attributeNodes = {
+        @NamedAttributeNode("alumno"),
+        @NamedAttributeNode(value = "curso", subgraph = "curso")
+    },
+    subgraphs = @NamedSubgraph(name = "curso", attributeNodes = @NamedAttributeNode("profesor"))
+)
 @Table(name = "matriculas", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"alumno_id", "curso_id"}))
+       uniqueConstraints = @UniqueConstraint(name = "unique_matricula", columnNames = {"alumno_id", "curso_id"}))
+@EntityListeners(pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.listener.MatriculaEstadisticaListener.class)
 @lombok.Getter
 @lombok.Setter
 @lombok.NoArgsConstructor
@@ -26,6 +37,9 @@ import java.time.LocalDate;
 @lombok.Builder
 public class MatriculaEntity extends Auditoria<String> {
     
+    /** Grafo que trae alumno, curso y profesor del curso en la misma consulta */
+    public static final String GRAFO_COMPLETO = "Matricula.completa";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -38,6 +52,16 @@ public class MatriculaEntity extends Auditoria<String> {
     @JoinColumn(name = "curso_id", nullable = false)
     private CursoEntity curso;
     
+    /**
+     * Mismo alumno_id, leído desde el modelo aplanado alumnos_lectura
+     * Solo para consultas: la matrícula se escribe a través de alumno
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "alumno_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private AlumnoLecturaEntity alumnoLectura;
+    
     @Column(name = "fecha_matricula", nullable = false)
     private LocalDate fechaMatricula;
     
@@ -48,5 +72,14 @@ public class MatriculaEntity extends Auditoria<String> {
     @Column(name = "nota_final", precision = 4, scale = 2)
     private BigDecimal notaFinal;
     
-
+    /**
+     * Curso, estado y nota tal como se leyeron o escribieron por última vez
+     * MatriculaEstadisticaListener lo usa para calcular el delta de cada actualización
+     */
+    @Transient
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private EstadoGuardado estadoGuardado;
+    
+    public record EstadoGuardado(Long cursoId, String estado, BigDecimal notaFinal) {
+    }
 }
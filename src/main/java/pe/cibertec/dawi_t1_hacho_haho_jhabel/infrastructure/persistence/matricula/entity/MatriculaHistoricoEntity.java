@@ -0,0 +1,62 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Auditoria;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoLecturaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Matrículas archivadas (tabla matriculas_historico)
+ * Mismas columnas que matriculas más fecha_archivo; conserva el ID original
+ * Solo lectura: las filas las mueve MatriculaArchivoJdbc desde matriculas
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Entity
+@Immutable
+@Table(name = "matriculas_historico",
+       indexes = {
+           @Index(name = "idx_matriculas_historico_alumno_curso", columnList = "alumno_id, curso_id"),
+           @Index(name = "idx_matriculas_historico_curso", columnList = "curso_id"),
+           @Index(name = "idx_matriculas_historico_estado", columnList = "estado"),
+           @Index(name = "idx_matriculas_historico_fecha", columnList = "fecha_matricula")
+       })
+@lombok.Getter
+@lombok.NoArgsConstructor
+public class MatriculaHistoricoEntity extends Auditoria<String> {
+
+    /** Mismo ID que tenía en matriculas */
+    @Id
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "alumno_id", nullable = false)
+    private AlumnoEntity alumno;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "curso_id", nullable = false)
+    private CursoEntity curso;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "alumno_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    private AlumnoLecturaEntity alumnoLectura;
+
+    @Column(name = "fecha_matricula", nullable = false)
+    private LocalDate fechaMatricula;
+
+    @Column(length = 20)
+    private String estado;
+
+    @Column(name = "nota_final", precision = 4, scale = 2)
+    private BigDecimal notaFinal;
+
+    @Column(name = "fecha_archivo", nullable = false)
+    private LocalDateTime fechaArchivo;
+}
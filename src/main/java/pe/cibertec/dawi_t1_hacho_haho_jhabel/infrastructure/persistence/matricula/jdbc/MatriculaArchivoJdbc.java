@@ -0,0 +1,78 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Acceso JDBC para archivar matrículas cerradas: las mueve de matriculas a
+ * matriculas_historico por bloques de id ascendente (keyset sobre la clave primaria)
+ * Cada bloque se copia con INSERT ... SELECT y se borra de matriculas en la misma
+ * transacción, sin cargar entidades; los bloqueos se limitan a las filas del bloque
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public class MatriculaArchivoJdbc {
+
+    private static final String COLUMNAS = """
+            id, alumno_id, curso_id, fecha_matricula, estado, nota_final,
+            fecha_creacion, usuario_creacion, fecha_actualizacion, usuario_actualizacion""";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public MatriculaArchivoJdbc(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * IDs del siguiente bloque archivable, en orden, posteriores a despuesDeId (lectura sin bloqueo)
+     * @param corte Se archivan las matrículas con fecha_matricula anterior a esta fecha
+     */
+    public List<Long> siguientesIds(Collection<String> estados, LocalDate corte, long despuesDeId, int limite) {
+        return jdbc.queryForList("""
+                SELECT id FROM matriculas
+                WHERE id > :despuesDeId AND estado IN (:estados) AND fecha_matricula < :corte
+                ORDER BY id LIMIT :limite
+                """, parametros(estados, corte)
+                .addValue("despuesDeId", despuesDeId)
+                .addValue("limite", limite), Long.class);
+    }
+
+    /**
+     * Bloquea las matrículas del bloque que siguen siendo archivables
+     * Una matrícula que otra transacción reabrió después de leer el bloque queda fuera
+     * Debe llamarse dentro de la transacción que luego ejecuta {@link #mover}
+     * @return IDs bloqueados
+     */
+    public List<Long> bloquear(List<Long> ids, Collection<String> estados, LocalDate corte) {
+        return jdbc.queryForList("""
+                SELECT id FROM matriculas
+                WHERE id IN (:ids) AND estado IN (:estados) AND fecha_matricula < :corte
+                FOR UPDATE
+                """, parametros(estados, corte).addValue("ids", ids), Long.class);
+    }
+
+    /**
+     * Copia las matrículas a matriculas_historico y las borra de matriculas
+     * @return Filas movidas
+     */
+    public int mover(List<Long> ids) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource("ids", ids)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()));
+        jdbc.update("INSERT INTO matriculas_historico (" + COLUMNAS + ", fecha_archivo) SELECT "
+                + COLUMNAS + ", :ahora FROM matriculas WHERE id IN (:ids)", parametros);
+        return jdbc.update("DELETE FROM matriculas WHERE id IN (:ids)", parametros);
+    }
+
+    private static MapSqlParameterSource parametros(Collection<String> estados, LocalDate corte) {
+        return new MapSqlParameterSource("estados", estados).addValue("corte", Date.valueOf(corte));
+    }
+}
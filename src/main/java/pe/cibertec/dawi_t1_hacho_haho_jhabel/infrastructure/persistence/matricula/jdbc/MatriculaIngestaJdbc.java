@@ -0,0 +1,152 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Acceso JDBC para la carga masiva de matrículas
+ * Con IDENTITY Hibernate no puede agrupar los INSERT, así que la carga masiva
+ * resuelve los IDs con consultas IN y escribe en lotes JDBC (con
+ * rewriteBatchedStatements el driver de MySQL los envía como INSERT multi-fila)
+ * El INSERT no ignora duplicados: con el lote reescrito el driver devuelve
+ * Statement.SUCCESS_NO_INFO por fila y no se sabría cuáles se insertaron, así que un
+ * par que otra transacción insertó entre la verificación y el INSERT hace fallar el
+ * lote con DuplicateKeyException (se reintenta desde la verificación)
+ * Los pares archivados siguen ocupados: el archivado solo mueve filas que
+ * unique_matricula ya protegía, y la verificación lee ambas tablas
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public class MatriculaIngestaJdbc {
+    
+    /** Máximo de parámetros por cláusula IN */
+    static final int MAXIMO_IN = 1000;
+    
+    private static final String INSERTAR = """
+            INSERT INTO matriculas (alumno_id, curso_id, fecha_matricula, estado, fecha_creacion, fecha_actualizacion)
+            VALUES (?, ?, ?, 'ACTIVA', ?, ?)
+            """;
+    
+    /**
+     * Matrícula lista para insertar
+     */
+    public record MatriculaNueva(long alumnoId, long cursoId, LocalDate fechaMatricula) {
+        
+        public Par par() {
+            return new Par(alumnoId, cursoId);
+        }
+    }
+    
+    /**
+     * Par (alumno_id, curso_id) de la restricción unique_matricula
+     */
+    public record Par(long alumnoId, long cursoId) {
+    }
+    
+    private final NamedParameterJdbcTemplate jdbc;
+    
+    public MatriculaIngestaJdbc(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+    
+    /**
+     * IDs de alumnos por código de estudiante (los códigos inexistentes no aparecen)
+     */
+    public Map<String, Long> idsAlumnosPorCodigo(Collection<String> codigos) {
+        return idsPorCodigo("SELECT codigo_estudiante, id FROM alumnos WHERE codigo_estudiante IN (:codigos)", codigos);
+    }
+    
+    /**
+     * IDs de cursos por código de curso (los códigos inexistentes no aparecen)
+     */
+    public Map<String, Long> idsCursosPorCodigo(Collection<String> codigos) {
+        return idsPorCodigo("SELECT codigo_curso, id FROM cursos WHERE codigo_curso IN (:codigos)", codigos);
+    }
+    
+    /**
+     * Pares ya matriculados entre los alumnos y cursos indicados, vigentes o archivados
+     * (usa unique_matricula y el índice por alumno y curso de matriculas_historico)
+     * matriculas_historico no tiene unique_matricula: sin esta comprobación, un par
+     * archivado podría volver a matricularse
+     */
+    public Set<Par> paresExistentes(Collection<Long> alumnoIds, Collection<Long> cursoIds) {
+        Set<Par> pares = new HashSet<>();
+        List<Long> cursos = new ArrayList<>(cursoIds);
+        for (List<Long> alumnos : particionar(new ArrayList<>(alumnoIds))) {
+            for (List<Long> cursosLote : particionar(cursos)) {
+                jdbc.query("""
+                        SELECT alumno_id, curso_id FROM matriculas
+                        WHERE alumno_id IN (:alumnos) AND curso_id IN (:cursos)
+                        UNION ALL
+                        SELECT alumno_id, curso_id FROM matriculas_historico
+                        WHERE alumno_id IN (:alumnos) AND curso_id IN (:cursos)
+                        """,
+                        new MapSqlParameterSource("alumnos", alumnos).addValue("cursos", cursosLote),
+                        rs -> {
+                            pares.add(new Par(rs.getLong(1), rs.getLong(2)));
+                        });
+            }
+        }
+        return pares;
+    }
+    
+    /**
+     * Inserta las matrículas en un único lote JDBC: si termina sin excepción, todas
+     * quedaron insertadas
+     * @throws org.springframework.dao.DuplicateKeyException si algún par ya existe
+     */
+    public void insertar(List<MatriculaNueva> matriculas) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        jdbc.getJdbcTemplate().batchUpdate(INSERTAR, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                MatriculaNueva matricula = matriculas.get(i);
+                ps.setLong(1, matricula.alumnoId());
+                ps.setLong(2, matricula.cursoId());
+                ps.setDate(3, Date.valueOf(matricula.fechaMatricula()));
+                ps.setTimestamp(4, ahora);
+                ps.setTimestamp(5, ahora);
+            }
+            
+            @Override
+            public int getBatchSize() {
+                return matriculas.size();
+            }
+        });
+    }
+    
+    private Map<String, Long> idsPorCodigo(String sql, Collection<String> codigos) {
+        Map<String, Long> ids = new HashMap<>();
+        for (List<String> lote : particionar(new ArrayList<>(codigos))) {
+            jdbc.query(sql, new MapSqlParameterSource("codigos", lote), rs -> {
+                ids.put(rs.getString(1), rs.getLong(2));
+            });
+        }
+        return ids;
+    }
+    
+    private static <T> List<List<T>> particionar(List<T> valores) {
+        List<List<T>> lotes = new ArrayList<>();
+        for (int desde = 0; desde < valores.size(); desde += MAXIMO_IN) {
+            lotes.add(valores.subList(desde, Math.min(desde + MAXIMO_IN, valores.size())));
+        }
+        return lotes;
+    }
+}
@@ -0,0 +1,117 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acceso JDBC para los cambios de estado masivos de matrículas (cierre de ciclo)
+ * Recorre las matrículas del filtro por bloques de id ascendente (keyset sobre la clave
+ * primaria, sin OFFSET) y cambia cada bloque con un UPDATE ... WHERE id IN, sin cargar
+ * entidades; los bloqueos se limitan a las filas del bloque y duran su transacción
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public class MatriculaTransicionJdbc {
+
+    /**
+     * Matrículas a cambiar: estado actual y, opcionalmente, curso y rango de fecha_matricula
+     */
+    public record Filtro(String estadoOrigen, Long cursoId, LocalDate fechaDesde, LocalDate fechaHasta) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public MatriculaTransicionJdbc(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Matrículas que cumplen el filtro (estimación del total; la lectura no bloquea)
+     */
+    public long contar(Filtro filtro) {
+        MapSqlParameterSource parametros = parametros(filtro);
+        Long total = jdbc.queryForObject("SELECT COUNT(*) FROM matriculas WHERE " + condicion(parametros),
+                parametros, Long.class);
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * IDs del siguiente bloque, en orden, posteriores a despuesDeId (lectura sin bloqueo)
+     */
+    public List<Long> siguientesIds(Filtro filtro, long despuesDeId, int limite) {
+        MapSqlParameterSource parametros = parametros(filtro)
+                .addValue("despuesDeId", despuesDeId)
+                .addValue("limite", limite);
+        return jdbc.queryForList("SELECT id FROM matriculas WHERE id > :despuesDeId AND "
+                + condicion(parametros) + " ORDER BY id LIMIT :limite", parametros, Long.class);
+    }
+
+    /**
+     * Bloquea las matrículas del bloque que siguen en el estado de origen y las cuenta por curso
+     * Una matrícula que otra transacción cambió después de leer el bloque queda fuera
+     * Debe llamarse dentro de la transacción que luego ejecuta {@link #cambiarEstado}
+     * @param idsPorCurso Recibe los IDs bloqueados agrupados por curso_id
+     */
+    public void bloquear(List<Long> ids, String estadoOrigen, Map<Long, List<Long>> idsPorCurso) {
+        jdbc.query("SELECT id, curso_id FROM matriculas WHERE id IN (:ids) AND estado = :estadoOrigen FOR UPDATE",
+                new MapSqlParameterSource("ids", ids).addValue("estadoOrigen", estadoOrigen),
+                rs -> {
+                    idsPorCurso.computeIfAbsent(rs.getLong(2), k -> new ArrayList<>()).add(rs.getLong(1));
+                });
+    }
+
+    /**
+     * Cambia el estado de las matrículas y registra fecha y usuario de actualización
+     * @return Filas actualizadas
+     */
+    public int cambiarEstado(List<Long> ids, String estadoDestino, String usuario) {
+        return jdbc.update("""
+                UPDATE matriculas
+                SET estado = :estadoDestino, fecha_actualizacion = :ahora, usuario_actualizacion = :usuario
+                WHERE id IN (:ids)
+                """, new MapSqlParameterSource("ids", ids)
+                .addValue("estadoDestino", estadoDestino)
+                .addValue("ahora", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("usuario", usuario));
+    }
+
+    private static MapSqlParameterSource parametros(Filtro filtro) {
+        Map<String, Object> valores = new HashMap<>();
+        valores.put("estadoOrigen", filtro.estadoOrigen());
+        if (filtro.cursoId() != null) {
+            valores.put("cursoId", filtro.cursoId());
+        }
+        if (filtro.fechaDesde() != null) {
+            valores.put("fechaDesde", Date.valueOf(filtro.fechaDesde()));
+        }
+        if (filtro.fechaHasta() != null) {
+            valores.put("fechaHasta", Date.valueOf(filtro.fechaHasta()));
+        }
+        return new MapSqlParameterSource(valores);
+    }
+
+    private static String condicion(MapSqlParameterSource parametros) {
+        StringBuilder condicion = new StringBuilder("estado = :estadoOrigen");
+        if (parametros.hasValue("cursoId")) {
+            condicion.append(" AND curso_id = :cursoId");
+        }
+        if (parametros.hasValue("fechaDesde")) {
+            condicion.append(" AND fecha_matricula >= :fechaDesde");
+        }
+        if (parametros.hasValue("fechaHasta")) {
+            condicion.append(" AND fecha_matricula <= :fechaHasta");
+        }
+        return condicion.toString();
+    }
+}
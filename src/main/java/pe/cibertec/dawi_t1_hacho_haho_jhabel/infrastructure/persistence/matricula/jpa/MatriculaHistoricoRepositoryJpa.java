@@ -0,0 +1,112 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaHistoricoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Repositorio de solo lectura de las matrículas archivadas (matriculas_historico)
+ * Mismas proyecciones que {@link MatriculaRepositoryJpa}; solo se consulta cuando la
+ * petición pide el histórico (historico=true), las consultas por defecto no lo tocan
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface MatriculaHistoricoRepositoryJpa extends org.springframework.data.repository.Repository<MatriculaHistoricoEntity, Long> {
+    
+    /**
+     * Resumen de matrículas archivadas por email del alumno
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
+    /**
+     * Resumen de matrículas archivadas por código de estudiante
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante = :codigoEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByCodigoEstudiante(@Param("codigoEstudiante") String codigoEstudiante);
+    
+    /**
+     * Resumen de matrículas archivadas por estado
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE m.estado = :estado
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByEstado(@Param("estado") String estado);
+    
+    /**
+     * Resumen por email del alumno desde el modelo de lectura alumnos_lectura
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
+    /**
+     * Resumen por código de estudiante desde el modelo de lectura alumnos_lectura
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante = :codigoEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByCodigoEstudiante(@Param("codigoEstudiante") String codigoEstudiante);
+    
+    /**
+     * Resumen por estado desde el modelo de lectura alumnos_lectura
+     */
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaHistoricoEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE m.estado = :estado
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByEstado(@Param("estado") String estado);
+}
@@ -1,34 +1,85 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
 
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.Coalescente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio JPA para la entidad Matrícula
  * Implementa consultas JPQL para búsqueda por email del alumno
+ * Las búsquedas por email comparan contra personas.email_normalizado
+ * (normalizando solo el parámetro) para que MySQL resuelva con el índice único
+ * Las consultas que devuelven matrículas cargan alumno, curso y profesor en la misma
+ * sentencia (grafo {@link MatriculaEntity#GRAFO_COMPLETO}), ya que se serializan con ella
  * RESPUESTA A PREGUNTA 02 DE LA EVALUACIÓN
+ * Las consultas declaradas aquí corren en transacciones de solo lectura (las
+ * escrituras heredadas de JpaRepository conservan su propia transacción), así
+ * que con réplicas habilitadas se sirven desde una réplica
+ * Las consultas {@link Coalescente} comparten la ejecución con las llamadas idénticas
+ * simultáneas (picos de matrícula)
  * 
  * @author HACHO HAHO JHABEL
  */
 @Repository
+@Transactional(readOnly = true)
 public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, Long> {
     
+    /**
+     * Listado paginado con alumno, curso y profesor
+     */
+    @Override
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    Page<MatriculaEntity> findAll(Pageable pageable);
+    
+    /**
+     * Listado paginado sin COUNT(*): trae size + 1 filas para saber si hay siguiente
+     */
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    @Query("SELECT m FROM MatriculaEntity m")
+    Slice<MatriculaEntity> findPagina(Pageable pageable);
+    
+    /**
+     * Total del listado sin filtro (total=aproximado o total=exacto)
+     */
+    @Override
+    @Coalescente
+    long count();
+    
+    @Override
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    Optional<MatriculaEntity> findById(Long id);
+    
     /**
      * PREGUNTA 02: Lista matrículas por email del alumno usando JPQL
      * @param emailAlumno Email del alumno
      * @return Lista de matrículas del alumno
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         ORDER BY m.fechaMatricula DESC
         """)
     List<MatriculaEntity> findMatriculasByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
@@ -36,11 +87,13 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Alias para compatibilidad con el controlador
      */
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT DISTINCT m FROM MatriculaEntity m 
-        LEFT JOIN FETCH m.alumno a
-        LEFT JOIN FETCH m.curso c
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        INNER JOIN FETCH m.alumno a
+        INNER JOIN FETCH m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         ORDER BY m.fechaMatricula DESC
         """)
     List<MatriculaEntity> findByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
@@ -48,11 +101,12 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * PREGUNTA 02: Consulta con información completa usando JPQL con JOIN FETCH
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
-        LEFT JOIN FETCH m.alumno a 
-        LEFT JOIN FETCH m.curso c
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        INNER JOIN FETCH m.alumno a 
+        INNER JOIN FETCH m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         ORDER BY m.fechaMatricula DESC
         """)
     List<MatriculaEntity> findMatriculasCompletasByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
@@ -60,11 +114,13 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Alias para compatibilidad con el controlador
      */
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
-        LEFT JOIN FETCH m.alumno a 
-        LEFT JOIN FETCH m.curso c
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        INNER JOIN FETCH m.alumno a 
+        INNER JOIN FETCH m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         ORDER BY m.fechaMatricula DESC
         """)
     List<MatriculaEntity> findByAlumnoEmailWithJoinFetch(@Param("emailAlumno") String emailAlumno);
@@ -75,7 +131,7 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     @Query("""
         SELECT COUNT(m) FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
-        WHERE LOWER(a.email) = LOWER(:emailAlumno) 
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno)) 
         AND m.estado = 'ACTIVA'
         """)
     Long countMatriculasActivasByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
@@ -83,10 +139,11 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Alias para compatibilidad con el controlador
      */
+    @Coalescente
     @Query("""
         SELECT COUNT(m) FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
-        WHERE LOWER(a.email) = LOWER(:emailAlumno) 
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno)) 
         AND m.estado = 'ACTIVA'
         """)
     Long countActiveMatriculasByEmail(@Param("emailAlumno") String emailAlumno);
@@ -94,10 +151,11 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * PREGUNTA 02: Búsqueda paginada de matrículas por email
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         """)
     Page<MatriculaEntity> findMatriculasByAlumnoEmailPaginado(
         @Param("emailAlumno") String emailAlumno, 
@@ -107,19 +165,45 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Alias para compatibilidad con el controlador
      */
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
-        WHERE LOWER(a.email) = LOWER(:emailAlumno)
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
         """)
     Page<MatriculaEntity> findByAlumnoEmailPaginated(
         @Param("emailAlumno") String emailAlumno, 
         Pageable pageable
     );
     
+    /**
+     * Búsqueda paginada por email sin COUNT(*) (size + 1 filas)
+     */
+    @Coalescente
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    @Query("""
+        SELECT m FROM MatriculaEntity m 
+        INNER JOIN m.alumno a 
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        """)
+    Slice<MatriculaEntity> findPaginaPorAlumnoEmail(@Param("emailAlumno") String emailAlumno, Pageable pageable);
+    
+    /**
+     * Total de la búsqueda por email (total=aproximado o total=exacto)
+     */
+    @Coalescente
+    @Query("""
+        SELECT COUNT(m) FROM MatriculaEntity m 
+        INNER JOIN m.alumno a 
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        """)
+    long countPorAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
     /**
      * Buscar matrículas por código de estudiante
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
@@ -131,6 +215,7 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Alias para compatibilidad con el controlador
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.alumno a 
@@ -142,6 +227,7 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Buscar matrículas por nombre del curso
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("""
         SELECT m FROM MatriculaEntity m 
         INNER JOIN m.curso c 
@@ -153,12 +239,239 @@ public interface MatriculaRepositoryJpa extends JpaRepository<MatriculaEntity, L
     /**
      * Buscar matrículas por estado
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("SELECT m FROM MatriculaEntity m WHERE m.estado = :estado ORDER BY m.fechaMatricula DESC")
     List<MatriculaEntity> findMatriculasByEstado(@Param("estado") String estado);
     
     /**
      * Alias para compatibilidad con el controlador
      */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
     @Query("SELECT m FROM MatriculaEntity m WHERE m.estado = :estado ORDER BY m.fechaMatricula DESC")
     List<MatriculaEntity> findByEstado(@Param("estado") String estado);
+    
+    /**
+     * Paginación keyset: primera página ordenada por fecha de matrícula descendente
+     */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    @Query("""
+        SELECT m FROM MatriculaEntity m
+        INNER JOIN FETCH m.alumno a
+        INNER JOIN FETCH m.curso c
+        ORDER BY m.fechaMatricula DESC, m.id DESC
+        """)
+    List<MatriculaEntity> findPrimerasPorFechaDesc(Limit limit);
+    
+    /**
+     * Paginación keyset: filas posteriores a (fecha, id) en orden descendente
+     * Equivale a WHERE (fecha_matricula, id) < (:fecha, :id) escrito para que MySQL
+     * haga un range scan sobre idx_matriculas_fecha sin OFFSET ni COUNT(*)
+     */
+    @EntityGraph(MatriculaEntity.GRAFO_COMPLETO)
+    @Query("""
+        SELECT m FROM MatriculaEntity m
+        INNER JOIN FETCH m.alumno a
+        INNER JOIN FETCH m.curso c
+        WHERE m.fechaMatricula <= :fecha
+        AND (m.fechaMatricula < :fecha OR m.id < :id)
+        ORDER BY m.fechaMatricula DESC, m.id DESC
+        """)
+    List<MatriculaEntity> findSiguientesPorFechaDesc(
+        @Param("fecha") LocalDate fecha,
+        @Param("id") Long id,
+        Limit limit
+    );
+    
+    /**
+     * Recorre las matrículas (opcionalmente filtradas por estado) como Stream para exportación
+     * El driver entrega las filas por bloques (fetch size con cursor del servidor) y las
+     * entidades se cargan en modo solo lectura; debe consumirse dentro de una transacción
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT m FROM MatriculaEntity m
+        INNER JOIN FETCH m.alumno a
+        INNER JOIN FETCH m.curso c
+        WHERE (:estado IS NULL OR m.estado = :estado)
+        ORDER BY m.id
+        """)
+    Stream<MatriculaEntity> streamParaExportacion(@Param("estado") String estado);
+    
+    /**
+     * Resumen de matrículas por email del alumno (proyección, transacción de solo lectura)
+     */
+    @Coalescente
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
+    /**
+     * Resumen de matrículas por código de estudiante (proyección, transacción de solo lectura)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante = :codigoEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByCodigoEstudiante(@Param("codigoEstudiante") String codigoEstudiante);
+    
+    /**
+     * Resumen de matrículas por estado (proyección, transacción de solo lectura)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE m.estado = :estado
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByEstado(@Param("estado") String estado);
+    
+    /**
+     * Resumen de matrículas de varios alumnos por email ya normalizado (consulta por lote)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado IN :emailsNormalizados
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByAlumnoEmailNormalizadoIn(@Param("emailsNormalizados") Collection<String> emailsNormalizados);
+    
+    /**
+     * Resumen de matrículas de varios alumnos por código de estudiante (consulta por lote)
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumno a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante IN :codigosEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenByCodigoEstudianteIn(@Param("codigosEstudiante") Collection<String> codigosEstudiante);
+    
+    /**
+     * Resumen por email del alumno desde el modelo de lectura alumnos_lectura
+     * (sin unir personas con alumnos)
+     */
+    @Coalescente
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByAlumnoEmail(@Param("emailAlumno") String emailAlumno);
+    
+    /**
+     * Resumen por código de estudiante desde el modelo de lectura alumnos_lectura
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante = :codigoEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByCodigoEstudiante(@Param("codigoEstudiante") String codigoEstudiante);
+    
+    /**
+     * Resumen por lote de emails ya normalizados desde el modelo de lectura alumnos_lectura
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.emailNormalizado IN :emailsNormalizados
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByAlumnoEmailNormalizadoIn(@Param("emailsNormalizados") Collection<String> emailsNormalizados);
+    
+    /**
+     * Resumen por lote de códigos de estudiante desde el modelo de lectura alumnos_lectura
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE a.codigoEstudiante IN :codigosEstudiante
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByCodigoEstudianteIn(@Param("codigosEstudiante") Collection<String> codigosEstudiante);
+    
+    /**
+     * Resumen por estado desde el modelo de lectura alumnos_lectura
+     */
+    @Transactional(readOnly = true)
+    @Query("""
+        SELECT new pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection(
+            m.id, a.email, a.codigoEstudiante, c.codigoCurso, c.nombre, c.creditos,
+            m.estado, m.notaFinal, m.fechaMatricula)
+        FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        INNER JOIN m.curso c
+        WHERE m.estado = :estado
+        ORDER BY m.fechaMatricula DESC
+        """)
+    List<MatriculaResumenProjection> findResumenLecturaByEstado(@Param("estado") String estado);
+    
+    /**
+     * Cuenta matrículas activas por email desde el modelo de lectura alumnos_lectura
+     */
+    @Coalescente
+    @Query("""
+        SELECT COUNT(m) FROM MatriculaEntity m
+        INNER JOIN m.alumnoLectura a
+        WHERE a.emailNormalizado = LOWER(TRIM(:emailAlumno))
+        AND m.estado = 'ACTIVA'
+        """)
+    Long countActiveMatriculasLecturaByEmail(@Param("emailAlumno") String emailAlumno);
 }
@@ -0,0 +1,75 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.listener;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaDelta;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity.EstadoGuardado;
+
+/**
+ * Listener JPA de MatriculaEntity
+ * Mantiene cursos_estadisticas sumando la diferencia entre el estado guardado de la
+ * matrícula (capturado en @PostLoad) y el nuevo, dentro de la misma transacción
+ * Hibernate lo instancia a través del contenedor de beans de Spring
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public class MatriculaEstadisticaListener {
+    
+    private final CursoEstadisticaJdbc estadisticaJdbc;
+    
+    public MatriculaEstadisticaListener(CursoEstadisticaJdbc estadisticaJdbc) {
+        this.estadisticaJdbc = estadisticaJdbc;
+    }
+    
+    @PostLoad
+    public void alCargar(MatriculaEntity matricula) {
+        matricula.setEstadoGuardado(estadoActual(matricula));
+    }
+    
+    @PostPersist
+    public void alCrear(MatriculaEntity matricula) {
+        EstadoGuardado actual = estadoActual(matricula);
+        estadisticaJdbc.aplicar(actual.cursoId(), aporte(actual));
+        matricula.setEstadoGuardado(actual);
+    }
+    
+    @PostUpdate
+    public void alActualizar(MatriculaEntity matricula) {
+        EstadoGuardado anterior = matricula.getEstadoGuardado();
+        EstadoGuardado actual = estadoActual(matricula);
+        if (anterior == null) {
+            // Sin foto previa no hay delta fiable; la reconciliación corrige el curso
+            matricula.setEstadoGuardado(actual);
+            return;
+        }
+        if (anterior.cursoId() != null && !anterior.cursoId().equals(actual.cursoId())) {
+            estadisticaJdbc.aplicar(anterior.cursoId(), CursoEstadisticaDelta.CERO.menos(aporte(anterior)));
+            estadisticaJdbc.aplicar(actual.cursoId(), aporte(actual));
+        } else {
+            estadisticaJdbc.aplicar(actual.cursoId(), aporte(actual).menos(aporte(anterior)));
+        }
+        matricula.setEstadoGuardado(actual);
+    }
+    
+    @PostRemove
+    public void alEliminar(MatriculaEntity matricula) {
+        EstadoGuardado anterior = matricula.getEstadoGuardado() != null
+                ? matricula.getEstadoGuardado()
+                : estadoActual(matricula);
+        estadisticaJdbc.aplicar(anterior.cursoId(), CursoEstadisticaDelta.CERO.menos(aporte(anterior)));
+    }
+    
+    private CursoEstadisticaDelta aporte(EstadoGuardado estado) {
+        return estadisticaJdbc.aporte(estado.estado(), estado.notaFinal());
+    }
+    
+    private static EstadoGuardado estadoActual(MatriculaEntity matricula) {
+        // getId() de un proxy LAZY no lo inicializa
+        Long cursoId = matricula.getCurso() == null ? null : matricula.getCurso().getId();
+        return new EstadoGuardado(cursoId, matricula.getEstado(), matricula.getNotaFinal());
+    }
+}
@@ -0,0 +1,23 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Proyección de solo lectura de una matrícula con los datos del alumno y del curso
+ * Se construye directamente en la consulta JPQL (SELECT new ...): no hay entidades
+ * administradas, proxies ni snapshots de dirty-checking
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record MatriculaResumenProjection(
+        Long id,
+        String alumnoEmail,
+        String codigoEstudiante,
+        String codigoCurso,
+        String cursoNombre,
+        Integer creditos,
+        String estado,
+        BigDecimal notaFinal,
+        LocalDate fechaMatricula) {
+}
@@ -0,0 +1,43 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Modelo de lectura aplanado de los alumnos (tabla alumnos_lectura)
+ * Una fila por alumno con los datos de personas y alumnos, para que las
+ * consultas por email o código no tengan que unir las tablas de la herencia JOINED
+ * Solo lectura: lo mantiene PersonaLecturaListener en cada escritura de PersonaEntity
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Entity
+@Immutable
+@Table(name = "alumnos_lectura",
+       indexes = {
+           @Index(name = "uk_alumnos_lectura_email_normalizado", columnList = "email_normalizado", unique = true),
+           @Index(name = "uk_alumnos_lectura_codigo_estudiante", columnList = "codigo_estudiante", unique = true)
+       })
+@lombok.Getter
+@lombok.NoArgsConstructor
+public class AlumnoLecturaEntity {
+    
+    /** Mismo ID que en personas / alumnos */
+    @Id
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String nombre;
+    
+    @Column(nullable = false, length = 100)
+    private String email;
+    
+    @Column(name = "email_normalizado", nullable = false, length = 100)
+    private String emailNormalizado;
+    
+    @Column(name = "codigo_estudiante", nullable = false, length = 20)
+    private String codigoEstudiante;
+    
+    @Column(name = "semestre_ingreso", nullable = false)
+    private Integer semestreIngreso;
+}
@@ -4,16 +4,25 @@ import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.A
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.Locale;
+
 /**
  * Entidad padre para el sistema de herencia JPA
  * Representa a todas las personas del sistema académico
  * Usa estrategia JOINED para herencia
+ * La caché de segundo nivel se declara aquí porque en JOINED solo la raíz
+ * define la región; cubre a profesores y alumnos (región "personas")
+ * Cada escritura actualiza el modelo de lectura aplanado (alumnos_lectura / profesores_lectura)
  * RESPUESTA A PREGUNTA 01 DE LA EVALUACIÓN
  * 
  * @author HACHO HAHO JHABEL
  */
 @Entity
-@Table(name = "personas")
+@Table(name = "personas",
+       indexes = @Index(name = "uk_personas_email_normalizado", columnList = "email_normalizado", unique = true))
+@org.hibernate.annotations.Cache(usage = org.hibernate.annotations.CacheConcurrencyStrategy.READ_WRITE,
+                                  region = pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.CacheSegundoNivelConfig.REGION_PERSONAS)
+@EntityListeners(pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener.PersonaLecturaListener.class)
 @Inheritance(strategy = InheritanceType.JOINED)
 @DiscriminatorColumn(name = "tipo_persona", discriminatorType = DiscriminatorType.STRING)
 @lombok.Getter
@@ -32,5 +41,28 @@ public abstract class PersonaEntity extends Auditoria<String> {
     @Column(nullable = false, unique = true, length = 100)
     private String email;
     
-
+    /**
+     * Email en forma canónica (sin espacios y en minúsculas).
+     * Las búsquedas por email comparan contra esta columna para usar su índice
+     * en lugar de aplicar LOWER() sobre personas.email en cada fila.
+     */
+    @Column(name = "email_normalizado", nullable = false, length = 100)
+    @com.fasterxml.jackson.annotation.JsonIgnore
+    private String emailNormalizado;
+    
+    /**
+     * Mantiene email_normalizado sincronizado en cada escritura
+     */
+    @PrePersist
+    @PreUpdate
+    protected void sincronizarEmailNormalizado() {
+        this.emailNormalizado = normalizarEmail(this.email);
+    }
+    
+    /**
+     * Forma canónica de un email, la misma que aplica la migración en base de datos
+     */
+    public static String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
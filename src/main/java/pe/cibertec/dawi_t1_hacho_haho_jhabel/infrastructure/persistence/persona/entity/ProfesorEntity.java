@@ -14,6 +14,7 @@ import java.util.Set;
 @Entity
 @Table(name = "profesores")
 @DiscriminatorValue("Profesor")
+@EntityListeners(pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener.ProfesorEntityListener.class)
 @lombok.Getter
 @lombok.Setter
 @lombok.NoArgsConstructor
@@ -0,0 +1,41 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Modelo de lectura aplanado de los profesores (tabla profesores_lectura)
+ * Solo lectura: lo mantiene PersonaLecturaListener en cada escritura de PersonaEntity
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Entity
+@Immutable
+@Table(name = "profesores_lectura",
+       indexes = {
+           @Index(name = "uk_profesores_lectura_email_normalizado", columnList = "email_normalizado", unique = true),
+           @Index(name = "uk_profesores_lectura_codigo_empleado", columnList = "codigo_empleado", unique = true)
+       })
+@lombok.Getter
+@lombok.NoArgsConstructor
+public class ProfesorLecturaEntity {
+    
+    /** Mismo ID que en personas / profesores */
+    @Id
+    private Long id;
+    
+    @Column(nullable = false, length = 100)
+    private String nombre;
+    
+    @Column(nullable = false, length = 100)
+    private String email;
+    
+    @Column(name = "email_normalizado", nullable = false, length = 100)
+    private String emailNormalizado;
+    
+    @Column(name = "codigo_empleado", nullable = false, length = 20)
+    private String codigoProfesor;
+    
+    @Column(name = "especialidad", nullable = false, length = 100)
+    private String especialidad;
+}
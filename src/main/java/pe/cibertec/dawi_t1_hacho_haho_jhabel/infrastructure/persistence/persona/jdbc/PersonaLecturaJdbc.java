@@ -0,0 +1,79 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jdbc;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.PersonaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.ProfesorEntity;
+
+/**
+ * Escrituras del modelo de lectura de personas (alumnos_lectura, profesores_lectura)
+ * Usa la conexión de la transacción JPA en curso, así que la fila aplanada se
+ * confirma o se deshace junto con la escritura de la persona
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+public class PersonaLecturaJdbc {
+    
+    private static final String UPSERT_ALUMNO = """
+            INSERT INTO alumnos_lectura (id, nombre, email, email_normalizado, codigo_estudiante, semestre_ingreso)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), email = VALUES(email),
+                email_normalizado = VALUES(email_normalizado), codigo_estudiante = VALUES(codigo_estudiante),
+                semestre_ingreso = VALUES(semestre_ingreso)
+            """;
+    
+    private static final String UPSERT_PROFESOR = """
+            INSERT INTO profesores_lectura (id, nombre, email, email_normalizado, codigo_empleado, especialidad)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE nombre = VALUES(nombre), email = VALUES(email),
+                email_normalizado = VALUES(email_normalizado), codigo_empleado = VALUES(codigo_empleado),
+                especialidad = VALUES(especialidad)
+            """;
+    
+    private final JdbcTemplate jdbc;
+    
+    public PersonaLecturaJdbc(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+    
+    /**
+     * Inserta o actualiza la fila aplanada de la persona según su tipo
+     */
+    public void guardar(PersonaEntity persona) {
+        if (persona instanceof AlumnoEntity alumno) {
+            jdbc.update(UPSERT_ALUMNO, alumno.getId(), alumno.getNombre(), alumno.getEmail(),
+                    alumno.getEmailNormalizado(), alumno.getCodigoEstudiante(), alumno.getSemestreIngreso());
+        } else if (persona instanceof ProfesorEntity profesor) {
+            jdbc.update(UPSERT_PROFESOR, profesor.getId(), profesor.getNombre(), profesor.getEmail(),
+                    profesor.getEmailNormalizado(), profesor.getCodigoProfesor(), profesor.getEspecialidad());
+        }
+    }
+    
+    public void eliminar(Long id) {
+        jdbc.update("DELETE FROM alumnos_lectura WHERE id = ?", id);
+        jdbc.update("DELETE FROM profesores_lectura WHERE id = ?", id);
+    }
+    
+    /**
+     * Reconstruye ambas tablas desde personas / alumnos / profesores
+     * (tras cargas o cambios hechos fuera de JPA)
+     */
+    public void reconstruir() {
+        jdbc.update("DELETE FROM alumnos_lectura");
+        jdbc.update("""
+                INSERT INTO alumnos_lectura (id, nombre, email, email_normalizado, codigo_estudiante, semestre_ingreso)
+                SELECT p.id, p.nombre, p.email, p.email_normalizado, a.codigo_estudiante, a.semestre_ingreso
+                FROM personas p
+                INNER JOIN alumnos a ON a.id = p.id
+                """);
+        jdbc.update("DELETE FROM profesores_lectura");
+        jdbc.update("""
+                INSERT INTO profesores_lectura (id, nombre, email, email_normalizado, codigo_empleado, especialidad)
+                SELECT p.id, p.nombre, p.email, p.email_normalizado, pr.codigo_empleado, pr.especialidad
+                FROM personas p
+                INNER JOIN profesores pr ON pr.id = p.id
+                """);
+    }
+}
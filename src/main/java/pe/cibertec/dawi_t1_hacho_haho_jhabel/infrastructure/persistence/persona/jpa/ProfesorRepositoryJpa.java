@@ -1,21 +1,30 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jpa;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.data.jpa.repository.QueryHints;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.ProfesorEntity;
 
 /**
  * Repositorio JPA para la entidad ProfesorEntity
  * Permite realizar operaciones CRUD y consultas personalizadas
+ * Las consultas declaradas aquí corren en transacciones de solo lectura (las
+ * escrituras heredadas de JpaRepository conservan su propia transacción), así
+ * que con réplicas habilitadas se sirven desde una réplica
  * 
  * @author HACHO HAHO JHABEL
  */
+@Transactional(readOnly = true)
 public interface ProfesorRepositoryJpa extends JpaRepository<ProfesorEntity, Long> {
     
     /**
-     * Busca un profesor por su código único
+     * Busca un profesor por su código único (caché de consultas)
      * @param codigoProfesor Código único del profesor
      * @return ProfesorEntity si se encuentra, null en caso contrario
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     ProfesorEntity findByCodigoProfesor(String codigoProfesor);
     
     /**
@@ -0,0 +1,34 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.PersonaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jdbc.PersonaLecturaJdbc;
+
+/**
+ * Listener JPA de PersonaEntity (alumnos y profesores)
+ * Mantiene alumnos_lectura / profesores_lectura en la misma transacción que la escritura
+ * Hibernate lo instancia a través del contenedor de beans de Spring
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public class PersonaLecturaListener {
+    
+    private final PersonaLecturaJdbc personaLectura;
+    
+    public PersonaLecturaListener(PersonaLecturaJdbc personaLectura) {
+        this.personaLectura = personaLectura;
+    }
+    
+    @PostPersist
+    @PostUpdate
+    public void alGuardar(PersonaEntity persona) {
+        personaLectura.guardar(persona);
+    }
+    
+    @PostRemove
+    public void alEliminar(PersonaEntity persona) {
+        personaLectura.eliminar(persona.getId());
+    }
+}
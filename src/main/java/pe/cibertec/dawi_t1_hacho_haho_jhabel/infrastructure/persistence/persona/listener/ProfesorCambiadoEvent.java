@@ -0,0 +1,11 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener;
+
+/**
+ * Evento de aplicación publicado cuando un profesor se modifica o se elimina
+ * Los datos del profesor se serializan dentro de cada curso que imparte, así que
+ * las estructuras en memoria del catálogo de cursos también dependen de él
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public record ProfesorCambiadoEvent(Long profesorId) {
+}
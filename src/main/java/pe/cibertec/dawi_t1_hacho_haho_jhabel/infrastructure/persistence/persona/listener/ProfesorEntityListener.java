@@ -0,0 +1,29 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.ProfesorEntity;
+
+/**
+ * Listener JPA de ProfesorEntity
+ * Publica un ProfesorCambiadoEvent por cada modificación o borrado (un profesor nuevo
+ * todavía no aparece en ningún curso); los consumidores lo reciben después del commit
+ * Hibernate lo instancia a través del contenedor de beans de Spring
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public class ProfesorEntityListener {
+    
+    private final ApplicationEventPublisher eventPublisher;
+    
+    public ProfesorEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+    
+    @PostUpdate
+    @PostRemove
+    public void alCambiar(ProfesorEntity profesor) {
+        eventPublisher.publishEvent(new ProfesorCambiadoEvent(profesor.getId()));
+    }
+}
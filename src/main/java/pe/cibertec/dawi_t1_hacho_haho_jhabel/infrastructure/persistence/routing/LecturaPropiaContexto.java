@@ -0,0 +1,55 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing;
+
+/**
+ * Estado por hilo de la ventana read-your-writes
+ * LecturaPropiaFilter lo abre al inicio de cada petición: indica si el cliente
+ * escribió hace poco (sus lecturas van al primario) y recibe el aviso de que la
+ * petición confirmó una escritura
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public final class LecturaPropiaContexto {
+    
+    private static final ThreadLocal<LecturaPropiaContexto> ACTUAL = new ThreadLocal<>();
+    
+    private final boolean forzarPrimario;
+    private final Runnable alConfirmarEscritura;
+    private boolean escrituraConfirmada;
+    
+    private LecturaPropiaContexto(boolean forzarPrimario, Runnable alConfirmarEscritura) {
+        this.forzarPrimario = forzarPrimario;
+        this.alConfirmarEscritura = alConfirmarEscritura;
+    }
+    
+    /**
+     * Abre el contexto del hilo actual
+     * @param forzarPrimario true si las lecturas deben ir al primario
+     * @param alConfirmarEscritura se ejecuta tras el primer commit de una escritura
+     */
+    public static void abrir(boolean forzarPrimario, Runnable alConfirmarEscritura) {
+        ACTUAL.set(new LecturaPropiaContexto(forzarPrimario, alConfirmarEscritura));
+    }
+    
+    public static void cerrar() {
+        ACTUAL.remove();
+    }
+    
+    public static boolean forzarPrimario() {
+        LecturaPropiaContexto contexto = ACTUAL.get();
+        return contexto != null && (contexto.forzarPrimario || contexto.escrituraConfirmada);
+    }
+    
+    /**
+     * Registra que se confirmó una escritura: el resto de la petición lee del primario
+     * y el cliente recibe la ventana read-your-writes
+     */
+    static void escrituraConfirmada() {
+        LecturaPropiaContexto contexto = ACTUAL.get();
+        if (contexto != null && !contexto.escrituraConfirmada) {
+            contexto.escrituraConfirmada = true;
+            if (contexto.alConfirmarEscritura != null) {
+                contexto.alConfirmarEscritura.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource que envía las transacciones de solo lectura a una réplica y el resto al primario
+ * Debe usarse detrás de un LazyConnectionDataSourceProxy: la conexión se elige en la
+ * primera sentencia, cuando la transacción ya está marcada como readOnly
+ * - Réplicas en round-robin entre las sanas; sin réplicas sanas, todo va al primario
+ * - Una réplica que falla al dar conexión se marca caída y la lectura va al primario
+ * - Dentro de la ventana read-your-writes (LecturaPropiaContexto) también se lee del primario
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@lombok.extern.slf4j.Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    
+    public static final String PRIMARIO = "primario";
+    
+    private static final String ESCRITURA_REGISTRADA = ReplicaRoutingDataSource.class.getName() + ".escritura";
+    
+    private final DataSource primario;
+    private final Map<String, DataSource> replicas;
+    private final Set<String> sanas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final int timeoutVerificacionSegundos;
+    private final String consultaVerificacion;
+    
+    /**
+     * @param consultaVerificacion sentencia que debe ejecutarse sin error para considerar
+     *                             sana una réplica; vacía = solo Connection.isValid
+     */
+    public ReplicaRoutingDataSource(DataSource primario, Map<String, DataSource> replicas,
+                                    int timeoutVerificacionSegundos, String consultaVerificacion) {
+        this.primario = primario;
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.timeoutVerificacionSegundos = timeoutVerificacionSegundos;
+        this.consultaVerificacion = consultaVerificacion;
+        Map<Object, Object> destinos = new LinkedHashMap<>(replicas);
+        destinos.put(PRIMARIO, primario);
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primario);
+        setLenientFallback(false);
+    }
+    
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscritura();
+            return PRIMARIO;
+        }
+        if (LecturaPropiaContexto.forzarPrimario()) {
+            return PRIMARIO;
+        }
+        List<String> disponibles = new ArrayList<>(replicas.keySet());
+        disponibles.retainAll(sanas);
+        if (disponibles.isEmpty()) {
+            return PRIMARIO;
+        }
+        return disponibles.get(Math.floorMod(siguiente.getAndIncrement(), disponibles.size()));
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object clave = determineCurrentLookupKey();
+        DataSource destino = clave.equals(PRIMARIO) ? primario : replicas.get(clave);
+        try {
+            return destino.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            if (destino == primario) {
+                throw e;
+            }
+            marcarCaida((String) clave, e);
+            return primario.getConnection();
+        }
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Las credenciales explícitas solo se usan contra el primario
+        return primario.getConnection(username, password);
+    }
+    
+    /**
+     * Valida una conexión de cada réplica (y la consulta de verificación, si hay)
+     * y actualiza el conjunto de réplicas sanas
+     * @return Estado UP/DOWN por réplica
+     */
+    public Map<String, String> verificarReplicas() {
+        Map<String, String> estado = new LinkedHashMap<>();
+        replicas.forEach((nombre, replica) -> {
+            try (Connection conexion = replica.getConnection()) {
+                if (conexion.isValid(timeoutVerificacionSegundos) && consultaCorrecta(conexion)) {
+                    if (sanas.add(nombre)) {
+                        log.info("Réplica {} disponible para lecturas", nombre);
+                    }
+                    estado.put(nombre, "UP");
+                    return;
+                }
+                marcarCaida(nombre, null);
+            } catch (SQLException | RuntimeException e) {
+                marcarCaida(nombre, e);
+            }
+            estado.put(nombre, "DOWN");
+        });
+        return estado;
+    }
+    
+    /**
+     * Estado UP/DOWN por réplica según la última verificación (o el último fallo al
+     * dar conexión), sin abrir conexiones
+     */
+    public Map<String, String> estadoReplicas() {
+        Map<String, String> estado = new LinkedHashMap<>();
+        replicas.keySet().forEach(nombre -> estado.put(nombre, sanas.contains(nombre) ? "UP" : "DOWN"));
+        return estado;
+    }
+    
+    private boolean consultaCorrecta(Connection conexion) throws SQLException {
+        if (consultaVerificacion == null || consultaVerificacion.isBlank()) {
+            return true;
+        }
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.setQueryTimeout(timeoutVerificacionSegundos);
+            sentencia.execute(consultaVerificacion);
+            return true;
+        }
+    }
+    
+    public Map<String, DataSource> getReplicas() {
+        return Collections.unmodifiableMap(replicas);
+    }
+    
+    public Set<String> getReplicasSanas() {
+        return Set.copyOf(sanas);
+    }
+    
+    void marcarCaida(String nombre, Exception causa) {
+        if (sanas.remove(nombre)) {
+            log.warn("Réplica {} fuera de servicio, sus lecturas van al primario: {}", nombre,
+                    causa == null ? "conexión no válida" : causa.getMessage());
+        }
+    }
+    
+    /**
+     * En una transacción de escritura, avisa a LecturaPropiaContexto cuando hace commit
+     */
+    private static void registrarEscritura() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(ESCRITURA_REGISTRADA)) {
+            TransactionSynchronizationManager.bindResource(ESCRITURA_REGISTRADA, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    LecturaPropiaContexto.escrituraConfirmada();
+                }
+                
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ESCRITURA_REGISTRADA);
+                }
+            });
+        }
+    }
+    
+    @Override
+    public void destroy() {
+        replicas.values().forEach(replica -> {
+            if (replica instanceof AutoCloseable cerrable) {
+                try {
+                    cerrable.close();
+                } catch (Exception e) {
+                    log.debug("Error al cerrar la réplica", e);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lista blanca de campos que un cliente puede pedir con fields= para una entidad
+ * Cada campo público apunta a una ruta de atributos JPA ("nombre", "profesor.nombre");
+ * solo estas rutas llegan al SELECT o al ORDER BY
+ *
+ * @param entidad Entidad raíz de la consulta
+ * @param rutas   Campo público → ruta de atributos, en el orden por defecto
+ * @author HACHO HAHO JHABEL
+ */
+public record CamposProyectables<T>(Class<T> entidad, Map<String, String> rutas) {
+
+    public CamposProyectables {
+        rutas = Collections.unmodifiableMap(new LinkedHashMap<>(rutas));
+    }
+
+    public static <T> CamposProyectables<T> de(Class<T> entidad) {
+        return new CamposProyectables<>(entidad, Map.of());
+    }
+
+    /**
+     * Copia con un campo más al final de la lista blanca
+     */
+    public CamposProyectables<T> con(String campo, String ruta) {
+        Map<String, String> ampliadas = new LinkedHashMap<>(rutas);
+        ampliadas.put(campo, ruta);
+        return new CamposProyectables<>(entidad, ampliadas);
+    }
+
+    /**
+     * @throws IllegalArgumentException si alguna propiedad de orden no está en la lista blanca
+     */
+    public void validarOrden(Sort sort) {
+        sort.forEach(orden -> validar(orden.getProperty()));
+    }
+
+    /**
+     * Interpreta fields=a,b,c (sin repetidos, en el orden pedido)
+     * @throws IllegalArgumentException si está vacío o incluye un campo fuera de la lista blanca
+     */
+    public List<String> seleccionar(String fields) {
+        Set<String> campos = new LinkedHashSet<>();
+        for (String campo : fields.split(",")) {
+            String nombre = campo.trim();
+            if (!nombre.isEmpty()) {
+                validar(nombre);
+                campos.add(nombre);
+            }
+        }
+        if (campos.isEmpty()) {
+            throw new IllegalArgumentException("El parámetro 'fields' no indica ningún campo");
+        }
+        return new ArrayList<>(campos);
+    }
+
+    /**
+     * @throws IllegalArgumentException si el campo no está en la lista blanca
+     */
+    public String ruta(String campo) {
+        validar(campo);
+        return rutas.get(campo);
+    }
+
+    private void validar(String campo) {
+        if (!rutas.containsKey(campo)) {
+            throw new IllegalArgumentException("Campo no permitido: '" + campo
+                    + "'. Campos disponibles: " + String.join(", ", rutas.keySet()));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import jakarta.persistence.Entity;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.LecturaPropiaContexto;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-flight de las consultas {@link Coalescente}: mientras una llamada está en curso,
+ * las que llegan con el mismo método y argumentos esperan su resultado en lugar de pedir
+ * otra conexión y repetir la consulta; con ttlMs mayor que 0 el resultado se sigue
+ * entregando durante ese tiempo tras terminar
+ * La clave incluye si la petición debe leer del primario (read-your-writes), así que
+ * una lectura forzada al primario nunca recibe un resultado leído de una réplica
+ * Dentro de cualquier transacción (también de solo lectura) no se comparte nada: el
+ * llamador espera entidades de su propio contexto de persistencia, no de la sesión de
+ * otro hilo. El TTL solo se aplica a métodos que no devuelven entidades (proyecciones
+ * y conteos): una entidad recordada seguiría entregándose con su sesión ya cerrada
+ * Quien espera lo hace como máximo esperaMs; después ejecuta su propia consulta
+ * Métrica repositorios.coalescencia (tags metodo y resultado: ejecutada, compartida o
+ * reciente), resumida en /api/metricas
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class CoalescenciaConsultas implements MethodInterceptor {
+
+    public static final String METRICA = "repositorios.coalescencia";
+
+    private record Clave(Method metodo, List<Object> argumentos, boolean primario) {
+    }
+
+    private record Reciente(Object valor, long expiraNanos) {
+    }
+
+    private record Contadores(Counter ejecutadas, Counter compartidas, Counter recientes) {
+    }
+
+    /**
+     * @param coalescente El método lleva {@link Coalescente}
+     * @param recordable  Su resultado puede reutilizarse durante el TTL (no contiene entidades)
+     */
+    private record Politica(boolean coalescente, boolean recordable) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final long ttlNanos;
+    private final long esperaNanos;
+    private final Map<Clave, CompletableFuture<Object>> enCurso = new ConcurrentHashMap<>();
+    private final Map<Clave, Reciente> recientes = new ConcurrentHashMap<>();
+    private final Map<Method, Politica> politicas = new ConcurrentHashMap<>();
+    private final Map<Method, Contadores> contadores = new ConcurrentHashMap<>();
+
+    public CoalescenciaConsultas(MeterRegistry meterRegistry, long ttlMs, long esperaMs) {
+        this.meterRegistry = meterRegistry;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.esperaNanos = TimeUnit.MILLISECONDS.toNanos(esperaMs);
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        Method metodo = invocacion.getMethod();
+        Politica politica = politicas.computeIfAbsent(metodo, CoalescenciaConsultas::politica);
+        if (!politica.coalescente() || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return invocacion.proceed();
+        }
+        Clave clave = new Clave(metodo, Arrays.asList(invocacion.getArguments()), LecturaPropiaContexto.forzarPrimario());
+        Contadores contador = contadores.computeIfAbsent(metodo, this::registrar);
+        boolean recordar = ttlNanos > 0 && politica.recordable();
+
+        if (recordar) {
+            Reciente reciente = recientes.get(clave);
+            if (reciente != null && reciente.expiraNanos() - System.nanoTime() > 0) {
+                contador.recientes().increment();
+                return reciente.valor();
+            }
+        }
+
+        CompletableFuture<Object> propia = new CompletableFuture<>();
+        CompletableFuture<Object> lider = enCurso.putIfAbsent(clave, propia);
+        if (lider != null) {
+            contador.compartidas().increment();
+            try {
+                return esperar(lider);
+            } catch (TimeoutException e) {
+                // La llamada en curso no termina: esta consulta se ejecuta por su cuenta
+                contador.ejecutadas().increment();
+                return invocacion.proceed();
+            }
+        }
+
+        contador.ejecutadas().increment();
+        try {
+            Object resultado = invocacion.proceed();
+            if (recordar) {
+                recordar(clave, resultado);
+            }
+            propia.complete(resultado);
+            return resultado;
+        } catch (Throwable e) {
+            propia.completeExceptionally(e);
+            throw e;
+        } finally {
+            enCurso.remove(clave, propia);
+        }
+    }
+
+    private Object esperar(CompletableFuture<Object> lider) throws Throwable {
+        try {
+            return lider.get(esperaNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataAccessResourceFailureException("Interrumpido esperando una consulta en curso", e);
+        }
+    }
+
+    private static Politica politica(Method metodo) {
+        return new Politica(AnnotatedElementUtils.hasAnnotation(metodo, Coalescente.class),
+                !contieneEntidades(ResolvableType.forMethodReturnType(metodo)));
+    }
+
+    /**
+     * true si el tipo o alguno de sus genéricos (Page&lt;X&gt;, Optional&lt;X&gt;...) es una entidad JPA
+     */
+    private static boolean contieneEntidades(ResolvableType tipo) {
+        Class<?> clase = tipo.resolve();
+        if (clase == null || clase == Object.class) {
+            return true;
+        }
+        if (clase.isAnnotationPresent(Entity.class)) {
+            return true;
+        }
+        for (ResolvableType generico : tipo.getGenerics()) {
+            if (contieneEntidades(generico)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recordar(Clave clave, Object resultado) {
+        long ahora = System.nanoTime();
+        if (recientes.size() >= 1_000) {
+            recientes.values().removeIf(reciente -> reciente.expiraNanos() - ahora <= 0);
+        }
+        recientes.put(clave, new Reciente(resultado, ahora + ttlNanos));
+    }
+
+    private Contadores registrar(Method metodo) {
+        String nombre = metodo.getDeclaringClass().getSimpleName() + "." + metodo.getName();
+        return new Contadores(
+                meterRegistry.counter(METRICA, "metodo", nombre, "resultado", "ejecutada"),
+                meterRegistry.counter(METRICA, "metodo", nombre, "resultado", "compartida"),
+                meterRegistry.counter(METRICA, "metodo", nombre, "resultado", "reciente"));
+    }
+}
@@ -0,0 +1,24 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca una consulta de repositorio cuyas llamadas simultáneas con los mismos
+ * argumentos comparten una sola ejecución (ver {@link CoalescenciaConsultas})
+ * Solo para lecturas cuyo resultado se serializa tal cual: todos los llamadores
+ * reciben la misma instancia, que no debe modificarse. Solo se comparte fuera de
+ * transacciones: dentro de una, cada llamada consulta con su propia sesión
+ * En un caso de uso (@Service) la coalescencia envuelve su transacción: para lecturas
+ * transaccionales que devuelven entidades ya inicializadas
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Coalescente {
+}
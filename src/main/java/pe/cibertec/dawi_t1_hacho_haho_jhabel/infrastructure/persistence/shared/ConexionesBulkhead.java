@@ -0,0 +1,126 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulkhead de las conexiones al primario: como mucho tantas conexiones prestadas a la
+ * vez como permisos (por defecto, las del pool)
+ * Con hilos virtuales no hay un pool de hilos que limite cuántas peticiones piden
+ * conexión a la vez: miles de hilos esperarían dentro de HikariCP. Aquí esperan en un
+ * semáforo justo (un hilo virtual que espera en él libera su carrier) y lo que no
+ * consigue permiso en esperaMs falla con una excepción transitoria
+ * El permiso se toma al pedir la conexión al pool y se devuelve al cerrarla, así que
+ * cubre por igual a JPA, JdbcTemplate y las transacciones que abren los casos de uso
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class ConexionesBulkhead {
+
+    private final Semaphore permisos;
+    private final int capacidad;
+    private final long esperaMs;
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    public ConexionesBulkhead(int capacidad, long esperaMs) {
+        this.permisos = new Semaphore(capacidad, true);
+        this.capacidad = capacidad;
+        this.esperaMs = esperaMs;
+    }
+
+    /**
+     * Envuelve el pool: cada conexión que presta ocupa un permiso hasta que se cierra
+     */
+    public DataSource envolver(DataSource pool) {
+        return pool instanceof DataSourceLimitado ? pool : new DataSourceLimitado(pool);
+    }
+
+    private void adquirir() {
+        try {
+            if (permisos.tryAcquire(esperaMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rechazadas.incrementAndGet();
+        throw new TransientDataAccessResourceException("Sin conexiones disponibles tras " + esperaMs + " ms");
+    }
+
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    public int getEnUso() {
+        return capacidad - permisos.availablePermits();
+    }
+
+    public int getEnEspera() {
+        return permisos.getQueueLength();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    /**
+     * Pool detrás del bulkhead; unwrap/isWrapperFor llegan al pool subyacente
+     */
+    public final class DataSourceLimitado extends DelegatingDataSource {
+
+        private DataSourceLimitado(DataSource pool) {
+            super(pool);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            adquirir();
+            try {
+                return conPermiso(obtainTargetDataSource().getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permisos.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            adquirir();
+            try {
+                return conPermiso(obtainTargetDataSource().getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permisos.release();
+                throw e;
+            }
+        }
+
+        /**
+         * La conexión devuelve su permiso la primera vez que se cierra
+         */
+        private Connection conPermiso(Connection destino) {
+            AtomicBoolean devuelto = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(ConexionesBulkhead.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, metodo, argumentos) -> {
+                        try {
+                            return metodo.invoke(destino, argumentos);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if (metodo.getName().equals("close") && devuelto.compareAndSet(false, true)) {
+                                permisos.release();
+                            }
+                        }
+                    });
+        }
+    }
+}
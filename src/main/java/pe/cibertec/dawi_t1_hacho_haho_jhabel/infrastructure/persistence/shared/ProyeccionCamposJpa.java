@@ -0,0 +1,127 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consultas paginadas que seleccionan solo los campos pedidos (fields=)
+ * Construye con Criteria un SELECT de tuplas con las columnas de la lista blanca
+ * ({@link CamposProyectables}): sin entidades administradas ni columnas que el cliente
+ * no usa; las asociaciones se unen con LEFT JOIN solo si algún campo las necesita
+ * (una ruta "asociacion.id" usa la clave foránea sin unir)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Repository
+@Transactional(readOnly = true)
+public class ProyeccionCamposJpa {
+
+    /**
+     * Condición adicional de la consulta (y del conteo), construida sobre su propia raíz
+     */
+    @FunctionalInterface
+    public interface Filtro<T> {
+        Predicate aplicar(CriteriaBuilder cb, Root<T> raiz);
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param campos   Campos ya validados con {@link CamposProyectables#seleccionar}
+     * @param filtro   Condición opcional (null = sin filtro)
+     * @param pageable Página y orden; cada propiedad de orden debe estar en la lista blanca
+     * @return Filas como mapas campo → valor, en el orden de campos
+     * @throws IllegalArgumentException si se ordena por un campo fuera de la lista blanca
+     */
+    public <T> Page<Map<String, Object>> buscar(CamposProyectables<T> proyectables, List<String> campos,
+                                                Filtro<T> filtro, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> consulta = cb.createTupleQuery();
+        Root<T> raiz = consulta.from(proyectables.entidad());
+        Map<String, From<?, ?>> uniones = new HashMap<>();
+        List<Selection<?>> columnas = new ArrayList<>(campos.size());
+        for (String campo : campos) {
+            columnas.add(ruta(raiz, uniones, proyectables.ruta(campo)).alias(campo));
+        }
+        consulta.multiselect(columnas);
+        if (filtro != null) {
+            consulta.where(filtro.aplicar(cb, raiz));
+        }
+        List<Order> orden = new ArrayList<>();
+        for (Sort.Order propiedad : pageable.getSort()) {
+            Path<?> ruta = ruta(raiz, uniones, proyectables.ruta(propiedad.getProperty()));
+            orden.add(propiedad.isAscending() ? cb.asc(ruta) : cb.desc(ruta));
+        }
+        consulta.orderBy(orden);
+
+        TypedQuery<Tuple> query = entityManager.createQuery(consulta);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Tuple tupla : query.getResultList()) {
+            Map<String, Object> fila = new LinkedHashMap<>();
+            for (String campo : campos) {
+                fila.put(campo, tupla.get(campo));
+            }
+            filas.add(fila);
+        }
+        return PageableExecutionUtils.getPage(filas, pageable, () -> contar(proyectables, filtro));
+    }
+
+    private <T> long contar(CamposProyectables<T> proyectables, Filtro<T> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> conteo = cb.createQuery(Long.class);
+        Root<T> raiz = conteo.from(proyectables.entidad());
+        conteo.select(cb.count(raiz));
+        if (filtro != null) {
+            conteo.where(filtro.aplicar(cb, raiz));
+        }
+        return entityManager.createQuery(conteo).getSingleResult();
+    }
+
+    /**
+     * Resuelve "a.b.c" uniendo (LEFT) cada asociación intermedia una sola vez
+     */
+    private static Path<?> ruta(Root<?> raiz, Map<String, From<?, ?>> uniones, String ruta) {
+        String[] partes = ruta.split("\\.");
+        if (partes.length == 2 && partes[1].equals("id")) {
+            return raiz.get(partes[0]).get("id");
+        }
+        From<?, ?> desde = raiz;
+        StringBuilder prefijo = new StringBuilder();
+        for (int i = 0; i < partes.length - 1; i++) {
+            prefijo.append(partes[i]).append('.');
+            From<?, ?> actual = desde;
+            String atributo = partes[i];
+            desde = uniones.computeIfAbsent(prefijo.toString(), clave -> actual.join(atributo, JoinType.LEFT));
+        }
+        return desde.get(partes[partes.length - 1]);
+    }
+}
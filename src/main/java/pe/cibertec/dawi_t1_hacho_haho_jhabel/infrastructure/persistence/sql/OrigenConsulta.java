@@ -0,0 +1,45 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Método de repositorio en curso en el hilo actual (Repositorio.metodo), para atribuir
+ * cada sentencia SQL registrada a la consulta que la originó
+ * Se agrega como interceptor al proxy de cada repositorio Spring Data (una instancia
+ * por repositorio, así los métodos heredados de JpaRepository llevan su nombre)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class OrigenConsulta implements MethodInterceptor {
+
+    private static final ThreadLocal<String> ACTUAL = new ThreadLocal<>();
+
+    private final String repositorio;
+
+    public OrigenConsulta(Class<?> repositorio) {
+        this.repositorio = repositorio.getSimpleName() + ".";
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocacion) throws Throwable {
+        String anterior = ACTUAL.get();
+        ACTUAL.set(repositorio + invocacion.getMethod().getName());
+        try {
+            return invocacion.proceed();
+        } finally {
+            if (anterior == null) {
+                ACTUAL.remove();
+            } else {
+                ACTUAL.set(anterior);
+            }
+        }
+    }
+
+    /**
+     * @return Repositorio.metodo en curso o null fuera de una llamada a repositorio
+     */
+    public static String actual() {
+        return ACTUAL.get();
+    }
+}
@@ -0,0 +1,192 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro de sentencias SQL lentas (reemplaza show-sql y BasicBinder=TRACE)
+ * {@link SqlMedidoDataSource} mide cada sentencia; aquí solo se hace algo con las que
+ * superan umbralMs o caen en la fracción muestreo: se copian sus parámetros, se busca
+ * el origen y se entregan a un hilo propio que las escribe en el logger "sql.lento"
+ * y mantiene las top N más lentas. Para el resto el costo es una comparación y un
+ * contador. Si la cola del hilo se llena, las entradas se descartan y se cuentan
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class RegistroSqlLento {
+
+    private static final Logger LOG = LoggerFactory.getLogger("sql.lento");
+    private static final String PAQUETE_APLICACION = "pe.cibertec.dawi_t1_hacho_haho_jhabel.";
+    private static final int MAXIMO_TEXTO = 100;
+
+    /**
+     * Sentencia registrada
+     * @param lenta true si superó el umbral; false si se registró por muestreo
+     * @param lote  Filas del lote (executeBatch) o 0
+     */
+    public record Sentencia(String sql, List<String> parametros, double duracionMs, int lote,
+                            String origen, String hilo, LocalDateTime fecha, boolean lenta) {
+    }
+
+    private static final Comparator<Sentencia> MAS_RAPIDA = Comparator.comparingDouble(Sentencia::duracionMs);
+
+    private final long umbralNanos;
+    private final double muestreo;
+    private final int top;
+    private final PriorityQueue<Sentencia> masLentas;
+    private final LongAdder sentencias = new LongAdder();
+    private final LongAdder lentas = new LongAdder();
+    private final LongAdder muestreadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+    private final ThreadPoolExecutor escritor;
+
+    public RegistroSqlLento(long umbralMs, double muestreo, int top, int cola) {
+        this.umbralNanos = TimeUnit.MILLISECONDS.toNanos(umbralMs);
+        this.muestreo = muestreo;
+        this.top = top;
+        this.masLentas = new PriorityQueue<>(top + 1, MAS_RAPIDA);
+        this.escritor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(cola),
+                Thread.ofPlatform().name("registro-sql-lento").daemon().factory(),
+                (tarea, ejecutor) -> descartadas.increment());
+    }
+
+    /**
+     * Se llama tras ejecutar cada sentencia, en el hilo de la petición
+     * @param parametros Parámetros enlazados; solo los primeros cantidad son válidos
+     *                   (se copian solo si la sentencia se registra)
+     */
+    void medir(String sql, Object[] parametros, int cantidad, int lote, long nanos) {
+        sentencias.increment();
+        boolean lenta = nanos >= umbralNanos;
+        if (!lenta && (muestreo <= 0 || ThreadLocalRandom.current().nextDouble() >= muestreo)) {
+            return;
+        }
+        (lenta ? lentas : muestreadas).increment();
+        Object[] copia = Arrays.copyOf(parametros, cantidad);
+        String origen = origen();
+        String hilo = Thread.currentThread().getName();
+        LocalDateTime fecha = LocalDateTime.now();
+        escritor.execute(() -> publicar(new Sentencia(sql, formatear(copia), nanos / 1_000_000.0, lote,
+                origen, hilo, fecha, lenta)));
+    }
+
+    /**
+     * Las top N sentencias más lentas desde el arranque, de más a menos lenta
+     */
+    public List<Sentencia> masLentas() {
+        List<Sentencia> copia;
+        synchronized (masLentas) {
+            copia = new ArrayList<>(masLentas);
+        }
+        copia.sort(MAS_RAPIDA.reversed());
+        return copia;
+    }
+
+    public long getUmbralMs() {
+        return TimeUnit.NANOSECONDS.toMillis(umbralNanos);
+    }
+
+    public double getMuestreo() {
+        return muestreo;
+    }
+
+    public long getSentencias() {
+        return sentencias.sum();
+    }
+
+    public long getLentas() {
+        return lentas.sum();
+    }
+
+    public long getMuestreadas() {
+        return muestreadas.sum();
+    }
+
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    @PreDestroy
+    public void detener() {
+        escritor.shutdownNow();
+    }
+
+    private void publicar(Sentencia sentencia) {
+        if (sentencia.lenta()) {
+            LOG.warn("{} ms [{}]{} {} | parámetros {}", String.format("%.1f", sentencia.duracionMs()),
+                    sentencia.origen(), sentencia.lote() > 0 ? " lote de " + sentencia.lote() : "",
+                    sentencia.sql(), sentencia.parametros());
+            synchronized (masLentas) {
+                masLentas.add(sentencia);
+                if (masLentas.size() > top) {
+                    masLentas.poll();
+                }
+            }
+        } else {
+            LOG.info("{} ms [{}] {} | parámetros {}", String.format("%.1f", sentencia.duracionMs()),
+                    sentencia.origen(), sentencia.sql(), sentencia.parametros());
+        }
+    }
+
+    /**
+     * Método de repositorio en curso o, si la sentencia no viene de un repositorio
+     * (JdbcTemplate), la primera clase de la aplicación en la pila
+     */
+    private static String origen() {
+        String repositorio = OrigenConsulta.actual();
+        if (repositorio != null) {
+            return repositorio;
+        }
+        return StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE).walk(marcos -> marcos
+                .filter(marco -> marco.getClassName().startsWith(PAQUETE_APLICACION)
+                        && marco.getDeclaringClass().getNestHost() != SqlMedidoDataSource.class
+                        && marco.getDeclaringClass() != RegistroSqlLento.class)
+                .findFirst()
+                .map(marco -> marco.getClassName().substring(marco.getClassName().lastIndexOf('.') + 1)
+                        + "." + marco.getMethodName() + ":" + marco.getLineNumber())
+                .orElse("desconocido"));
+    }
+
+    private static List<String> formatear(Object[] parametros) {
+        List<String> texto = new ArrayList<>(parametros.length);
+        for (Object parametro : parametros) {
+            texto.add(formatear(parametro));
+        }
+        return texto;
+    }
+
+    private static String formatear(Object parametro) {
+        if (parametro == null) {
+            return "null";
+        }
+        if (parametro instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (parametro instanceof InputStream || parametro instanceof Reader
+                || parametro instanceof Blob || parametro instanceof Clob) {
+            return "<" + parametro.getClass().getSimpleName() + ">";
+        }
+        String valor = String.valueOf(parametro);
+        if (valor.length() > MAXIMO_TEXTO) {
+            valor = valor.substring(0, MAXIMO_TEXTO) + "…";
+        }
+        return parametro instanceof CharSequence ? "'" + valor + "'" : valor;
+    }
+}
@@ -0,0 +1,144 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * DataSource que mide el tiempo de cada sentencia y se lo pasa a {@link RegistroSqlLento}
+ * Envuelve las conexiones y sentencias en proxies JDK: las llamadas setXxx(índice, valor)
+ * guardan solo la referencia al valor (se formatea si la sentencia llega a registrarse)
+ * y las executeXxx se cronometran. unwrap/isWrapperFor llegan al pool subyacente
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class SqlMedidoDataSource extends DelegatingDataSource {
+
+    private static final Object[] SIN_PARAMETROS = new Object[0];
+
+    private final RegistroSqlLento registro;
+
+    public SqlMedidoDataSource(DataSource destino, RegistroSqlLento registro) {
+        super(destino);
+        this.registro = registro;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return conexion(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private Connection conexion(Connection destino) {
+        return (Connection) Proxy.newProxyInstance(SqlMedidoDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConexionMedida(destino));
+    }
+
+    private static Object invocar(Object destino, Method metodo, Object[] argumentos) throws Throwable {
+        try {
+            return metodo.invoke(destino, argumentos);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConexionMedida implements InvocationHandler {
+
+        private final Connection destino;
+
+        private ConexionMedida(Connection destino) {
+            this.destino = destino;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            Object resultado = invocar(destino, metodo, argumentos);
+            return switch (metodo.getName()) {
+                case "prepareStatement" -> sentencia(PreparedStatement.class, resultado, (String) argumentos[0]);
+                case "prepareCall" -> sentencia(CallableStatement.class, resultado, (String) argumentos[0]);
+                case "createStatement" -> sentencia(Statement.class, resultado, null);
+                default -> resultado;
+            };
+        }
+
+        private Object sentencia(Class<? extends Statement> tipo, Object destino, String sql) {
+            return Proxy.newProxyInstance(SqlMedidoDataSource.class.getClassLoader(), new Class<?>[]{tipo},
+                    new SentenciaMedida((Statement) destino, sql));
+        }
+    }
+
+    /**
+     * Una sentencia: parámetros por índice de la última fila y filas acumuladas en el lote
+     */
+    private final class SentenciaMedida implements InvocationHandler {
+
+        private final Statement destino;
+        private String sql;
+        private Object[] parametros = SIN_PARAMETROS;
+        private int cantidad;
+        private int lote;
+
+        private SentenciaMedida(Statement destino, String sql) {
+            this.destino = destino;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] argumentos) throws Throwable {
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                if (argumentos != null && argumentos.length > 0 && argumentos[0] instanceof String texto) {
+                    sql = texto;
+                }
+                long inicio = System.nanoTime();
+                try {
+                    return invocar(destino, metodo, argumentos);
+                } finally {
+                    registro.medir(sql, parametros, cantidad, nombre.endsWith("Batch") ? lote : 0, System.nanoTime() - inicio);
+                    if (nombre.endsWith("Batch")) {
+                        lote = 0;
+                    }
+                }
+            }
+            if (nombre.startsWith("set") && argumentos != null && argumentos.length >= 2
+                    && argumentos[0] instanceof Integer indice) {
+                guardar(indice, nombre.equals("setNull") ? null : argumentos[1]);
+            } else if (nombre.equals("addBatch")) {
+                lote++;
+                if (argumentos != null && argumentos.length == 1) {
+                    sql = (String) argumentos[0];
+                }
+            } else if (nombre.equals("clearParameters")) {
+                cantidad = 0;
+            } else if (nombre.equals("clearBatch")) {
+                lote = 0;
+            }
+            return invocar(destino, metodo, argumentos);
+        }
+
+        private void guardar(int indice, Object valor) {
+            if (indice < 1) {
+                return;
+            }
+            if (indice > parametros.length) {
+                parametros = Arrays.copyOf(parametros, Math.max(indice, parametros.length * 2));
+            }
+            parametros[indice - 1] = valor;
+            cantidad = Math.max(cantidad, indice);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalización de texto para búsquedas en memoria
+ * Quita tildes y diacríticos y pasa a minúsculas, equivalente a la
+ * comparación insensible a acentos de la colación de MySQL
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public final class TextoNormalizador {
+    
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+    
+    private TextoNormalizador() {
+    }
+    
+    public static String normalizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return DIACRITICOS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,229 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.TextoNormalizador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Índice de autocompletado de cursos por prefijo
+ * Guarda en un arreglo ordenado las claves normalizadas de cada curso (el código y el
+ * nombre desde el inicio de cada palabra: "base de datos", "de datos", "datos"), de modo
+ * que un prefijo de la consulta se resuelve con una búsqueda binaria y un recorrido del
+ * rango contiguo que comparte ese prefijo; entre las coincidencias devuelve las k más
+ * populares
+ * Las lecturas no toman locks: cada cambio publica un estado nuevo (copy-on-write) y un
+ * curso se agrega o quita mezclando sus claves con el arreglo actual, sin reordenar todo
+ * Cada cambio incremental avanza la versión del índice: una reconstrucción indica la
+ * versión anterior a su lectura y conserva los cursos cambiados después (su lectura pudo
+ * no verlos); una reconstrucción leída antes que la última aplicada se descarta
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class CursoAutocompletadoIndex {
+
+    /**
+     * Curso indexado
+     * @param popularidad Matrículas del curso, criterio de orden de las sugerencias
+     */
+    public record Curso(long id, String codigoCurso, String nombre, long popularidad) {
+    }
+
+    private record Estado(String[] claves, long[] ids, Map<Long, Curso> cursos) {
+    }
+
+    private static final Comparator<Curso> MAS_POPULAR = Comparator.comparingLong(Curso::popularidad).reversed()
+            .thenComparing(Curso::nombre)
+            .thenComparingLong(Curso::id);
+
+    private volatile Estado estado = new Estado(new String[0], new long[0], Map.of());
+    private long version;
+    private long reconstruidoEn = -1;
+    /** Versión del último cambio incremental de cada curso aún no cubierto por una reconstrucción */
+    private final Map<Long, Long> cambios = new HashMap<>();
+
+    /**
+     * Versión actual; se toma antes de leer los cursos para {@link #reconstruir(Collection, long)}
+     */
+    public synchronized long version() {
+        return version;
+    }
+
+    /**
+     * Reemplaza por completo el contenido del índice con cursos leídos en la versión actual
+     */
+    public synchronized void reconstruir(Collection<Curso> cursos) {
+        reconstruir(cursos, version);
+    }
+
+    /**
+     * Reemplaza el contenido del índice con cursos leídos después de la versión indicada;
+     * los cursos agregados o eliminados desde entonces se quedan como están
+     * @return false si se descartó porque ya se aplicó una reconstrucción leída después
+     */
+    public synchronized boolean reconstruir(Collection<Curso> cursos, long leidaEn) {
+        if (leidaEn < reconstruidoEn) {
+            return false;
+        }
+        Map<Long, Curso> actuales = estado.cursos();
+        Map<Long, Curso> porId = new HashMap<>(cursos.size() * 2);
+        for (Curso curso : cursos) {
+            porId.put(curso.id(), curso);
+        }
+        cambios.forEach((id, cambiadoEn) -> {
+            if (cambiadoEn > leidaEn) {
+                Curso actual = actuales.get(id);
+                if (actual == null) {
+                    porId.remove(id);
+                } else {
+                    porId.put(id, actual);
+                }
+            }
+        });
+        cambios.values().removeIf(cambiadoEn -> cambiadoEn <= leidaEn);
+        reconstruidoEn = leidaEn;
+
+        List<Clave> claves = new ArrayList<>();
+        for (Curso curso : porId.values()) {
+            agregarClaves(curso, claves);
+        }
+        claves.sort(null);
+        estado = new Estado(claves.stream().map(Clave::texto).toArray(String[]::new),
+                claves.stream().mapToLong(Clave::id).toArray(), Map.copyOf(porId));
+        return true;
+    }
+
+    /**
+     * Agrega o actualiza un curso
+     */
+    public synchronized void indexar(Curso curso) {
+        List<Clave> nuevas = new ArrayList<>();
+        agregarClaves(curso, nuevas);
+        nuevas.sort(null);
+        Map<Long, Curso> cursos = new HashMap<>(estado.cursos());
+        cursos.put(curso.id(), curso);
+        cambios.put(curso.id(), ++version);
+        publicar(curso.id(), nuevas, cursos);
+    }
+
+    /**
+     * Quita un curso del índice
+     */
+    public synchronized void eliminar(long id) {
+        // Se registra aunque no esté: una reconstrucción en curso pudo leerlo antes del borrado
+        cambios.put(id, ++version);
+        if (!estado.cursos().containsKey(id)) {
+            return;
+        }
+        Map<Long, Curso> cursos = new HashMap<>(estado.cursos());
+        cursos.remove(id);
+        publicar(id, List.of(), cursos);
+    }
+
+    /**
+     * Hasta limite cursos cuyo código o alguna palabra del nombre (y las siguientes)
+     * empieza por el texto, sin distinguir mayúsculas ni acentos, de más a menos populares
+     */
+    public List<Curso> sugerir(String texto, int limite) {
+        String prefijo = normalizar(texto);
+        if (prefijo.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        Estado actual = estado;
+        String[] claves = actual.claves();
+        int desde = Arrays.binarySearch(claves, prefijo);
+        if (desde < 0) {
+            desde = -desde - 1;
+        }
+
+        Set<Long> vistos = new HashSet<>();
+        PriorityQueue<Curso> mejores = new PriorityQueue<>(limite + 1, MAS_POPULAR.reversed());
+        for (int i = desde; i < claves.length && claves[i].startsWith(prefijo); i++) {
+            if (vistos.add(actual.ids()[i])) {
+                mejores.add(actual.cursos().get(actual.ids()[i]));
+                if (mejores.size() > limite) {
+                    mejores.poll();
+                }
+            }
+        }
+        List<Curso> resultado = new ArrayList<>(mejores);
+        resultado.sort(MAS_POPULAR);
+        return resultado;
+    }
+
+    public int tamanio() {
+        return estado.cursos().size();
+    }
+
+    /**
+     * Mezcla el arreglo actual sin las claves del curso con sus claves nuevas (ya ordenadas)
+     */
+    private void publicar(long id, List<Clave> nuevas, Map<Long, Curso> cursos) {
+        Estado actual = estado;
+        int total = actual.claves().length + nuevas.size();
+        String[] claves = new String[total];
+        long[] ids = new long[total];
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < actual.claves().length; i++) {
+            if (actual.ids()[i] == id) {
+                continue;
+            }
+            Clave existente = new Clave(actual.claves()[i], actual.ids()[i]);
+            while (j < nuevas.size() && nuevas.get(j).compareTo(existente) < 0) {
+                claves[n] = nuevas.get(j).texto();
+                ids[n++] = nuevas.get(j++).id();
+            }
+            claves[n] = existente.texto();
+            ids[n++] = existente.id();
+        }
+        for (; j < nuevas.size(); j++) {
+            claves[n] = nuevas.get(j).texto();
+            ids[n++] = nuevas.get(j).id();
+        }
+        estado = new Estado(Arrays.copyOf(claves, n), Arrays.copyOf(ids, n), Map.copyOf(cursos));
+    }
+
+    private static void agregarClaves(Curso curso, List<Clave> claves) {
+        Set<String> textos = new HashSet<>();
+        String codigo = normalizar(curso.codigoCurso());
+        if (!codigo.isEmpty()) {
+            textos.add(codigo);
+        }
+        String nombre = normalizar(curso.nombre());
+        for (int i = 0; i < nombre.length(); i++) {
+            boolean inicioPalabra = Character.isLetterOrDigit(nombre.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(nombre.charAt(i - 1)));
+            if (inicioPalabra) {
+                textos.add(nombre.substring(i));
+            }
+        }
+        for (String texto : textos) {
+            claves.add(new Clave(texto, curso.id()));
+        }
+    }
+
+    /**
+     * Minúsculas sin acentos, con los espacios repetidos colapsados
+     */
+    static String normalizar(String texto) {
+        return TextoNormalizador.normalizar(texto).strip().replaceAll("\\s+", " ");
+    }
+
+    private record Clave(String texto, long id) implements Comparable<Clave> {
+
+        @Override
+        public int compareTo(Clave otra) {
+            int comparacion = texto.compareTo(otra.texto);
+            return comparacion != 0 ? comparacion : Long.compare(id, otra.id);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso;
+
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.TextoNormalizador;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas sobre el nombre de los cursos
+ * Resuelve búsquedas por subcadena insensibles a mayúsculas y acentos
+ * sin recorrer la tabla cursos: intersecta las listas de los trigramas de la
+ * consulta y verifica los candidatos contra el texto normalizado
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+public class CursoNgramIndex {
+    
+    static final int N = 3;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    /** id del curso -> nombre normalizado */
+    private final Map<Long, String> textos = new HashMap<>();
+    
+    /** trigrama empaquetado -> ids de los cursos que lo contienen */
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+    
+    /**
+     * Reemplaza por completo el contenido del índice
+     */
+    public void reconstruir(Map<Long, String> nombresPorId) {
+        lock.writeLock().lock();
+        try {
+            textos.clear();
+            postings.clear();
+            nombresPorId.forEach(this::indexarSinLock);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Agrega o actualiza un curso
+     */
+    public void indexar(Long id, String nombre) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+            indexarSinLock(id, nombre);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Quita un curso del índice
+     */
+    public void eliminar(Long id) {
+        lock.writeLock().lock();
+        try {
+            eliminarSinLock(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * IDs de los cursos cuyo nombre contiene el texto (sin distinguir mayúsculas ni acentos)
+     */
+    public List<Long> buscar(String texto) {
+        String consulta = TextoNormalizador.normalizar(texto);
+        lock.readLock().lock();
+        try {
+            if (consulta.length() < N) {
+                return recorrer(consulta);
+            }
+            
+            List<Set<Long>> listas = new ArrayList<>();
+            for (long trigrama : trigramas(consulta)) {
+                Set<Long> ids = postings.get(trigrama);
+                if (ids == null) {
+                    return List.of();
+                }
+                listas.add(ids);
+            }
+            listas.sort(Comparator.comparingInt(Set::size));
+            
+            List<Long> resultado = new ArrayList<>();
+            for (Long id : listas.get(0)) {
+                if (contenidoEnTodas(id, listas) && textos.get(id).contains(consulta)) {
+                    resultado.add(id);
+                }
+            }
+            return resultado;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    public int tamanio() {
+        lock.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void indexarSinLock(Long id, String nombre) {
+        String normalizado = TextoNormalizador.normalizar(nombre);
+        textos.put(id, normalizado);
+        for (long trigrama : trigramas(normalizado)) {
+            postings.computeIfAbsent(trigrama, k -> new HashSet<>()).add(id);
+        }
+    }
+    
+    private void eliminarSinLock(Long id) {
+        String anterior = textos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (long trigrama : trigramas(anterior)) {
+            Set<Long> ids = postings.get(trigrama);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(trigrama);
+                }
+            }
+        }
+    }
+    
+    private List<Long> recorrer(String consulta) {
+        List<Long> resultado = new ArrayList<>();
+        textos.forEach((id, texto) -> {
+            if (texto.contains(consulta)) {
+                resultado.add(id);
+            }
+        });
+        return resultado;
+    }
+    
+    private static boolean contenidoEnTodas(Long id, Collection<Set<Long>> listas) {
+        for (Set<Long> ids : listas) {
+            if (!ids.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Trigramas distintos del texto, cada uno empaquetado en un long (3 x 16 bits)
+     */
+    static long[] trigramas(String texto) {
+        if (texto.length() < N) {
+            return new long[0];
+        }
+        long[] resultado = new long[texto.length() - N + 1];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = ((long) texto.charAt(i) << 32)
+                    | ((long) texto.charAt(i + 1) << 16)
+                    | texto.charAt(i + 2);
+        }
+        return Arrays.stream(resultado).distinct().toArray();
+    }
+}
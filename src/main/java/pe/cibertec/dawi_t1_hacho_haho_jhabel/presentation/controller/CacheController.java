@@ -0,0 +1,63 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.CursoCatalogoSnapshot;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.TotalesAproximados;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CacheEstadisticasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.CacheSegundoNivelConfig;
+
+import java.util.List;
+
+/**
+ * Controlador REST para observar y vaciar la caché de segundo nivel
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+    
+    private static final List<String> REGIONES = List.of(
+            CacheSegundoNivelConfig.REGION_CURSOS,
+            CacheSegundoNivelConfig.REGION_PERSONAS,
+            CacheSegundoNivelConfig.REGION_CONSULTAS);
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private CursoCatalogoSnapshot catalogoSnapshot;
+    
+    @Autowired
+    private TotalesAproximados totalesAproximados;
+    
+    /**
+     * Aciertos/fallos por región
+     * Ejemplo: GET /api/cache/estadisticas
+     */
+    @GetMapping("/estadisticas")
+    public ResponseEntity<CacheEstadisticasResponse> estadisticas() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return ResponseEntity.ok(CacheEstadisticasResponse.de(sessionFactory.getStatistics(), REGIONES));
+    }
+    
+    /**
+     * Vacía todas las regiones; necesario tras modificar cursos o personas
+     * directamente en la base de datos (scripts SQL), fuera de JPA
+     * También reconstruye el snapshot de GET /api/cursos/todos y descarta los totales
+     * aproximados de los listados paginados
+     * Ejemplo: DELETE /api/cache
+     */
+    @DeleteMapping
+    public ResponseEntity<Void> vaciar() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        catalogoSnapshot.invalidar();
+        totalesAproximados.invalidar();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,14 +1,29 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
 
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.CursoCatalogoSnapshot;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.VersionRecurso;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CursoEstadisticaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CursoSugerenciaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.PaginaCursorResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.ReconciliacionEstadisticasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.KeysetCursor;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoAutocompletadoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoBusquedaUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoCatalogoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoEstadisticaUseCase;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -25,20 +40,41 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class CursoController {
     
+    private static final String CURSOR_CURSOS = "cursos";
+    private static final int MAX_SIZE = 100;
+    
     @Autowired
     private CursoRepositoryJpa cursoRepository;
     
+    @Autowired
+    private CursoBusquedaUseCase cursoBusqueda;
+    
+    @Autowired
+    private CursoAutocompletadoUseCase cursoAutocompletado;
+    
+    @Autowired
+    private CursoCatalogoUseCase cursoCatalogo;
+    
+    @Autowired
+    private CursoEstadisticaUseCase cursoEstadistica;
+    
+    @Autowired
+    private CursoCatalogoSnapshot catalogoSnapshot;
+    
     /**
      * PREGUNTA 02: Endpoint con paginación y ordenamiento
-     * Ejemplo: GET /api/cursos?nombre=desarrollo&page=0&size=10&sortBy=nombre&sortDir=asc
+     * Sin COUNT(*): la respuesta indica hasNext; total=aproximado agrega un total que puede
+     * estar desfasado (paginacion.total-aproximado.ttl-segundos) y total=exacto lo cuenta
+     * Ejemplo: GET /api/cursos?nombre=desarrollo&page=0&size=10&sortBy=nombre&sortDir=asc&total=aproximado
      */
     @GetMapping
-    public ResponseEntity<Page<CursoEntity>> listarCursos(
+    public ResponseEntity<?> listarCursos(
             @RequestParam(defaultValue = "") String nombre,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "nombre") String sortBy,
-            @RequestParam(defaultValue = "asc") String sortDir) {
+            @RequestParam(defaultValue = "asc") String sortDir,
+            @RequestParam(required = false) String total) {
         
         // Crear Sort
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
@@ -48,53 +84,154 @@ public class CursoController {
         // Crear Pageable
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        // Buscar con paginación
-        Page<CursoEntity> cursos;
-        if (nombre.isEmpty()) {
-            cursos = cursoRepository.findAll(pageable);
+        try {
+            return ResponseEntity.ok(cursoBusqueda.listar(nombre, pageable, ModoTotal.de(total)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Listado paginado con solo los campos pedidos (SELECT de esas columnas)
+     * Campos: id, codigoCurso, nombre, creditos, descripcion, profesorId, profesorNombre, profesorEspecialidad
+     * Ejemplo: GET /api/cursos?fields=id,nombre,creditos&nombre=desarrollo&page=0&size=20&sortBy=creditos
+     */
+    @GetMapping(params = {"fields", "!cursor"})
+    public ResponseEntity<?> listarCursosCampos(
+            @RequestParam String fields,
+            @RequestParam(defaultValue = "") String nombre,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "nombre") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDir) {
+        
+        Sort sort = sortDir.equalsIgnoreCase("desc") ? 
+            Sort.by(sortBy).descending() : 
+            Sort.by(sortBy).ascending();
+        
+        try {
+            return ResponseEntity.ok(cursoBusqueda.listarCampos(nombre, fields, PageRequest.of(page, size, sort)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Listado en modo cursor (keyset) ordenado por nombre, sin OFFSET ni COUNT(*)
+     * Ejemplo: GET /api/cursos?cursor=&nombre=desarrollo&size=10 y luego ?cursor={nextCursor}
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<?> listarCursosPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "") String nombre,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        int tamanio = Math.max(1, Math.min(size, MAX_SIZE));
+        Limit limite = Limit.of(tamanio + 1);
+        
+        List<CursoEntity> filas;
+        if (cursor.isEmpty()) {
+            filas = cursoRepository.findPrimerosPorNombre(nombre, limite);
         } else {
-            cursos = cursoRepository.findByNombreContainingIgnoreCase(nombre, pageable);
+            try {
+                KeysetCursor ultimo = KeysetCursor.decodificar(cursor, CURSOR_CURSOS);
+                filas = cursoRepository.findSiguientesPorNombre(nombre, ultimo.clave(), ultimo.id(), limite);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("El parámetro 'cursor' no es válido");
+            }
         }
         
-        return ResponseEntity.ok(cursos);
+        return ResponseEntity.ok(PaginaCursorResponse.de(filas, tamanio,
+                c -> new KeysetCursor(CURSOR_CURSOS, c.getNombre(), c.getId())));
     }
     
     /**
-     * PREGUNTA 02: Búsqueda por nombre usando JPQL
+     * PREGUNTA 02: Búsqueda por nombre (índice n-gram, con JPQL como respaldo)
      * Ejemplo: GET /api/cursos/buscar?nombre=desarrollo
      */
     @GetMapping("/buscar")
     public ResponseEntity<List<CursoEntity>> buscarPorNombre(@RequestParam String nombre) {
-        List<CursoEntity> cursos = cursoRepository.findByNombreContainingJpql(nombre);
+        List<CursoEntity> cursos = cursoBusqueda.buscarPorNombre(nombre);
         return ResponseEntity.ok(cursos);
     }
     
     /**
-     * Obtener curso por ID
+     * Autocompletado por prefijo del código o de cualquier palabra del nombre, ordenado
+     * por número de matrículas; se resuelve en memoria sin consultar la base de datos
+     * Ejemplo: GET /api/cursos/autocompletar?q=base de da&limite=5
+     */
+    @GetMapping("/autocompletar")
+    public ResponseEntity<List<CursoSugerenciaResponse>> autocompletar(
+            @RequestParam(defaultValue = "") String q,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(cursoAutocompletado.sugerir(q, limite));
+    }
+    
+    /**
+     * Obtener curso por ID (caché de segundo nivel)
+     * Responde 304 sin serializar si If-None-Match/If-Modified-Since siguen vigentes
      */
     @GetMapping("/{id}")
-    public ResponseEntity<CursoEntity> obtenerPorId(@PathVariable Long id) {
-        Optional<CursoEntity> curso = cursoRepository.findById(id);
-        return curso.map(ResponseEntity::ok)
-                   .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CursoEntity> obtenerPorId(@PathVariable Long id, WebRequest request) {
+        Optional<CursoEntity> curso = cursoCatalogo.obtenerPorId(id);
+        if (curso.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        VersionRecurso version = CursoCatalogoUseCase.version(curso.get());
+        if (request.checkNotModified(version.etag(), version.ultimaModificacionMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(curso.get());
     }
     
     /**
-     * Obtener curso por código
+     * Obtener curso por código (caché de consultas, GET condicional)
      */
     @GetMapping("/codigo/{codigo}")
-    public ResponseEntity<CursoEntity> obtenerPorCodigo(@PathVariable String codigo) {
-        Optional<CursoEntity> curso = cursoRepository.findByCodigo(codigo);
-        return curso.map(ResponseEntity::ok)
-                   .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<CursoEntity> obtenerPorCodigo(@PathVariable String codigo, WebRequest request) {
+        Optional<CursoEntity> curso = cursoCatalogo.obtenerPorCodigo(codigo);
+        if (curso.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        VersionRecurso version = CursoCatalogoUseCase.version(curso.get());
+        if (request.checkNotModified(version.etag(), version.ultimaModificacionMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(curso.get());
     }
     
     /**
      * Listar todos los cursos sin paginación
+     * Con el snapshot vigente escribe los bytes ya serializados (gzip/deflate según
+     * Accept-Encoding) sin tocar la base; si no, lee de la caché de consultas
+     * La versión es la de toda la tabla (conteo + última modificación de cursos y profesores)
      */
     @GetMapping("/todos")
-    public ResponseEntity<List<CursoEntity>> listarTodos() {
-        List<CursoEntity> cursos = cursoRepository.findAll();
+    public ResponseEntity<?> listarTodos(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        CursoCatalogoSnapshot.Snapshot snapshot = catalogoSnapshot.vigente();
+        if (snapshot != null) {
+            CursoCatalogoSnapshot.Codificacion codificacion = CursoCatalogoSnapshot.Codificacion.preferida(acceptEncoding);
+            CursoCatalogoSnapshot.Representacion representacion = snapshot.en(codificacion);
+            if (request.checkNotModified(representacion.etag(), snapshot.ultimaModificacionMillis())) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .contentLength(representacion.cuerpo().length)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING);
+            if (codificacion.contentEncoding() != null) {
+                respuesta.header(HttpHeaders.CONTENT_ENCODING, codificacion.contentEncoding());
+            }
+            return respuesta.body(representacion.cuerpo());
+        }
+        
+        List<CursoEntity> cursos = cursoCatalogo.listarTodos();
+        VersionRecurso version = CursoCatalogoUseCase.version(cursos);
+        if (request.checkNotModified(version.etag(), version.ultimaModificacionMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(cursos);
     }
     
@@ -106,4 +243,39 @@ public class CursoController {
         List<CursoEntity> cursos = cursoRepository.findByCreditos(creditos);
         return ResponseEntity.ok(cursos);
     }
+    
+    /**
+     * Estadísticas de matrícula del curso (fila precalculada en cursos_estadisticas)
+     */
+    @GetMapping("/{id}/estadisticas")
+    public ResponseEntity<CursoEstadisticaResponse> obtenerEstadisticas(@PathVariable Long id) {
+        return cursoEstadistica.obtener(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Ranking de cursos por matrículas activas, tasa de aprobación o nota promedio
+     * Ejemplo: GET /api/cursos/estadisticas/ranking?criterio=aprobacion&limite=10
+     */
+    @GetMapping("/estadisticas/ranking")
+    public ResponseEntity<?> rankingEstadisticas(
+            @RequestParam(defaultValue = "activas") String criterio,
+            @RequestParam(defaultValue = "10") int limite) {
+        CursoEstadisticaUseCase.Criterio orden;
+        try {
+            orden = CursoEstadisticaUseCase.Criterio.valueOf(criterio.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("El parámetro 'criterio' debe ser activas, aprobacion o promedio");
+        }
+        return ResponseEntity.ok(cursoEstadistica.ranking(orden, Math.max(1, Math.min(limite, MAX_SIZE))));
+    }
+    
+    /**
+     * Reconciliación manual de cursos_estadisticas (también se ejecuta periódicamente)
+     */
+    @PostMapping("/estadisticas/reconciliar")
+    public ResponseEntity<ReconciliacionEstadisticasResponse> reconciliarEstadisticas() {
+        return ResponseEntity.ok(cursoEstadistica.reconciliar());
+    }
 }
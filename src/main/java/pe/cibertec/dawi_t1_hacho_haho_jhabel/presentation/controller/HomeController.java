@@ -1,6 +1,9 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MetricasUseCase;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -18,6 +21,9 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class HomeController {
     
+    @Autowired
+    private MetricasUseCase metricas;
+    
     /**
      * Endpoint raíz - Información de la API
      */
@@ -37,26 +43,55 @@ public class HomeController {
         
         // Endpoints de Cursos (Pregunta 02)
         Map<String, String> cursosEndpoints = new HashMap<>();
-        cursosEndpoints.put("GET /api/cursos", "Listar cursos con paginación");
-        cursosEndpoints.put("GET /api/cursos/buscar?nombre=", "Buscar cursos por nombre (JPQL)");
-        cursosEndpoints.put("GET /api/cursos/{id}", "Obtener curso por ID");
+        cursosEndpoints.put("GET /api/cursos", "Listar cursos con paginación (sin total; total=aproximado|exacto para incluirlo)");
+        cursosEndpoints.put("GET /api/cursos?cursor=", "Listar cursos en modo cursor (keyset)");
+        cursosEndpoints.put("GET /api/cursos?fields=", "Listar cursos con solo los campos pedidos");
+        cursosEndpoints.put("GET /api/cursos/buscar?nombre=", "Buscar cursos por nombre (índice n-gram / JPQL)");
+        cursosEndpoints.put("GET /api/cursos/autocompletar?q=", "Autocompletado por prefijo de código o palabra, por popularidad (en memoria)");
+        cursosEndpoints.put("GET /api/cursos/{id}", "Obtener curso por ID (ETag/Last-Modified, 304 si no cambió)");
         cursosEndpoints.put("GET /api/cursos/codigo/{codigo}", "Obtener curso por código");
-        cursosEndpoints.put("GET /api/cursos/todos", "Listar todos los cursos");
+        cursosEndpoints.put("GET /api/cursos/todos", "Listar todos los cursos (snapshot serializado gzip/deflate, ETag por versión de tabla)");
         cursosEndpoints.put("GET /api/cursos/creditos/{creditos}", "Buscar por créditos");
+        cursosEndpoints.put("GET /api/cursos/{id}/estadisticas", "Matrículas activas, tasa de aprobación y promedio del curso");
+        cursosEndpoints.put("GET /api/cursos/estadisticas/ranking?criterio=", "Ranking por activas, aprobacion o promedio");
+        cursosEndpoints.put("POST /api/cursos/estadisticas/reconciliar", "Recalcular estadísticas desviadas");
         
         // Endpoints de Matrículas (Pregunta 02)
         Map<String, String> matriculasEndpoints = new HashMap<>();
-        matriculasEndpoints.put("GET /api/matriculas/email?email=", "Listar matrículas por email (JPQL)");
+        matriculasEndpoints.put("GET /api/matriculas/email?email=", "Listar matrículas por email (JPQL; historico=true incluye las archivadas)");
+        matriculasEndpoints.put("GET /api/matriculas/panel?email=", "Panel del alumno: matrículas, activas y cursos (consultas en paralelo)");
+        matriculasEndpoints.put("POST /api/matriculas/lote", "Matrículas de varios alumnos (emails o códigos) agrupadas por alumno");
         matriculasEndpoints.put("GET /api/matriculas/email/completa?email=", "Consulta completa con JOIN FETCH");
         matriculasEndpoints.put("GET /api/matriculas/email/contar?email=", "Contar matrículas activas por email");
-        matriculasEndpoints.put("GET /api/matriculas/email/paginado?email=", "Búsqueda paginada por email");
-        matriculasEndpoints.put("GET /api/matriculas", "Listar todas con paginación");
-        matriculasEndpoints.put("GET /api/matriculas/{id}", "Obtener matrícula por ID");
-        matriculasEndpoints.put("GET /api/matriculas/codigo/{codigo}", "Buscar por código estudiante");
-        matriculasEndpoints.put("GET /api/matriculas/estado/{estado}", "Buscar por estado");
+        matriculasEndpoints.put("GET /api/matriculas/email/paginado?email=", "Búsqueda paginada por email (total=aproximado|exacto para incluir el total)");
+        matriculasEndpoints.put("GET /api/matriculas", "Listar todas con paginación (sin total; total=aproximado|exacto para incluirlo)");
+        matriculasEndpoints.put("GET /api/matriculas?cursor=", "Listar todas en modo cursor (keyset)");
+        matriculasEndpoints.put("GET /api/matriculas?fields=", "Listar todas con solo los campos pedidos (también en /email/paginado)");
+        matriculasEndpoints.put("GET /api/matriculas/{id}", "Obtener matrícula por ID (ETag/Last-Modified, 304 si no cambió)");
+        matriculasEndpoints.put("GET /api/matriculas/codigo/{codigo}", "Buscar por código estudiante (historico=true incluye las archivadas)");
+        matriculasEndpoints.put("GET /api/matriculas/estado/{estado}", "Buscar por estado (historico=true incluye las archivadas)");
+        matriculasEndpoints.put("GET /api/matriculas/exportar?formato=ndjson|csv", "Exportación masiva en streaming");
+        matriculasEndpoints.put("POST /api/matriculas/bulk", "Carga masiva de matrículas (JSON o CSV)");
+        matriculasEndpoints.put("POST /api/matriculas/transiciones", "Cambio de estado masivo en segundo plano (cierre de ciclo)");
+        matriculasEndpoints.put("GET /api/matriculas/transiciones/{id}", "Progreso de un cambio de estado masivo");
+        matriculasEndpoints.put("POST /api/matriculas/archivo?antesDe=", "Archivar matrículas cerradas antiguas en matriculas_historico");
+        
+        // Endpoints de la caché de segundo nivel
+        Map<String, String> cacheEndpoints = new HashMap<>();
+        cacheEndpoints.put("GET /api/cache/estadisticas", "Aciertos/fallos de la caché por región");
+        cacheEndpoints.put("DELETE /api/cache", "Vaciar la caché de segundo nivel");
         
         endpoints.put("cursos", cursosEndpoints);
         endpoints.put("matriculas", matriculasEndpoints);
+        endpoints.put("cache", cacheEndpoints);
+        
+        // Endpoints de observabilidad
+        Map<String, String> observabilidadEndpoints = new HashMap<>();
+        observabilidadEndpoints.put("GET /api/health", "Verificación real de la base de datos y del pool; último estado de las réplicas de lectura");
+        observabilidadEndpoints.put("GET /api/metricas", "Latencias p50/p95/p99 por repositorio y endpoint, Hibernate y pool");
+        observabilidadEndpoints.put("GET /api/metricas/sql-lentas", "Sentencias SQL más lentas con parámetros y método de origen");
+        observabilidadEndpoints.put("GET /actuator/metrics", "Métricas Micrometer (Actuator)");
+        endpoints.put("observabilidad", observabilidadEndpoints);
         
         response.put("endpoints", endpoints);
         
@@ -77,6 +112,7 @@ public class HomeController {
         tecnologias.put("Herencia JPA", "JOINED Strategy");
         tecnologias.put("Consultas", "JPQL + Query Methods");
         tecnologias.put("Paginación", "Spring Data Pageable");
+        tecnologias.put("Caché", "Hibernate L2 + JCache (Caffeine)");
         
         response.put("tecnologias", tecnologias);
         
@@ -92,17 +128,21 @@ public class HomeController {
     }
     
     /**
-     * Health check endpoint
+     * Health check endpoint: valida una conexión del pool contra la base de datos
+     * Responde 503 si la base de datos no está disponible
      */
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        Map<String, Object> baseDatos = metricas.verificarBaseDatos();
+        boolean arriba = "UP".equals(baseDatos.get("status"));
+        
         Map<String, Object> health = new HashMap<>();
-        health.put("status", "UP");
+        health.put("status", arriba ? "UP" : "DOWN");
         health.put("timestamp", LocalDateTime.now());
         health.put("service", "Sistema Académico");
-        health.put("database", "MySQL Connected");
+        health.put("database", baseDatos);
         
-        return ResponseEntity.ok(health);
+        return ResponseEntity.status(arriba ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(health);
     }
     
     /**
@@ -1,17 +1,51 @@
 package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
 
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.VersionRecurso;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaIngestaFila;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaLoteRequest;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaTransicionRequest;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaArchivoResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaIngestaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaTransicionResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.PaginaCursorResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.KeysetCursor;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MatriculaArchivoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MatriculaConsultaUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MatriculaExportacionUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MatriculaIngestaUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MatriculaTransicionUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.PanelAlumnoUseCase;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
 import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.projection.MatriculaResumenProjection;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Controlador REST para la gestión de matrículas
@@ -25,23 +59,50 @@ import java.util.Optional;
 @CrossOrigin(origins = "*")
 public class MatriculaController {
     
+    private static final String CURSOR_MATRICULAS = "matriculas";
+    private static final int MAX_SIZE = 100;
+    
     @Autowired
     private MatriculaRepositoryJpa matriculaRepository;
     
+    @Autowired
+    private MatriculaConsultaUseCase matriculaConsulta;
+    
+    @Autowired
+    private MatriculaExportacionUseCase matriculaExportacion;
+    
+    @Autowired
+    private MatriculaIngestaUseCase matriculaIngesta;
+    
+    @Autowired
+    private MatriculaTransicionUseCase matriculaTransicion;
+    
+    @Autowired
+    private MatriculaArchivoUseCase matriculaArchivo;
+    
+    @Autowired
+    private PanelAlumnoUseCase panelAlumno;
+    
+    @Value("${limites.concurrencia.retry-after-segundos:1}")
+    private int retryAfterSegundos;
+    
     /**
      * PREGUNTA 02: Lista matrículas por email del alumno usando JPQL
+     * Devuelve la proyección MatriculaResumenProjection (sin entidades administradas)
+     * Con historico=true incluye las matrículas archivadas
      * Ejemplo: GET /api/matriculas/email?email=juan.perez@universidad.edu.pe
      */
     @GetMapping("/email")
     public ResponseEntity<?> listarPorEmailAlumno(
-            @RequestParam(required = false) String email) {
+            @RequestParam(required = false) String email,
+            @RequestParam(defaultValue = "false") boolean historico) {
         
         if (email == null || email.trim().isEmpty()) {
             return ResponseEntity.badRequest().body("El parámetro 'email' es requerido");
         }
         
         try {
-            List<MatriculaEntity> matriculas = matriculaRepository.findByAlumnoEmail(email);
+            List<MatriculaResumenProjection> matriculas = matriculaConsulta.resumenPorEmail(email, historico);
             return ResponseEntity.ok(matriculas);
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -49,6 +110,52 @@ public class MatriculaController {
         }
     }
     
+    /**
+     * Panel del alumno: matrículas, cantidad de activas y detalle de sus cursos en una
+     * sola respuesta; las tres consultas se ejecutan en paralelo
+     * Sin conexión libre a tiempo responde 503 con Retry-After, como el límite de
+     * concurrencia, y si las consultas superan panel-alumno.timeout-ms responde 504
+     * Ejemplo: GET /api/matriculas/panel?email=juan.perez@universidad.edu.pe
+     */
+    @GetMapping("/panel")
+    public ResponseEntity<?> panelAlumno(@RequestParam(required = false) String email) {
+        if (email == null || email.trim().isEmpty()) {
+            return ResponseEntity.badRequest().body("El parámetro 'email' es requerido");
+        }
+        try {
+            return ResponseEntity.ok(panelAlumno.panel(email));
+        } catch (QueryTimeoutException e) {
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(e.getMessage());
+        } catch (TransientDataAccessResourceException | CannotCreateTransactionException e) {
+            // Las consultas con transacción reciben el rechazo del bulkhead como CannotCreateTransaction
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos))
+                    .body("Servicio saturado, reintente en " + retryAfterSegundos + " s");
+        }
+    }
+    
+    /**
+     * Matrículas de varios alumnos en una sola petición (p. ej. una sección completa),
+     * agrupadas por alumno; se resuelve con consultas IN por bloques
+     * Ejemplo: POST /api/matriculas/lote {"emails": ["juan.perez@universidad.edu.pe", ...]}
+     *          POST /api/matriculas/lote {"codigosEstudiante": ["EST001", ...]}
+     */
+    @PostMapping(value = "/lote", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> consultarLote(@RequestBody MatriculaLoteRequest solicitud) {
+        boolean porEmail = solicitud.emails() != null && !solicitud.emails().isEmpty();
+        boolean porCodigo = solicitud.codigosEstudiante() != null && !solicitud.codigosEstudiante().isEmpty();
+        if (porEmail == porCodigo) {
+            return ResponseEntity.badRequest().body("Indique 'emails' o 'codigosEstudiante' (solo uno)");
+        }
+        try {
+            return ResponseEntity.ok(porEmail
+                    ? matriculaConsulta.resumenPorEmails(solicitud.emails())
+                    : matriculaConsulta.resumenPorCodigosEstudiante(solicitud.codigosEstudiante()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
     /**
      * PREGUNTA 02: Consulta completa con JOIN FETCH para evitar N+1
      * Ejemplo: GET /api/matriculas/email/completa?email=juan.perez@universidad.edu.pe
@@ -65,77 +172,304 @@ public class MatriculaController {
      */
     @GetMapping("/email/contar")
     public ResponseEntity<Long> contarMatriculasActivasPorEmail(@RequestParam String email) {
-        Long count = matriculaRepository.countActiveMatriculasByEmail(email);
+        Long count = matriculaConsulta.contarActivasPorEmail(email);
         return ResponseEntity.ok(count);
     }
     
     /**
      * PREGUNTA 02: Búsqueda paginada por email del alumno
+     * Sin COUNT(*) salvo total=aproximado o total=exacto (ver GET /api/matriculas)
+     * Solo matrículas vigentes: historico=true se rechaza (ver GET /api/matriculas/email)
      * Ejemplo: GET /api/matriculas/email/paginado?email=juan.perez@universidad.edu.pe&page=0&size=5
      */
     @GetMapping("/email/paginado")
-    public ResponseEntity<Page<MatriculaEntity>> buscarPorEmailPaginado(
+    public ResponseEntity<?> buscarPorEmailPaginado(
+            @RequestParam String email,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "fechaMatricula") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String total,
+            @RequestParam(defaultValue = "false") boolean historico) {
+        
+        return listar(email, page, size, sortBy, sortDir, total, historico);
+    }
+    
+    /**
+     * Búsqueda paginada por email con solo los campos pedidos
+     * Ejemplo: GET /api/matriculas/email/paginado?email=juan.perez@universidad.edu.pe&fields=id,estado,cursoNombre
+     */
+    @GetMapping(value = "/email/paginado", params = "fields")
+    public ResponseEntity<?> buscarPorEmailPaginadoCampos(
             @RequestParam String email,
+            @RequestParam String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "fechaMatricula") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
+        return listarCampos(fields, email, page, size, sortBy, sortDir);
+    }
+    
+    /**
+     * Listar todas las matrículas con paginación
+     * Sin COUNT(*): la respuesta indica hasNext; total=aproximado agrega un total que puede
+     * estar desfasado (paginacion.total-aproximado.ttl-segundos) y total=exacto lo cuenta
+     * Solo matrículas vigentes: paginar sobre matriculas y matriculas_historico a la vez
+     * obligaría a ordenar ambas tablas completas, así que historico=true se rechaza; las
+     * archivadas se consultan por alumno o estado (/email, /codigo, /estado con historico=true)
+     * Ejemplo: GET /api/matriculas?page=0&size=20&total=aproximado
+     */
+    @GetMapping
+    public ResponseEntity<?> listarTodas(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "fechaMatricula") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String total,
+            @RequestParam(defaultValue = "false") boolean historico) {
+        
+        return listar(null, page, size, sortBy, sortDir, total, historico);
+    }
+    
+    private ResponseEntity<?> listar(String email, int page, int size, String sortBy, String sortDir,
+                                     String total, boolean historico) {
+        if (historico) {
+            return ResponseEntity.badRequest().body("Los listados paginados solo incluyen matrículas vigentes; "
+                    + "use /api/matriculas/email, /codigo/{codigo} o /estado/{estado} con historico=true");
+        }
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : 
             Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<MatriculaEntity> matriculas = matriculaRepository.findByAlumnoEmailPaginated(email, pageable);
-        
-        return ResponseEntity.ok(matriculas);
+        try {
+            return ResponseEntity.ok(matriculaConsulta.listar(email, PageRequest.of(page, size, sort), ModoTotal.de(total)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     /**
-     * Listar todas las matrículas con paginación
+     * Listar todas las matrículas con solo los campos pedidos (SELECT de esas columnas)
+     * Campos: id, fechaMatricula, estado, notaFinal, alumnoId, alumnoNombre, alumnoEmail,
+     * codigoEstudiante, cursoId, codigoCurso, cursoNombre, creditos
+     * Ejemplo: GET /api/matriculas?fields=id,estado,codigoCurso&page=0&size=20&sortBy=codigoCurso&sortDir=asc
      */
-    @GetMapping
-    public ResponseEntity<Page<MatriculaEntity>> listarTodas(
+    @GetMapping(params = {"fields", "!cursor"})
+    public ResponseEntity<?> listarTodasCampos(
+            @RequestParam String fields,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "fechaMatricula") String sortBy,
             @RequestParam(defaultValue = "desc") String sortDir) {
         
+        return listarCampos(fields, null, page, size, sortBy, sortDir);
+    }
+    
+    private ResponseEntity<?> listarCampos(String fields, String email, int page, int size,
+                                           String sortBy, String sortDir) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? 
             Sort.by(sortBy).descending() : 
             Sort.by(sortBy).ascending();
         
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<MatriculaEntity> matriculas = matriculaRepository.findAll(pageable);
+        try {
+            return ResponseEntity.ok(matriculaConsulta.listarCampos(fields, email, PageRequest.of(page, size, sort)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Listar todas las matrículas en modo cursor (keyset), sin OFFSET ni COUNT(*)
+     * Orden fijo: fechaMatricula DESC, id DESC
+     * Ejemplo: GET /api/matriculas?cursor=&size=20 y luego ?cursor={nextCursor}
+     */
+    @GetMapping(params = "cursor")
+    public ResponseEntity<?> listarTodasPorCursor(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        
+        int tamanio = Math.max(1, Math.min(size, MAX_SIZE));
+        Limit limite = Limit.of(tamanio + 1);
         
-        return ResponseEntity.ok(matriculas);
+        List<MatriculaEntity> filas;
+        if (cursor.isEmpty()) {
+            filas = matriculaRepository.findPrimerasPorFechaDesc(limite);
+        } else {
+            try {
+                KeysetCursor ultimo = KeysetCursor.decodificar(cursor, CURSOR_MATRICULAS);
+                filas = matriculaRepository.findSiguientesPorFechaDesc(
+                        LocalDate.parse(ultimo.clave()), ultimo.id(), limite);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                return ResponseEntity.badRequest().body("El parámetro 'cursor' no es válido");
+            }
+        }
+        
+        return ResponseEntity.ok(PaginaCursorResponse.de(filas, tamanio,
+                m -> new KeysetCursor(CURSOR_MATRICULAS, m.getFechaMatricula().toString(), m.getId())));
     }
     
     /**
      * Obtener matrícula por ID
+     * Responde 304 sin serializar si If-None-Match/If-Modified-Since siguen vigentes; la
+     * versión cubre alumno, curso y profesor, que se cargan con la misma sentencia
      */
     @GetMapping("/{id}")
-    public ResponseEntity<MatriculaEntity> obtenerPorId(@PathVariable Long id) {
+    public ResponseEntity<MatriculaEntity> obtenerPorId(@PathVariable Long id, WebRequest request) {
         Optional<MatriculaEntity> matricula = matriculaRepository.findById(id);
-        return matricula.map(ResponseEntity::ok)
-                       .orElse(ResponseEntity.notFound().build());
+        if (matricula.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        MatriculaEntity m = matricula.get();
+        VersionRecurso version = VersionRecurso.de(1,
+                Stream.of(m, m.getAlumno(), m.getCurso(), m.getCurso().getProfesor()));
+        if (request.checkNotModified(version.etag(), version.ultimaModificacionMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(m);
     }
     
     /**
-     * Buscar matrículas por código del estudiante
+     * Buscar matrículas por código del estudiante (proyección de solo lectura)
+     * Con historico=true incluye las matrículas archivadas
      */
     @GetMapping("/codigo/{codigo}")
-    public ResponseEntity<List<MatriculaEntity>> buscarPorCodigoEstudiante(@PathVariable String codigo) {
-        List<MatriculaEntity> matriculas = matriculaRepository.findByAlumnoCodigoEstudiante(codigo);
+    public ResponseEntity<List<MatriculaResumenProjection>> buscarPorCodigoEstudiante(
+            @PathVariable String codigo,
+            @RequestParam(defaultValue = "false") boolean historico) {
+        List<MatriculaResumenProjection> matriculas = matriculaConsulta.resumenPorCodigoEstudiante(codigo, historico);
         return ResponseEntity.ok(matriculas);
     }
     
     /**
-     * Buscar matrículas por estado
+     * Buscar matrículas por estado (proyección de solo lectura)
+     * Con historico=true incluye las matrículas archivadas
      */
     @GetMapping("/estado/{estado}")
-    public ResponseEntity<List<MatriculaEntity>> buscarPorEstado(@PathVariable String estado) {
-        List<MatriculaEntity> matriculas = matriculaRepository.findByEstado(estado);
+    public ResponseEntity<List<MatriculaResumenProjection>> buscarPorEstado(
+            @PathVariable String estado,
+            @RequestParam(defaultValue = "false") boolean historico) {
+        List<MatriculaResumenProjection> matriculas = matriculaConsulta.resumenPorEstado(estado, historico);
         return ResponseEntity.ok(matriculas);
     }
+    
+    /**
+     * Exportación masiva en streaming (NDJSON o CSV), fila por fila
+     * Ejemplo: GET /api/matriculas/exportar?formato=csv&estado=ACTIVA
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "ndjson") String formato,
+            @RequestParam(required = false) String estado) {
+        
+        MatriculaExportacionUseCase.Formato formatoExportacion;
+        try {
+            formatoExportacion = MatriculaExportacionUseCase.Formato.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Formato no soportado: " + formato + " (use ndjson o csv)");
+        }
+        
+        StreamingResponseBody cuerpo = salida -> matriculaExportacion.exportar(estado, formatoExportacion, salida);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formatoExportacion.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"matriculas." + formatoExportacion.getExtension() + "\"")
+                .body(cuerpo);
+    }
+    
+    /**
+     * Carga masiva de matrículas en JSON: [{"codigoEstudiante", "codigoCurso", "fecha"}, ...]
+     * Ejemplo: POST /api/matriculas/bulk (Content-Type: application/json)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> cargaMasivaJson(@RequestBody List<MatriculaIngestaFila> filas) {
+        try {
+            MatriculaIngestaResponse resultado = matriculaIngesta.ingerir(filas);
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Carga masiva de matrículas en CSV: codigoEstudiante,codigoCurso,fecha
+     * Ejemplo: POST /api/matriculas/bulk (Content-Type: text/csv)
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> cargaMasivaCsv(InputStream cuerpo) throws IOException {
+        try {
+            MatriculaIngestaResponse resultado = matriculaIngesta.ingerirCsv(
+                    new InputStreamReader(cuerpo, StandardCharsets.UTF_8));
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Cambio de estado masivo (cierre de ciclo): se ejecuta en segundo plano por bloques
+     * y responde 202 con la ubicación del progreso; el ciclo se indica con fechaDesde/fechaHasta
+     * Ejemplo: POST /api/matriculas/transiciones {"estadoOrigen": "ACTIVA", "estadoDestino": "CERRADA",
+     *          "fechaDesde": "2025-03-01", "fechaHasta": "2025-07-31"}
+     */
+    @PostMapping(value = "/transiciones", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> iniciarTransicion(@RequestBody MatriculaTransicionRequest solicitud) {
+        try {
+            MatriculaTransicionResponse transicion = matriculaTransicion.iniciar(solicitud);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/api/matriculas/transiciones/" + transicion.id())
+                    .body(transicion);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Progreso de un cambio de estado masivo
+     * Ejemplo: GET /api/matriculas/transiciones/{id}
+     */
+    @GetMapping("/transiciones/{id}")
+    public ResponseEntity<MatriculaTransicionResponse> consultarTransicion(@PathVariable String id) {
+        return matriculaTransicion.consultar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    /**
+     * Archiva en matriculas_historico las matrículas en estados finales con fecha de
+     * matrícula anterior al corte (por defecto, hoy menos matriculas.archivo.antiguedad-dias)
+     * Se ejecuta en segundo plano y responde 202 con la ubicación del progreso, o 409 si
+     * ya hay un archivado en curso
+     * Ejemplo: POST /api/matriculas/archivo?antesDe=2024-03-01
+     */
+    @PostMapping("/archivo")
+    public ResponseEntity<?> archivar(@RequestParam(required = false) String antesDe) {
+        try {
+            Optional<MatriculaArchivoResponse> archivado = antesDe == null
+                    ? matriculaArchivo.iniciar()
+                    : matriculaArchivo.iniciar(LocalDate.parse(antesDe));
+            return archivado.<ResponseEntity<?>>map(progreso -> ResponseEntity.accepted()
+                            .header(HttpHeaders.LOCATION, "/api/matriculas/archivo/" + progreso.id())
+                            .body(progreso))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body("Ya hay un archivado de matrículas en curso"));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Fecha inválida (use yyyy-MM-dd): " + antesDe);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    /**
+     * Progreso de un archivado de matrículas
+     * Ejemplo: GET /api/matriculas/archivo/{id}
+     */
+    @GetMapping("/archivo/{id}")
+    public ResponseEntity<MatriculaArchivoResponse> consultarArchivo(@PathVariable String id) {
+        return matriculaArchivo.consultar(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
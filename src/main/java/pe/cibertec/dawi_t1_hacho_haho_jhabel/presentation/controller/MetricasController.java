@@ -0,0 +1,41 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MetricasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.SqlLentasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.MetricasUseCase;
+
+/**
+ * Controlador REST de métricas de rendimiento
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@RestController
+@RequestMapping("/api/metricas")
+@CrossOrigin(origins = "*")
+public class MetricasController {
+    
+    @Autowired
+    private MetricasUseCase metricas;
+    
+    /**
+     * Latencias por método de repositorio y por endpoint, Hibernate y pool de conexiones
+     * Ejemplo: GET /api/metricas
+     */
+    @GetMapping
+    public ResponseEntity<MetricasResponse> resumen() {
+        return ResponseEntity.ok(metricas.resumen());
+    }
+    
+    /**
+     * Top N de sentencias SQL más lentas (sql.lento.top), con parámetros y origen
+     * 404 si el registro de SQL lento está deshabilitado (sql.lento.habilitado=false)
+     * Ejemplo: GET /api/metricas/sql-lentas
+     */
+    @GetMapping("/sql-lentas")
+    public ResponseEntity<SqlLentasResponse> sqlLentas() {
+        return ResponseEntity.of(metricas.sqlLentas());
+    }
+}
@@ -0,0 +1,76 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.LecturaPropiaContexto;
+
+import java.io.IOException;
+
+/**
+ * Ventana read-your-writes para el enrutamiento a réplicas
+ * Cuando una petición confirma una escritura, responde con la cookie escritura_reciente
+ * (vence en datasource.replicas.lectura-propia-segundos); mientras el cliente la envíe,
+ * sus lecturas se sirven desde el primario y no ve datos anteriores a su escritura
+ * 
+ * @author HACHO HAHO JHABEL
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.replicas.habilitado", havingValue = "true")
+public class LecturaPropiaFilter extends OncePerRequestFilter {
+    
+    public static final String COOKIE = "escritura_reciente";
+    
+    private final int ventanaSegundos;
+    
+    public LecturaPropiaFilter(@Value("${datasource.replicas.lectura-propia-segundos:5}") int ventanaSegundos) {
+        this.ventanaSegundos = ventanaSegundos;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LecturaPropiaContexto.abrir(escrituraReciente(request), () -> marcar(response));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            LecturaPropiaContexto.cerrar();
+        }
+    }
+    
+    private boolean escrituraReciente(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    // Un vencimiento más lejano que la ventana no lo emitió esta aplicación
+                    long vence = Long.parseLong(cookie.getValue());
+                    long ahora = System.currentTimeMillis();
+                    return vence > ahora && vence <= ahora + ventanaSegundos * 1000L;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private void marcar(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(COOKIE, String.valueOf(System.currentTimeMillis() + ventanaSegundos * 1000L));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge(ventanaSegundos);
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,127 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite adaptativo de peticiones en curso para un grupo de endpoints (estilo gradiente)
+ * Compara la latencia reciente (media móvil corta) con la latencia de referencia
+ * (media móvil larga): si la reciente crece por encima de tolerancia × referencia hay
+ * cola en la base de datos y el límite baja; si se mantiene, sube de a √límite
+ * Un fallo (excepción o 5xx, p. ej. timeout del pool) reduce el límite un 10% (AIMD)
+ * El límite no crece mientras el grupo use menos de la mitad de él (sin demanda no hay señal)
+ *
+ * @author HACHO HAHO JHABEL
+ */
+public class LimiteConcurrenciaAdaptativo {
+
+    private static final double ALFA_CORTO = 2.0 / (10 + 1);
+    private static final double ALFA_LARGO = 2.0 / (600 + 1);
+    private static final double SUAVIZADO = 0.2;
+    private static final double RETROCESO = 0.9;
+
+    /**
+     * Plaza ocupada por una petición
+     * @param enCurso Peticiones en curso del grupo al adquirirla (incluida esta)
+     */
+    public record Permiso(long inicioNanos, int enCurso) {
+    }
+
+    private final String grupo;
+    private final int minimo;
+    private final int maximo;
+    private final double tolerancia;
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private final LongAdder rechazadas = new LongAdder();
+    private volatile double limite;
+    private double rttCorto = -1;
+    private double rttLargo = -1;
+
+    /**
+     * @param tolerancia Cuántas veces la latencia de referencia se acepta antes de reducir
+     */
+    public LimiteConcurrenciaAdaptativo(String grupo, int inicial, int minimo, int maximo, double tolerancia) {
+        if (minimo < 1 || maximo < minimo || tolerancia < 1) {
+            throw new IllegalArgumentException("Límite de concurrencia inválido para " + grupo);
+        }
+        this.grupo = grupo;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.tolerancia = tolerancia;
+        this.limite = Math.max(minimo, Math.min(maximo, inicial));
+    }
+
+    /**
+     * Ocupa una plaza si hay menos peticiones en curso que el límite actual
+     * @return El permiso a liberar, o null si la petición debe rechazarse
+     */
+    public Permiso adquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= (int) limite) {
+                rechazadas.increment();
+                return null;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return new Permiso(System.nanoTime(), actual + 1);
+            }
+        }
+    }
+
+    /**
+     * Libera la plaza y ajusta el límite con la latencia observada
+     * @param fallida La petición terminó con excepción o 5xx
+     */
+    public void liberar(Permiso permiso, boolean fallida) {
+        enCurso.decrementAndGet();
+        registrar(System.nanoTime() - permiso.inicioNanos(), permiso.enCurso(), fallida);
+    }
+
+    /**
+     * Libera la plaza sin usar la latencia (respuestas asíncronas de larga duración)
+     */
+    public void liberarSinMuestra() {
+        enCurso.decrementAndGet();
+    }
+
+    synchronized void registrar(long rttNanos, int enCursoAlAdquirir, boolean fallida) {
+        if (fallida) {
+            limite = Math.max(minimo, limite * RETROCESO);
+            return;
+        }
+        if (rttCorto < 0) {
+            rttCorto = rttNanos;
+            rttLargo = rttNanos;
+            return;
+        }
+        rttCorto += (rttNanos - rttCorto) * ALFA_CORTO;
+        rttLargo += (rttNanos - rttLargo) * ALFA_LARGO;
+        // La latencia mejoró mucho (p. ej. tras un pico): la referencia la alcanza antes
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * rttLargo / rttCorto));
+        if (gradiente == 1.0 && enCursoAlAdquirir * 2 < limite) {
+            return;
+        }
+        double nuevo = limite * gradiente + Math.sqrt(limite);
+        limite = Math.max(minimo, Math.min(maximo, limite * (1 - SUAVIZADO) + nuevo * SUAVIZADO));
+    }
+
+    public String getGrupo() {
+        return grupo;
+    }
+
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+}
@@ -0,0 +1,157 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.filter;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache.CursoCatalogoSnapshot;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Limita las peticiones en curso de los endpoints que usan la base de datos, por grupo
+ * (/api/matriculas y /api/cursos), con un {@link LimiteConcurrenciaAdaptativo} cada uno
+ * Lo que excede el límite se rechaza al instante con 503 y Retry-After en lugar de
+ * esperar una conexión del pool; la suma de los máximos deja conexiones libres para el
+ * resto: health check (con su propio pool), métricas, caché y el autocompletado en
+ * memoria no pasan por ningún límite; /api/cursos/todos tampoco mientras el snapshot
+ * está vigente, pero sin él lee de la base y entra en el grupo cursos
+ * Estado en Micrometer: http.concurrencia.limite, http.concurrencia.en-curso y
+ * http.concurrencia.rechazadas (tag grupo), resumido en /api/metricas
+ *
+ * @author HACHO HAHO JHABEL
+ */
+@Component
+@ConditionalOnProperty(name = "limites.concurrencia.habilitado", havingValue = "true", matchIfMissing = true)
+public class LimiteConcurrenciaFilter extends OncePerRequestFilter {
+
+    private final LimiteConcurrenciaAdaptativo matriculas;
+    private final LimiteConcurrenciaAdaptativo cursos;
+    private final BooleanSupplier catalogoEnSnapshot;
+    private final int retryAfterSegundos;
+
+    @Autowired
+    public LimiteConcurrenciaFilter(MeterRegistry meterRegistry,
+                                    ObjectProvider<CursoCatalogoSnapshot> catalogoSnapshot,
+                                    @Value("${limites.concurrencia.matriculas.maximo:12}") int maximoMatriculas,
+                                    @Value("${limites.concurrencia.cursos.maximo:6}") int maximoCursos,
+                                    @Value("${limites.concurrencia.minimo:1}") int minimo,
+                                    @Value("${limites.concurrencia.tolerancia:2.0}") double tolerancia,
+                                    @Value("${limites.concurrencia.retry-after-segundos:1}") int retryAfterSegundos) {
+        this(meterRegistry, () -> {
+            CursoCatalogoSnapshot snapshot = catalogoSnapshot.getIfAvailable();
+            return snapshot != null && snapshot.vigente() != null;
+        }, maximoMatriculas, maximoCursos, minimo, tolerancia, retryAfterSegundos);
+    }
+
+    /**
+     * @param catalogoEnSnapshot true si /api/cursos/todos se sirve ahora desde el snapshot
+     */
+    LimiteConcurrenciaFilter(MeterRegistry meterRegistry, BooleanSupplier catalogoEnSnapshot,
+                             int maximoMatriculas, int maximoCursos, int minimo, double tolerancia,
+                             int retryAfterSegundos) {
+        this.catalogoEnSnapshot = catalogoEnSnapshot;
+        this.matriculas = new LimiteConcurrenciaAdaptativo("matriculas", maximoMatriculas, minimo, maximoMatriculas, tolerancia);
+        this.cursos = new LimiteConcurrenciaAdaptativo("cursos", maximoCursos, minimo, maximoCursos, tolerancia);
+        this.retryAfterSegundos = retryAfterSegundos;
+        for (LimiteConcurrenciaAdaptativo limite : List.of(matriculas, cursos)) {
+            Gauge.builder("http.concurrencia.limite", limite, LimiteConcurrenciaAdaptativo::getLimite)
+                    .tag("grupo", limite.getGrupo())
+                    .description("Peticiones en curso permitidas")
+                    .register(meterRegistry);
+            Gauge.builder("http.concurrencia.en-curso", limite, LimiteConcurrenciaAdaptativo::getEnCurso)
+                    .tag("grupo", limite.getGrupo())
+                    .register(meterRegistry);
+            FunctionCounter.builder("http.concurrencia.rechazadas", limite, LimiteConcurrenciaAdaptativo::getRechazadas)
+                    .tag("grupo", limite.getGrupo())
+                    .description("Peticiones rechazadas con 503")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        LimiteConcurrenciaAdaptativo limite = grupo(request.getRequestURI().substring(request.getContextPath().length()));
+        if (limite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        LimiteConcurrenciaAdaptativo.Permiso permiso = limite.adquirir();
+        if (permiso == null) {
+            rechazar(response);
+            return;
+        }
+        boolean fallida = true;
+        try {
+            chain.doFilter(request, response);
+            fallida = response.getStatus() >= 500;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming: la conexión sigue ocupada hasta que termina la respuesta
+                request.getAsyncContext().addListener(new Liberador(limite));
+            } else {
+                limite.liberar(permiso, fallida);
+            }
+        }
+    }
+
+    private LimiteConcurrenciaAdaptativo grupo(String ruta) {
+        if (ruta.startsWith("/api/matriculas")) {
+            return matriculas;
+        }
+        if (ruta.startsWith("/api/cursos/todos")) {
+            return catalogoEnSnapshot.getAsBoolean() ? null : cursos;
+        }
+        if (ruta.startsWith("/api/cursos") && !ruta.startsWith("/api/cursos/autocompletar")) {
+            return cursos;
+        }
+        return null;
+    }
+
+    private void rechazar(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSegundos));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("Servicio saturado, reintente en " + retryAfterSegundos + " s");
+    }
+
+    private record Liberador(LimiteConcurrenciaAdaptativo limite) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limite.liberarSinMuestra();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -2,8 +2,10 @@ package pe.cibertec.dawi_t1_hacho_haho_jhabel;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
 @SpringBootTest
+@ActiveProfiles("test")
 class DawiT1HachoHahoJhabelApplicationTests {
 
     @Test
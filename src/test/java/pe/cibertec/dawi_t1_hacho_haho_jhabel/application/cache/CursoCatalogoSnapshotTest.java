@@ -0,0 +1,219 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoCatalogoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing.LecturaPropiaContexto;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/cursos/todos sirve el snapshot ya serializado (identidad, gzip o deflate)
+ * sin ejecutar SQL, y un cambio de curso o profesor lo reconstruye en segundo plano
+ * (desde el primario y sin que un refresco más lento lo pise después)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:snapshot;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "cursos.catalogo.snapshot.habilitado=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CursoCatalogoSnapshotTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoCatalogoSnapshot snapshot;
+
+    @Autowired
+    private CursoCatalogoUseCase cursoCatalogo;
+
+    @Autowired
+    private CursoRepositoryJpa cursoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void cargarDatos() throws Exception {
+        new DatasetAcademico(jdbcTemplate).cargar(10, 12, 2);
+        // La carga no pasa por JPA: se vacían las cachés, lo que reconstruye el snapshot
+        mockMvc.perform(delete("/api/cache")).andExpect(status().isNoContent());
+    }
+
+    @Test
+    void sirveLasTresCodificacionesSinSql() throws Exception {
+        await().atMost(Duration.ofSeconds(10)).until(() -> snapshot.vigente() != null);
+        SqlCapturador.limpiar();
+
+        MockHttpServletResponse identidad = todos(null);
+        MockHttpServletResponse gzip = todos("gzip, deflate, br");
+        MockHttpServletResponse deflate = todos("deflate, gzip;q=0");
+
+        assertThat(SqlCapturador.sentencias()).as("SQL con snapshot vigente").isEmpty();
+
+        String json = identidad.getContentAsString(StandardCharsets.UTF_8);
+        assertThat(identidad.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(objectMapper.readTree(json)).hasSize(12);
+        assertThat(json).isEqualTo(objectMapper.writeValueAsString(cursoCatalogo.listarTodos()));
+
+        assertThat(gzip.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzip.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(descomprimir(new GZIPInputStream(new ByteArrayInputStream(gzip.getContentAsByteArray()))))
+                .isEqualTo(json);
+
+        assertThat(deflate.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+        assertThat(descomprimir(new InflaterInputStream(new ByteArrayInputStream(deflate.getContentAsByteArray()))))
+                .isEqualTo(json);
+
+        assertThat(gzip.getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(identidad.getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(deflate.getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/cursos/todos")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzip.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void seReconstruyeAlCambiarUnCursoOSuProfesor() throws Exception {
+        transactionTemplate.executeWithoutResult(tx ->
+                cursoRepository.findById(2L).orElseThrow().setNombre("Curso renombrado"));
+
+        // Sin esperar a la reconstrucción la respuesta ya refleja el cambio
+        assertThat(todos(null).getContentAsString(StandardCharsets.UTF_8)).contains("Curso renombrado");
+        await().atMost(Duration.ofSeconds(10)).until(() -> snapshot.vigente() != null);
+        assertThat(new String(snapshot.vigente().en(CursoCatalogoSnapshot.Codificacion.IDENTIDAD).cuerpo(),
+                StandardCharsets.UTF_8)).contains("Curso renombrado");
+
+        transactionTemplate.executeWithoutResult(tx ->
+                cursoRepository.findById(2L).orElseThrow().getProfesor().setNombre("Profesor renombrado"));
+        await().atMost(Duration.ofSeconds(10)).until(() -> snapshot.vigente() != null);
+        assertThat(descomprimir(new GZIPInputStream(new ByteArrayInputStream(todos("gzip").getContentAsByteArray()))))
+                .contains("Profesor renombrado");
+    }
+
+    @Test
+    void unRefrescoLentoNoPisaLaReconstruccionDeUnaInvalidacion() throws Exception {
+        CatalogoPausado catalogo = new CatalogoPausado(cursoRepository, cursoCatalogo);
+        CursoCatalogoSnapshot aislado = new CursoCatalogoSnapshot(catalogo, objectMapper, true);
+        try (ExecutorService hilo = Executors.newSingleThreadExecutor()) {
+            // El refresco periódico lee el catálogo y queda detenido antes de publicar
+            Future<?> refresco = hilo.submit(aislado::refrescar);
+            assertThat(catalogo.enPrimeraLectura.await(5, TimeUnit.SECONDS)).isTrue();
+
+            aislado.invalidar();
+            await().atMost(Duration.ofSeconds(10)).until(() -> aislado.vigente() != null);
+            assertThat(aislado.vigente().generacion()).isEqualTo(1);
+
+            catalogo.liberar.countDown();
+            refresco.get(10, TimeUnit.SECONDS);
+            assertThat(aislado.vigente()).isNotNull();
+            assertThat(aislado.vigente().generacion()).isEqualTo(1);
+        } finally {
+            aislado.detener();
+        }
+        // Solo la reconstrucción por invalidación fuerza el primario
+        assertThat(catalogo.primario).containsExactly(false, true);
+    }
+
+    @Test
+    void codificacionPreferidaSegunAcceptEncoding() {
+        assertThat(CursoCatalogoSnapshot.Codificacion.preferida(null)).isEqualTo(CursoCatalogoSnapshot.Codificacion.IDENTIDAD);
+        assertThat(CursoCatalogoSnapshot.Codificacion.preferida("br")).isEqualTo(CursoCatalogoSnapshot.Codificacion.IDENTIDAD);
+        assertThat(CursoCatalogoSnapshot.Codificacion.preferida("deflate;q=0.5, gzip;q=1.0"))
+                .isEqualTo(CursoCatalogoSnapshot.Codificacion.GZIP);
+        assertThat(CursoCatalogoSnapshot.Codificacion.preferida("*")).isEqualTo(CursoCatalogoSnapshot.Codificacion.GZIP);
+        assertThat(CursoCatalogoSnapshot.Codificacion.preferida("gzip;q=0, deflate"))
+                .isEqualTo(CursoCatalogoSnapshot.Codificacion.DEFLATE);
+    }
+
+    private MockHttpServletResponse todos(String acceptEncoding) throws Exception {
+        var peticion = get("/api/cursos/todos");
+        if (acceptEncoding != null) {
+            peticion.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return mockMvc.perform(peticion).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    /**
+     * Catálogo cuya primera lectura espera a que se la libere; registra si cada lectura
+     * iba al primario
+     */
+    private static final class CatalogoPausado extends CursoCatalogoUseCase {
+
+        private final CursoCatalogoUseCase delegado;
+        private final CountDownLatch enPrimeraLectura = new CountDownLatch(1);
+        private final CountDownLatch liberar = new CountDownLatch(1);
+        private final List<Boolean> primario = new CopyOnWriteArrayList<>();
+
+        private CatalogoPausado(CursoRepositoryJpa cursoRepository, CursoCatalogoUseCase delegado) {
+            super(cursoRepository);
+            this.delegado = delegado;
+        }
+
+        @Override
+        public List<CursoEntity> listarTodos() {
+            List<CursoEntity> cursos = delegado.listarTodos();
+            primario.add(LecturaPropiaContexto.forzarPrimario());
+            if (enPrimeraLectura.getCount() > 0) {
+                enPrimeraLectura.countDown();
+                try {
+                    liberar.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return cursos;
+        }
+    }
+
+    private static String descomprimir(InputStream entrada) throws IOException {
+        try (entrada) {
+            return new String(entrada.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.pagination.ModoTotal;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Con un filtro distinto por petición los totales no crecen sin límite: lleno, se
+ * descarta el total más antiguo aunque no haya vencido
+ */
+class TotalesAproximadosTest {
+
+    private static final Slice<Integer> PRIMERA_PAGINA = new SliceImpl<>(List.of(1, 2), PageRequest.of(0, 2), true);
+
+    @Test
+    void nuncaGuardaMasDelMaximoDeEntradas() {
+        TotalesAproximados totales = new TotalesAproximados(3600, 3);
+        AtomicInteger conteos = new AtomicInteger();
+
+        for (int i = 0; i < 10; i++) {
+            totales.total(ModoTotal.APROXIMADO, PRIMERA_PAGINA, "cursos", "filtro" + i,
+                    () -> conteos.incrementAndGet() + 100);
+        }
+        assertThat(totales.entradas()).isEqualTo(3);
+        assertThat(conteos.get()).isEqualTo(10);
+
+        // Los últimos siguen guardados; el primero se descartó y vuelve a contar
+        assertThat(totales.total(ModoTotal.APROXIMADO, PRIMERA_PAGINA, "cursos", "filtro9", () -> 0))
+                .isEqualTo(110);
+        assertThat(totales.total(ModoTotal.APROXIMADO, PRIMERA_PAGINA, "cursos", "filtro0", () -> 50))
+                .isEqualTo(50);
+        assertThat(totales.entradas()).isEqualTo(3);
+    }
+}
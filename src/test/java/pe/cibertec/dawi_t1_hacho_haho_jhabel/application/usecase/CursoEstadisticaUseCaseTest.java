@@ -0,0 +1,187 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.CursoEstadisticaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.ReconciliacionEstadisticasResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * cursos_estadisticas se mantiene igual a un GROUP BY sobre matriculas tras escrituras JPA,
+ * carga masiva y SQL externo corregido por la reconciliación
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:estadisticas_cursos;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CursoEstadisticaUseCaseTest {
+
+    private static final int CURSOS = 5;
+
+    @Autowired
+    private CursoEstadisticaUseCase cursoEstadistica;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeAll
+    void cargarDatos() {
+        // El alumno i está matriculado en los cursos 1 + i % 5 y 1 + (i + 1) % 5
+        new DatasetAcademico(jdbcTemplate).cargar(10, CURSOS, 2);
+        // La carga es SQL directo: la primera reconciliación crea todas las filas
+        ReconciliacionEstadisticasResponse resultado = cursoEstadistica.reconciliar();
+        assertThat(resultado.cursosCorregidos()).isEqualTo(CURSOS);
+    }
+
+    @Test
+    void escriturasJpaActualizanContadoresDelCurso() {
+        Long alumnoId = idAlumno("EST0");
+        Long matriculaId = transactionTemplate.execute(estado -> {
+            MatriculaEntity matricula = MatriculaEntity.builder()
+                    .alumno(entityManager.getReference(AlumnoEntity.class, alumnoId))
+                    .curso(entityManager.getReference(CursoEntity.class, 3L))
+                    .fechaMatricula(LocalDate.of(2025, 3, 1))
+                    .build();
+            entityManager.persist(matricula);
+            return matricula.getId();
+        });
+        CursoEstadisticaResponse trasCrear = cursoEstadistica.obtener(3L).orElseThrow();
+        assertCoincideConMatriculas();
+
+        actualizar(matriculaId, "COMPLETADA", new BigDecimal("15.00"));
+        CursoEstadisticaResponse trasAprobar = cursoEstadistica.obtener(3L).orElseThrow();
+        assertThat(trasAprobar.matriculasActivas()).isEqualTo(trasCrear.matriculasActivas() - 1);
+        assertThat(trasAprobar.aprobadas()).isEqualTo(trasCrear.aprobadas() + 1);
+        assertCoincideConMatriculas();
+
+        actualizar(matriculaId, "COMPLETADA", new BigDecimal("9.00"));
+        assertThat(cursoEstadistica.obtener(3L).orElseThrow().aprobadas()).isEqualTo(trasCrear.aprobadas());
+        assertCoincideConMatriculas();
+
+        transactionTemplate.executeWithoutResult(estado ->
+                entityManager.remove(entityManager.find(MatriculaEntity.class, matriculaId)));
+        assertThat(cursoEstadistica.obtener(3L).orElseThrow().matriculasTotal())
+                .isEqualTo(trasCrear.matriculasTotal() - 1);
+        assertCoincideConMatriculas();
+    }
+
+    @Test
+    void cargaMasivaSumaSusMatriculas() throws Exception {
+        long activasAntes = cursoEstadistica.obtener(4L).orElseThrow().matriculasActivas();
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                          {"codigoEstudiante": "EST5", "codigoCurso": "C4", "fecha": "2025-03-01"},
+                          {"codigoEstudiante": "EST6", "codigoCurso": "C4", "fecha": "2025-03-01"},
+                          {"codigoEstudiante": "EST3", "codigoCurso": "C4", "fecha": "2025-03-01"}
+                        ]
+                        """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(2));
+
+        assertThat(cursoEstadistica.obtener(4L).orElseThrow().matriculasActivas()).isEqualTo(activasAntes + 2);
+        assertCoincideConMatriculas();
+    }
+
+    @Test
+    void reconciliacionCorrigeEscriturasFueraDeJpa() {
+        jdbcTemplate.update("UPDATE matriculas SET nota_final = 20, estado = 'COMPLETADA' WHERE id = 1");
+
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isEqualTo(1);
+        assertCoincideConMatriculas();
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+    }
+
+    @Test
+    void endpointsDeEstadisticasYRanking() throws Exception {
+        mockMvc.perform(get("/api/cursos/1/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.codigoCurso").value("C1"))
+                .andExpect(jsonPath("$.matriculasTotal").isNumber())
+                .andExpect(jsonPath("$.tasaAprobacion").exists());
+        mockMvc.perform(get("/api/cursos/999/estadisticas"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/cursos/estadisticas/ranking").param("criterio", "popularidad"))
+                .andExpect(status().isBadRequest());
+
+        for (CursoEstadisticaUseCase.Criterio criterio : CursoEstadisticaUseCase.Criterio.values()) {
+            List<CursoEstadisticaResponse> ranking = cursoEstadistica.ranking(criterio, 3);
+            assertThat(ranking).hasSize(3);
+            assertThat(ranking).isSortedAccordingTo((a, b) -> switch (criterio) {
+                case ACTIVAS -> Long.compare(b.matriculasActivas(), a.matriculasActivas());
+                case APROBACION -> Double.compare(valor(b.tasaAprobacion()), valor(a.tasaAprobacion()));
+                case PROMEDIO -> Double.compare(valor(b.promedioNota()), valor(a.promedioNota()));
+            });
+        }
+    }
+
+    private void actualizar(Long matriculaId, String estado, BigDecimal nota) {
+        transactionTemplate.executeWithoutResult(tx -> {
+            MatriculaEntity matricula = entityManager.find(MatriculaEntity.class, matriculaId);
+            matricula.setEstado(estado);
+            matricula.setNotaFinal(nota);
+        });
+    }
+
+    private Long idAlumno(String codigo) {
+        return jdbcTemplate.queryForObject("SELECT id FROM alumnos WHERE codigo_estudiante = ?", Long.class, codigo);
+    }
+
+    private void assertCoincideConMatriculas() {
+        for (long cursoId = 1; cursoId <= CURSOS; cursoId++) {
+            Map<String, Object> esperado = jdbcTemplate.queryForMap("""
+                    SELECT COUNT(*) AS total,
+                           COUNT(CASE WHEN estado = 'ACTIVA' THEN 1 END) AS activas,
+                           COUNT(nota_final) AS calificadas,
+                           COUNT(CASE WHEN nota_final >= 10.5 THEN 1 END) AS aprobadas,
+                           CAST(AVG(nota_final) AS DECIMAL(6, 2)) AS promedio
+                    FROM matriculas WHERE curso_id = ?
+                    """, cursoId);
+            CursoEstadisticaResponse actual = cursoEstadistica.obtener(cursoId).orElseThrow();
+            assertThat(actual.matriculasTotal()).isEqualTo(((Number) esperado.get("total")).longValue());
+            assertThat(actual.matriculasActivas()).isEqualTo(((Number) esperado.get("activas")).longValue());
+            assertThat(actual.calificadas()).isEqualTo(((Number) esperado.get("calificadas")).longValue());
+            assertThat(actual.aprobadas()).isEqualTo(((Number) esperado.get("aprobadas")).longValue());
+            if (esperado.get("promedio") != null) {
+                assertThat(actual.promedioNota()).isEqualByComparingTo((BigDecimal) esperado.get("promedio"));
+            }
+        }
+    }
+
+    private static double valor(Number numero) {
+        return numero == null ? -1 : numero.doubleValue();
+    }
+}
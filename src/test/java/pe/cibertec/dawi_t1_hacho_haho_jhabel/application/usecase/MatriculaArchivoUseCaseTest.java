@@ -0,0 +1,176 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaArchivoResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * El archivado (en segundo plano, con su progreso en /api/matriculas/archivo/{id}) mueve
+ * por bloques solo las matrículas cerradas anteriores al corte, las consultas por defecto
+ * dejan de verlas, historico=true las vuelve a incluir, cursos_estadisticas sigue
+ * coincidiendo con la reconciliación y un par archivado no se puede volver a matricular
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:archivo_matriculas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "matriculas.archivo.lote=7",
+        "matriculas.archivo.pausa-ms=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaArchivoUseCaseTest {
+
+    // fecha_matricula del dataset entre 2020-03-01 y 2020-12-01
+    private static final LocalDate CORTE = LocalDate.of(2020, 7, 1);
+    private static final String ARCHIVABLES = "estado = 'COMPLETADA' AND fecha_matricula < '2020-07-01'";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoEstadisticaUseCase cursoEstadistica;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(40, 10, 3);
+        cursoEstadistica.reconciliar();
+    }
+
+    @Test
+    void archivaCerradasAntiguasPorBloquesYMantieneEstadisticas() throws Exception {
+        long archivables = contar("matriculas", ARCHIVABLES);
+        long restantes = contar("matriculas", "NOT (" + ARCHIVABLES + ")");
+        long archivadasAntes = contar("matriculas_historico", "1 = 1");
+
+        MatriculaArchivoResponse resultado = archivar(CORTE);
+
+        assertThat(resultado.movidas()).isEqualTo(archivables);
+        assertThat(resultado.lotes()).isGreaterThan(1);
+        assertThat(resultado.estados()).containsExactly("COMPLETADA");
+        assertThat(contar("matriculas", ARCHIVABLES)).isZero();
+        assertThat(contar("matriculas", "1 = 1")).isEqualTo(restantes);
+        assertThat(contar("matriculas_historico", ARCHIVABLES + " AND fecha_archivo IS NOT NULL"))
+                .isEqualTo(archivadasAntes + archivables);
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+
+        // Un segundo archivado con el mismo corte no encuentra nada
+        assertThat(archivar(CORTE).movidas()).isZero();
+    }
+
+    @Test
+    void consultasPorDefectoSoloLeenLasVigentes() throws Exception {
+        archivar(CORTE);
+        // Alumno 1: matrículas 4, 5 y 6; la 6 está COMPLETADA y es de marzo de 2020
+        String email = DatasetAcademico.emailAlumno(1);
+
+        mockMvc.perform(get("/api/matriculas/email").param("email", email))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].id").value(not(hasItem(6))));
+        mockMvc.perform(get("/api/matriculas/email").param("email", email).param("historico", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[*].id").value(hasItem(6)));
+
+        long completadas = contar("matriculas", "estado = 'COMPLETADA'");
+        long archivadas = contar("matriculas_historico", "estado = 'COMPLETADA'");
+        assertThat(archivadas).isPositive();
+        mockMvc.perform(get("/api/matriculas/estado/COMPLETADA"))
+                .andExpect(jsonPath("$", hasSize((int) completadas)));
+        mockMvc.perform(get("/api/matriculas/estado/COMPLETADA").param("historico", "true"))
+                .andExpect(jsonPath("$", hasSize((int) (completadas + archivadas))))
+                .andExpect(jsonPath("$[*].estado").value(everyItem(is("COMPLETADA"))));
+    }
+
+    @Test
+    void unParArchivadoSigueMatriculado() throws Exception {
+        archivar(CORTE);
+        // Matrícula 6: alumno 1 (EST1) en el curso 4, archivada
+        assertThat(contar("matriculas_historico", "id = 6")).isOne();
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoEstudiante\": \"EST1\", \"codigoCurso\": \"C4\", \"fecha\": \"2025-03-01\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(0))
+                .andExpect(jsonPath("$.conflictos[0].motivo").value("YA_MATRICULADO"));
+        assertThat(contar("matriculas", "alumno_id = (SELECT id FROM alumnos WHERE codigo_estudiante = 'EST1')"
+                + " AND curso_id = 4")).isZero();
+    }
+
+    @Test
+    void rechazaCortesInvalidos() throws Exception {
+        mockMvc.perform(post("/api/matriculas/archivo").param("antesDe", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/matriculas/archivo").param("antesDe", "01/07/2020"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/matriculas/archivo/no-existe"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void losListadosPaginadosRechazanElHistorico() throws Exception {
+        mockMvc.perform(get("/api/matriculas").param("historico", "true"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/matriculas/email/paginado")
+                        .param("email", DatasetAcademico.emailAlumno(1)).param("historico", "true"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MatriculaArchivoResponse archivar(LocalDate corte) throws Exception {
+        MvcResult aceptado = mockMvc.perform(post("/api/matriculas/archivo").param("antesDe", corte.toString()))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String ubicacion = aceptado.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(ubicacion).startsWith("/api/matriculas/archivo/");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !consultar(ubicacion).estado().matches("PENDIENTE|EN_CURSO"));
+        MatriculaArchivoResponse resultado = consultar(ubicacion);
+        assertThat(resultado.estado()).isEqualTo("COMPLETADO");
+        assertThat(resultado.error()).isNull();
+        return resultado;
+    }
+
+    private MatriculaArchivoResponse consultar(String ubicacion) throws Exception {
+        String json = mockMvc.perform(get(ubicacion))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, MatriculaArchivoResponse.class);
+    }
+
+    private long contar(String tabla, String condicion) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tabla + " WHERE " + condicion, Long.class);
+    }
+}
@@ -0,0 +1,99 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.request.MatriculaIngestaFila;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaIngestaResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filas por segundo del bucle JpaRepository.save (una transacción por fila, IDENTITY)
+ * frente a la carga masiva por lotes JDBC
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=MatriculaIngestaBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:ingesta_benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaIngestaBenchmarkTest {
+
+    private static final int ALUMNOS = 5_000;
+    private static final int CURSOS = 50;
+
+    @Autowired
+    private MatriculaIngestaUseCase matriculaIngesta;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(ALUMNOS, CURSOS, 0);
+    }
+
+    @Test
+    void cargaMasivaSuperaAlBucleDeSave() {
+        long primerAlumno = jdbcTemplate.queryForObject("SELECT MIN(id) FROM alumnos", Long.class);
+        LocalDate fecha = LocalDate.of(2025, 3, 1);
+
+        // Bucle actual: IDs ya resueltos, un save por fila (lo más favorable para este camino)
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ALUMNOS; i++) {
+            long alumnoId = primerAlumno + i;
+            long cursoId = 1 + i % CURSOS;
+            transactionTemplate.executeWithoutResult(estado -> matriculaRepository.save(MatriculaEntity.builder()
+                    .alumno(entityManager.getReference(AlumnoEntity.class, alumnoId))
+                    .curso(entityManager.getReference(CursoEntity.class, cursoId))
+                    .fechaMatricula(fecha)
+                    .build()));
+        }
+        double saveFilasPorSegundo = ALUMNOS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+
+        // Carga masiva: códigos sin resolver, otro curso para cada alumno
+        List<MatriculaIngestaFila> filas = new ArrayList<>(ALUMNOS);
+        for (int i = 0; i < ALUMNOS; i++) {
+            filas.add(new MatriculaIngestaFila(DatasetAcademico.codigoAlumno(i), "C" + (1 + (i + 1) % CURSOS),
+                    fecha.toString()));
+        }
+        inicio = System.nanoTime();
+        MatriculaIngestaResponse resultado = matriculaIngesta.ingerir(filas);
+        double bulkFilasPorSegundo = ALUMNOS / ((System.nanoTime() - inicio) / 1_000_000_000.0);
+
+        System.out.printf("%n%-28s %14s%n", "Modo", "Filas/s");
+        System.out.printf("%-28s %14.0f%n", "JpaRepository.save", saveFilasPorSegundo);
+        System.out.printf("%-28s %14.0f%n%n", "Carga masiva (lotes JDBC)", bulkFilasPorSegundo);
+
+        assertThat(resultado.insertadas()).isEqualTo(ALUMNOS);
+        assertThat(resultado.conflictos()).isEmpty();
+        assertThat(bulkFilasPorSegundo).isGreaterThan(saveFilasPorSegundo);
+    }
+}
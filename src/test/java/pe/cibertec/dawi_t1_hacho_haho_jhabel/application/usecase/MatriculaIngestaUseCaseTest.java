@@ -0,0 +1,212 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jdbc.MatriculaIngestaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * La carga masiva inserta las filas válidas y reporta el motivo de cada fila
+ * rechazada sin abortar el resto (lotes de 3 filas para cubrir varios lotes)
+ * Una carrera con otra transacción se simula ocultando un par existente a la primera
+ * verificación: el INSERT falla y el lote se repite, sin depender de los conteos por
+ * fila del lote (con rewriteBatchedStatements MySQL devuelve SUCCESS_NO_INFO) y sin
+ * que cursos_estadisticas cuente el intento fallido
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingesta_matriculas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "matriculas.ingesta.lote=3"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaIngestaUseCaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IngestaEnCarrera ingestaEnCarrera;
+
+    @Autowired
+    private CursoEstadisticaUseCase cursoEstadistica;
+
+    /**
+     * Acceso de ingesta cuya próxima verificación de pares existentes omite un par
+     * (como si otra transacción lo hubiera insertado justo después)
+     */
+    static class IngestaEnCarrera extends MatriculaIngestaJdbc {
+
+        private final AtomicReference<Par> oculto = new AtomicReference<>();
+        private final AtomicInteger verificaciones = new AtomicInteger();
+
+        IngestaEnCarrera(NamedParameterJdbcTemplate jdbc) {
+            super(jdbc);
+        }
+
+        public void ocultarUnaVez(Par par) {
+            verificaciones.set(0);
+            oculto.set(par);
+        }
+
+        public int verificaciones() {
+            return verificaciones.get();
+        }
+
+        @Override
+        public Set<Par> paresExistentes(Collection<Long> alumnoIds, Collection<Long> cursoIds) {
+            verificaciones.incrementAndGet();
+            Set<Par> pares = super.paresExistentes(alumnoIds, cursoIds);
+            Par par = oculto.getAndSet(null);
+            if (par != null) {
+                pares.remove(par);
+            }
+            return pares;
+        }
+    }
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        @Primary
+        IngestaEnCarrera ingestaEnCarrera(NamedParameterJdbcTemplate jdbc) {
+            return new IngestaEnCarrera(jdbc);
+        }
+    }
+
+    @BeforeAll
+    void cargarDatos() {
+        // El alumno i ya está matriculado en los cursos 1 + i y 2 + i
+        new DatasetAcademico(jdbcTemplate).cargar(10, 20, 2);
+        cursoEstadistica.reconciliar();
+    }
+
+    @Test
+    void cargaJsonReportaConflictosPorFila() throws Exception {
+        String cuerpo = """
+                [
+                  {"codigoEstudiante": "EST0", "codigoCurso": "C5",   "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST0", "codigoCurso": "C5",   "fecha": "2025-03-02"},
+                  {"codigoEstudiante": "EST0", "codigoCurso": "C1",   "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "NOEXISTE", "codigoCurso": "C5", "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST1", "codigoCurso": "C999", "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST1", "codigoCurso": "C6",   "fecha": "2025-13-01"},
+                  {"codigoEstudiante": "EST1", "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST1", "codigoCurso": "C10",  "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST2", "codigoCurso": "C11",  "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST3", "codigoCurso": "C12",  "fecha": "2025-03-01"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recibidas").value(10))
+                .andExpect(jsonPath("$.insertadas").value(4))
+                .andExpect(jsonPath("$.rechazadas").value(6))
+                .andExpect(jsonPath("$.conflictos[*].fila").value(contains(2, 3, 4, 5, 6, 7)))
+                .andExpect(jsonPath("$.conflictos[*].motivo").value(contains(
+                        "DUPLICADA_EN_CARGA", "YA_MATRICULADO", "ALUMNO_NO_EXISTE",
+                        "CURSO_NO_EXISTE", "FECHA_INVALIDA", "DATOS_INCOMPLETOS")));
+
+        Integer insertada = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM matriculas m
+                JOIN alumnos a ON a.id = m.alumno_id
+                JOIN cursos c ON c.id = m.curso_id
+                WHERE a.codigo_estudiante = 'EST0' AND c.codigo_curso = 'C5' AND m.fecha_matricula = DATE '2025-03-01'
+                """, Integer.class);
+        assertThat(insertada).isEqualTo(1);
+    }
+
+    @Test
+    void cargaCsvConCabecera() throws Exception {
+        String csv = """
+                codigoEstudiante,codigoCurso,fecha
+                EST5,C15,2025-03-01
+                "EST5","C6",2025-03-01
+                EST6,C7,2025-03-01
+                """;
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recibidas").value(3))
+                .andExpect(jsonPath("$.insertadas").value(1))
+                .andExpect(jsonPath("$.conflictos[*].motivo").value(contains("YA_MATRICULADO", "YA_MATRICULADO")));
+    }
+
+    @Test
+    void cargaCsvConCamposEntreComillas() throws Exception {
+        // Una coma entre comillas no separa columnas y un salto de línea entre comillas no separa filas
+        String csv = """
+                "codigoEstudiante","codigoCurso","fecha","observacion"
+                "EST9","C1,C2",2025-03-01,
+                EST8,"C3","2025-03-01","dice ""hola"", con coma
+                y en dos líneas"
+                "EST9",C4,2025-03-01,"sin, efecto"
+                """;
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recibidas").value(3))
+                .andExpect(jsonPath("$.insertadas").value(2))
+                .andExpect(jsonPath("$.conflictos[0].fila").value(1))
+                .andExpect(jsonPath("$.conflictos[0].codigoCurso").value("C1,C2"))
+                .andExpect(jsonPath("$.conflictos[0].motivo").value("CURSO_NO_EXISTE"));
+    }
+
+    @Test
+    void csvConComillasSinCerrarSeRechaza() throws Exception {
+        mockMvc.perform(post("/api/matriculas/bulk").contentType("text/csv").content("EST9,\"C5,2025-03-01\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void unParInsertadoEnParaleloSeReportaComoYaMatriculado() throws Exception {
+        // EST7 (id 10) ya está matriculado en C8: la primera verificación no lo ve
+        ingestaEnCarrera.ocultarUnaVez(new MatriculaIngestaJdbc.Par(10, 8));
+        String cuerpo = """
+                [
+                  {"codigoEstudiante": "EST7", "codigoCurso": "C8",  "fecha": "2025-03-01"},
+                  {"codigoEstudiante": "EST7", "codigoCurso": "C16", "fecha": "2025-03-01"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/matriculas/bulk").contentType(MediaType.APPLICATION_JSON).content(cuerpo))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(1))
+                .andExpect(jsonPath("$.conflictos[*].motivo").value(contains("YA_MATRICULADO")));
+
+        // El INSERT falló con el par oculto y el lote se repitió desde la verificación
+        assertThat(ingestaEnCarrera.verificaciones()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM matriculas WHERE alumno_id = 10 AND curso_id IN (8, 16)", Integer.class))
+                .isEqualTo(2);
+        // Las estadísticas solo suman la fila insertada: el intento deshecho no deja rastro
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+    }
+}
@@ -0,0 +1,150 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.dto.response.MatriculaTransicionResponse;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * El cierre de ciclo cambia por bloques solo las matrículas del filtro, registra la
+ * actualización y deja cursos_estadisticas igual a un GROUP BY sobre matriculas
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transicion_matriculas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "matriculas.transicion.lote=7",
+        "matriculas.transicion.pausa-ms=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaTransicionUseCaseTest {
+
+    // Ciclo 2020-1: fecha_matricula del dataset entre 2020-03-01 y 2020-06-30
+    private static final String CICLO = "fecha_matricula BETWEEN '2020-03-01' AND '2020-06-30'";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoEstadisticaUseCase cursoEstadistica;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(40, 10, 3);
+        cursoEstadistica.reconciliar();
+    }
+
+    @Test
+    void cierraElCicloPorBloquesYMantieneEstadisticas() throws Exception {
+        long activasDelCiclo = contar("estado = 'ACTIVA' AND " + CICLO);
+        long activasFuera = contar("estado = 'ACTIVA' AND NOT " + CICLO);
+        assertThat(activasDelCiclo).isGreaterThan(7);
+
+        MatriculaTransicionResponse resultado = ejecutar("""
+                {"estadoOrigen": "activa", "estadoDestino": "CERRADA",
+                 "fechaDesde": "2020-03-01", "fechaHasta": "2020-06-30", "usuario": "secretaria"}
+                """);
+
+        assertThat(resultado.estimadas()).isEqualTo(activasDelCiclo);
+        assertThat(resultado.actualizadas()).isEqualTo(activasDelCiclo);
+        assertThat(resultado.lotes()).isEqualTo((int) ((activasDelCiclo + 6) / 7));
+        assertThat(resultado.porcentaje()).isEqualTo(100.0);
+        assertThat(contar("estado = 'ACTIVA' AND " + CICLO)).isZero();
+        assertThat(contar("estado = 'ACTIVA' AND NOT " + CICLO)).isEqualTo(activasFuera);
+        assertThat(contar("estado = 'CERRADA' AND usuario_actualizacion = 'secretaria'"
+                + " AND fecha_actualizacion IS NOT NULL")).isEqualTo(activasDelCiclo);
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+    }
+
+    @Test
+    void filtraPorCurso() throws Exception {
+        long activasCurso = contar("estado = 'ACTIVA' AND curso_id = 4");
+        long activasOtros = contar("estado = 'ACTIVA' AND curso_id <> 4");
+
+        MatriculaTransicionResponse resultado = ejecutar("""
+                {"estadoOrigen": "ACTIVA", "estadoDestino": "RETIRADA", "cursoId": 4}
+                """);
+
+        assertThat(resultado.actualizadas()).isEqualTo(activasCurso);
+        assertThat(contar("estado = 'ACTIVA' AND curso_id = 4")).isZero();
+        assertThat(contar("estado = 'ACTIVA' AND curso_id <> 4")).isEqualTo(activasOtros);
+        assertThat(contar("usuario_actualizacion = 'sistema'")).isEqualTo(activasCurso);
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+    }
+
+    @Test
+    void rechazaSolicitudesInvalidasYTransicionesDesconocidas() throws Exception {
+        long activas = contar("estado = 'ACTIVA'");
+        for (String cuerpo : new String[]{
+                "{\"estadoDestino\": \"CERRADA\"}",
+                "{\"estadoOrigen\": \"ACTIVA\", \"estadoDestino\": \"activa\"}",
+                "{\"estadoOrigen\": \"ACTIVA\", \"estadoDestino\": \"CERRADA; DROP\"}",
+                "{\"estadoOrigen\": \"ACTIVA\", \"estadoDestino\": \"COMPLETDA\"}",
+                "{\"estadoOrigen\": \"COMPLETADA\", \"estadoDestino\": \"ACTIVA\"}",
+                "{\"estadoOrigen\": \"ACTIVA\", \"estadoDestino\": \"CERRADA\","
+                        + " \"fechaDesde\": \"2020-07-01\", \"fechaHasta\": \"2020-03-01\"}"}) {
+            mockMvc.perform(post("/api/matriculas/transiciones")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(cuerpo))
+                    .andExpect(status().isBadRequest());
+        }
+        // Ni un estado mal escrito ni una transición no permitida tocan filas o estadísticas
+        assertThat(contar("estado = 'ACTIVA'")).isEqualTo(activas);
+        assertThat(contar("estado NOT IN ('ACTIVA', 'COMPLETADA', 'CERRADA', 'RETIRADA')")).isZero();
+        assertThat(cursoEstadistica.reconciliar().cursosCorregidos()).isZero();
+        mockMvc.perform(get("/api/matriculas/transiciones/no-existe"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MatriculaTransicionResponse ejecutar(String cuerpo) throws Exception {
+        MvcResult aceptada = mockMvc.perform(post("/api/matriculas/transiciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(cuerpo))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        String ubicacion = aceptada.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertThat(ubicacion).startsWith("/api/matriculas/transiciones/");
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> !consultar(ubicacion).estado().matches("PENDIENTE|EN_CURSO"));
+        MatriculaTransicionResponse resultado = consultar(ubicacion);
+        assertThat(resultado.estado()).isEqualTo("COMPLETADA");
+        assertThat(resultado.error()).isNull();
+        return resultado;
+    }
+
+    private MatriculaTransicionResponse consultar(String ubicacion) throws Exception {
+        String json = mockMvc.perform(get(ubicacion))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, MatriculaTransicionResponse.class);
+    }
+
+    private long contar(String condicion) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM matriculas WHERE " + condicion, Long.class);
+    }
+}
@@ -0,0 +1,95 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jpa.ProfesorRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Con la caché caliente, las lecturas del catálogo no llegan a la base de datos;
+ * una escritura por JPA invalida las entradas afectadas
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cache_segundo_nivel;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CacheSegundoNivelConfigTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoRepositoryJpa cursoRepository;
+
+    @Autowired
+    private ProfesorRepositoryJpa profesorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(10, 20, 2);
+    }
+
+    @Test
+    void lecturasDelCatalogoConCacheCalienteNoEjecutanSql() throws Exception {
+        String[] urls = {"/api/cursos/2", "/api/cursos/codigo/C3", "/api/cursos/todos"};
+        for (String url : urls) {
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+        }
+
+        for (String url : urls) {
+            SqlCapturador.limpiar();
+            mockMvc.perform(get(url)).andExpect(status().isOk());
+            assertThat(SqlCapturador.sentencias()).as("Sentencias SQL de %s con caché caliente", url).isEmpty();
+        }
+
+        profesorRepository.findByCodigoProfesor("PROF1");
+        SqlCapturador.limpiar();
+        assertThat(profesorRepository.findByCodigoProfesor("PROF1").getEspecialidad()).isNotBlank();
+        assertThat(SqlCapturador.sentencias()).isEmpty();
+
+        mockMvc.perform(get("/api/cache/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.consultasAciertos").isNumber());
+    }
+
+    @Test
+    void escrituraPorJpaInvalidaLaCache() throws Exception {
+        mockMvc.perform(get("/api/cursos/codigo/C5")).andExpect(jsonPath("$.nombre").value(DatasetAcademico.nombreCurso(5)));
+        mockMvc.perform(get("/api/cursos/5")).andExpect(status().isOk());
+
+        transactionTemplate.executeWithoutResult(estado -> {
+            CursoEntity curso = cursoRepository.findById(5L).orElseThrow();
+            curso.setNombre("Curso renombrado");
+        });
+
+        mockMvc.perform(get("/api/cursos/codigo/C5")).andExpect(jsonPath("$.nombre").value("Curso renombrado"));
+        mockMvc.perform(get("/api/cursos/5")).andExpect(jsonPath("$.nombre").value("Curso renombrado"));
+        mockMvc.perform(get("/api/cursos/todos"))
+                .andExpect(jsonPath("$[?(@.id == 5)].nombre").value("Curso renombrado"));
+    }
+}
@@ -0,0 +1,99 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara la latencia de OFFSET + COUNT(*) contra keyset en la página 1 y en la 10 000
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=MatriculaKeysetBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaKeysetBenchmarkTest {
+
+    private static final int SIZE = 10;
+    private static final int PAGINA_PROFUNDA = 10_000;
+    private static final int REPETICIONES = 30;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 10 001 alumnos x 10 matrículas = 100 010 filas, suficientes para la página 10 000
+        new DatasetAcademico(jdbcTemplate).cargar(10_001, 50, 10);
+    }
+
+    @Test
+    void latenciaKeysetEsConstanteEnPaginasProfundas() {
+        Sort orden = Sort.by(Sort.Order.desc("fechaMatricula"), Sort.Order.desc("id"));
+
+        double offsetPrimera = medir(() -> matriculaRepository.findAll(PageRequest.of(0, SIZE, orden)));
+        double offsetProfunda = medir(() -> matriculaRepository.findAll(PageRequest.of(PAGINA_PROFUNDA, SIZE, orden)));
+
+        // Última fila de la página anterior, que es lo que el cliente trae en su cursor
+        Map<String, Object> ultima = jdbcTemplate.queryForMap("""
+                SELECT fecha_matricula, id FROM matriculas
+                ORDER BY fecha_matricula DESC, id DESC
+                LIMIT 1 OFFSET ?
+                """, PAGINA_PROFUNDA * SIZE - 1);
+        LocalDate fecha = ((java.sql.Date) ultima.get("fecha_matricula")).toLocalDate();
+        Long id = ((Number) ultima.get("id")).longValue();
+
+        double keysetPrimera = medir(() -> matriculaRepository.findPrimerasPorFechaDesc(Limit.of(SIZE + 1)));
+        double keysetProfunda = medir(() -> matriculaRepository.findSiguientesPorFechaDesc(fecha, id, Limit.of(SIZE + 1)));
+
+        List<MatriculaEntity> paginaKeyset = matriculaRepository.findSiguientesPorFechaDesc(fecha, id, Limit.of(SIZE));
+        List<MatriculaEntity> paginaOffset = matriculaRepository
+                .findAll(PageRequest.of(PAGINA_PROFUNDA, SIZE, orden)).getContent();
+        assertThat(paginaKeyset).extracting(MatriculaEntity::getId)
+                .containsExactlyElementsOf(paginaOffset.stream().map(MatriculaEntity::getId).toList());
+
+        System.out.printf("%n%-28s %12s %12s%n", "Modo", "Página 1", "Página " + PAGINA_PROFUNDA);
+        System.out.printf("%-28s %10.3f ms %10.3f ms%n", "OFFSET + COUNT(*)", offsetPrimera, offsetProfunda);
+        System.out.printf("%-28s %10.3f ms %10.3f ms%n%n", "Keyset (cursor)", keysetPrimera, keysetProfunda);
+
+        assertThat(keysetProfunda).isLessThan(offsetProfunda);
+        assertThat(keysetProfunda).isLessThan(keysetPrimera * 3 + 2);
+    }
+
+    /**
+     * Mediana en milisegundos tras un calentamiento
+     */
+    private static double medir(Supplier<?> consulta) {
+        for (int i = 0; i < 5; i++) {
+            consulta.get();
+        }
+        long[] tiempos = new long[REPETICIONES];
+        for (int i = 0; i < REPETICIONES; i++) {
+            long inicio = System.nanoTime();
+            consulta.get();
+            tiempos[i] = System.nanoTime() - inicio;
+        }
+        java.util.Arrays.sort(tiempos);
+        return tiempos[REPETICIONES / 2] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,76 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara las búsquedas de matrículas sobre la herencia JOINED (matriculas -> alumnos -> personas)
+ * contra el modelo de lectura plano (matriculas -> alumnos_lectura)
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=MatriculaModeloLecturaBenchmarkTest -Dbenchmark.personas=1000000
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:lectura;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaModeloLecturaBenchmarkTest {
+
+    private static final int PERSONAS = Integer.getInteger("benchmark.personas", 200_000);
+    private static final int REPETICIONES = 2_000;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(PERSONAS, 50, 3);
+    }
+
+    @Test
+    void modeloDeLecturaEvitaElJoinConPersonas() {
+        double joinedEmail = medir(i -> matriculaRepository.findResumenByAlumnoEmail(DatasetAcademico.emailAlumno(i)));
+        double lecturaEmail = medir(i -> matriculaRepository.findResumenLecturaByAlumnoEmail(DatasetAcademico.emailAlumno(i)));
+        double joinedCodigo = medir(i -> matriculaRepository.findResumenByCodigoEstudiante(DatasetAcademico.codigoAlumno(i)));
+        double lecturaCodigo = medir(i -> matriculaRepository.findResumenLecturaByCodigoEstudiante(DatasetAcademico.codigoAlumno(i)));
+
+        assertThat(matriculaRepository.findResumenLecturaByAlumnoEmail(DatasetAcademico.emailAlumno(7)))
+                .hasSize(3)
+                .isEqualTo(matriculaRepository.findResumenByAlumnoEmail(DatasetAcademico.emailAlumno(7)));
+
+        System.out.printf("%n%-24s %14s %14s%n", "Modelo (" + PERSONAS + ")", "Por email", "Por código");
+        System.out.printf("%-24s %11.1f µs %11.1f µs%n", "JOINED", joinedEmail, joinedCodigo);
+        System.out.printf("%-24s %11.1f µs %11.1f µs%n%n", "alumnos_lectura", lecturaEmail, lecturaCodigo);
+
+        assertThat(lecturaEmail).isLessThan(joinedEmail);
+        assertThat(lecturaCodigo).isLessThan(joinedCodigo);
+    }
+
+    /**
+     * Tiempo medio en microsegundos por consulta, sobre alumnos al azar, tras un calentamiento
+     */
+    private static double medir(LongFunction<?> consulta) {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        for (int i = 0; i < REPETICIONES / 4; i++) {
+            consulta.apply(azar.nextLong(PERSONAS));
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            consulta.apply(azar.nextLong(PERSONAS));
+        }
+        return (System.nanoTime() - inicio) / 1_000.0 / REPETICIONES;
+    }
+}
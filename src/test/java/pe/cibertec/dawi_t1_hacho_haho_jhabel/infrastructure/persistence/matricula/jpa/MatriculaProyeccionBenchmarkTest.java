@@ -0,0 +1,101 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara asignación de memoria y throughput de /api/matriculas/estado/{estado}
+ * devolviendo entidades administradas frente a la proyección MatriculaResumenProjection
+ * (consulta + serialización JSON, igual que el endpoint)
+ * Ejecutar con: mvn test -Pbenchmark -Dtest=MatriculaProyeccionBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaProyeccionBenchmarkTest {
+
+    private static final int CALENTAMIENTO = 20;
+    private static final int REPETICIONES = 50;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 2 000 alumnos x 5 matrículas = 10 000 filas, repartidas entre ACTIVA y COMPLETADA
+        new DatasetAcademico(jdbcTemplate).cargar(2_000, 50, 5);
+    }
+
+    @Test
+    void proyeccionAsignaMenosMemoriaQueEntidades() {
+        Supplier<String> entidades = () -> transactionTemplate.execute(status ->
+                serializar(matriculaRepository.findByEstado("ACTIVA")));
+        Supplier<String> proyeccion = () -> serializar(matriculaRepository.findResumenByEstado("ACTIVA"));
+
+        assertThat(matriculaRepository.findResumenByEstado("ACTIVA"))
+                .hasSameSizeAs(matriculaRepository.findByEstado("ACTIVA"));
+
+        Resultado resultadoEntidades = medir(entidades);
+        Resultado resultadoProyeccion = medir(proyeccion);
+
+        System.out.printf("%n%-24s %16s %14s%n", "Modo", "Bytes/petición", "Peticiones/s");
+        System.out.printf("%-24s %16d %14.1f%n", "Entidades", resultadoEntidades.bytes(), resultadoEntidades.throughput());
+        System.out.printf("%-24s %16d %14.1f%n%n", "Proyección (record)", resultadoProyeccion.bytes(), resultadoProyeccion.throughput());
+
+        assertThat(resultadoProyeccion.bytes()).isLessThan(resultadoEntidades.bytes());
+    }
+
+    private String serializar(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Bytes asignados por petición (media, hilo actual) y peticiones por segundo
+     */
+    private static Resultado medir(Supplier<String> peticion) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().threadId();
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            peticion.get();
+        }
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long inicio = System.nanoTime();
+        for (int i = 0; i < REPETICIONES; i++) {
+            peticion.get();
+        }
+        long nanos = System.nanoTime() - inicio;
+        long bytes = hilos.getThreadAllocatedBytes(hilo) - bytesInicio;
+        return new Resultado(bytes / REPETICIONES, REPETICIONES / (nanos / 1_000_000_000.0));
+    }
+
+    private record Resultado(long bytes, double throughput) {
+    }
+}
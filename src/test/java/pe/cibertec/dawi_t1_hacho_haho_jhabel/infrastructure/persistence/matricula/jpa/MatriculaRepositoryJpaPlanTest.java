@@ -0,0 +1,135 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.CacheSegundoNivelConfig;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jdbc.PersonaLecturaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifica que las búsquedas por email resuelvan con el índice de
+ * personas.email_normalizado y no con un recorrido completo de personas
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CacheSegundoNivelConfig.class, PersonaLecturaJdbc.class, CursoEstadisticaJdbc.class})
+class MatriculaRepositoryJpaPlanTest {
+
+    private static final String EMAIL = "  Juan.Perez@Universidad.edu.pe ";
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void cargarDatos() {
+        for (int i = 0; i < 50; i++) {
+            AlumnoEntity alumno = AlumnoEntity.builder()
+                    .codigoEstudiante("EST" + i)
+                    .semestreIngreso(202401)
+                    .build();
+            alumno.setNombre("Alumno " + i);
+            alumno.setEmail(i == 0 ? "juan.perez@universidad.edu.pe" : "alumno" + i + "@universidad.edu.pe");
+            entityManager.persist(alumno);
+
+            CursoEntity curso = CursoEntity.builder()
+                    .nombre("Curso " + i)
+                    .creditos(3)
+                    .codigoCurso("C" + i)
+                    .build();
+            entityManager.persist(curso);
+
+            entityManager.persist(MatriculaEntity.builder()
+                    .alumno(alumno)
+                    .curso(curso)
+                    .fechaMatricula(LocalDate.of(2024, 3, 1))
+                    .build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void emailNormalizadoSeMantieneAlEscribir() {
+        AlumnoEntity alumno = entityManager
+                .createQuery("SELECT a FROM AlumnoEntity a WHERE a.codigoEstudiante = 'EST1'", AlumnoEntity.class)
+                .getSingleResult();
+        assertThat(alumno.getEmailNormalizado()).isEqualTo("alumno1@universidad.edu.pe");
+
+        alumno.setEmail(" Nuevo.Correo@Universidad.edu.pe");
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(matriculaRepository.findByAlumnoEmail("nuevo.correo@universidad.edu.pe")).hasSize(1);
+    }
+
+    @Test
+    void busquedasPorEmailUsanIndiceNormalizado() {
+        verificarPlan(repo -> assertThat(repo.findByAlumnoEmail(EMAIL)).hasSize(1));
+        verificarPlan(repo -> assertThat(repo.findMatriculasByAlumnoEmail(EMAIL)).hasSize(1));
+        verificarPlan(repo -> assertThat(repo.findMatriculasCompletasByAlumnoEmail(EMAIL)).hasSize(1));
+        verificarPlan(repo -> assertThat(repo.findByAlumnoEmailWithJoinFetch(EMAIL)).hasSize(1));
+        verificarPlan(repo -> assertThat(repo.countActiveMatriculasByEmail(EMAIL)).isEqualTo(1L));
+        verificarPlan(repo -> assertThat(repo.countMatriculasActivasByAlumnoEmail(EMAIL)).isEqualTo(1L));
+        verificarPlan(repo -> assertThat(repo.findByAlumnoEmailPaginated(EMAIL, PageRequest.of(0, 5))
+                .getContent()).hasSize(1));
+    }
+
+    private void verificarPlan(Consumer<MatriculaRepositoryJpa> consulta) {
+        SqlCapturador.limpiar();
+        consulta.accept(matriculaRepository);
+
+        List<String> sentencias = SqlCapturador.sentencias().stream()
+                .filter(sql -> sql.contains("email_normalizado"))
+                .toList();
+        assertThat(sentencias).isNotEmpty();
+
+        for (String sql : sentencias) {
+            String plan = explicar(sql);
+            assertThat(plan)
+                    .as("Plan de: %s", sql)
+                    .containsIgnoringCase("uk_personas_email_normalizado")
+                    .doesNotContainIgnoringCase("personas.tableScan");
+        }
+    }
+
+    private String explicar(String sql) {
+        int parametros = (int) sql.chars().filter(c -> c == '?').count();
+        return jdbcTemplate.query("EXPLAIN " + sql, ps -> {
+            for (int i = 1; i <= parametros; i++) {
+                ps.setObject(i, i == 1 ? EMAIL : 10);
+            }
+        }, rs -> {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        });
+    }
+}
@@ -0,0 +1,114 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.listener;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.config.CacheSegundoNivelConfig;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jdbc.CursoEstadisticaJdbc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.entity.MatriculaEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.AlumnoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.entity.ProfesorEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jdbc.PersonaLecturaJdbc;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las escrituras JPA de alumnos y profesores mantienen alumnos_lectura / profesores_lectura,
+ * y las consultas sobre el modelo de lectura devuelven lo mismo que las de la herencia JOINED
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CacheSegundoNivelConfig.class, PersonaLecturaJdbc.class, CursoEstadisticaJdbc.class})
+class PersonaLecturaListenerTest {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Test
+    void sincronizaAlumnoAlCrearActualizarYEliminar() {
+        AlumnoEntity alumno = AlumnoEntity.builder().codigoEstudiante("EST900").semestreIngreso(202501).build();
+        alumno.setNombre("Ana Torres");
+        alumno.setEmail("Ana.Torres@Universidad.edu.pe");
+        entityManager.persist(alumno);
+        entityManager.flush();
+
+        Map<String, Object> fila = jdbcTemplate.queryForMap("SELECT * FROM alumnos_lectura WHERE id = ?", alumno.getId());
+        assertThat(fila).containsEntry("codigo_estudiante", "EST900")
+                .containsEntry("email_normalizado", "ana.torres@universidad.edu.pe")
+                .containsEntry("semestre_ingreso", 202501);
+
+        alumno.setEmail("ana.torres2@universidad.edu.pe");
+        alumno.setSemestreIngreso(202502);
+        entityManager.flush();
+
+        fila = jdbcTemplate.queryForMap("SELECT * FROM alumnos_lectura WHERE id = ?", alumno.getId());
+        assertThat(fila).containsEntry("email", "ana.torres2@universidad.edu.pe")
+                .containsEntry("semestre_ingreso", 202502);
+
+        entityManager.remove(alumno);
+        entityManager.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM alumnos_lectura WHERE id = ?",
+                Integer.class, alumno.getId())).isZero();
+    }
+
+    @Test
+    void sincronizaProfesor() {
+        ProfesorEntity profesor = ProfesorEntity.builder().codigoProfesor("PROF900").especialidad("Redes").build();
+        profesor.setNombre("Luis Díaz");
+        profesor.setEmail("luis.diaz@universidad.edu.pe");
+        entityManager.persist(profesor);
+        entityManager.flush();
+
+        assertThat(jdbcTemplate.queryForMap("SELECT * FROM profesores_lectura WHERE id = ?", profesor.getId()))
+                .containsEntry("codigo_empleado", "PROF900")
+                .containsEntry("especialidad", "Redes");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM alumnos_lectura WHERE id = ?",
+                Integer.class, profesor.getId())).isZero();
+    }
+
+    @Test
+    void consultasDelModeloDeLecturaCoincidenConLasJoined() {
+        for (int i = 0; i < 3; i++) {
+            AlumnoEntity alumno = AlumnoEntity.builder().codigoEstudiante("EST" + i).semestreIngreso(202401).build();
+            alumno.setNombre("Alumno " + i);
+            alumno.setEmail("alumno" + i + "@universidad.edu.pe");
+            entityManager.persist(alumno);
+            CursoEntity curso = CursoEntity.builder().nombre("Curso " + i).creditos(3).codigoCurso("C" + i).build();
+            entityManager.persist(curso);
+            entityManager.persist(MatriculaEntity.builder()
+                    .alumno(alumno).curso(curso).fechaMatricula(LocalDate.of(2024, 3, 1)).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(matriculaRepository.findResumenLecturaByAlumnoEmail(" Alumno1@universidad.edu.pe"))
+                .hasSize(1)
+                .isEqualTo(matriculaRepository.findResumenByAlumnoEmail(" Alumno1@universidad.edu.pe"));
+        assertThat(matriculaRepository.findResumenLecturaByCodigoEstudiante("EST2"))
+                .isEqualTo(matriculaRepository.findResumenByCodigoEstudiante("EST2"));
+        assertThat(matriculaRepository.findResumenLecturaByEstado("ACTIVA"))
+                .hasSize(3)
+                .containsExactlyInAnyOrderElementsOf(matriculaRepository.findResumenByEstado("ACTIVA"));
+        assertThat(matriculaRepository.countActiveMatriculasLecturaByEmail("alumno0@universidad.edu.pe"))
+                .isEqualTo(matriculaRepository.countActiveMatriculasByEmail("alumno0@universidad.edu.pe"))
+                .isEqualTo(1L);
+    }
+}
@@ -0,0 +1,146 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.routing;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.filter.LecturaPropiaFilter;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Dos bases H2 en memoria hacen de primario y réplica (la réplica recibe solo el esquema,
+ * así se distingue de dónde sale cada lectura); una tercera URL inexistente hace de
+ * réplica caída. La réplica vacía no pasa la consulta de verificación hasta tener esquema
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rw_primario;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.replicas.habilitado=true",
+        "datasource.replicas.urls=jdbc:h2:mem:rw_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:rw_caida;IFEXISTS=TRUE",
+        "datasource.replicas.verificacion.intervalo-ms=3600000",
+        "datasource.replicas.verificacion.consulta=SELECT 1 FROM cursos LIMIT 1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingDataSourceTest {
+
+    private static final String CURSO_REPLICA = "Curso leído de la réplica";
+
+    @Autowired
+    private ReplicaRoutingDataSource enrutador;
+
+    @Autowired
+    private HikariDataSource primarioDataSource;
+
+    @Autowired
+    private CursoRepositoryJpa cursoRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private JdbcTemplate primario;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    void prepararBases() {
+        primario = new JdbcTemplate(primarioDataSource);
+        replica = new JdbcTemplate(enrutador.getReplicas().get("replica-0"));
+
+        // Sin esquema la réplica no recibe lecturas (el arranque leyó del primario)
+        assertThat(enrutador.getReplicasSanas()).isEmpty();
+
+        // "Replicación" del esquema creado por Hibernate en el primario
+        for (String sentencia : primario.queryForList("SCRIPT NODATA", String.class)) {
+            if (!sentencia.startsWith("CREATE USER")) {
+                replica.execute(sentencia);
+            }
+        }
+        new DatasetAcademico(primario).cargar(3, 3, 1);
+        replica.update("""
+                INSERT INTO cursos (id, nombre, creditos, codigo_curso, fecha_creacion, fecha_actualizacion)
+                VALUES (1, ?, 3, 'C1', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+                """, CURSO_REPLICA);
+        enrutador.verificarReplicas();
+    }
+
+    @Test
+    @Order(1)
+    void replicaCaidaAlArrancarNoRecibeLecturas() {
+        assertThat(enrutador.getReplicasSanas()).containsExactly("replica-0");
+    }
+
+    @Test
+    @Order(2)
+    void lecturasReadOnlyVanALaReplicaYEscriturasAlPrimario() {
+        assertThat(cursoRepository.findByCreditos(3)).extracting(CursoEntity::getNombre)
+                .containsExactly(CURSO_REPLICA);
+
+        cursoRepository.save(CursoEntity.builder().nombre("Curso nuevo").creditos(4).codigoCurso("NUEVO").build());
+
+        assertThat(primario.queryForObject("SELECT COUNT(*) FROM cursos WHERE codigo_curso = 'NUEVO'", Integer.class))
+                .isOne();
+        assertThat(replica.queryForObject("SELECT COUNT(*) FROM cursos WHERE codigo_curso = 'NUEVO'", Integer.class))
+                .isZero();
+    }
+
+    @Test
+    @Order(3)
+    void trasUnaEscrituraElClienteLeeDelPrimario() throws Exception {
+        Cookie escritura = mockMvc.perform(post("/api/matriculas/bulk").contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"codigoEstudiante\": \"EST0\", \"codigoCurso\": \"C3\", \"fecha\": \"2025-03-01\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertadas").value(1))
+                .andExpect(cookie().exists(LecturaPropiaFilter.COOKIE))
+                .andReturn().getResponse().getCookie(LecturaPropiaFilter.COOKIE);
+
+        mockMvc.perform(get("/api/cursos/creditos/3").cookie(escritura))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value(DatasetAcademico.nombreCurso(1)));
+        mockMvc.perform(get("/api/cursos/creditos/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].nombre").value(CURSO_REPLICA))
+                .andExpect(cookie().doesNotExist(LecturaPropiaFilter.COOKIE));
+    }
+
+    @Test
+    @Order(4)
+    void sinReplicasSanasLasLecturasVanAlPrimario() throws Exception {
+        ((HikariDataSource) enrutador.getReplicas().get("replica-0")).close();
+
+        // El health check informa el último estado del verificador, sin conectar a las réplicas
+        mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.database.replicas.replica-0").value("UP"))
+                .andExpect(jsonPath("$.database.replicas.replica-1").value("DOWN"));
+
+        List<CursoEntity> cursos = cursoRepository.findByCreditos(3);
+
+        assertThat(cursos).extracting(CursoEntity::getNombre).containsExactly(DatasetAcademico.nombreCurso(1));
+        assertThat(enrutador.getReplicasSanas()).isEmpty();
+        assertThat(enrutador.estadoReplicas()).containsEntry("replica-0", "DOWN");
+        assertThat(enrutador.verificarReplicas()).containsEntry("replica-0", "DOWN").containsEntry("replica-1", "DOWN");
+    }
+}
@@ -0,0 +1,226 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class CoalescenciaConsultasTest {
+
+    interface Consultas {
+        @Coalescente
+        List<String> porEmail(String email);
+
+        List<String> sinCoalescer(String email);
+
+        @Coalescente
+        Optional<CursoEntity> cursoPorCodigo(String codigo);
+    }
+
+    @Test
+    void llamadasSimultaneasCompartenUnaEjecucion() throws Exception {
+        MeterRegistry registro = new SimpleMeterRegistry();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Consultas consultas = proxy(new CoalescenciaConsultas(registro, 0, 5_000), new Base(ejecuciones) {
+            @Override
+            public List<String> porEmail(String email) {
+                ejecuciones.incrementAndGet();
+                esperar(liberar);
+                return List.of(email);
+            }
+        });
+
+        List<Future<List<String>>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 50; i++) {
+                resultados.add(hilos.submit(() -> consultas.porEmail("a@x.pe")));
+            }
+            await().atMost(Duration.ofSeconds(5)).until(() -> contador(registro, "compartida") == 49);
+            liberar.countDown();
+        }
+
+        assertThat(ejecuciones).hasValue(1);
+        List<String> primero = resultados.get(0).resultNow();
+        assertThat(resultados).allSatisfy(resultado -> assertThat(resultado.resultNow()).isSameAs(primero));
+        assertThat(contador(registro, "ejecutada")).isEqualTo(1);
+
+        // Sin llamadas en curso ni TTL, la siguiente vuelve a consultar
+        consultas.porEmail("a@x.pe");
+        consultas.porEmail("b@x.pe");
+        assertThat(ejecuciones).hasValue(3);
+    }
+
+    @Test
+    void elErrorLlegaATodosLosQueEsperan() throws Exception {
+        MeterRegistry registro = new SimpleMeterRegistry();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Consultas consultas = proxy(new CoalescenciaConsultas(registro, 0, 5_000), new Base(new AtomicInteger()) {
+            @Override
+            public List<String> porEmail(String email) {
+                esperar(liberar);
+                throw new IllegalStateException("réplica caída");
+            }
+        });
+
+        List<Future<List<String>>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                resultados.add(hilos.submit(() -> consultas.porEmail("a@x.pe")));
+            }
+            await().atMost(Duration.ofSeconds(5)).until(() -> contador(registro, "compartida") == 4);
+            liberar.countDown();
+        }
+
+        assertThat(resultados).allSatisfy(resultado -> assertThatThrownBy(resultado::get)
+                .hasCauseInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    void ttlReutilizaElResultadoYNoAfectaAMetodosSinAnotacion() {
+        MeterRegistry registro = new SimpleMeterRegistry();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        Consultas consultas = proxy(new CoalescenciaConsultas(registro, 60_000, 5_000), new Base(ejecuciones));
+
+        consultas.porEmail("a@x.pe");
+        consultas.porEmail("a@x.pe");
+        consultas.sinCoalescer("a@x.pe");
+        consultas.sinCoalescer("a@x.pe");
+
+        assertThat(ejecuciones).hasValue(3);
+        assertThat(contador(registro, "reciente")).isEqualTo(1);
+    }
+
+    @Test
+    void elTtlNoReutilizaEntidades() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        Consultas consultas = proxy(new CoalescenciaConsultas(new SimpleMeterRegistry(), 60_000, 5_000),
+                new Base(ejecuciones));
+
+        Optional<CursoEntity> primero = consultas.cursoPorCodigo("C1");
+        Optional<CursoEntity> segundo = consultas.cursoPorCodigo("C1");
+
+        assertThat(ejecuciones).hasValue(2);
+        assertThat(segundo.orElseThrow()).isNotSameAs(primero.orElseThrow());
+    }
+
+    @Test
+    void laEsperaEstaAcotada() throws Exception {
+        MeterRegistry registro = new SimpleMeterRegistry();
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        Consultas consultas = proxy(new CoalescenciaConsultas(registro, 0, 50), new Base(ejecuciones) {
+            @Override
+            public List<String> porEmail(String email) {
+                if (ejecuciones.incrementAndGet() == 1) {
+                    esperar(liberar);
+                }
+                return List.of(email);
+            }
+        });
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<String>> lider = hilos.submit(() -> consultas.porEmail("a@x.pe"));
+            await().atMost(Duration.ofSeconds(5)).until(() -> ejecuciones.get() == 1);
+
+            // La llamada en curso no termina: tras 50 ms esta consulta por su cuenta
+            assertThat(consultas.porEmail("a@x.pe")).containsExactly("a@x.pe");
+            assertThat(ejecuciones).hasValue(2);
+            assertThat(lider.isDone()).isFalse();
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    void unaInterrupcionConservaElIndicador() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        AtomicInteger ejecuciones = new AtomicInteger();
+        Consultas consultas = proxy(new CoalescenciaConsultas(new SimpleMeterRegistry(), 0, 5_000), new Base(ejecuciones) {
+            @Override
+            public List<String> porEmail(String email) {
+                ejecuciones.incrementAndGet();
+                esperar(liberar);
+                return List.of(email);
+            }
+        });
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            hilos.submit(() -> consultas.porEmail("a@x.pe"));
+            await().atMost(Duration.ofSeconds(5)).until(() -> ejecuciones.get() == 1);
+
+            Future<Boolean> interrumpido = hilos.submit(() -> {
+                Thread.currentThread().interrupt();
+                assertThatThrownBy(() -> consultas.porEmail("a@x.pe"))
+                        .isInstanceOf(DataAccessResourceFailureException.class);
+                return Thread.currentThread().isInterrupted();
+            });
+            assertThat(interrumpido.get(5, TimeUnit.SECONDS)).isTrue();
+            liberar.countDown();
+        }
+    }
+
+    private static class Base implements Consultas {
+
+        private final AtomicInteger ejecuciones;
+
+        Base(AtomicInteger ejecuciones) {
+            this.ejecuciones = ejecuciones;
+        }
+
+        @Override
+        public List<String> porEmail(String email) {
+            ejecuciones.incrementAndGet();
+            return List.of(email);
+        }
+
+        @Override
+        public List<String> sinCoalescer(String email) {
+            ejecuciones.incrementAndGet();
+            return List.of(email);
+        }
+
+        @Override
+        public Optional<CursoEntity> cursoPorCodigo(String codigo) {
+            ejecuciones.incrementAndGet();
+            return Optional.of(new CursoEntity());
+        }
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double contador(MeterRegistry registro, String resultado) {
+        return registro.find(CoalescenciaConsultas.METRICA).tag("resultado", resultado).counters().stream()
+                .mapToDouble(contador -> contador.count())
+                .sum();
+    }
+
+    private static Consultas proxy(CoalescenciaConsultas coalescencia, Consultas destino) {
+        ProxyFactory fabrica = new ProxyFactory(destino);
+        fabrica.addInterface(Consultas.class);
+        fabrica.addAdvice(coalescencia);
+        return (Consultas) fabrica.getProxy();
+    }
+}
@@ -0,0 +1,186 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoCatalogoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Dentro de una transacción de solo lectura las consultas {@link Coalescente} del
+ * repositorio no se comparten: cada hilo recibe las entidades de su propia sesión.
+ * GET /api/cursos/codigo/{codigo} coalesce en el caso de uso, por fuera de su
+ * transacción: las peticiones simultáneas comparten una ejecución
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescencia_transaccion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "repositorios.coalescencia.ttl-ms=60000"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CoalescenciaTransaccionTest {
+
+    private static final int HILOS = 16;
+    /** Por debajo de limites.concurrencia.cursos.maximo, que rechazaría el resto */
+    private static final int PETICIONES = 5;
+
+    @TestConfiguration
+    static class Configuracion {
+
+        @Bean
+        @Primary
+        CatalogoPausado catalogoPausado(CursoRepositoryJpa cursoRepository) {
+            return new CatalogoPausado(cursoRepository);
+        }
+    }
+
+    /**
+     * Caso de uso que cuenta sus ejecuciones y puede retenerlas hasta liberarlas
+     */
+    static class CatalogoPausado extends CursoCatalogoUseCase {
+
+        private final AtomicInteger ejecuciones = new AtomicInteger();
+        private volatile CountDownLatch pausa = new CountDownLatch(0);
+
+        CatalogoPausado(CursoRepositoryJpa cursoRepository) {
+            super(cursoRepository);
+        }
+
+        @Override
+        public Optional<CursoEntity> obtenerPorCodigo(String codigo) {
+            ejecuciones.incrementAndGet();
+            try {
+                pausa.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.obtenerPorCodigo(codigo);
+        }
+
+        void pausar() {
+            pausa = new CountDownLatch(1);
+        }
+
+        void liberar() {
+            pausa.countDown();
+        }
+
+        int ejecuciones() {
+            return ejecuciones.get();
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoRepositoryJpa cursoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogoPausado cursoCatalogo;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(10, 10, 2);
+    }
+
+    @Test
+    void lasLlamadasEnTransaccionesDeSoloLecturaNoSeComparten() throws Exception {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        soloLectura.setReadOnly(true);
+        CyclicBarrier salida = new CyclicBarrier(HILOS);
+        List<Future<List<CursoEntity>>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < HILOS; i++) {
+                resultados.add(hilos.submit(() -> soloLectura.execute(estado -> {
+                    try {
+                        salida.await(5, TimeUnit.SECONDS);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    List<CursoEntity> cursos = cursoRepository.findPagina(PageRequest.of(0, 5)).getContent();
+                    assertThat(cursos.get(0).getProfesor().getNombre()).isEqualTo("Profesor 1");
+                    return cursos;
+                })));
+            }
+        }
+
+        Set<List<CursoEntity>> distintos = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Future<List<CursoEntity>> resultado : resultados) {
+            distintos.add(resultado.get());
+        }
+        assertThat(distintos).hasSize(HILOS);
+        assertThat(meterRegistry.find(CoalescenciaConsultas.METRICA)
+                .tag("metodo", "CursoRepositoryJpa.findPagina").counters()).isEmpty();
+    }
+
+    @Test
+    void peticionesSimultaneasPorCodigoCompartenUnaEjecucion() throws Exception {
+        cursoCatalogo.pausar();
+        List<Future<String>> respuestas = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < PETICIONES; i++) {
+                respuestas.add(hilos.submit(() -> mockMvc.perform(get("/api/cursos/codigo/C2"))
+                        .andReturn().getResponse().getContentAsString()));
+            }
+            await().atMost(Duration.ofSeconds(10)).until(() -> contador("compartida") == PETICIONES - 1);
+            cursoCatalogo.liberar();
+        }
+
+        assertThat(cursoCatalogo.ejecuciones()).isEqualTo(1);
+        assertThat(contador("ejecutada")).isEqualTo(1);
+        String primera = respuestas.get(0).resultNow();
+        assertThat(primera).contains("\"codigoCurso\":\"C2\"", "Profesor");
+        assertThat(respuestas).allSatisfy(respuesta -> assertThat(respuesta.resultNow()).isEqualTo(primera));
+    }
+
+    private double contador(String resultado) {
+        return meterRegistry.find(CoalescenciaConsultas.METRICA).tag("resultado", resultado).counters().stream()
+                .filter(contador -> contador.getId().getTag("metodo").endsWith(".obtenerPorCodigo"))
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+}
@@ -0,0 +1,106 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConexionesBulkheadTest {
+
+    @Test
+    void muchosHilosVirtualesNoSuperanLaCapacidad() throws Exception {
+        ConexionesBulkhead bulkhead = new ConexionesBulkhead(3, 5_000);
+        DataSource limitado = bulkhead.envolver(h2("bulkhead_capacidad"));
+        AtomicInteger enCurso = new AtomicInteger();
+        AtomicInteger maximo = new AtomicInteger();
+
+        List<Future<Integer>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                resultados.add(hilos.submit(() -> {
+                    try (Connection conexion = limitado.getConnection()) {
+                        maximo.accumulateAndGet(enCurso.incrementAndGet(), Math::max);
+                        Thread.sleep(5);
+                        return enCurso.getAndDecrement();
+                    }
+                }));
+            }
+        }
+
+        for (Future<Integer> resultado : resultados) {
+            assertThat(resultado.resultNow()).isBetween(1, 3);
+        }
+        assertThat(maximo.get()).isEqualTo(3);
+        assertThat(bulkhead.getEnUso()).isZero();
+        assertThat(bulkhead.getRechazadas()).isZero();
+    }
+
+    @Test
+    void unaTransaccionOcupaSuPermisoYSeRechazaTrasLaEsperaMaxima() throws Exception {
+        ConexionesBulkhead bulkhead = new ConexionesBulkhead(1, 20);
+        DataSource limitado = bulkhead.envolver(h2("bulkhead_espera"));
+        TransactionTemplate transaccion = new TransactionTemplate(new DataSourceTransactionManager(limitado));
+        JdbcTemplate jdbc = new JdbcTemplate(limitado);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+
+        Thread ocupada = Thread.ofVirtual().start(() -> transaccion.executeWithoutResult(estado -> {
+            jdbc.queryForObject("SELECT 1", Integer.class);
+            dentro.countDown();
+            try {
+                salir.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // JdbcTemplate fuera de un repositorio también pasa por el bulkhead
+        assertThatThrownBy(() -> jdbc.queryForObject("SELECT 1", Integer.class))
+                .isInstanceOf(TransientDataAccessResourceException.class)
+                .hasMessageContaining("20 ms");
+        assertThat(bulkhead.getRechazadas()).isEqualTo(1);
+
+        salir.countDown();
+        ocupada.join(5_000);
+        assertThat(bulkhead.getEnUso()).isZero();
+        assertThat(jdbc.queryForObject("SELECT 1", Integer.class)).isEqualTo(1);
+    }
+
+    @Test
+    void cerrarDosVecesDevuelveUnSoloPermiso() throws Exception {
+        ConexionesBulkhead bulkhead = new ConexionesBulkhead(2, 20);
+        DataSource limitado = bulkhead.envolver(h2("bulkhead_cierre"));
+
+        Connection primera = limitado.getConnection();
+        Connection segunda = limitado.getConnection();
+        primera.close();
+        primera.close();
+        assertThat(bulkhead.getEnUso()).isEqualTo(1);
+        segunda.close();
+        assertThat(bulkhead.getEnUso()).isZero();
+        assertThat(limitado.isWrapperFor(JdbcDataSource.class)).isTrue();
+    }
+
+    private static DataSource h2(String nombre) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1");
+        return h2;
+    }
+}
@@ -0,0 +1,109 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.sql;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+class SqlMedidoDataSourceTest {
+
+    interface Consulta {
+        Integer ejecutar();
+    }
+
+    private JdbcDataSource h2;
+    private RegistroSqlLento registro;
+
+    @BeforeEach
+    void crearBase() {
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql_lento;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(h2).execute("CREATE TABLE IF NOT EXISTS notas (id INT PRIMARY KEY, alumno VARCHAR(50), nota INT)");
+        new JdbcTemplate(h2).execute("DELETE FROM notas");
+    }
+
+    @AfterEach
+    void detener() {
+        registro.detener();
+    }
+
+    @Test
+    void registraParametrosYMetodoDeOrigen() {
+        registro = new RegistroSqlLento(0, 0.0, 10, 100);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlMedidoDataSource(h2, registro));
+        jdbc.update("INSERT INTO notas VALUES (?, ?, ?)", 1, "ana", null);
+        ProxyFactory fabrica = new ProxyFactory((Consulta) () -> jdbc.queryForObject(
+                "SELECT COUNT(*) FROM notas WHERE alumno = ?", Integer.class, "ana"));
+        fabrica.addAdvice(new OrigenConsulta(Consulta.class));
+        Consulta consulta = (Consulta) fabrica.getProxy();
+
+        assertThat(consulta.ejecutar()).isEqualTo(1);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> registro.masLentas().size() == 2);
+        List<RegistroSqlLento.Sentencia> sentencias = registro.masLentas();
+        assertThat(sentencias).extracting(RegistroSqlLento.Sentencia::parametros)
+                .containsExactlyInAnyOrder(List.of("1", "'ana'", "null"), List.of("'ana'"));
+        assertThat(sentencias).filteredOn(s -> s.sql().startsWith("SELECT"))
+                .extracting(RegistroSqlLento.Sentencia::origen)
+                .containsExactly("Consulta.ejecutar");
+        assertThat(sentencias).filteredOn(s -> s.sql().startsWith("INSERT"))
+                .extracting(RegistroSqlLento.Sentencia::origen)
+                .allMatch(origen -> origen.startsWith("SqlMedidoDataSourceTest.registraParametrosYMetodoDeOrigen"));
+        assertThat(registro.getLentas()).isEqualTo(2);
+    }
+
+    @Test
+    void bajoElUmbralSoloSeCuentaYLosLotesSeRegistranConSusFilas() {
+        registro = new RegistroSqlLento(60_000, 0.0, 10, 100);
+        JdbcTemplate jdbc = new JdbcTemplate(new SqlMedidoDataSource(h2, registro));
+        jdbc.batchUpdate("INSERT INTO notas VALUES (?, ?, ?)", List.of(
+                new Object[]{1, "ana", 15}, new Object[]{2, "luis", 12}, new Object[]{3, "eva", 18}));
+
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM notas", Integer.class)).isEqualTo(3);
+        assertThat(registro.getSentencias()).isEqualTo(2);
+        assertThat(registro.getLentas()).isZero();
+        assertThat(registro.masLentas()).isEmpty();
+
+        RegistroSqlLento todas = new RegistroSqlLento(0, 0.0, 10, 100);
+        try {
+            new JdbcTemplate(new SqlMedidoDataSource(h2, todas)).batchUpdate("UPDATE notas SET nota = ? WHERE id = ?",
+                    List.of(new Object[]{20, 1}, new Object[]{20, 2}));
+            await().atMost(Duration.ofSeconds(5)).until(() -> todas.masLentas().size() == 1);
+            assertThat(todas.masLentas().get(0).lote()).isEqualTo(2);
+            assertThat(todas.masLentas().get(0).parametros()).containsExactly("20", "2");
+        } finally {
+            todas.detener();
+        }
+    }
+
+    @Test
+    void conservaSoloLasMasLentasOrdenadas() throws Exception {
+        registro = new RegistroSqlLento(1, 0.0, 3, 100);
+        for (int ms = 1; ms <= 6; ms++) {
+            registro.medir("SELECT " + ms, new Object[0], 0, 0, TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        registro.medir("SELECT rapida", new Object[0], 0, 0, 1_000);
+
+        // el hilo escritor procesa en orden: cuando aparece la última ya se descartaron las demás
+        await().atMost(Duration.ofSeconds(5)).until(() -> !registro.masLentas().isEmpty()
+                && registro.masLentas().get(0).sql().equals("SELECT 6"));
+        assertThat(registro.masLentas()).extracting(RegistroSqlLento.Sentencia::sql)
+                .containsExactly("SELECT 6", "SELECT 5", "SELECT 4");
+        assertThat(registro.getSentencias()).isEqualTo(7);
+
+        // unwrap/isWrapperFor llegan al DataSource y a la conexión envueltos
+        assertThat(new SqlMedidoDataSource(h2, registro).isWrapperFor(JdbcDataSource.class)).isTrue();
+        try (var conexion = new SqlMedidoDataSource(h2, registro).getConnection()) {
+            assertThat(conexion.isWrapperFor(org.h2.jdbc.JdbcConnection.class)).isTrue();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursoAutocompletadoIndexTest {
+
+    private CursoAutocompletadoIndex indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new CursoAutocompletadoIndex();
+        indice.reconstruir(List.of(
+                new CursoAutocompletadoIndex.Curso(1, "DAWI-101", "Desarrollo de Aplicaciones Web I", 40),
+                new CursoAutocompletadoIndex.Curso(2, "BD-201", "Base de Datos Avanzadas", 90),
+                new CursoAutocompletadoIndex.Curso(3, "ARQ-301", "Arquitectura de Software", 10),
+                new CursoAutocompletadoIndex.Curso(4, "POO-101", "Programación Orientada a Objetos", 60)));
+    }
+
+    @Test
+    void prefijoDeCualquierPalabraOrdenadoPorPopularidad() {
+        assertThat(ids(indice.sugerir("de", 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(indice.sugerir("  BASE   de  da", 10))).containsExactly(2L);
+        assertThat(ids(indice.sugerir("programacion orient", 10))).containsExactly(4L);
+        assertThat(ids(indice.sugerir("ación", 10))).isEmpty();
+        assertThat(ids(indice.sugerir("", 10))).isEmpty();
+    }
+
+    @Test
+    void prefijoDelCodigoYLimite() {
+        assertThat(ids(indice.sugerir("poo", 10))).containsExactly(4L);
+        assertThat(ids(indice.sugerir("d", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void actualizaYEliminaCursosSinReconstruir() {
+        indice.indexar(new CursoAutocompletadoIndex.Curso(3, "ARQ-301", "Datos Masivos", 200));
+        indice.indexar(new CursoAutocompletadoIndex.Curso(5, "ZZ-900", "Deep Learning", 5));
+
+        assertThat(ids(indice.sugerir("arquitectura", 10))).isEmpty();
+        assertThat(ids(indice.sugerir("dat", 10))).containsExactly(3L, 2L);
+        assertThat(ids(indice.sugerir("de", 10))).containsExactly(2L, 1L, 5L);
+
+        indice.eliminar(2);
+        assertThat(ids(indice.sugerir("dat", 10))).containsExactly(3L);
+        assertThat(indice.tamanio()).isEqualTo(4);
+    }
+
+    @Test
+    void unaReconstruccionNoPisaLosCambiosHechosDuranteSuLectura() {
+        long leidaEn = indice.version();
+        // Durante la lectura: curso 5 nuevo, curso 1 renombrado y curso 2 eliminado
+        indice.indexar(new CursoAutocompletadoIndex.Curso(5, "ZZ-900", "Deep Learning", 5));
+        indice.indexar(new CursoAutocompletadoIndex.Curso(1, "DAWI-101", "Desarrollo Web", 40));
+        indice.eliminar(2);
+
+        // La lectura no vio esos cambios, pero sí la popularidad nueva del curso 3
+        assertThat(indice.reconstruir(List.of(
+                new CursoAutocompletadoIndex.Curso(1, "DAWI-101", "Desarrollo de Aplicaciones Web I", 40),
+                new CursoAutocompletadoIndex.Curso(2, "BD-201", "Base de Datos Avanzadas", 90),
+                new CursoAutocompletadoIndex.Curso(3, "ARQ-301", "Arquitectura de Software", 100),
+                new CursoAutocompletadoIndex.Curso(4, "POO-101", "Programación Orientada a Objetos", 60)),
+                leidaEn)).isTrue();
+
+        assertThat(ids(indice.sugerir("deep", 10))).containsExactly(5L);
+        assertThat(ids(indice.sugerir("aplicaciones", 10))).isEmpty();
+        assertThat(ids(indice.sugerir("base", 10))).isEmpty();
+        assertThat(ids(indice.sugerir("de", 10))).containsExactly(3L, 1L, 5L);
+
+        // Una lectura anterior a la ya aplicada se descarta
+        assertThat(indice.reconstruir(List.of(), leidaEn - 1)).isFalse();
+        assertThat(indice.tamanio()).isEqualTo(4);
+    }
+
+    private static List<Long> ids(List<CursoAutocompletadoIndex.Curso> cursos) {
+        return cursos.stream().map(CursoAutocompletadoIndex.Curso::id).toList();
+    }
+}
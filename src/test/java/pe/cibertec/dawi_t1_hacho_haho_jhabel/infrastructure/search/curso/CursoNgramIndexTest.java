@@ -0,0 +1,57 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.search.curso;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CursoNgramIndexTest {
+
+    private CursoNgramIndex indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new CursoNgramIndex();
+        indice.reconstruir(Map.of(
+                1L, "Desarrollo de Aplicaciones Web I",
+                2L, "Base de Datos Avanzadas",
+                3L, "Arquitectura de Software",
+                4L, "Programación Orientada a Objetos"));
+    }
+
+    @Test
+    void buscaSubcadenasSinDistinguirMayusculasNiAcentos() {
+        assertThat(indice.buscar("DESARROLLO")).containsExactly(1L);
+        assertThat(indice.buscar("programacion")).containsExactly(4L);
+        assertThat(indice.buscar("ación")).containsExactlyInAnyOrder(1L, 4L);
+        assertThat(indice.buscar("tos")).containsExactlyInAnyOrder(2L, 4L);
+    }
+
+    @Test
+    void descartaFalsosPositivosDeTrigramas() {
+        // "aplicaciones" y "web" comparten trigramas con otros nombres pero no la subcadena
+        assertThat(indice.buscar("web aplicaciones")).isEmpty();
+        assertThat(indice.buscar("xyz")).isEmpty();
+    }
+
+    @Test
+    void consultasCortasRecorrenLosTextos() {
+        assertThat(indice.buscar("de")).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(indice.buscar("")).hasSize(4);
+    }
+
+    @Test
+    void seActualizaDeFormaIncremental() {
+        indice.indexar(5L, "Desarrollo Móvil");
+        assertThat(indice.buscar("desarrollo")).containsExactlyInAnyOrder(1L, 5L);
+
+        indice.indexar(1L, "Aplicaciones Web II");
+        assertThat(indice.buscar("desarrollo")).containsExactly(5L);
+
+        indice.eliminar(5L);
+        assertThat(indice.buscar("desarrollo")).isEmpty();
+        assertThat(indice.tamanio()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,95 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * fields= devuelve solo los campos pedidos, los lleva al SELECT (sin columnas de más)
+ * y se combina con paginación y orden; campos fuera de la lista blanca dan 400
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:campos;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CamposProyectadosTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(12, 15, 2);
+    }
+
+    @Test
+    void cursosSoloConLosCamposPedidos() throws Exception {
+        SqlCapturador.limpiar();
+        JsonNode pagina = leer("/api/cursos?fields=id,nombre,profesorNombre&size=4&page=1&sortBy=id&sortDir=desc");
+
+        assertThat(pagina.get("totalElements").asInt()).isEqualTo(15);
+        JsonNode contenido = pagina.get("content");
+        assertThat(contenido).hasSize(4);
+        assertThat(contenido.get(0).fieldNames()).toIterable()
+                .containsExactly("id", "nombre", "profesorNombre");
+        assertThat(contenido.findValues("id")).extracting(JsonNode::asInt).containsExactly(11, 10, 9, 8);
+        assertThat(contenido.get(0).get("profesorNombre").asText()).isNotBlank();
+
+        String select = SqlCapturador.sentencias().get(0).toLowerCase();
+        assertThat(select).contains("nombre").doesNotContain("descripcion").doesNotContain("creditos");
+    }
+
+    @Test
+    void matriculasDeUnAlumnoPorEmail() throws Exception {
+        SqlCapturador.limpiar();
+        JsonNode pagina = leer("/api/matriculas/email/paginado?email= ALUMNO3@universidad.edu.pe"
+                + "&fields=codigoEstudiante,cursoId,estado&sortBy=cursoId&sortDir=asc");
+
+        assertThat(pagina.get("totalElements").asInt()).isEqualTo(2);
+        JsonNode contenido = pagina.get("content");
+        assertThat(contenido.findValues("codigoEstudiante")).extracting(JsonNode::asText)
+                .containsOnly("EST3");
+        assertThat(contenido.get(0).get("cursoId").asLong())
+                .isLessThan(contenido.get(1).get("cursoId").asLong());
+        assertThat(SqlCapturador.sentencias().get(0).toLowerCase()).doesNotContain("nota_final");
+    }
+
+    @Test
+    void campoUOrdenFueraDeLaListaBlancaDevuelve400() throws Exception {
+        mockMvc.perform(get("/api/cursos").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/cursos").param("fields", " , "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/matriculas").param("fields", "id").param("sortBy", "alumno.password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode leer(String url) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
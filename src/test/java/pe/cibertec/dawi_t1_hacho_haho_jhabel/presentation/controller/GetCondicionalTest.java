@@ -0,0 +1,127 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.entity.CursoEntity;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.curso.jpa.CursoRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.matricula.jpa.MatriculaRepositoryJpa;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los GET de curso, catálogo y matrícula devuelven ETag/Last-Modified calculados desde
+ * las columnas de auditoría y responden 304 sin cuerpo mientras el recurso no cambie
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:condicional;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetCondicionalTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoRepositoryJpa cursoRepository;
+
+    @Autowired
+    private MatriculaRepositoryJpa matriculaRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(10, 10, 2);
+    }
+
+    @Test
+    void cursoPorIdYCodigoResponden304HastaQueCambia() throws Exception {
+        String etag = etagDe("/api/cursos/1");
+        String etagCodigo = etagDe("/api/cursos/codigo/C1");
+        assertThat(etagCodigo).isEqualTo(etag);
+
+        mockMvc.perform(get("/api/cursos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/cursos/codigo/C1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        transactionTemplate.executeWithoutResult(tx ->
+                cursoRepository.findById(1L).orElseThrow().setDescripcion("Descripción revisada"));
+
+        mockMvc.perform(get("/api/cursos/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, notNullValue()));
+        assertThat(etagDe("/api/cursos/1")).isNotEqualTo(etag);
+        assertThat(etagDe("/api/cursos/codigo/C1")).isNotEqualTo(etag);
+
+        mockMvc.perform(get("/api/cursos/999").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void catalogoUsaLaVersionDeLaTabla() throws Exception {
+        String etag = etagDe("/api/cursos/todos");
+
+        mockMvc.perform(get("/api/cursos/todos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        // Un curso nuevo que después se borra: ambas escrituras cambian la versión del catálogo
+        Long id = transactionTemplate.execute(tx -> cursoRepository.save(CursoEntity.builder()
+                .nombre("Curso temporal").creditos(3).codigoCurso("TMP50").build()).getId());
+        String conNuevo = etagDe("/api/cursos/todos");
+        assertThat(conNuevo).isNotEqualTo(etag);
+
+        transactionTemplate.executeWithoutResult(tx -> cursoRepository.deleteById(id));
+        String sinNuevo = etagDe("/api/cursos/todos");
+        assertThat(sinNuevo).isNotEqualTo(conNuevo);
+        mockMvc.perform(get("/api/cursos/todos").header(HttpHeaders.IF_NONE_MATCH, sinNuevo))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void matriculaConIfModifiedSinceResponde304() throws Exception {
+        String lastModified = mockMvc.perform(get("/api/matriculas/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, notNullValue()))
+                .andReturn().getResponse().getHeader(HttpHeaders.LAST_MODIFIED);
+        assertThat(lastModified).isNotNull();
+
+        mockMvc.perform(get("/api/matriculas/3").header(HttpHeaders.IF_MODIFIED_SINCE, lastModified))
+                .andExpect(status().isNotModified());
+
+        String etag = etagDe("/api/matriculas/3");
+        // El alumno se serializa con la matrícula: cambiarlo invalida el ETag
+        transactionTemplate.executeWithoutResult(tx ->
+                matriculaRepository.findById(3L).orElseThrow().getAlumno().setNombre("Alumno renombrado"));
+        mockMvc.perform(get("/api/matriculas/3").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    private String etagDe(String url) throws Exception {
+        return mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
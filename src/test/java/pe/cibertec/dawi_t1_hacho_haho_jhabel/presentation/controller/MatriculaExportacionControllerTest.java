@@ -0,0 +1,143 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/matriculas/exportar escribe una fila por línea en NDJSON y escapa en CSV los
+ * valores con comas, comillas o saltos de línea; 600 matrículas cruzan un bloque de
+ * limpieza del contexto de persistencia
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:matriculas_exportacion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaExportacionControllerTest {
+
+    private static final int MATRICULAS = 600;
+    private static final String ALUMNO = "Pérez, \"Juan\"\nSegundo";
+    private static final String CURSO = "Álgebra, nivel 1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        // La matrícula 1 es del alumno 0 en el curso 1
+        new DatasetAcademico(jdbcTemplate).cargar(MATRICULAS, 10, 1);
+        jdbcTemplate.update("UPDATE personas SET nombre = ? WHERE email = ?", ALUMNO, DatasetAcademico.emailAlumno(0));
+        jdbcTemplate.update("UPDATE cursos SET nombre = ? WHERE id = 1", CURSO);
+    }
+
+    @Test
+    void ndjsonEscribeUnObjetoPorLinea() throws Exception {
+        MockHttpServletResponse respuesta = exportar("ndjson");
+        assertThat(respuesta.getContentType()).startsWith("application/x-ndjson");
+        String cuerpo = respuesta.getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(cuerpo).endsWith("}\n");
+        String[] lineas = cuerpo.split("\n");
+        assertThat(lineas).hasSize(MATRICULAS);
+        for (int i = 0; i < lineas.length; i++) {
+            assertThat(objectMapper.readTree(lineas[i]).get("id").asLong()).isEqualTo(i + 1);
+        }
+        JsonNode primera = objectMapper.readTree(lineas[0]);
+        assertThat(primera.get("alumnoNombre").asText()).isEqualTo(ALUMNO);
+        assertThat(primera.get("cursoNombre").asText()).isEqualTo(CURSO);
+    }
+
+    @Test
+    void csvEscapaComasComillasYSaltosDeLinea() throws Exception {
+        MockHttpServletResponse respuesta = exportar("csv");
+        assertThat(respuesta.getContentType()).startsWith("text/csv");
+        String cuerpo = respuesta.getContentAsString(StandardCharsets.UTF_8);
+
+        assertThat(cuerpo).contains(",\"Pérez, \"\"Juan\"\"\nSegundo\",", ",\"Álgebra, nivel 1\",");
+        List<List<String>> registros = leerCsv(cuerpo);
+        assertThat(registros).hasSize(MATRICULAS + 1);
+        assertThat(registros.get(0)).startsWith("id", "fechaMatricula", "estado");
+        for (List<String> registro : registros) {
+            assertThat(registro).hasSize(12);
+        }
+        assertThat(registros.get(1).get(5)).isEqualTo(ALUMNO);
+        assertThat(registros.get(1).get(10)).isEqualTo(CURSO);
+        assertThat(registros.get(MATRICULAS).get(0)).isEqualTo(String.valueOf(MATRICULAS));
+    }
+
+    private MockHttpServletResponse exportar(String formato) throws Exception {
+        MvcResult inicio = mockMvc.perform(get("/api/matriculas/exportar").param("formato", formato))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+
+    /**
+     * Lector RFC 4180 mínimo: registros separados por CRLF, campos entre comillas con
+     * las comillas duplicadas
+     */
+    private static List<List<String>> leerCsv(String cuerpo) {
+        List<List<String>> registros = new ArrayList<>();
+        List<String> registro = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < cuerpo.length(); i++) {
+            char c = cuerpo.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < cuerpo.length() && cuerpo.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+            } else if (c == '\r' && i + 1 < cuerpo.length() && cuerpo.charAt(i + 1) == '\n') {
+                registro.add(campo.toString());
+                campo.setLength(0);
+                registros.add(registro);
+                registro = new ArrayList<>();
+                i++;
+            } else {
+                campo.append(c);
+            }
+        }
+        assertThat(entreComillas).as("comillas sin cerrar").isFalse();
+        assertThat(campo).as("último registro sin CRLF").isEmpty();
+        return registros;
+    }
+}
@@ -0,0 +1,125 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * POST /api/matriculas/lote resuelve 500 alumnos en una petición con un número
+ * acotado de sentencias (una por bloque IN) y agrupa las matrículas por alumno
+ * La colación de fuerza primaria compara, como utf8mb4_unicode_ci, sin mayúsculas ni acentos
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:matriculas_lote;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;"
+                + "COLLATION=ENGLISH STRENGTH PRIMARY",
+        "matriculas.consulta-lote.tamano-in=200",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MatriculaLoteControllerTest {
+
+    private static final int ALUMNOS = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(ALUMNOS, 20, 3);
+    }
+
+    @Test
+    void quinientosAlumnosPorEmailEnTresSentencias() throws Exception {
+        List<String> emails = new ArrayList<>(IntStream.range(0, ALUMNOS)
+                .mapToObj(DatasetAcademico::emailAlumno).toList());
+        emails.set(0, "  " + emails.get(0).toUpperCase() + " ");
+        emails.add("no.existe@universidad.edu.pe");
+        SqlCapturador.limpiar();
+
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("emails", emails))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alumnos").value(ALUMNOS + 1))
+                .andExpect(jsonPath("$.matriculas").value(ALUMNOS * 3))
+                .andExpect(jsonPath("$.porAlumno['alumno0@universidad.edu.pe']", hasSize(3)))
+                .andExpect(jsonPath("$.porAlumno['alumno499@universidad.edu.pe'][*].codigoEstudiante",
+                        contains("EST499", "EST499", "EST499")))
+                .andExpect(jsonPath("$.porAlumno['no.existe@universidad.edu.pe']", hasSize(0)));
+
+        // 501 claves en bloques de 200
+        assertThat(SqlCapturador.sentencias()).hasSize(3);
+    }
+
+    @Test
+    void porCodigoEstudianteConservaElOrdenPedido() throws Exception {
+        String respuesta = mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"codigosEstudiante\": [\"EST7\", \"EST3\", \"EST7\", \"EST5\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alumnos").value(3))
+                .andExpect(jsonPath("$.matriculas").value(9))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readTree(respuesta).get("porAlumno").fieldNames())
+                .toIterable().containsExactly("EST7", "EST3", "EST5");
+    }
+
+    @Test
+    void valoresQueLaColacionIgualaCompartenUnaClave() throws Exception {
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"codigosEstudiante\": [\"est3\", \"EST3\", \"ÉST5\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alumnos").value(2))
+                .andExpect(jsonPath("$.matriculas").value(6))
+                .andExpect(jsonPath("$.porAlumno['est3'][*].codigoEstudiante", contains("EST3", "EST3", "EST3")))
+                .andExpect(jsonPath("$.porAlumno['ÉST5']", hasSize(3)));
+    }
+
+    @Test
+    void solicitudInvalidaDevuelve400() throws Exception {
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"emails\": [\"a@b.pe\"], \"codigosEstudiante\": [\"EST1\"]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/matriculas/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"codigosEstudiante\": [\"EST1\", \" \"]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,117 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Las métricas incluyen latencias con percentiles por método de repositorio y por endpoint,
+ * y el health check consulta realmente la base de datos, con su propio pool aunque el
+ * compartido esté agotado
+ */
+@SpringBootTest(properties =
+        "spring.datasource.url=jdbc:h2:mem:metricas;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MetricasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @BeforeAll
+    void cargarDatos() {
+        new DatasetAcademico(jdbcTemplate).cargar(10, 10, 2);
+    }
+
+    @Test
+    void metricasPorRepositorioYEndpoint() throws Exception {
+        mockMvc.perform(get("/api/cursos/todos")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/matriculas/email").param("email", DatasetAcademico.emailAlumno(1)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/metricas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repositorios[*].nombre").value(hasItem("CursoRepositoryJpa.findAll")))
+                .andExpect(jsonPath("$.repositorios[?(@.nombre == 'MatriculaRepositoryJpa.findResumenByAlumnoEmail')].p99Ms")
+                        .value(everyItem(notNullValue())))
+                .andExpect(jsonPath("$.endpoints[*].nombre").value(hasItem("GET /api/cursos/todos")))
+                .andExpect(jsonPath("$.hibernate.habilitadas").value(true))
+                .andExpect(jsonPath("$.hibernate.sentenciasPreparadas").value(greaterThan(0)))
+                .andExpect(jsonPath("$.pool.maximo").value(greaterThan(0)))
+                .andExpect(jsonPath("$.concurrencia[*].grupo").value(hasItem("matriculas")))
+                .andExpect(jsonPath("$.concurrencia[?(@.grupo == 'cursos')].limite").value(hasItem(6)))
+                .andExpect(jsonPath("$.coalescencia[*].metodo")
+                        .value(hasItem("MatriculaRepositoryJpa.findResumenLecturaByAlumnoEmail")));
+    }
+
+    @Test
+    void sqlLentasCuentaTodasLasSentencias() throws Exception {
+        mockMvc.perform(get("/api/cursos/todos")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/metricas/sql-lentas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sentencias").value(greaterThan(0)))
+                .andExpect(jsonPath("$.umbralMs").value(200))
+                .andExpect(jsonPath("$.masLentas").isArray());
+    }
+
+    @Test
+    void healthVerificaLaBaseDeDatos() throws Exception {
+        mockMvc.perform(get("/api/health"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"))
+                .andExpect(jsonPath("$.database.status").value("UP"))
+                .andExpect(jsonPath("$.database.producto").value("H2"))
+                .andExpect(jsonPath("$.database.latenciaMs").isNumber())
+                .andExpect(jsonPath("$.database.pool.total").value(greaterThan(0)));
+    }
+
+    @Test
+    void healthNoEsperaAlPoolCompartidoAgotado() throws Exception {
+        HikariDataSource compartido = dataSource.unwrap(HikariDataSource.class);
+        List<Connection> ocupadas = new ArrayList<>();
+        try {
+            for (int i = 0; i < compartido.getMaximumPoolSize(); i++) {
+                ocupadas.add(compartido.getConnection());
+            }
+            mockMvc.perform(get("/api/health"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.database.status").value("UP"))
+                    .andExpect(jsonPath("$.database.latenciaMs").value(lessThan(2000.0)))
+                    .andExpect(jsonPath("$.database.pool.activas").value(compartido.getMaximumPoolSize()));
+        } finally {
+            for (Connection conexion : ocupadas) {
+                conexion.close();
+            }
+        }
+    }
+}
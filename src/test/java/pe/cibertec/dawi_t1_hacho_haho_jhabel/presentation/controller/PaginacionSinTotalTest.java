@@ -0,0 +1,116 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.CoalescenciaConsultas;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los listados paginados no cuentan filas por defecto; total=exacto cuenta en cada
+ * petición y total=aproximado reutiliza el último conteo del mismo filtro
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:paginacion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador",
+        "paginacion.total-aproximado.ttl-segundos=3600"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PaginacionSinTotalTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 30 matrículas (3 por alumno) en 10 cursos
+        new DatasetAcademico(jdbcTemplate).cargar(10, 10, 3);
+    }
+
+    @Test
+    void sinTotalUnaSolaSentencia() throws Exception {
+        SqlCapturador.limpiar();
+        mockMvc.perform(get("/api/matriculas").param("size", "10").param("page", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.page").value(1))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").value(nullValue()));
+        assertThat(SqlCapturador.sentencias()).hasSize(1);
+
+        mockMvc.perform(get("/api/matriculas").param("size", "10").param("page", "3"))
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void totalExactoYUltimaPaginaSinContar() throws Exception {
+        long matriculas = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM matriculas", Long.class);
+        mockMvc.perform(get("/api/matriculas").param("size", "10").param("total", "exacto"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(matriculas))
+                .andExpect(jsonPath("$.totalPages").value(3))
+                .andExpect(jsonPath("$.tipoTotal").value("EXACTO"));
+        // El conteo sin filtro también es coalescente
+        assertThat(meterRegistry.find(CoalescenciaConsultas.METRICA)
+                .tags("metodo", "MatriculaRepositoryJpa.count", "resultado", "ejecutada").counter())
+                .isNotNull();
+
+        SqlCapturador.limpiar();
+        mockMvc.perform(get("/api/cursos").param("size", "20").param("total", "exacto"))
+                .andExpect(jsonPath("$.content.length()").value(10))
+                .andExpect(jsonPath("$.totalElements").value(10));
+        assertThat(SqlCapturador.sentencias()).hasSize(1);
+    }
+
+    @Test
+    void totalAproximadoReutilizaElConteo() throws Exception {
+        String email = DatasetAcademico.emailAlumno(2);
+        mockMvc.perform(get("/api/matriculas/email/paginado").param("email", email)
+                        .param("size", "1").param("total", "aproximado"))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.tipoTotal").value("APROXIMADO"));
+
+        // Matrícula 7 es del alumno 2; el borrado por JDBC no pasa por la aplicación
+        jdbcTemplate.update("DELETE FROM matriculas WHERE id = 7");
+
+        SqlCapturador.limpiar();
+        mockMvc.perform(get("/api/matriculas/email/paginado").param("email", email.toUpperCase())
+                        .param("size", "1").param("total", "aproximado"))
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.hasNext").value(true));
+        assertThat(SqlCapturador.sentencias()).hasSize(1);
+
+        mockMvc.perform(get("/api/matriculas/email/paginado").param("email", email)
+                        .param("size", "1").param("total", "exacto"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+    }
+
+    @Test
+    void totalDesconocidoDa400() throws Exception {
+        mockMvc.perform(get("/api/cursos").param("total", "siempre"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,100 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.shared.ConexionesBulkhead;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/matriculas/panel reúne en una respuesta las tres consultas del alumno,
+ * con las conexiones detrás del bulkhead de hilos virtuales
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:panel_alumno;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "datasource.bulkhead.espera-ms=200"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PanelAlumnoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ConexionesBulkhead bulkhead;
+
+    @BeforeAll
+    void cargarDatos() {
+        // El alumno 4 está matriculado en los cursos 5, 6 y 7 (matrículas 13, 14 y 15)
+        new DatasetAcademico(jdbcTemplate).cargar(10, 8, 3);
+    }
+
+    @Test
+    void reuneMatriculasActivasYCursosDelAlumno() throws Exception {
+        long activas = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM matriculas WHERE alumno_id = (SELECT id FROM personas WHERE email = ?)"
+                        + " AND estado = 'ACTIVA'", Long.class, DatasetAcademico.emailAlumno(4));
+
+        mockMvc.perform(get("/api/matriculas/panel").param("email", " ALUMNO4@universidad.edu.pe "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matriculasActivas").value(activas))
+                .andExpect(jsonPath("$.matriculas", hasSize(3)))
+                .andExpect(jsonPath("$.cursos[*].codigoCurso", contains("C6", "C5", "C7")))
+                .andExpect(jsonPath("$.cursos[0].profesor.nombre").isNotEmpty());
+
+        mockMvc.perform(get("/api/matriculas/panel").param("email", "nadie@universidad.edu.pe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.matriculasActivas").value(0))
+                .andExpect(jsonPath("$.matriculas", hasSize(0)))
+                .andExpect(jsonPath("$.cursos", hasSize(0)));
+
+        mockMvc.perform(get("/api/matriculas/panel"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void sinConexionesLibresRespondeServicioNoDisponible() throws Exception {
+        assertThat(dataSource.isWrapperFor(ConexionesBulkhead.DataSourceLimitado.class)).isTrue();
+
+        List<Connection> ocupadas = new ArrayList<>();
+        try {
+            for (int i = 0; i < bulkhead.getCapacidad(); i++) {
+                ocupadas.add(dataSource.getConnection());
+            }
+            mockMvc.perform(get("/api/matriculas/panel").param("email", DatasetAcademico.emailAlumno(5)))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"));
+        } finally {
+            for (Connection conexion : ocupadas) {
+                conexion.close();
+            }
+        }
+        assertThat(bulkhead.getEnUso()).isZero();
+    }
+}
@@ -0,0 +1,94 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoAutocompletadoUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.application.usecase.CursoBusquedaUseCase;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.DatasetAcademico;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Arnés que fija cuántas sentencias SQL ejecuta cada endpoint de lectura
+ * Detecta regresiones N+1 (por ejemplo, cargar el profesor de cada curso por separado)
+ * y que sin open-session-in-view ninguna respuesta dependa de cargas LAZY al serializar
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "pe.cibertec.dawi_t1_hacho_haho_jhabel.support.SqlCapturador")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SentenciasSqlPorEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CursoBusquedaUseCase cursoBusqueda;
+
+    @Autowired
+    private CursoAutocompletadoUseCase cursoAutocompletado;
+
+    @BeforeAll
+    void cargarDatos() {
+        // 20 cursos repartidos entre 2 profesores, 30 alumnos con 3 matrículas cada uno
+        new DatasetAcademico(jdbcTemplate).cargar(30, 20, 3);
+        cursoBusqueda.construirIndice();
+        cursoAutocompletado.construirIndice();
+    }
+
+    @ParameterizedTest(name = "{0} -> máximo {1} sentencias")
+    @CsvSource({
+        "/api/cursos?size=20,                                          1",
+        "/api/cursos?nombre=base&size=20,                              1",
+        "/api/cursos?cursor=&size=20,                                  1",
+        "'/api/cursos?fields=id,nombre,profesorNombre&size=20',        2",
+        "/api/cursos/todos,                                            1",
+        "/api/cursos/buscar?nombre=datos,                              1",
+        "/api/cursos/autocompletar?q=bas,                              0",
+        "/api/cursos/1,                                                1",
+        "/api/cursos/codigo/C1,                                        1",
+        "/api/cursos/creditos/3,                                       1",
+        "/api/matriculas?size=50,                                      1",
+        "/api/matriculas?size=50&total=exacto,                        2",
+        "/api/matriculas?cursor=&size=50,                              1",
+        "'/api/matriculas?fields=id,estado,codigoCurso&size=50',       2",
+        "/api/matriculas/1,                                            1",
+        "/api/matriculas/email?email=alumno1@universidad.edu.pe,       1",
+        "/api/matriculas/email/completa?email=alumno1@universidad.edu.pe, 1",
+        "/api/matriculas/email/contar?email=alumno1@universidad.edu.pe, 1",
+        "/api/matriculas/panel?email=alumno1@universidad.edu.pe,      3",
+        "/api/matriculas/email/paginado?email=alumno1@universidad.edu.pe, 1",
+        "/api/matriculas/codigo/EST1,                                  1",
+        "/api/matriculas/estado/ACTIVA,                                1",
+        "/api/matriculas/exportar?formato=csv,                         1"
+    })
+    void endpointEjecutaUnNumeroAcotadoDeSentencias(String url, int maximo) throws Exception {
+        SqlCapturador.limpiar();
+
+        MvcResult resultado = mockMvc.perform(get(url)).andReturn();
+        if (resultado.getRequest().isAsyncStarted()) {
+            resultado = mockMvc.perform(asyncDispatch(resultado)).andReturn();
+        }
+
+        assertThat(resultado.getResponse().getStatus()).as("HTTP status de %s", url).isEqualTo(200);
+        assertThat(SqlCapturador.sentencias())
+                .as("Sentencias SQL de %s", url)
+                .hasSizeLessThanOrEqualTo(maximo);
+    }
+}
@@ -0,0 +1,135 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.presentation.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LimiteConcurrenciaFilterTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void subeConLatenciaEstableYDemanda() {
+        LimiteConcurrenciaAdaptativo limite = new LimiteConcurrenciaAdaptativo("g", 2, 1, 10, 2.0);
+        for (int i = 0; i < 200; i++) {
+            limite.registrar(5 * MS, limite.getLimite(), false);
+        }
+        assertThat(limite.getLimite()).isEqualTo(10);
+    }
+
+    @Test
+    void noSubeSinDemanda() {
+        LimiteConcurrenciaAdaptativo limite = new LimiteConcurrenciaAdaptativo("g", 4, 1, 10, 2.0);
+        for (int i = 0; i < 200; i++) {
+            limite.registrar(5 * MS, 1, false);
+        }
+        assertThat(limite.getLimite()).isEqualTo(4);
+    }
+
+    @Test
+    void bajaCuandoCreceLaLatenciaOHayFallos() {
+        LimiteConcurrenciaAdaptativo limite = new LimiteConcurrenciaAdaptativo("g", 10, 1, 10, 2.0);
+        for (int i = 0; i < 100; i++) {
+            limite.registrar(5 * MS, 10, false);
+        }
+        assertThat(limite.getLimite()).isEqualTo(10);
+
+        // El pool se satura: la latencia pasa de 5 a 200 ms
+        for (int i = 0; i < 30; i++) {
+            limite.registrar(200 * MS, limite.getLimite(), false);
+        }
+        int trasLatencia = limite.getLimite();
+        assertThat(trasLatencia).isLessThan(6);
+
+        limite.registrar(200 * MS, trasLatencia, true);
+        assertThat(limite.getLimite()).isLessThanOrEqualTo(trasLatencia);
+        assertThat(limite.getLimite()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void rechazaConRetryAfterSinAfectarAOtrosGrupos() throws Exception {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(registro, () -> true, 1, 1, 1, 2.0, 3);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+        FilterChain lenta = (request, response) -> {
+            dentro.countDown();
+            try {
+                salir.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<MockHttpServletResponse> ocupada = CompletableFuture.supplyAsync(() ->
+                filtrar(filtro, "/api/matriculas", lenta));
+        assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rechazada = filtrar(filtro, "/api/matriculas/email", new MockFilterChain());
+        assertThat(rechazada.getStatus()).isEqualTo(503);
+        assertThat(rechazada.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(filtrar(filtro, "/api/cursos/1", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(filtrar(filtro, "/api/health", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(filtrar(filtro, "/api/cursos/todos", new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        salir.countDown();
+        assertThat(ocupada.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(filtrar(filtro, "/api/matriculas", new MockFilterChain()).getStatus()).isEqualTo(200);
+
+        assertThat(registro.get("http.concurrencia.rechazadas").tag("grupo", "matriculas").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registro.get("http.concurrencia.en-curso").tag("grupo", "matriculas").gauge().value())
+                .isZero();
+    }
+
+    @Test
+    void elCatalogoSinSnapshotEntraEnElGrupoCursos() throws Exception {
+        AtomicBoolean enSnapshot = new AtomicBoolean(true);
+        LimiteConcurrenciaFilter filtro = new LimiteConcurrenciaFilter(
+                new SimpleMeterRegistry(), enSnapshot::get, 1, 1, 1, 2.0, 1);
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch salir = new CountDownLatch(1);
+        FilterChain lenta = (request, response) -> {
+            dentro.countDown();
+            try {
+                salir.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        CompletableFuture<MockHttpServletResponse> ocupada = CompletableFuture.supplyAsync(() ->
+                filtrar(filtro, "/api/cursos/1", lenta));
+        assertThat(dentro.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(filtrar(filtro, "/api/cursos/todos", new MockFilterChain()).getStatus()).isEqualTo(200);
+        // Snapshot invalidado: la ruta normal consulta la base y respeta el límite
+        enSnapshot.set(false);
+        assertThat(filtrar(filtro, "/api/cursos/todos", new MockFilterChain()).getStatus()).isEqualTo(503);
+
+        salir.countDown();
+        assertThat(ocupada.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(filtrar(filtro, "/api/cursos/todos", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    private static MockHttpServletResponse filtrar(LimiteConcurrenciaFilter filtro, String uri, FilterChain cadena) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filtro.doFilter(new MockHttpServletRequest("GET", uri), response, cadena);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
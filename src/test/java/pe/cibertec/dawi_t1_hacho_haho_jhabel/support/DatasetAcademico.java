@@ -0,0 +1,133 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import pe.cibertec.dawi_t1_hacho_haho_jhabel.infrastructure.persistence.persona.jdbc.PersonaLecturaJdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Carga determinista de datos de prueba en la base embebida mediante JDBC batch
+ * Genera profesores, cursos, alumnos y matrículas con IDs explícitos
+ */
+public final class DatasetAcademico {
+
+    private static final int LOTE = 5_000;
+    private static final LocalDate FECHA_BASE = LocalDate.of(2020, 3, 1);
+
+    private final JdbcTemplate jdbc;
+    private final Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+
+    public DatasetAcademico(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * @param alumnos             Número de alumnos
+     * @param cursos              Número de cursos (uno de cada diez profesores)
+     * @param matriculasPorAlumno Cursos distintos en los que se matricula cada alumno
+     */
+    public void cargar(int alumnos, int cursos, int matriculasPorAlumno) {
+        if (matriculasPorAlumno > cursos) {
+            throw new IllegalArgumentException("Un alumno no puede matricularse dos veces en el mismo curso");
+        }
+        int profesores = Math.max(1, cursos / 10);
+
+        List<Object[]> personas = new ArrayList<>();
+        List<Object[]> profesoresFilas = new ArrayList<>();
+        for (long id = 1; id <= profesores; id++) {
+            String email = "profesor" + id + "@universidad.edu.pe";
+            personas.add(new Object[]{id, "Profesor " + id, email, email, "Profesor", ahora, ahora});
+            profesoresFilas.add(new Object[]{id, "PROF" + id, "Especialidad " + (id % 7)});
+        }
+        insertarPersonas(personas);
+        jdbc.batchUpdate("INSERT INTO profesores (id, codigo_empleado, especialidad) VALUES (?, ?, ?)", profesoresFilas);
+
+        List<Object[]> cursosFilas = new ArrayList<>();
+        for (long id = 1; id <= cursos; id++) {
+            cursosFilas.add(new Object[]{id, nombreCurso(id), 2 + (int) (id % 4), "C" + id,
+                    "Descripción del curso " + id, 1 + (id % profesores), ahora, ahora});
+        }
+        jdbc.batchUpdate("""
+                INSERT INTO cursos (id, nombre, creditos, codigo_curso, descripcion, profesor_id,
+                                    fecha_creacion, fecha_actualizacion)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, cursosFilas);
+
+        long primerAlumno = profesores + 1L;
+        personas.clear();
+        List<Object[]> alumnosFilas = new ArrayList<>();
+        List<Object[]> matriculas = new ArrayList<>();
+        long matriculaId = 1;
+        for (long i = 0; i < alumnos; i++) {
+            long id = primerAlumno + i;
+            String email = emailAlumno(i);
+            personas.add(new Object[]{id, "Alumno " + i, email, email, "Alumno", ahora, ahora});
+            alumnosFilas.add(new Object[]{id, codigoAlumno(i), 202001 + (int) (i % 2)});
+            for (int j = 0; j < matriculasPorAlumno; j++) {
+                long cursoId = 1 + (i + j) % cursos;
+                boolean completada = (matriculaId % 3) == 0;
+                matriculas.add(new Object[]{matriculaId++, id, cursoId,
+                        Date.valueOf(FECHA_BASE.plusDays((i * 7 + j) % 1500)),
+                        completada ? "COMPLETADA" : "ACTIVA",
+                        completada ? BigDecimal.valueOf(8 + (matriculaId % 13)) : null, ahora, ahora});
+            }
+            if (personas.size() >= LOTE) {
+                vaciar(personas, alumnosFilas, matriculas);
+            }
+        }
+        vaciar(personas, alumnosFilas, matriculas);
+
+        reiniciarIdentidad("personas", primerAlumno + alumnos);
+        reiniciarIdentidad("cursos", cursos + 1L);
+        reiniciarIdentidad("matriculas", matriculaId);
+
+        // La carga no pasa por JPA: el modelo de lectura se rellena como en la migración
+        new PersonaLecturaJdbc(jdbc).reconstruir();
+    }
+
+    public static String emailAlumno(long indice) {
+        return "alumno" + indice + "@universidad.edu.pe";
+    }
+
+    public static String codigoAlumno(long indice) {
+        return "EST" + indice;
+    }
+
+    public static String nombreCurso(long id) {
+        String[] temas = {"Desarrollo de Aplicaciones Web", "Base de Datos", "Arquitectura de Software",
+                "Programación Orientada a Objetos", "Cálculo", "Física", "Estadística", "Redes"};
+        return temas[(int) (id % temas.length)] + " " + id;
+    }
+
+    private void vaciar(List<Object[]> personas, List<Object[]> alumnosFilas, List<Object[]> matriculas) {
+        insertarPersonas(personas);
+        jdbc.batchUpdate("INSERT INTO alumnos (id, codigo_estudiante, semestre_ingreso) VALUES (?, ?, ?)",
+                alumnosFilas);
+        jdbc.batchUpdate("""
+                INSERT INTO matriculas (id, alumno_id, curso_id, fecha_matricula, estado, nota_final,
+                                        fecha_creacion, fecha_actualizacion)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, matriculas);
+        personas.clear();
+        alumnosFilas.clear();
+        matriculas.clear();
+    }
+
+    private void insertarPersonas(List<Object[]> personas) {
+        jdbc.batchUpdate("""
+                INSERT INTO personas (id, nombre, email, email_normalizado, tipo_persona,
+                                      fecha_creacion, fecha_actualizacion)
+                VALUES (?, ?, ?, ?, ?, ?, ?)
+                """, personas);
+    }
+
+    private void reiniciarIdentidad(String tabla, long siguiente) {
+        jdbc.execute("ALTER TABLE " + tabla + " ALTER COLUMN id RESTART WITH " + siguiente);
+    }
+}
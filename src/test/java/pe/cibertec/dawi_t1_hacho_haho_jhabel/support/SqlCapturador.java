@@ -0,0 +1,43 @@
+package pe.cibertec.dawi_t1_hacho_haho_jhabel.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de pruebas que registra cada SQL que Hibernate prepara.
+ * Se activa con la propiedad hibernate.session_factory.statement_inspector
+ */
+public class SqlCapturador implements StatementInspector {
+
+    private static final List<String> SENTENCIAS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void limpiar() {
+        synchronized (SENTENCIAS) {
+            SENTENCIAS.clear();
+        }
+    }
+
+    public static List<String> sentencias() {
+        synchronized (SENTENCIAS) {
+            return List.copyOf(SENTENCIAS);
+        }
+    }
+
+    public static String ultimaSentencia() {
+        List<String> sentencias = sentencias();
+        if (sentencias.isEmpty()) {
+            throw new IllegalStateException("No se capturó ninguna sentencia SQL");
+        }
+        return sentencias.get(sentencias.size() - 1);
+    }
+}